@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * 微基准测试工具.
+ * 
+ * <p>
+ * 每轮连续执行指定次数的操作并计时, 预热后取多轮测量耗时的中位数.
+ * 操作的返回值累加至volatile字段, 避免被JIT作为死代码消除.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MicroBenchmark {
+    
+    private static final int WARMUP_ROUNDS = 10;
+    
+    private static final int MEASUREMENT_ROUNDS = 15;
+    
+    private static volatile long sink;
+    
+    /**
+     * 测量单次操作的耗时.
+     * 
+     * @param operation 被测量的操作
+     * @param operationsPerRound 每轮执行的操作次数
+     * @return 单次操作耗时的纳秒数
+     */
+    public static double measure(final Operation operation, final int operationsPerRound) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += operation.run(operationsPerRound);
+        }
+        long[] elapsedNanoseconds = new long[MEASUREMENT_ROUNDS];
+        for (int i = 0; i < MEASUREMENT_ROUNDS; i++) {
+            long begin = System.nanoTime();
+            sink += operation.run(operationsPerRound);
+            elapsedNanoseconds[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(elapsedNanoseconds);
+        return (double) elapsedNanoseconds[MEASUREMENT_ROUNDS / 2] / operationsPerRound;
+    }
+    
+    /**
+     * 被测量的操作.
+     */
+    public interface Operation {
+        
+        /**
+         * 连续执行操作.
+         * 
+         * @param times 执行次数
+         * @return 操作结果的汇总值
+         */
+        long run(int times);
+    }
+}
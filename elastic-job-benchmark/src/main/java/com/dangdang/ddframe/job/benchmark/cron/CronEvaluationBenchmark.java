@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.benchmark.cron;
+
+import com.dangdang.ddframe.job.benchmark.MicroBenchmark;
+import com.dangdang.ddframe.job.util.cron.CompiledCronExpression;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * cron表达式求值的基准测试.
+ * 
+ * <p>
+ * 对比Quartz的{@code CronExpression}与{@code CompiledCronExpression}计算下次触发时间的耗时.
+ * 每次以上次计算的触发时间为起点连续计算, 与调度循环的调用方式一致; 不再触发时从起始时间重新开始.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class CronEvaluationBenchmark {
+    
+    private static final String[] CRON_EXPRESSIONS = {"0/5 * * * * ?", "0 0/15 9-17 ? * MON-FRI", "0 30 2 1 * ?", "0 0 12 29 2 ? *"};
+    
+    private static final String[] TIME_ZONES = {"UTC", "America/New_York"};
+    
+    private static final long START_TIME = 1483228800000L;
+    
+    private static final int OPERATIONS_PER_ROUND = 2000;
+    
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) throws ParseException {
+    // CHECKSTYLE:ON
+        System.out.println(String.format("%-26s %-18s %14s %14s", "cron", "time zone", "quartz ns/op", "compiled ns/op"));
+        for (String timeZone : TIME_ZONES) {
+            for (String each : CRON_EXPRESSIONS) {
+                final CronExpression quartzExpression = new CronExpression(each);
+                quartzExpression.setTimeZone(TimeZone.getTimeZone(timeZone));
+                final CompiledCronExpression compiledExpression = CompiledCronExpression.compile(each, TimeZone.getTimeZone(timeZone)).get();
+                double quartz = MicroBenchmark.measure(new MicroBenchmark.Operation() {
+                    
+                    @Override
+                    public long run(final int times) {
+                        Date result = new Date(START_TIME);
+                        long sum = 0L;
+                        for (int i = 0; i < times; i++) {
+                            result = quartzExpression.getTimeAfter(result);
+                            if (null == result) {
+                                result = new Date(START_TIME);
+                            }
+                            sum += result.getTime();
+                        }
+                        return sum;
+                    }
+                }, OPERATIONS_PER_ROUND);
+                double compiled = MicroBenchmark.measure(new MicroBenchmark.Operation() {
+                    
+                    @Override
+                    public long run(final int times) {
+                        long result = START_TIME;
+                        long sum = 0L;
+                        for (int i = 0; i < times; i++) {
+                            result = compiledExpression.getNextFireTimeAfter(result);
+                            if (-1L == result) {
+                                result = START_TIME;
+                            }
+                            sum += result;
+                        }
+                        return sum;
+                    }
+                }, OPERATIONS_PER_ROUND);
+                System.out.println(String.format("%-26s %-18s %14.1f %14.1f", each, timeZone, quartz, compiled));
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.benchmark.sharding;
+
+import com.dangdang.ddframe.job.benchmark.MicroBenchmark;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.AverageAllocationJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.ConsistentHashJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.LongestProcessingTimeJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.OdevitySortByNameJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.RotateServerByNameJobShardingStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+/**
+ * 作业分片策略的完工时间模拟.
+ * 
+ * <p>
+ * 随机生成作业服务器数量, 分片项数量和分片项的实际耗时, 完工时间为各作业服务器实际耗时之和的最大值, 以其与下界的比值衡量分片质量.
+ * 下界为最长分片项耗时与平均每台作业服务器耗时的较大值.
+ * 分片策略只能看到历史耗时的估计值, 估计值与实际耗时之间存在随机误差, 部分分片项可能没有历史耗时.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class MakespanBenchmark {
+    
+    private static final int ROUNDS = 1000;
+    
+    private static final String JOB_NAME = "benchmark_job";
+    
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) {
+    // CHECKSTYLE:ON
+        Map<String, JobShardingStrategy> strategies = new LinkedHashMap<>(5, 1);
+        strategies.put("average", new AverageAllocationJobShardingStrategy());
+        strategies.put("odevity", new OdevitySortByNameJobShardingStrategy());
+        strategies.put("rotate", new RotateServerByNameJobShardingStrategy());
+        strategies.put("consistent-hash", new ConsistentHashJobShardingStrategy());
+        strategies.put("lpt", new LongestProcessingTimeJobShardingStrategy());
+        for (Workload each : Workload.values()) {
+            System.out.println(String.format("workload=%s, rounds=%d", each.name().toLowerCase(), ROUNDS));
+            System.out.println(String.format("%-16s %12s %12s %12s", "strategy", "avg/bound", "p95/bound", "max/bound"));
+            for (Entry<String, JobShardingStrategy> entry : strategies.entrySet()) {
+                simulate(entry.getKey(), entry.getValue(), each);
+            }
+            System.out.println();
+        }
+        measureShardingCost(strategies);
+    }
+    
+    private static void simulate(final String name, final JobShardingStrategy strategy, final Workload workload) {
+        Random random = new Random(workload.ordinal());
+        double[] ratios = new double[ROUNDS];
+        double sum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            int shardingTotalCount = 5 + random.nextInt(200);
+            List<String> servers = createServers(2 + random.nextInt(15));
+            long[] actualDurations = new long[shardingTotalCount];
+            Map<Integer, Long> estimatedDurations = new HashMap<>(shardingTotalCount, 1);
+            long totalDuration = 0;
+            long maxDuration = 0;
+            for (int i = 0; i < shardingTotalCount; i++) {
+                long estimated = workload.nextDuration(random);
+                actualDurations[i] = Math.max(1L, (long) (estimated * (0.8 + 0.4 * random.nextDouble())));
+                if (random.nextDouble() >= workload.missingHistoryRatio) {
+                    estimatedDurations.put(i, estimated);
+                }
+                totalDuration += actualDurations[i];
+                maxDuration = Math.max(maxDuration, actualDurations[i]);
+            }
+            JobShardingStrategyOption option = new JobShardingStrategyOption(JOB_NAME, shardingTotalCount, Collections.<String, ServerCapacity>emptyMap(), estimatedDurations);
+            double lowerBound = Math.max(maxDuration, (double) totalDuration / servers.size());
+            ratios[round] = getMakespan(strategy.sharding(servers, option), actualDurations) / lowerBound;
+            sum += ratios[round];
+        }
+        Arrays.sort(ratios);
+        System.out.println(String.format("%-16s %12.3f %12.3f %12.3f", name, sum / ROUNDS, ratios[ROUNDS * 95 / 100], ratios[ROUNDS - 1]));
+    }
+    
+    private static void measureShardingCost(final Map<String, JobShardingStrategy> strategies) {
+        Random random = new Random(0L);
+        final List<String> servers = createServers(16);
+        Map<Integer, Long> estimatedDurations = new HashMap<>(1000, 1);
+        for (int i = 0; i < 1000; i++) {
+            estimatedDurations.put(i, Workload.HEAVY_TAIL.nextDuration(random));
+        }
+        final JobShardingStrategyOption option = new JobShardingStrategyOption(JOB_NAME, 1000, Collections.<String, ServerCapacity>emptyMap(), estimatedDurations);
+        System.out.println("sharding cost, servers=16, items=1000");
+        System.out.println(String.format("%-16s %12s", "strategy", "us/sharding"));
+        for (Entry<String, JobShardingStrategy> entry : strategies.entrySet()) {
+            final JobShardingStrategy strategy = entry.getValue();
+            double nanoseconds = MicroBenchmark.measure(new MicroBenchmark.Operation() {
+                
+                @Override
+                public long run(final int times) {
+                    long result = 0L;
+                    for (int i = 0; i < times; i++) {
+                        result += strategy.sharding(servers, option).size();
+                    }
+                    return result;
+                }
+            }, 200);
+            System.out.println(String.format("%-16s %12.1f", entry.getKey(), nanoseconds / 1000));
+        }
+    }
+    
+    private static List<String> createServers(final int serverCount) {
+        List<String> result = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            result.add("192.168.0." + i);
+        }
+        Collections.sort(result);
+        return result;
+    }
+    
+    private static double getMakespan(final Map<String, List<Integer>> sharding, final long[] actualDurations) {
+        long result = 0;
+        for (List<Integer> each : sharding.values()) {
+            long load = 0;
+            for (int item : each) {
+                load += actualDurations[item];
+            }
+            result = Math.max(result, load);
+        }
+        return result;
+    }
+    
+    private enum Workload {
+        
+        UNIFORM(0D) {
+            
+            @Override
+            long nextDuration(final Random random) {
+                return 500L + random.nextInt(3000);
+            }
+        },
+        
+        HEAVY_TAIL(0D) {
+            
+            @Override
+            long nextDuration(final Random random) {
+                return 0 == random.nextInt(10) ? 20000L + random.nextInt(40000) : 500L + random.nextInt(3000);
+            }
+        },
+        
+        PARETO(0D) {
+            
+            @Override
+            long nextDuration(final Random random) {
+                return (long) (500D / Math.pow(1D - random.nextDouble(), 1D / 1.5D));
+            }
+        },
+        
+        HEAVY_TAIL_PARTIAL_HISTORY(0.3D) {
+            
+            @Override
+            long nextDuration(final Random random) {
+                return HEAVY_TAIL.nextDuration(random);
+            }
+        };
+        
+        private final double missingHistoryRatio;
+        
+        Workload(final double missingHistoryRatio) {
+            this.missingHistoryRatio = missingHistoryRatio;
+        }
+        
+        abstract long nextDuration(Random random);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.benchmark.sharding;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.AverageAllocationJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.ConsistentHashJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.OdevitySortByNameJobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.RotateServerByNameJobShardingStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+/**
+ * 作业分片策略的迁移比例与负载倾斜度模拟.
+ * 
+ * <p>
+ * 作业服务器数量在1至{@code MAX_SERVERS}之间逐一加入和离开, 每次变化后重新分片.
+ * 迁移比例为归属发生变化的分片项占比除以理想值1/N, N为变化后与变化前作业服务器数量的较大值;
+ * 倾斜度为分片项最多的作业服务器的分片项数除以平均分片项数.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class ShardingMovementBenchmark {
+    
+    private static final int MAX_SERVERS = 16;
+    
+    private static final int[] SHARDING_TOTAL_COUNTS = {10, 100, 1000};
+    
+    private static final String JOB_NAME = "benchmark_job";
+    
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) {
+    // CHECKSTYLE:ON
+        Map<String, JobShardingStrategy> strategies = new LinkedHashMap<>(4, 1);
+        strategies.put("average", new AverageAllocationJobShardingStrategy());
+        strategies.put("odevity", new OdevitySortByNameJobShardingStrategy());
+        strategies.put("rotate", new RotateServerByNameJobShardingStrategy());
+        strategies.put("consistent-hash", new ConsistentHashJobShardingStrategy());
+        List<String> allServers = createServers();
+        for (int each : SHARDING_TOTAL_COUNTS) {
+            System.out.println(String.format("items=%d, servers 1..%d", each, MAX_SERVERS));
+            System.out.println(String.format("%-16s %14s %14s %14s %14s %10s %10s",
+                    "strategy", "join avg/ideal", "join max/ideal", "leave avg/ideal", "leave max/ideal", "skew avg", "skew max"));
+            for (Entry<String, JobShardingStrategy> entry : strategies.entrySet()) {
+                simulate(entry.getKey(), entry.getValue(), allServers, each);
+            }
+            System.out.println();
+        }
+    }
+    
+    private static List<String> createServers() {
+        Random random = new Random(MAX_SERVERS);
+        List<String> result = new ArrayList<>(MAX_SERVERS);
+        while (result.size() < MAX_SERVERS) {
+            String server = "192.168." + random.nextInt(256) + "." + random.nextInt(256);
+            if (!result.contains(server)) {
+                result.add(server);
+            }
+        }
+        return result;
+    }
+    
+    private static void simulate(final String name, final JobShardingStrategy strategy, final List<String> allServers, final int shardingTotalCount) {
+        JobShardingStrategyOption option = new JobShardingStrategyOption(JOB_NAME, shardingTotalCount);
+        Random random = new Random(shardingTotalCount);
+        double joinSum = 0;
+        double joinMax = 0;
+        double leaveSum = 0;
+        double leaveMax = 0;
+        double skewSum = 0;
+        double skewMax = 0;
+        for (int i = 1; i < allServers.size(); i++) {
+            List<String> before = sorted(allServers.subList(0, i));
+            List<String> after = sorted(allServers.subList(0, i + 1));
+            Map<Integer, String> beforeOwners = toOwners(strategy.sharding(before, option));
+            Map<String, List<Integer>> afterSharding = strategy.sharding(after, option);
+            double join = movementRatio(beforeOwners, toOwners(afterSharding), shardingTotalCount) * after.size();
+            joinSum += join;
+            joinMax = Math.max(joinMax, join);
+            double skew = skew(afterSharding, after.size(), shardingTotalCount);
+            skewSum += skew;
+            skewMax = Math.max(skewMax, skew);
+            List<String> left = new ArrayList<>(after);
+            left.remove(random.nextInt(left.size()));
+            double leave = movementRatio(toOwners(afterSharding), toOwners(strategy.sharding(left, option)), shardingTotalCount) * after.size();
+            leaveSum += leave;
+            leaveMax = Math.max(leaveMax, leave);
+        }
+        int rounds = allServers.size() - 1;
+        System.out.println(String.format("%-16s %14.2f %14.2f %14.2f %14.2f %10.2f %10.2f", name, joinSum / rounds, joinMax, leaveSum / rounds, leaveMax, skewSum / rounds, skewMax));
+    }
+    
+    private static List<String> sorted(final List<String> servers) {
+        List<String> result = new ArrayList<>(servers);
+        Collections.sort(result);
+        return result;
+    }
+    
+    private static Map<Integer, String> toOwners(final Map<String, List<Integer>> sharding) {
+        Map<Integer, String> result = new HashMap<>();
+        for (Entry<String, List<Integer>> entry : sharding.entrySet()) {
+            for (int each : entry.getValue()) {
+                result.put(each, entry.getKey());
+            }
+        }
+        return result;
+    }
+    
+    private static double movementRatio(final Map<Integer, String> before, final Map<Integer, String> after, final int shardingTotalCount) {
+        int moved = 0;
+        for (int i = 0; i < shardingTotalCount; i++) {
+            String owner = before.get(i);
+            if (null == owner || !owner.equals(after.get(i))) {
+                moved++;
+            }
+        }
+        return (double) moved / shardingTotalCount;
+    }
+    
+    private static double skew(final Map<String, List<Integer>> sharding, final int serverCount, final int shardingTotalCount) {
+        int max = 0;
+        for (List<Integer> each : sharding.values()) {
+            max = Math.max(max, each.size());
+        }
+        return max / ((double) shardingTotalCount / serverCount);
+    }
+}
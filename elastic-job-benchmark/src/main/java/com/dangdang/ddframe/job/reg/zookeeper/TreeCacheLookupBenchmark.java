@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.benchmark.MicroBenchmark;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.retry.RetryOneTime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+/**
+ * 注册中心缓存查找的基准测试.
+ * 
+ * <p>
+ * 对比原有的按前缀线性扫描与按路径分段索引, 查找覆盖作业节点的缓存的耗时随作业数量的变化.
+ * {@code TreeCacheIndex}仅包内可见, 因此本类与其位于同一包中.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class TreeCacheLookupBenchmark {
+    
+    private static final int[] JOB_COUNTS = {10, 100, 1000, 3000, 10000};
+    
+    private static final int KEY_COUNT = 1024;
+    
+    private static final int OPERATIONS_PER_ROUND = 20000;
+    
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) {
+    // CHECKSTYLE:ON
+        CuratorFramework client = CuratorFrameworkFactory.newClient("localhost:2181", new RetryOneTime(1000));
+        TreeCache cache = new TreeCache(client, "/benchmark");
+        System.out.println(String.format("%8s %20s %20s", "jobs", "linear scan ns/op", "segment index ns/op"));
+        for (int each : JOB_COUNTS) {
+            final Map<String, TreeCache> linearCaches = new HashMap<>(each);
+            final TreeCacheIndex indexedCaches = new TreeCacheIndex();
+            for (int i = 0; i < each; i++) {
+                linearCaches.put("/job_" + i + "/", cache);
+                indexedCaches.put("/job_" + i, cache);
+            }
+            final String[] keys = createKeys(each);
+            double linearScan = MicroBenchmark.measure(new MicroBenchmark.Operation() {
+                
+                @Override
+                public long run(final int times) {
+                    long result = 0L;
+                    for (int i = 0; i < times; i++) {
+                        result += System.identityHashCode(findLinearly(linearCaches, keys[i % KEY_COUNT]));
+                    }
+                    return result;
+                }
+            }, Math.max(OPERATIONS_PER_ROUND / each, 1) * 10);
+            double segmentIndex = MicroBenchmark.measure(new MicroBenchmark.Operation() {
+                
+                @Override
+                public long run(final int times) {
+                    long result = 0L;
+                    for (int i = 0; i < times; i++) {
+                        result += System.identityHashCode(indexedCaches.find(keys[i % KEY_COUNT]));
+                    }
+                    return result;
+                }
+            }, OPERATIONS_PER_ROUND);
+            System.out.println(String.format("%8d %20.1f %20.1f", each, linearScan, segmentIndex));
+        }
+        client.close();
+    }
+    
+    private static String[] createKeys(final int jobCount) {
+        Random random = new Random(jobCount);
+        String[] result = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            result[i] = "/job_" + random.nextInt(jobCount) + "/servers/192.168.0." + random.nextInt(256) + "/status";
+        }
+        return result;
+    }
+    
+    private static TreeCache findLinearly(final Map<String, TreeCache> caches, final String key) {
+        for (Entry<String, TreeCache> entry : caches.entrySet()) {
+            if (key.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
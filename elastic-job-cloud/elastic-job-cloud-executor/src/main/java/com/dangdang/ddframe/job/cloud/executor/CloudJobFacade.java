@@ -67,6 +67,19 @@ public class CloudJobFacade implements JobFacade {
     public void registerJobCompleted(final ShardingContexts shardingContexts) {
     }
     
+    @Override
+    public void releaseTimeoutItems(final Collection<Integer> shardingItems) {
+    }
+    
+    @Override
+    public String getItemOffset(final int shardingItem) {
+        return null;
+    }
+    
+    @Override
+    public void commitItemOffset(final int shardingItem, final String offset) {
+    }
+    
     public ShardingContexts getShardingContexts() {
         return shardingContexts;
     }
@@ -61,11 +61,15 @@ public class JobConfigurationContext implements JobRootConfiguration {
         jobCoreConfig.getJobProperties().put(JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER.name(), jobConfigurationMap.get("executorServiceHandler"));
         jobCoreConfig.getJobProperties().put(JobPropertiesEnum.JOB_EXCEPTION_HANDLER.name(), jobConfigurationMap.get("jobExceptionHandler"));
         if (JobType.DATAFLOW.name().equals(jobType)) {
-            jobTypeConfig = new DataflowJobConfiguration(jobCoreConfig, jobClass, Boolean.valueOf(jobConfigurationMap.get("streamingProcess")));
+            int prefetchDepth = Strings.isNullOrEmpty(jobConfigurationMap.get("prefetchDepth")) ? 0 : Integer.parseInt(jobConfigurationMap.get("prefetchDepth"));
+            int processBatchSize = Strings.isNullOrEmpty(jobConfigurationMap.get("processBatchSize")) ? 0 : Integer.parseInt(jobConfigurationMap.get("processBatchSize"));
+            jobTypeConfig = new DataflowJobConfiguration(jobCoreConfig, jobClass, Boolean.valueOf(jobConfigurationMap.get("streamingProcess")), prefetchDepth, processBatchSize);
         } else if (JobType.SIMPLE.name().equals(jobType)) {
             jobTypeConfig = new SimpleJobConfiguration(jobCoreConfig, jobClass);
         } else if (JobType.SCRIPT.name().equals(jobType)) {
-            jobTypeConfig = new ScriptJobConfiguration(jobCoreConfig, jobConfigurationMap.get("scriptCommandLine"));
+            int workerPoolSize = Strings.isNullOrEmpty(jobConfigurationMap.get("workerPoolSize")) ? 0 : Integer.parseInt(jobConfigurationMap.get("workerPoolSize"));
+            int workerMaxRequests = Strings.isNullOrEmpty(jobConfigurationMap.get("workerMaxRequests")) ? 0 : Integer.parseInt(jobConfigurationMap.get("workerMaxRequests"));
+            jobTypeConfig = new ScriptJobConfiguration(jobCoreConfig, jobConfigurationMap.get("scriptCommandLine"), workerPoolSize, workerMaxRequests);
         }
         beanName = jobConfigurationMap.get("beanName");
         applicationContext = jobConfigurationMap.get("applicationContext");
@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.api.script.ScriptJob;
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.rdb.JobEventRdbConfiguration;
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobExecutorFactory;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObject;
@@ -121,7 +122,12 @@ public final class TaskExecutor implements Executor {
                 ElasticJob elasticJob = getElasticJobInstance(jobConfig);
                 final CloudJobFacade jobFacade = new CloudJobFacade(shardingContexts, jobConfig, jobEventBus);
                 if (jobConfig.isTransient()) {
-                    JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+                    AbstractElasticJobExecutor jobExecutor = JobExecutorFactory.getJobExecutor(elasticJob, jobFacade);
+                    try {
+                        jobExecutor.execute();
+                    } finally {
+                        jobExecutor.close();
+                    }
                     executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_FINISHED).build());
                 } else {
                     new DaemonTaskScheduler(elasticJob, jobConfig, jobFacade, executorDriver, taskInfo.getTaskId()).init();
@@ -37,6 +37,7 @@ import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
@@ -99,6 +100,12 @@ public class CloudJobFacadeTest {
         jobFacade.registerJobCompleted(null);
     }
     
+    @Test
+    public void assertGetItemOffset() {
+        jobFacade.commitItemOffset(0, "100");
+        assertNull(jobFacade.getItemOffset(0));
+    }
+    
     @Test
     public void assertGetShardingContext() {
         assertThat(jobFacade.getShardingContexts(), is(shardingContexts));
@@ -63,8 +63,12 @@ public final class TaskInfoData {
         result.put("executorServiceHandler", jobConfig.getTypeConfig().getCoreConfig().getJobProperties().get(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER));
         if (jobConfig.getTypeConfig() instanceof DataflowJobConfiguration) {
             result.put("streamingProcess", Boolean.toString(((DataflowJobConfiguration) jobConfig.getTypeConfig()).isStreamingProcess()));
+            result.put("prefetchDepth", Integer.toString(((DataflowJobConfiguration) jobConfig.getTypeConfig()).getPrefetchDepth()));
+            result.put("processBatchSize", Integer.toString(((DataflowJobConfiguration) jobConfig.getTypeConfig()).getProcessBatchSize()));
         } else if (jobConfig.getTypeConfig() instanceof ScriptJobConfiguration) {
             result.put("scriptCommandLine", ((ScriptJobConfiguration) jobConfig.getTypeConfig()).getScriptCommandLine());
+            result.put("workerPoolSize", Integer.toString(((ScriptJobConfiguration) jobConfig.getTypeConfig()).getWorkerPoolSize()));
+            result.put("workerMaxRequests", Integer.toString(((ScriptJobConfiguration) jobConfig.getTypeConfig()).getWorkerMaxRequests()));
         }
         result.put("beanName", jobConfig.getBeanName());
         result.put("applicationContext", jobConfig.getApplicationContext());
@@ -17,7 +17,10 @@
 
 package com.dangdang.ddframe.job.api;
 
+import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 
@@ -27,7 +30,7 @@ import lombok.ToString;
  * @author zhangliang
  */
 @Getter
-@ToString
+@ToString(exclude = "jobFacade")
 public final class ShardingContext {
     
     /**
@@ -61,12 +64,46 @@ public final class ShardingContext {
      */
     private final String shardingParameter;
     
+    @Getter(AccessLevel.NONE)
+    private final transient JobFacade jobFacade;
+    
     public ShardingContext(final ShardingContexts shardingContexts, final int shardingItem) {
+        this(shardingContexts, shardingItem, null);
+    }
+    
+    public ShardingContext(final ShardingContexts shardingContexts, final int shardingItem, final JobFacade jobFacade) {
         jobName = shardingContexts.getJobName();
         taskId = shardingContexts.getTaskId();
         shardingTotalCount = shardingContexts.getShardingTotalCount();
         jobParameter = shardingContexts.getJobParameter();
         this.shardingItem = shardingItem;
         shardingParameter = shardingContexts.getShardingItemParameters().get(shardingItem);
+        this.jobFacade = jobFacade;
+    }
+    
+    /**
+     * 提交分片项的处理进度.
+     * 
+     * <p>
+     * 进度按分片项持久化, 分片项因重新分片或失效转移分配至其他作业服务器后, 可通过{@link #getLastOffset()}从该进度继续处理.
+     * 同一分片项的频繁提交会合并写入, 作业服务器宕机时可能丢失最近一次写入后提交的进度, 因此从进度恢复的处理逻辑需要幂等.
+     * </p>
+     * 
+     * @param offset 处理进度
+     */
+    public void commitOffset(final String offset) {
+        Preconditions.checkNotNull(offset, "offset cannot be null.");
+        if (null != jobFacade) {
+            jobFacade.commitItemOffset(shardingItem, offset);
+        }
+    }
+    
+    /**
+     * 获取分片项最近提交的处理进度.
+     * 
+     * @return 最近提交的处理进度, 从未提交过时返回null
+     */
+    public String getLastOffset() {
+        return null == jobFacade ? null : jobFacade.getItemOffset(shardingItem);
     }
 }
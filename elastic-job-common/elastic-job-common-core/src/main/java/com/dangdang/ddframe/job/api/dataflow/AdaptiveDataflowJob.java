@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.api.dataflow;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+
+import java.util.List;
+
+/**
+ * 自适应抓取数据量的数据流分布式作业接口.
+ * 
+ * <p>
+ * 作业执行器根据每个分片项的抓取耗时, 处理耗时以及堆内存余量计算建议抓取数据量, 并通过{@link #fetchData(ShardingContext, int)}传入.
+ * 批次耗时不超过目标耗时且抓取数据已满时线性增加, 超过目标耗时或堆内存不足时减半.
+ * 实现此接口后作业执行器不再调用{@link #fetchData(ShardingContext)}.
+ * </p>
+ * 
+ * @author zhangliang
+ * 
+ * @param <T> 数据类型
+ */
+public interface AdaptiveDataflowJob<T> extends DataflowJob<T> {
+    
+    /**
+     * 按建议数据量获取待处理数据.
+     * 
+     * @param shardingContext 分片上下文
+     * @param fetchSize 建议抓取的数据量
+     * @return 待处理的数据集合
+     */
+    List<T> fetchData(ShardingContext shardingContext, int fetchSize);
+    
+    /**
+     * 获取自适应抓取配置.
+     * 
+     * @return 自适应抓取配置
+     */
+    AdaptiveFetchConfiguration getAdaptiveFetchConfiguration();
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.api.dataflow;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * 自适应抓取配置.
+ * 
+ * @author zhangliang
+ */
+@Getter
+public final class AdaptiveFetchConfiguration {
+    
+    /**
+     * 最小抓取数据量, 也是初始抓取数据量.
+     */
+    private final int minFetchSize;
+    
+    /**
+     * 最大抓取数据量.
+     */
+    private final int maxFetchSize;
+    
+    /**
+     * 抓取并处理一个批次的目标耗时毫秒数.
+     */
+    private final long targetBatchLatencyMilliseconds;
+    
+    public AdaptiveFetchConfiguration(final int minFetchSize, final int maxFetchSize, final long targetBatchLatencyMilliseconds) {
+        Preconditions.checkArgument(minFetchSize > 0, "minFetchSize should larger than zero.");
+        Preconditions.checkArgument(maxFetchSize >= minFetchSize, "maxFetchSize should not less than minFetchSize.");
+        Preconditions.checkArgument(targetBatchLatencyMilliseconds > 0, "targetBatchLatencyMilliseconds should larger than zero.");
+        this.minFetchSize = minFetchSize;
+        this.maxFetchSize = maxFetchSize;
+        this.targetBatchLatencyMilliseconds = targetBatchLatencyMilliseconds;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.api.dataflow;
+
+/**
+ * 按分区键拆分子批次的数据流分布式作业接口.
+ * 
+ * <p>
+ * 配置子批次数据量后, 抓取的数据按分区键拆分为子批次并行处理.
+ * 分区键相同的数据位于同一子批次, 并保持抓取时的顺序.
+ * </p>
+ * 
+ * @author zhangliang
+ * 
+ * @param <T> 数据类型
+ */
+public interface PartitionedDataflowJob<T> extends DataflowJob<T> {
+    
+    /**
+     * 获取数据的分区键.
+     * 
+     * @param data 待处理数据
+     * @return 分区键
+     */
+    Object getPartitionKey(T data);
+}
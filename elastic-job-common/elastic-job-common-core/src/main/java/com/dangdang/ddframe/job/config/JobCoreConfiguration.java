@@ -53,6 +53,12 @@ public final class JobCoreConfiguration {
     
     private final boolean misfire;
     
+    /** 单个分片项的执行超时毫秒数, 小于等于0表示不限制 */
+    private final long itemTimeoutMilliseconds;
+    
+    /** 单次作业执行的超时毫秒数, 小于等于0表示不限制 */
+    private final long executionTimeoutMilliseconds;
+    
     private final String description;
 
     /** 作业配置属性 */
@@ -87,6 +93,10 @@ public final class JobCoreConfiguration {
         
         private boolean misfire = true;
         
+        private long itemTimeoutMilliseconds;
+        
+        private long executionTimeoutMilliseconds;
+        
         private String description = "";
         
         private final JobProperties jobProperties = new JobProperties();
@@ -158,6 +168,40 @@ public final class JobCoreConfiguration {
             return this;
         }
         
+        /**
+         * 设置单个分片项的执行超时毫秒数.
+         *
+         * <p>
+         * 超时的分片项将被中断并放弃, 记录为超时结果, 开启失效转移时交由其他作业服务器重新执行.
+         * 小于等于0表示不限制.
+         * </p>
+         *
+         * @param itemTimeoutMilliseconds 单个分片项的执行超时毫秒数
+         *
+         * @return 作业配置构建器
+         */
+        public Builder itemTimeoutMilliseconds(final long itemTimeoutMilliseconds) {
+            this.itemTimeoutMilliseconds = itemTimeoutMilliseconds;
+            return this;
+        }
+        
+        /**
+         * 设置单次作业执行的超时毫秒数.
+         *
+         * <p>
+         * 超时后仍未完成的分片项将被中断并放弃, 处理方式与分片项超时相同.
+         * 小于等于0表示不限制.
+         * </p>
+         *
+         * @param executionTimeoutMilliseconds 单次作业执行的超时毫秒数
+         *
+         * @return 作业配置构建器
+         */
+        public Builder executionTimeoutMilliseconds(final long executionTimeoutMilliseconds) {
+            this.executionTimeoutMilliseconds = executionTimeoutMilliseconds;
+            return this;
+        }
+        
         /**
          * 设置作业描述信息.
          *
@@ -194,7 +238,7 @@ public final class JobCoreConfiguration {
             Preconditions.checkArgument(!Strings.isNullOrEmpty(jobName), "jobName can not be empty.");
             Preconditions.checkArgument(!Strings.isNullOrEmpty(cron), "cron can not be empty.");
             Preconditions.checkArgument(shardingTotalCount > 0, "shardingTotalCount should larger than zero.");
-            return new JobCoreConfiguration(jobName, cron, shardingTotalCount, shardingItemParameters, jobParameter, failover, misfire, description, jobProperties);
+            return new JobCoreConfiguration(jobName, cron, shardingTotalCount, shardingItemParameters, jobParameter, failover, misfire, itemTimeoutMilliseconds, executionTimeoutMilliseconds, description, jobProperties);
         }
     }
 }
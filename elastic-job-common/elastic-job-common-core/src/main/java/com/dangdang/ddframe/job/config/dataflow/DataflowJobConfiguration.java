@@ -20,8 +20,8 @@ package com.dangdang.ddframe.job.config.dataflow;
 import com.dangdang.ddframe.job.api.JobType;
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.JobTypeConfiguration;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 /**
  * 数据流作业配置信息.
@@ -29,7 +29,7 @@ import lombok.RequiredArgsConstructor;
  * @author caohao
  * @author zhangliang
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public final class DataflowJobConfiguration implements JobTypeConfiguration {
     
@@ -40,4 +40,14 @@ public final class DataflowJobConfiguration implements JobTypeConfiguration {
     private final String jobClass;
     
     private final boolean streamingProcess;
+    
+    /** 流式处理时预取的数据批次数, 大于0时在处理当前批次的同时抓取后续批次 */
+    private final int prefetchDepth;
+    
+    /** 每个子批次处理的数据量, 大于0时将抓取的数据拆分为子批次并行处理 */
+    private final int processBatchSize;
+    
+    public DataflowJobConfiguration(final JobCoreConfiguration coreConfig, final String jobClass, final boolean streamingProcess) {
+        this(coreConfig, jobClass, streamingProcess, 0, 0);
+    }
 }
@@ -21,8 +21,8 @@ import com.dangdang.ddframe.job.api.JobType;
 import com.dangdang.ddframe.job.api.script.ScriptJob;
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
 import com.dangdang.ddframe.job.config.JobTypeConfiguration;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 /**
  * 脚本作业配置.
@@ -30,7 +30,7 @@ import lombok.RequiredArgsConstructor;
  * @author caohao
  * @author zhangliang
  */
-@RequiredArgsConstructor
+@AllArgsConstructor
 @Getter
 public final class ScriptJobConfiguration implements JobTypeConfiguration {
     
@@ -41,4 +41,14 @@ public final class ScriptJobConfiguration implements JobTypeConfiguration {
     private final String jobClass = ScriptJob.class.getCanonicalName();
     
     private final String scriptCommandLine;
+    
+    /** 常驻脚本工作进程数, 大于0时复用常驻进程通过标准输入输出逐行交换JSON执行分片项, 否则每个分片项启动新进程 */
+    private final int workerPoolSize;
+    
+    /** 单个工作进程最多处理的请求数, 达到后进程退出并按需重启, 0表示不限制 */
+    private final int workerMaxRequests;
+    
+    public ScriptJobConfiguration(final JobCoreConfiguration coreConfig, final String scriptCommandLine) {
+        this(coreConfig, scriptCommandLine, 0, 0);
+    }
 }
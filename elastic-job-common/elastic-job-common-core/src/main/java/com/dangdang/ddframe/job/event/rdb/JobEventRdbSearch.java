@@ -23,6 +23,7 @@ import com.dangdang.ddframe.job.event.type.JobExecutionEventThrowable;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.exception.JobExecutionTimeoutException;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -95,7 +96,7 @@ public class JobEventRdbSearch {
                 JobExecutionEvent jobExecutionEvent = new JobExecutionEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
                         resultSet.getString(5), JobExecutionEvent.ExecutionSource.valueOf(resultSet.getString(6)), Integer.valueOf(resultSet.getString(7)), 
                         new Date(resultSet.getTimestamp(8).getTime()), resultSet.getTimestamp(9) == null ? null : new Date(resultSet.getTimestamp(9).getTime()), 
-                        resultSet.getBoolean(10), new JobExecutionEventThrowable(null, resultSet.getString(11)) 
+                        resultSet.getBoolean(10), new JobExecutionEventThrowable(null, resultSet.getString(11)), isTimeout(resultSet.getString(11))
                         );
                 result.add(jobExecutionEvent);
             }
@@ -106,6 +107,10 @@ public class JobEventRdbSearch {
         return result;
     }
     
+    private boolean isTimeout(final String failureCause) {
+        return null != failureCause && failureCause.startsWith(JobExecutionTimeoutException.class.getName());
+    }
+    
     private List<JobStatusTraceEvent> getJobStatusTraceEvents(final Condition condition) {
         List<JobStatusTraceEvent> result = new LinkedList<>();
         try (
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.event.type;
 
 import com.dangdang.ddframe.job.event.JobEvent;
 import com.dangdang.ddframe.job.exception.ExceptionUtil;
+import com.dangdang.ddframe.job.exception.JobExecutionTimeoutException;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -65,13 +66,16 @@ public class JobExecutionEvent implements JobEvent {
     @Setter
     private JobExecutionEventThrowable failureCause;
     
+    @Setter
+    private boolean timeout;
+    
     /**
      * 作业执行成功.
      * 
      * @return 作业执行事件
      */
     public JobExecutionEvent executionSuccess() {
-        JobExecutionEvent result = new JobExecutionEvent(id, hostname, ip, taskId, jobName, source, shardingItem, startTime, completeTime, success, failureCause);
+        JobExecutionEvent result = new JobExecutionEvent(id, hostname, ip, taskId, jobName, source, shardingItem, startTime, completeTime, success, failureCause, timeout);
         result.setCompleteTime(new Date());
         result.setSuccess(true);
         return result;
@@ -84,12 +88,28 @@ public class JobExecutionEvent implements JobEvent {
      * @return 作业执行事件
      */
     public JobExecutionEvent executionFailure(final Throwable failureCause) {
-        JobExecutionEvent result = new JobExecutionEvent(id, hostname, ip, taskId, jobName, source, shardingItem, startTime, completeTime, success, new JobExecutionEventThrowable(failureCause));
+        JobExecutionEvent result = new JobExecutionEvent(id, hostname, ip, taskId, jobName, source, shardingItem, startTime, completeTime, success, new JobExecutionEventThrowable(failureCause), timeout);
         result.setCompleteTime(new Date());
         result.setSuccess(false);
         return result;
     }
     
+    /**
+     * 作业执行超时.
+     * 
+     * <p>
+     * 超时的分片项视为执行失败, 失败原因为{@link JobExecutionTimeoutException}.
+     * </p>
+     * 
+     * @param timeoutMilliseconds 超时毫秒数
+     * @return 作业执行事件
+     */
+    public JobExecutionEvent executionTimeout(final long timeoutMilliseconds) {
+        JobExecutionEvent result = executionFailure(new JobExecutionTimeoutException("Job '%s' item '%s' execution timeout after %s milliseconds.", jobName, shardingItem, timeoutMilliseconds));
+        result.setTimeout(true);
+        return result;
+    }
+    
     /**
      * 获取失败原因.
      * 
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.executor;
 
 import com.dangdang.ddframe.job.api.ShardingContext;
 import com.dangdang.ddframe.job.config.JobRootConfiguration;
+import com.dangdang.ddframe.job.config.JobTypeConfiguration;
 import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.ExceptionUtil;
@@ -28,15 +29,23 @@ import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
 import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistry;
 import com.dangdang.ddframe.job.executor.handler.JobExceptionHandler;
 import com.dangdang.ddframe.job.executor.handler.JobProperties;
+import com.google.common.base.Objects;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 弹性化分布式作业执行器.
@@ -54,11 +63,14 @@ public abstract class AbstractElasticJobExecutor {
     
     private final String jobName;
     
+    @Getter(AccessLevel.PROTECTED)
     private final ExecutorService executorService;
     
     private final JobExceptionHandler jobExceptionHandler;
     
-    private final Map<Integer, String> itemErrorMessages;
+    private final long itemTimeoutMilliseconds;
+    
+    private final long executionTimeoutMilliseconds;
     
     protected AbstractElasticJobExecutor(final JobFacade jobFacade) {
         this.jobFacade = jobFacade;
@@ -66,7 +78,8 @@ public abstract class AbstractElasticJobExecutor {
         jobName = jobRootConfig.getTypeConfig().getCoreConfig().getJobName();
         executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler(jobName, (ExecutorServiceHandler) getHandler(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER));
         jobExceptionHandler = (JobExceptionHandler) getHandler(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER);
-        itemErrorMessages = new ConcurrentHashMap<>(jobRootConfig.getTypeConfig().getCoreConfig().getShardingTotalCount(), 1);
+        itemTimeoutMilliseconds = jobRootConfig.getTypeConfig().getCoreConfig().getItemTimeoutMilliseconds();
+        executionTimeoutMilliseconds = jobRootConfig.getTypeConfig().getCoreConfig().getExecutionTimeoutMilliseconds();
     }
     
     private Object getHandler(final JobProperties.JobPropertiesEnum jobPropertiesEnum) {
@@ -91,6 +104,55 @@ public abstract class AbstractElasticJobExecutor {
         }
     }
     
+    /**
+     * 判断作业执行器是否可继续用于变更后的作业配置.
+     * 
+     * <p>
+     * 执行器在构造时固化作业类型, 线程池, 异常处理器和执行超时时间, 仅当这些配置变化时才需重建.
+     * 分片, 作业参数等其余配置每次触发时通过作业门面获取, 不影响执行器的复用.
+     * </p>
+     * 
+     * @param latestJobRootConfig 变更后的作业配置
+     * @return 作业执行器是否可复用
+     */
+    public boolean isReusable(final JobRootConfiguration latestJobRootConfig) {
+        JobTypeConfiguration currentTypeConfig = jobRootConfig.getTypeConfig();
+        JobTypeConfiguration latestTypeConfig = latestJobRootConfig.getTypeConfig();
+        if (currentTypeConfig.getJobType() != latestTypeConfig.getJobType() || !currentTypeConfig.getJobClass().equals(latestTypeConfig.getJobClass())) {
+            return false;
+        }
+        if (itemTimeoutMilliseconds != latestTypeConfig.getCoreConfig().getItemTimeoutMilliseconds()
+                || executionTimeoutMilliseconds != latestTypeConfig.getCoreConfig().getExecutionTimeoutMilliseconds()) {
+            return false;
+        }
+        for (JobProperties.JobPropertiesEnum each : JobProperties.JobPropertiesEnum.values()) {
+            if (!Objects.equal(currentTypeConfig.getCoreConfig().getJobProperties().get(each), latestTypeConfig.getCoreConfig().getJobProperties().get(each))) {
+                return false;
+            }
+        }
+        return isReusable(latestTypeConfig);
+    }
+    
+    /**
+     * 判断作业执行器是否可继续用于变更后的作业类型配置.
+     * 
+     * @param latestTypeConfig 变更后的作业类型配置
+     * @return 作业执行器是否可复用
+     */
+    protected boolean isReusable(final JobTypeConfiguration latestTypeConfig) {
+        return true;
+    }
+    
+    /**
+     * 释放作业执行器持有的资源.
+     * 
+     * <p>
+     * 作业执行器不再使用时调用, 正在进行的执行不受影响.
+     * </p>
+     */
+    public void close() {
+    }
+    
     /**
      * 执行作业.
      */
@@ -141,16 +203,21 @@ public abstract class AbstractElasticJobExecutor {
             }
             return;
         }
+        Map<Integer, String> itemErrorMessages = new ConcurrentHashMap<>(shardingContexts.getShardingItemParameters().size(), 1);
+        List<Integer> timeoutItems = new ArrayList<>();
         jobFacade.registerJobBegin(shardingContexts);
         String taskId = shardingContexts.getTaskId();
         if (shardingContexts.isAllowSendJobEvent()) {
             jobFacade.postJobStatusTraceEvent(taskId, State.TASK_RUNNING, "");
         }
         try {
-            process(shardingContexts, executionSource);
+            process(shardingContexts, executionSource, itemErrorMessages, timeoutItems);
         } finally {
             // TODO 考虑增加作业失败的状态，并且考虑如何处理作业失败的整体回路
             jobFacade.registerJobCompleted(shardingContexts);
+            if (!timeoutItems.isEmpty()) {
+                jobFacade.releaseTimeoutItems(timeoutItems);
+            }
             if (itemErrorMessages.isEmpty()) {
                 if (shardingContexts.isAllowSendJobEvent()) {
                     jobFacade.postJobStatusTraceEvent(taskId, State.TASK_FINISHED, "");
@@ -163,56 +230,125 @@ public abstract class AbstractElasticJobExecutor {
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource) {
+    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource, 
+                         final Map<Integer, String> itemErrorMessages, final List<Integer> timeoutItems) {
         Collection<Integer> items = shardingContexts.getShardingItemParameters().keySet();
-        if (1 == items.size()) {
+        Semaphore itemStateChanged = new Semaphore(0);
+        if (1 == items.size() && !isTimeoutEnabled()) {
             int item = shardingContexts.getShardingItemParameters().keySet().iterator().next();
-            JobExecutionEvent jobExecutionEvent =  new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, item);
-            process(shardingContexts, item, jobExecutionEvent);
+            process(shardingContexts, new ItemExecution(item, new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, item), itemStateChanged), itemErrorMessages);
             return;
         }
-        final CountDownLatch latch = new CountDownLatch(items.size());
-        for (final int each : items) {
-            final JobExecutionEvent jobExecutionEvent = new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, each);
+        long executionDeadline = executionTimeoutMilliseconds > 0 ? System.currentTimeMillis() + executionTimeoutMilliseconds : Long.MAX_VALUE;
+        List<ItemExecution> itemExecutions = new ArrayList<>(items.size());
+        for (int each : items) {
             if (executorService.isShutdown()) {
-                return;
+                break;
             }
-            executorService.submit(new Runnable() {
+            final ItemExecution itemExecution = new ItemExecution(each, new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, each), itemStateChanged);
+            itemExecution.setFuture(executorService.submit(new Runnable() {
                 
                 @Override
                 public void run() {
                     try {
-                        process(shardingContexts, each, jobExecutionEvent);
+                        process(shardingContexts, itemExecution, itemErrorMessages);
                     } finally {
-                        latch.countDown();
+                        itemExecution.done();
                     }
                 }
-            });
+            }));
+            itemExecutions.add(itemExecution);
         }
         try {
-            latch.await();
+            awaitItemExecutions(shardingContexts, itemExecutions, itemStateChanged, executionDeadline, itemErrorMessages, timeoutItems);
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent startEvent) {
+    private boolean isTimeoutEnabled() {
+        return itemTimeoutMilliseconds > 0 || executionTimeoutMilliseconds > 0;
+    }
+    
+    private void awaitItemExecutions(final ShardingContexts shardingContexts, final List<ItemExecution> itemExecutions, final Semaphore itemStateChanged, 
+                                     final long executionDeadline, final Map<Integer, String> itemErrorMessages, final List<Integer> timeoutItems) throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+            long nearestDeadline = Long.MAX_VALUE;
+            boolean pending = false;
+            for (ItemExecution each : itemExecutions) {
+                if (each.isDone()) {
+                    continue;
+                }
+                long deadline = each.isCompleted() ? Long.MAX_VALUE : Math.min(executionDeadline, each.getDeadline(itemTimeoutMilliseconds));
+                if (deadline <= now) {
+                    if (each.complete()) {
+                        timeout(shardingContexts, each, now >= executionDeadline ? executionTimeoutMilliseconds : itemTimeoutMilliseconds, itemErrorMessages, timeoutItems);
+                        continue;
+                    }
+                    deadline = Long.MAX_VALUE;
+                }
+                pending = true;
+                nearestDeadline = Math.min(nearestDeadline, deadline);
+            }
+            if (!pending) {
+                return;
+            }
+            if (Long.MAX_VALUE == nearestDeadline) {
+                itemStateChanged.acquire();
+            } else {
+                itemStateChanged.tryAcquire(Math.max(nearestDeadline - System.currentTimeMillis(), 1L), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private void timeout(final ShardingContexts shardingContexts, final ItemExecution itemExecution, final long timeoutMilliseconds, 
+                         final Map<Integer, String> itemErrorMessages, final List<Integer> timeoutItems) {
+        itemExecution.getFuture().cancel(true);
+        itemExecution.done();
+        int item = itemExecution.getItem();
+        log.warn("Job '{}' item '{}' execution timeout after {} milliseconds, item is abandoned.", jobName, item, timeoutMilliseconds);
+        JobExecutionEvent completeEvent = itemExecution.getStartEvent().executionTimeout(timeoutMilliseconds);
+        itemErrorMessages.put(item, completeEvent.getFailureCause());
+        timeoutItems.add(item);
+        if (itemExecution.getStartTime() > 0L) {
+            shardingContexts.getItemExecutionDurations().put(item, System.currentTimeMillis() - itemExecution.getStartTime());
+        }
+        if (shardingContexts.isAllowSendJobEvent()) {
+            jobFacade.postJobExecutionEvent(completeEvent);
+        }
+    }
+    
+    private void process(final ShardingContexts shardingContexts, final ItemExecution itemExecution, final Map<Integer, String> itemErrorMessages) {
+        int item = itemExecution.getItem();
+        JobExecutionEvent startEvent = itemExecution.getStartEvent();
         if (shardingContexts.isAllowSendJobEvent()) {
             jobFacade.postJobExecutionEvent(startEvent);
         }
         log.trace("Job '{}' executing, item is: '{}'.", jobName, item);
-        JobExecutionEvent completeEvent = null;
+        itemExecution.start();
+        Throwable failureCause = null;
         try {
-            process(new ShardingContext(shardingContexts, item));
-            completeEvent = startEvent.executionSuccess();
-            log.trace("Job '{}' executed, item is: '{}'.", jobName, item);
+            process(new ShardingContext(shardingContexts, item, jobFacade));
             // CHECKSTYLE:OFF
         } catch (final Throwable cause) {
             // CHECKSTYLE:ON
-            completeEvent = startEvent.executionFailure(cause);
-            itemErrorMessages.put(item, ExceptionUtil.transform(cause));
-            jobExceptionHandler.handleException(jobName, cause);
+            failureCause = cause;
+        }
+        if (!itemExecution.complete()) {
+            log.debug("Job '{}' item '{}' completed after timeout, result is discarded.", jobName, item);
+            return;
+        }
+        JobExecutionEvent completeEvent = null == failureCause ? startEvent.executionSuccess() : startEvent.executionFailure(failureCause);
+        try {
+            if (null == failureCause) {
+                log.trace("Job '{}' executed, item is: '{}'.", jobName, item);
+            } else {
+                itemErrorMessages.put(item, ExceptionUtil.transform(failureCause));
+                jobExceptionHandler.handleException(jobName, failureCause);
+            }
         } finally {
+            shardingContexts.getItemExecutionDurations().put(item, System.currentTimeMillis() - itemExecution.getStartTime());
             if (shardingContexts.isAllowSendJobEvent()) {
                 jobFacade.postJobExecutionEvent(completeEvent);
             }
@@ -220,4 +356,53 @@ public abstract class AbstractElasticJobExecutor {
     }
     
     protected abstract void process(ShardingContext shardingContext);
+    
+    /**
+     * 分片项的单次执行状态.
+     * 
+     * <p>
+     * 执行线程与等待线程通过{@code completed}竞争结果的归属, 先完成者负责记录执行结果, 另一方的结果被丢弃.
+     * </p>
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static final class ItemExecution {
+        
+        private final int item;
+        
+        private final JobExecutionEvent startEvent;
+        
+        private final Semaphore itemStateChanged;
+        
+        private final AtomicBoolean completed = new AtomicBoolean();
+        
+        @Setter
+        private Future<?> future;
+        
+        private volatile long startTime;
+        
+        private volatile boolean done;
+        
+        void start() {
+            startTime = System.currentTimeMillis();
+            itemStateChanged.release();
+        }
+        
+        boolean complete() {
+            return completed.compareAndSet(false, true);
+        }
+        
+        boolean isCompleted() {
+            return completed.get();
+        }
+        
+        void done() {
+            done = true;
+            itemStateChanged.release();
+        }
+        
+        long getDeadline(final long itemTimeoutMilliseconds) {
+            return itemTimeoutMilliseconds > 0 && startTime > 0L ? startTime + itemTimeoutMilliseconds : Long.MAX_VALUE;
+        }
+    }
 }
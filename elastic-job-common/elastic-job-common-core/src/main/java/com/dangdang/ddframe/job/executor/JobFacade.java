@@ -65,6 +65,33 @@ public interface JobFacade {
      */
     void registerJobCompleted(ShardingContexts shardingContexts);
     
+    /**
+     * 释放执行超时的分片项.
+     * 
+     * <p>
+     * 超时的分片项已被中断并放弃, 开启失效转移时将其标记为待失效转移, 以便重新执行.
+     * </p>
+     * 
+     * @param shardingItems 执行超时的分片项集合
+     */
+    void releaseTimeoutItems(Collection<Integer> shardingItems);
+    
+    /**
+     * 获取分片项最近提交的处理进度.
+     * 
+     * @param shardingItem 分片项
+     * @return 最近提交的处理进度, 从未提交过时返回null
+     */
+    String getItemOffset(int shardingItem);
+    
+    /**
+     * 提交分片项的处理进度.
+     * 
+     * @param shardingItem 分片项
+     * @param offset 处理进度
+     */
+    void commitItemOffset(int shardingItem, String offset);
+    
     /**
      * 获取当前作业服务器的分片上下文.
      *
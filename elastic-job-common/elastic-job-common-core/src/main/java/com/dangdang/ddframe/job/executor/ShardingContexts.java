@@ -24,6 +24,7 @@ import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 分片上下文集合.
@@ -80,6 +81,11 @@ public class ShardingContexts implements Serializable {
     @Setter
     private boolean allowSendJobEvent = true;
     
+    /**
+     * 本次执行中各分片项的执行耗时毫秒数.
+     */
+    private final Map<Integer, Long> itemExecutionDurations = new ConcurrentHashMap<>();
+    
     public ShardingContexts(final String taskId, final String jobName, final int shardingTotalCount, final String jobParameter, 
                             final Map<Integer, String> shardingItemParameters, final int jobEventSamplingCount) {
         this.taskId = taskId;
@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.handler.impl;
+
+import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandler;
+import com.dangdang.ddframe.job.util.concurrent.JobLimitedExecutorService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * 共享线程池服务处理器.
+ * 
+ * <p>
+ * 进程内所有使用该处理器的作业共用一个工作窃取线程池, 线程总数不随作业数量增长.
+ * 每个作业通过{@link JobLimitedExecutorService}限制在共享线程池中的并发数, 默认至多占用共享线程池一半的线程, 避免单个作业占满共享线程, 并提供等待队列深度和等待时间指标.
+ * 可继承该类并覆盖{@link #getConcurrencyLimit(String)}为作业定制并发上限.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public class SharedExecutorServiceHandler implements ExecutorServiceHandler {
+    
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors() * 2;
+    
+    private static final int DEFAULT_CONCURRENCY_LIMIT = Math.max(PARALLELISM / 2, 1);
+    
+    private static final ForkJoinPool SHARED_POOL = new ForkJoinPool(PARALLELISM, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+        
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            result.setName("inner-job-shared-" + result.getPoolIndex());
+            return result;
+        }
+    }, null, true);
+    
+    @Override
+    public final ExecutorService createExecutorService(final String jobName) {
+        return new JobLimitedExecutorService(SHARED_POOL, getConcurrencyLimit(jobName));
+    }
+    
+    /**
+     * 获取作业在共享线程池中的并发上限.
+     * 
+     * <p>默认为共享线程池并行度的一半, 至少为1.</p>
+     * 
+     * @param jobName 作业名称
+     * @return 作业在共享线程池中的并发上限
+     */
+    protected int getConcurrencyLimit(final String jobName) {
+        return DEFAULT_CONCURRENCY_LIMIT;
+    }
+    
+    /**
+     * 获取共享线程池的并行度.
+     * 
+     * @return 共享线程池的并行度
+     */
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
+    
+    /**
+     * 获取共享线程池中当前活跃的线程数.
+     * 
+     * @return 共享线程池中当前活跃的线程数
+     */
+    public static int getActiveThreadCount() {
+        return SHARED_POOL.getActiveThreadCount();
+    }
+    
+    /**
+     * 获取共享线程池中待执行任务数量.
+     * 
+     * @return 共享线程池中待执行任务数量
+     */
+    public static long getQueueDepth() {
+        return SHARED_POOL.getQueuedSubmissionCount() + SHARED_POOL.getQueuedTaskCount();
+    }
+}
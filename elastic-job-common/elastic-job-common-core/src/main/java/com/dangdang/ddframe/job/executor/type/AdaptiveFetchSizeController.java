@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.dataflow.AdaptiveFetchConfiguration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+
+/**
+ * 抓取数据量的加性增乘性减控制器.
+ * 
+ * <p>
+ * 每个分片项独立计算建议抓取数据量.
+ * 批次耗时为该批次的抓取耗时与处理耗时之和, 由处理线程在批次处理完成后一并记录.
+ * 批次耗时不超过目标耗时且抓取数据已满时, 建议数据量增加抓取范围的1/16;
+ * 批次耗时超过目标耗时或堆内存余量不足时, 建议数据量减半, 但不低于最小抓取数据量.
+ * 堆内存余量按各堆内存池最近一次垃圾回收后的占用计算, 未回收的垃圾不计入, 正常的垃圾回收周期不会触发减半.
+ * 流水线预取时预取线程读取建议数据量的同时处理线程可能正在调整, 因此方法需同步.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class AdaptiveFetchSizeController {
+    
+    private static final double DEFAULT_MIN_HEAP_HEADROOM = 0.1d;
+    
+    private final AdaptiveFetchConfiguration config;
+    
+    private final double minHeapHeadroom;
+    
+    private final int additiveIncrease;
+    
+    private int fetchSize;
+    
+    AdaptiveFetchSizeController(final AdaptiveFetchConfiguration config) {
+        this(config, DEFAULT_MIN_HEAP_HEADROOM);
+    }
+    
+    AdaptiveFetchSizeController(final AdaptiveFetchConfiguration config, final double minHeapHeadroom) {
+        this.config = config;
+        this.minHeapHeadroom = minHeapHeadroom;
+        additiveIncrease = Math.max(1, (config.getMaxFetchSize() - config.getMinFetchSize()) / 16);
+        fetchSize = config.getMinFetchSize();
+    }
+    
+    /**
+     * 获取建议抓取数据量.
+     * 
+     * @return 建议抓取数据量
+     */
+    synchronized int getFetchSize() {
+        return fetchSize;
+    }
+    
+    /**
+     * 记录批次的抓取和处理结果并调整建议抓取数据量.
+     * 
+     * @param requestedSize 抓取该批次时请求的数据量
+     * @param fetchedSize 该批次抓取到的数据量
+     * @param fetchMilliseconds 该批次抓取耗时毫秒数
+     * @param processMilliseconds 该批次处理耗时毫秒数
+     */
+    synchronized void processed(final int requestedSize, final int fetchedSize, final long fetchMilliseconds, final long processMilliseconds) {
+        if (fetchMilliseconds + processMilliseconds > config.getTargetBatchLatencyMilliseconds() || getHeapHeadroom() < minHeapHeadroom) {
+            fetchSize = Math.max(config.getMinFetchSize(), fetchSize / 2);
+        } else if (fetchedSize >= requestedSize) {
+            fetchSize = Math.min(config.getMaxFetchSize(), fetchSize + additiveIncrease);
+        }
+    }
+    
+    private double getHeapHeadroom() {
+        long used = 0L;
+        long max = 0L;
+        for (MemoryPoolMXBean each : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage collectionUsage = each.getCollectionUsage();
+            long poolMax = each.getUsage().getMax();
+            if (MemoryType.HEAP == each.getType() && null != collectionUsage && poolMax > 0L) {
+                used += collectionUsage.getUsed();
+                max += poolMax;
+            }
+        }
+        return 0L == max ? 1d : 1d - (double) used / max;
+    }
+}
@@ -18,12 +18,40 @@
 package com.dangdang.ddframe.job.executor.type;
 
 import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.dataflow.AdaptiveDataflowJob;
 import com.dangdang.ddframe.job.api.dataflow.DataflowJob;
+import com.dangdang.ddframe.job.api.dataflow.PartitionedDataflowJob;
+import com.dangdang.ddframe.job.config.JobTypeConfiguration;
 import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import com.dangdang.ddframe.job.exception.JobSystemException;
 import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobFacade;
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.math.IntMath;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 数据流作业执行器.
@@ -32,17 +60,48 @@ import java.util.List;
  */
 public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
     
+    private static final FetchedData END_OF_DATA = new FetchedData(Collections.emptyList(), 0, 0L);
+    
     private final DataflowJob<Object> dataflowJob;
     
+    private final ExecutorService prefetchExecutorService;
+    
+    private final ConcurrentMap<Integer, AdaptiveFetchSizeController> fetchSizeControllers = new ConcurrentHashMap<>();
+    
     public DataflowJobExecutor(final DataflowJob<Object> dataflowJob, final JobFacade jobFacade) {
         super(jobFacade);
         this.dataflowJob = dataflowJob;
+        DataflowJobConfiguration dataflowConfig = (DataflowJobConfiguration) getJobRootConfig().getTypeConfig();
+        prefetchExecutorService = isPipelined(dataflowConfig) ? Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+                .namingPattern("dataflow-prefetch-" + dataflowConfig.getCoreConfig().getJobName() + "-%s").daemon(true).build()) : null;
+    }
+    
+    private boolean isPipelined(final DataflowJobConfiguration dataflowConfig) {
+        return dataflowConfig.isStreamingProcess() && dataflowConfig.getPrefetchDepth() > 0;
+    }
+    
+    @Override
+    protected boolean isReusable(final JobTypeConfiguration latestTypeConfig) {
+        DataflowJobConfiguration currentDataflowConfig = (DataflowJobConfiguration) getJobRootConfig().getTypeConfig();
+        DataflowJobConfiguration latestDataflowConfig = (DataflowJobConfiguration) latestTypeConfig;
+        return currentDataflowConfig.isStreamingProcess() == latestDataflowConfig.isStreamingProcess() && currentDataflowConfig.getPrefetchDepth() == latestDataflowConfig.getPrefetchDepth()
+                && currentDataflowConfig.getProcessBatchSize() == latestDataflowConfig.getProcessBatchSize();
+    }
+    
+    @Override
+    public void close() {
+        if (null != prefetchExecutorService) {
+            prefetchExecutorService.shutdownNow();
+        }
+        super.close();
     }
     
     @Override
     protected void process(final ShardingContext shardingContext) {
         DataflowJobConfiguration dataflowConfig = (DataflowJobConfiguration) getJobRootConfig().getTypeConfig();
-        if (dataflowConfig.isStreamingProcess()) {
+        if (isPipelined(dataflowConfig)) {
+            pipelinedStreamingExecute(shardingContext, dataflowConfig.getPrefetchDepth());
+        } else if (dataflowConfig.isStreamingProcess()) {
             streamingExecute(shardingContext);
         } else {
             oneOffExecute(shardingContext);
@@ -50,8 +109,8 @@ public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
     }
     
     private void streamingExecute(final ShardingContext shardingContext) {
-        List<Object> data = fetchData(shardingContext);
-        while (null != data && !data.isEmpty()) {
+        FetchedData data = fetchData(shardingContext);
+        while (data.hasData()) {
             processData(shardingContext, data);
             if (!getJobFacade().isEligibleForJobRunning()) {
                 break;
@@ -60,18 +119,245 @@ public final class DataflowJobExecutor extends AbstractElasticJobExecutor {
         }
     }
     
+    /**
+     * 流水线方式流式处理数据.
+     * 
+     * <p>
+     * 由预取线程持续抓取数据并放入有界队列, 当前线程依次处理队列中的批次, 抓取与处理并行进行.
+     * 每处理完一个批次仍会检查作业是否可继续运行, 停止时丢弃已预取但未处理的批次.
+     * 预取时前一批次尚未处理完成, 因此仅适用于抓取结果不依赖前一批次处理结果的数据源.
+     * 预取线程被中断时(如作业执行器关闭)丢弃已预取的批次并抛出异常, 该分片项不视为处理完成.
+     * </p>
+     */
+    private void pipelinedStreamingExecute(final ShardingContext shardingContext, final int prefetchDepth) {
+        final BlockingQueue<FetchedData> prefetchedData = new ArrayBlockingQueue<>(prefetchDepth);
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AtomicReference<Throwable> fetchFailure = new AtomicReference<>();
+        Future<?> prefetchFuture = prefetchExecutorService.submit(new Runnable() {
+            
+            @Override
+            public void run() {
+                prefetch(shardingContext, prefetchedData, stopped, fetchFailure);
+            }
+        });
+        boolean exhausted = false;
+        try {
+            FetchedData data = prefetchedData.take();
+            while (END_OF_DATA != data) {
+                processData(shardingContext, data);
+                if (!getJobFacade().isEligibleForJobRunning()) {
+                    break;
+                }
+                data = prefetchedData.take();
+            }
+            exhausted = END_OF_DATA == data;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.set(true);
+            prefetchFuture.cancel(true);
+        }
+        if (exhausted && null != fetchFailure.get()) {
+            throw Throwables.propagate(fetchFailure.get());
+        }
+    }
+    
+    private void prefetch(final ShardingContext shardingContext, final BlockingQueue<FetchedData> prefetchedData, final AtomicBoolean stopped, final AtomicReference<Throwable> fetchFailure) {
+        try {
+            FetchedData data = fetchData(shardingContext);
+            while (!stopped.get() && data.hasData()) {
+                prefetchedData.put(data);
+                data = fetchData(shardingContext);
+            }
+            // CHECKSTYLE:OFF
+        } catch (final Throwable cause) {
+            // CHECKSTYLE:ON
+            if (cause instanceof InterruptedException) {
+                abandonPrefetch(prefetchedData, fetchFailure, cause);
+                return;
+            }
+            fetchFailure.set(cause);
+        }
+        try {
+            prefetchedData.put(END_OF_DATA);
+        } catch (final InterruptedException ex) {
+            abandonPrefetch(prefetchedData, fetchFailure, ex);
+        }
+    }
+    
+    private void abandonPrefetch(final BlockingQueue<FetchedData> prefetchedData, final AtomicReference<Throwable> fetchFailure, final Throwable cause) {
+        Thread.currentThread().interrupt();
+        fetchFailure.compareAndSet(null, cause);
+        prefetchedData.clear();
+        prefetchedData.offer(END_OF_DATA);
+    }
+    
     private void oneOffExecute(final ShardingContext shardingContext) {
-        List<Object> data = fetchData(shardingContext);
-        if (null != data && !data.isEmpty()) {
+        FetchedData data = fetchData(shardingContext);
+        if (data.hasData()) {
             processData(shardingContext, data);
         }
     }
     
-    private List<Object> fetchData(final ShardingContext shardingContext) {
-        return dataflowJob.fetchData(shardingContext);
+    @SuppressWarnings("unchecked")
+    private FetchedData fetchData(final ShardingContext shardingContext) {
+        if (!(dataflowJob instanceof AdaptiveDataflowJob)) {
+            return new FetchedData(dataflowJob.fetchData(shardingContext), 0, 0L);
+        }
+        int fetchSize = getFetchSizeController(shardingContext.getShardingItem()).getFetchSize();
+        long startTime = System.currentTimeMillis();
+        List<Object> data = ((AdaptiveDataflowJob<Object>) dataflowJob).fetchData(shardingContext, fetchSize);
+        return new FetchedData(data, fetchSize, System.currentTimeMillis() - startTime);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private AdaptiveFetchSizeController getFetchSizeController(final int shardingItem) {
+        AdaptiveFetchSizeController result = fetchSizeControllers.get(shardingItem);
+        if (null == result) {
+            fetchSizeControllers.putIfAbsent(shardingItem, new AdaptiveFetchSizeController(((AdaptiveDataflowJob<Object>) dataflowJob).getAdaptiveFetchConfiguration()));
+            result = fetchSizeControllers.get(shardingItem);
+        }
+        return result;
     }
     
-    private void processData(final ShardingContext shardingContext, final List<Object> data) {
-        dataflowJob.processData(shardingContext, data);
+    /**
+     * 获取各分片项的建议抓取数据量.
+     * 
+     * <p>仅作业实现{@link AdaptiveDataflowJob}时有值, 可用于监控各分片项的吞吐调整情况.</p>
+     * 
+     * @return 分片项与建议抓取数据量的映射
+     */
+    public Map<Integer, Integer> getRecommendedFetchSizes() {
+        Map<Integer, Integer> result = new TreeMap<>();
+        for (Entry<Integer, AdaptiveFetchSizeController> entry : fetchSizeControllers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getFetchSize());
+        }
+        return result;
+    }
+    
+    /**
+     * 处理抓取的批次.
+     * 
+     * <p>抓取耗时随批次传递, 流水线预取时后续批次的抓取不会影响本批次的吞吐调整.</p>
+     */
+    private void processData(final ShardingContext shardingContext, final FetchedData fetchedData) {
+        if (!(dataflowJob instanceof AdaptiveDataflowJob)) {
+            doProcessData(shardingContext, fetchedData.data);
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        doProcessData(shardingContext, fetchedData.data);
+        getFetchSizeController(shardingContext.getShardingItem()).processed(
+                fetchedData.requestedSize, fetchedData.data.size(), fetchedData.fetchMilliseconds, System.currentTimeMillis() - startTime);
+    }
+    
+    private void doProcessData(final ShardingContext shardingContext, final List<Object> data) {
+        int processBatchSize = ((DataflowJobConfiguration) getJobRootConfig().getTypeConfig()).getProcessBatchSize();
+        if (processBatchSize <= 0 || data.size() <= processBatchSize) {
+            dataflowJob.processData(shardingContext, data);
+            return;
+        }
+        parallelProcessData(shardingContext, partition(data, processBatchSize));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<List<Object>> partition(final List<Object> data, final int processBatchSize) {
+        if (!(dataflowJob instanceof PartitionedDataflowJob)) {
+            return Lists.partition(data, processBatchSize);
+        }
+        int partitionCount = IntMath.divide(data.size(), processBatchSize, RoundingMode.CEILING);
+        List<List<Object>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>(processBatchSize));
+        }
+        for (Object each : data) {
+            Object partitionKey = ((PartitionedDataflowJob<Object>) dataflowJob).getPartitionKey(each);
+            partitions.get((Objects.hashCode(partitionKey) & Integer.MAX_VALUE) % partitionCount).add(each);
+        }
+        List<List<Object>> result = new ArrayList<>(partitionCount);
+        for (List<Object> each : partitions) {
+            if (!each.isEmpty()) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 并行处理子批次.
+     * 
+     * <p>
+     * 子批次放入共享队列, 由当前线程与提交至作业线程池的协助线程共同领取处理.
+     * 当前线程只等待已被领取的子批次处理完成, 协助线程未能及时获得线程池资源时不会阻塞当前线程.
+     * 任一子批次处理失败后不再领取新的子批次, 并在已领取的子批次完成后抛出首个异常.
+     * 等待时被中断则丢弃未领取的子批次并抛出异常, 该批次不视为处理完成.
+     * </p>
+     */
+    private void parallelProcessData(final ShardingContext shardingContext, final List<List<Object>> subBatches) {
+        final Queue<List<Object>> pendingSubBatches = new ConcurrentLinkedQueue<>(subBatches);
+        final CountDownLatch processedLatch = new CountDownLatch(subBatches.size());
+        final AtomicReference<Throwable> processFailure = new AtomicReference<>();
+        Runnable worker = new Runnable() {
+            
+            @Override
+            public void run() {
+                processSubBatches(shardingContext, pendingSubBatches, processedLatch, processFailure);
+            }
+        };
+        for (int i = 1; i < subBatches.size() && !getExecutorService().isShutdown(); i++) {
+            try {
+                getExecutorService().submit(worker);
+            } catch (final RejectedExecutionException ex) {
+                break;
+            }
+        }
+        worker.run();
+        try {
+            processedLatch.await();
+        } catch (final InterruptedException ex) {
+            pendingSubBatches.clear();
+            Thread.currentThread().interrupt();
+            throw new JobSystemException(ex);
+        }
+        if (null != processFailure.get()) {
+            throw Throwables.propagate(processFailure.get());
+        }
+    }
+    
+    private void processSubBatches(final ShardingContext shardingContext, final Queue<List<Object>> pendingSubBatches, final CountDownLatch processedLatch, final AtomicReference<Throwable> processFailure) {
+        List<Object> subBatch = pendingSubBatches.poll();
+        while (null != subBatch) {
+            try {
+                if (null == processFailure.get()) {
+                    dataflowJob.processData(shardingContext, subBatch);
+                }
+                // CHECKSTYLE:OFF
+            } catch (final Throwable cause) {
+                // CHECKSTYLE:ON
+                processFailure.compareAndSet(null, cause);
+            } finally {
+                processedLatch.countDown();
+            }
+            subBatch = pendingSubBatches.poll();
+        }
+    }
+    
+    private static final class FetchedData {
+        
+        private final List<Object> data;
+        
+        private final int requestedSize;
+        
+        private final long fetchMilliseconds;
+        
+        FetchedData(final List<Object> data, final int requestedSize, final long fetchMilliseconds) {
+            this.data = data;
+            this.requestedSize = requestedSize;
+            this.fetchMilliseconds = fetchMilliseconds;
+        }
+        
+        boolean hasData() {
+            return null != data && !data.isEmpty();
+        }
     }
 }
@@ -18,16 +18,28 @@
 package com.dangdang.ddframe.job.executor.type;
 
 import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.config.JobTypeConfiguration;
 import com.dangdang.ddframe.job.config.script.ScriptJobConfiguration;
 import com.dangdang.ddframe.job.exception.JobConfigurationException;
 import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.util.json.GsonFactory;
+import com.google.common.base.Objects;
 import com.google.common.base.Strings;
 import org.apache.commons.exec.CommandLine;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteStreamHandler;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 脚本作业执行器.
@@ -37,8 +49,21 @@ import java.io.IOException;
  */
 public final class ScriptJobExecutor extends AbstractElasticJobExecutor {
     
+    private final ScriptWorkerPool scriptWorkerPool;
+    
     public ScriptJobExecutor(final JobFacade jobFacade) {
         super(jobFacade);
+        ScriptJobConfiguration scriptConfig = (ScriptJobConfiguration) getJobRootConfig().getTypeConfig();
+        scriptWorkerPool = scriptConfig.getWorkerPoolSize() > 0 && !Strings.isNullOrEmpty(scriptConfig.getScriptCommandLine())
+                ? new ScriptWorkerPool(scriptConfig.getScriptCommandLine(), scriptConfig.getWorkerPoolSize(), scriptConfig.getWorkerMaxRequests()) : null;
+    }
+    
+    @Override
+    protected boolean isReusable(final JobTypeConfiguration latestTypeConfig) {
+        ScriptJobConfiguration currentScriptConfig = (ScriptJobConfiguration) getJobRootConfig().getTypeConfig();
+        ScriptJobConfiguration latestScriptConfig = (ScriptJobConfiguration) latestTypeConfig;
+        return Objects.equal(currentScriptConfig.getScriptCommandLine(), latestScriptConfig.getScriptCommandLine())
+                && currentScriptConfig.getWorkerPoolSize() == latestScriptConfig.getWorkerPoolSize() && currentScriptConfig.getWorkerMaxRequests() == latestScriptConfig.getWorkerMaxRequests();
     }
     
     @Override
@@ -47,16 +72,82 @@ public final class ScriptJobExecutor extends AbstractElasticJobExecutor {
         if (Strings.isNullOrEmpty(scriptCommandLine)) {
             throw new JobConfigurationException("Cannot find script command line for job '%s', job is not executed.", shardingContext.getJobName());
         }
-        executeScript(shardingContext, scriptCommandLine);
+        if (null == scriptWorkerPool) {
+            executeScript(shardingContext, scriptCommandLine);
+        } else {
+            scriptWorkerPool.execute(shardingContext, getJobRootConfig().getTypeConfig().getCoreConfig().getItemTimeoutMilliseconds());
+        }
     }
     
     private void executeScript(final ShardingContext shardingContext, final String scriptCommandLine) {
         CommandLine commandLine = CommandLine.parse(scriptCommandLine);
         commandLine.addArgument(GsonFactory.getGson().toJson(shardingContext), false);
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer();
+        DefaultExecutor executor = new DefaultExecutor();
+        executor.setStreamHandler(new ScriptOutputStreamHandler(outputBuffer));
         try {
-            new DefaultExecutor().execute(commandLine);
+            executor.execute(commandLine);
         } catch (final IOException ex) {
-            throw new JobConfigurationException("Execute script failure.", ex);
+            throw new JobConfigurationException("%s", outputBuffer.appendTail(String.format("Execute script failure: %s", ex.getMessage())));
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (null != scriptWorkerPool) {
+            scriptWorkerPool.close();
+        }
+    }
+    
+    /**
+     * 将脚本的标准输出和标准错误转发至控制台, 同时保留尾部内容.
+     */
+    @RequiredArgsConstructor
+    private static final class ScriptOutputStreamHandler implements ExecuteStreamHandler {
+        
+        private static final long STOP_TIMEOUT_MILLISECONDS = 1000L;
+        
+        private final ScriptOutputBuffer outputBuffer;
+        
+        private final List<Future<?>> pumps = new ArrayList<>(2);
+        
+        private InputStream processOutput;
+        
+        private InputStream processError;
+        
+        @Override
+        public void setProcessInputStream(final OutputStream outputStream) throws IOException {
+            outputStream.close();
+        }
+        
+        @Override
+        public void setProcessErrorStream(final InputStream inputStream) {
+            processError = inputStream;
+        }
+        
+        @Override
+        public void setProcessOutputStream(final InputStream inputStream) {
+            processOutput = inputStream;
+        }
+        
+        @Override
+        public void start() {
+            pumps.add(ScriptStreamPumper.pump(processOutput, outputBuffer, System.out));
+            pumps.add(ScriptStreamPumper.pump(processError, outputBuffer, System.err));
+        }
+        
+        @Override
+        public void stop() {
+            long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLISECONDS;
+            for (Future<?> each : pumps) {
+                try {
+                    each.get(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (final ExecutionException | TimeoutException ignored) {
+                }
+            }
         }
     }
 }
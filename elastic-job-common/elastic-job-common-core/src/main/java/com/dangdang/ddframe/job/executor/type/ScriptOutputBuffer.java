@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.google.common.base.Charsets;
+
+import java.io.OutputStream;
+
+/**
+ * 脚本输出的有界环形缓冲区.
+ * 
+ * <p>
+ * 仅保留最近写入的固定字节数, 输出再多也不会增加内存占用, 用于在脚本执行失败时附加输出的尾部内容.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class ScriptOutputBuffer extends OutputStream {
+    
+    /**
+     * 每个分片项保留的输出字节数.
+     */
+    static final int TAIL_BYTES = 64 * 1024;
+    
+    private final byte[] buffer;
+    
+    private int position;
+    
+    private long totalBytes;
+    
+    ScriptOutputBuffer() {
+        this(TAIL_BYTES);
+    }
+    
+    ScriptOutputBuffer(final int capacity) {
+        buffer = new byte[capacity];
+    }
+    
+    @Override
+    public void write(final int b) {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+    
+    @Override
+    public synchronized void write(final byte[] bytes, final int offset, final int length) {
+        totalBytes += length;
+        int start = offset;
+        int count = length;
+        if (count > buffer.length) {
+            start += count - buffer.length;
+            count = buffer.length;
+        }
+        int firstPart = Math.min(count, buffer.length - position);
+        System.arraycopy(bytes, start, buffer, position, firstPart);
+        System.arraycopy(bytes, start + firstPart, buffer, 0, count - firstPart);
+        position = (position + count) % buffer.length;
+    }
+    
+    /**
+     * 清空缓冲区.
+     */
+    synchronized void reset() {
+        position = 0;
+        totalBytes = 0L;
+    }
+    
+    /**
+     * 获取清空后累计写入的字节数.
+     * 
+     * @return 累计写入的字节数
+     */
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    /**
+     * 获取输出的尾部内容.
+     * 
+     * @return 输出的尾部内容, 有内容被丢弃时以省略号开头
+     */
+    synchronized String getTail() {
+        int size = (int) Math.min(totalBytes, buffer.length);
+        byte[] result = new byte[size];
+        int start = (position - size + buffer.length) % buffer.length;
+        int firstPart = Math.min(size, buffer.length - start);
+        System.arraycopy(buffer, start, result, 0, firstPart);
+        System.arraycopy(buffer, 0, result, firstPart, size - firstPart);
+        String tail = new String(result, Charsets.UTF_8);
+        return totalBytes > buffer.length ? "..." + tail : tail;
+    }
+    
+    /**
+     * 在错误信息后附加输出的尾部内容.
+     * 
+     * @param errorMessage 错误信息
+     * @return 附加输出尾部内容后的错误信息, 无输出时返回原错误信息
+     */
+    String appendTail(final String errorMessage) {
+        String tail = getTail();
+        return tail.isEmpty() ? errorMessage : String.format("%s%nScript output tail:%n%s", errorMessage, tail);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 脚本进程输入输出流的读取器.
+ * 
+ * <p>
+ * 所有脚本作业共享同一组守护线程持续读取子进程的输出, 避免子进程因管道写满而阻塞.
+ * 读取子进程输出是阻塞操作, 每个未关闭的流占用一个线程, 线程数随存活的脚本进程伸缩并在进程间复用.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ScriptStreamPumper {
+    
+    private static final int BUFFER_SIZE = 4096;
+    
+    private static final ExecutorService IO_EXECUTOR = Executors.newCachedThreadPool(new BasicThreadFactory.Builder().namingPattern("script-io-%s").daemon(true).build());
+    
+    /**
+     * 将输入流的内容持续复制至输出流, 直至输入流结束.
+     * 
+     * @param inputStream 输入流
+     * @param outputStreams 输出流
+     * @return 复制任务
+     */
+    static Future<?> pump(final InputStream inputStream, final OutputStream... outputStreams) {
+        return submit(new Runnable() {
+            
+            @Override
+            public void run() {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream in = inputStream) {
+                    int length;
+                    while (-1 != (length = in.read(buffer))) {
+                        for (OutputStream each : outputStreams) {
+                            each.write(buffer, 0, length);
+                        }
+                    }
+                } catch (final IOException ignored) {
+                }
+            }
+        });
+    }
+    
+    /**
+     * 提交读取任务.
+     * 
+     * @param task 读取任务
+     * @return 读取任务
+     */
+    static Future<?> submit(final Runnable task) {
+        return IO_EXECUTOR.submit(task);
+    }
+}
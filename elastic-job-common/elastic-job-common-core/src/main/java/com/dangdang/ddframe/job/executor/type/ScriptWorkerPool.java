@@ -0,0 +1,304 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.util.json.GsonFactory;
+import com.google.common.base.Charsets;
+import com.google.gson.JsonParseException;
+import lombok.Getter;
+import org.apache.commons.exec.CommandLine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 常驻脚本工作进程池.
+ * 
+ * <p>
+ * 工作进程启动后持续从标准输入逐行读取分片上下文JSON, 每处理完一个分片项向标准输出写入一行结果JSON, 
+ * 如{@code {"success":true}}或{@code {"success":false,"message":"..."}}, 标准输入关闭时应退出.
+ * 脚本日志需输出至标准错误, 避免破坏标准输出上的协议, 执行失败时附加该请求期间标准错误的尾部内容.
+ * 请求超时, 执行线程被中断, 协议错误或进程退出时销毁该工作进程, 后续请求按需启动新进程.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class ScriptWorkerPool {
+    
+    private static final Object END_OF_STREAM = new Object();
+    
+    private final String[] command;
+    
+    private final int maxRequestsPerWorker;
+    
+    private final Semaphore workerPermits;
+    
+    private final Deque<ScriptWorker> idleWorkers = new ArrayDeque<>();
+    
+    private final AtomicInteger startedWorkerCount = new AtomicInteger();
+    
+    private boolean closed;
+    
+    ScriptWorkerPool(final String scriptCommandLine, final int poolSize, final int maxRequestsPerWorker) {
+        command = CommandLine.parse(scriptCommandLine).toStrings();
+        this.maxRequestsPerWorker = maxRequestsPerWorker;
+        workerPermits = new Semaphore(poolSize, true);
+    }
+    
+    /**
+     * 由工作进程执行分片项.
+     * 
+     * @param shardingContext 分片上下文
+     * @param timeoutMilliseconds 等待工作进程及其结果的超时毫秒数, 0表示不超时
+     */
+    void execute(final ShardingContext shardingContext, final long timeoutMilliseconds) {
+        long deadline = timeoutMilliseconds > 0 ? System.currentTimeMillis() + timeoutMilliseconds : Long.MAX_VALUE;
+        try {
+            if (!acquireWorkerPermit(deadline)) {
+                throw new JobSystemException("Acquire script worker for item '%s' timeout after %s milliseconds.", shardingContext.getShardingItem(), timeoutMilliseconds);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new JobSystemException(ex);
+        }
+        ScriptWorker worker = null;
+        boolean healthy = false;
+        try {
+            worker = borrowWorker();
+            ScriptWorkerResponse response = worker.request(GsonFactory.getGson().toJson(shardingContext), deadline);
+            if (null == response) {
+                throw worker.newFailure(String.format("Script worker for item '%s' timeout after %s milliseconds.", shardingContext.getShardingItem(), timeoutMilliseconds));
+            }
+            healthy = true;
+            if (!response.isSuccess()) {
+                throw worker.newFailure(String.format("Script worker execute item '%s' failure: %s", shardingContext.getShardingItem(), response.getMessage()));
+            }
+        } catch (final IOException | JsonParseException ex) {
+            if (null == worker) {
+                throw new JobSystemException(ex);
+            }
+            throw worker.newFailure(String.format("Script worker execute item '%s' failure: %s", shardingContext.getShardingItem(), ex.getMessage()));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new JobSystemException(ex);
+        } finally {
+            if (null != worker) {
+                returnWorker(worker, healthy);
+            }
+            workerPermits.release();
+        }
+    }
+    
+    private boolean acquireWorkerPermit(final long deadline) throws InterruptedException {
+        if (Long.MAX_VALUE == deadline) {
+            workerPermits.acquire();
+            return true;
+        }
+        return workerPermits.tryAcquire(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+    }
+    
+    private ScriptWorker borrowWorker() throws IOException {
+        while (true) {
+            ScriptWorker result;
+            synchronized (this) {
+                if (closed) {
+                    throw new JobSystemException("Script worker pool is closed.");
+                }
+                result = idleWorkers.poll();
+            }
+            if (null == result) {
+                startedWorkerCount.incrementAndGet();
+                return new ScriptWorker(command);
+            }
+            if (result.isIdle()) {
+                return result;
+            }
+            result.destroy();
+        }
+    }
+    
+    private void returnWorker(final ScriptWorker worker, final boolean healthy) {
+        boolean retired = !healthy || maxRequestsPerWorker > 0 && worker.getRequestCount() >= maxRequestsPerWorker;
+        if (!retired) {
+            synchronized (this) {
+                if (!closed) {
+                    idleWorkers.push(worker);
+                    return;
+                }
+            }
+        }
+        worker.destroy();
+    }
+    
+    /**
+     * 获取已启动的工作进程总数.
+     * 
+     * @return 已启动的工作进程总数
+     */
+    int getStartedWorkerCount() {
+        return startedWorkerCount.get();
+    }
+    
+    /**
+     * 关闭工作进程池.
+     * 
+     * <p>
+     * 空闲工作进程立即销毁, 执行中的工作进程在当前请求结束后销毁.
+     * </p>
+     */
+    void close() {
+        Deque<ScriptWorker> workers;
+        synchronized (this) {
+            closed = true;
+            workers = new ArrayDeque<>(idleWorkers);
+            idleWorkers.clear();
+        }
+        for (ScriptWorker each : workers) {
+            each.destroy();
+        }
+    }
+    
+    /**
+     * 脚本工作进程.
+     * 
+     * <p>
+     * 标准输出与标准错误由不同线程读取, 失败时等待标准错误缓冲区不再增长, 最多等待{@code ERROR_DRAIN_MILLISECONDS}毫秒, 使脚本已写出的标准错误内容进入缓冲区.
+     * </p>
+     */
+    private static final class ScriptWorker {
+        
+        private static final long ERROR_DRAIN_MILLISECONDS = 100L;
+        
+        private static final long ERROR_DRAIN_PAUSE_MILLISECONDS = 5L;
+        
+        private final Process process;
+        
+        private final BufferedWriter writer;
+        
+        private final BlockingQueue<Object> responseLines = new LinkedBlockingQueue<>();
+        
+        private final ScriptOutputBuffer errorBuffer = new ScriptOutputBuffer();
+        
+        @Getter
+        private int requestCount;
+        
+        ScriptWorker(final String[] command) throws IOException {
+            process = new ProcessBuilder(command).start();
+            writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), Charsets.UTF_8));
+            ScriptStreamPumper.pump(process.getErrorStream(), errorBuffer, System.err);
+            ScriptStreamPumper.submit(new Runnable() {
+                
+                @Override
+                public void run() {
+                    readResponseLines();
+                }
+            });
+        }
+        
+        private void readResponseLines() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charsets.UTF_8))) {
+                String line;
+                while (null != (line = reader.readLine())) {
+                    responseLines.offer(line);
+                }
+            } catch (final IOException ignored) {
+            } finally {
+                responseLines.offer(END_OF_STREAM);
+            }
+        }
+        
+        /**
+         * 判断工作进程是否可接受新请求.
+         * 
+         * <p>
+         * 空闲期间进程退出或输出了多余的内容均视为不可用.
+         * </p>
+         * 
+         * @return 工作进程是否可接受新请求
+         */
+        boolean isIdle() {
+            return responseLines.isEmpty();
+        }
+        
+        ScriptWorkerResponse request(final String requestLine, final long deadline) throws IOException, InterruptedException {
+            requestCount++;
+            errorBuffer.reset();
+            writer.write(requestLine);
+            writer.newLine();
+            writer.flush();
+            Object result = Long.MAX_VALUE == deadline ? responseLines.take() : responseLines.poll(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+            if (null == result) {
+                return null;
+            }
+            if (END_OF_STREAM == result) {
+                throw new IOException("Script worker exited before responding.");
+            }
+            ScriptWorkerResponse response = GsonFactory.getGson().fromJson((String) result, ScriptWorkerResponse.class);
+            if (null == response) {
+                throw new JsonParseException(String.format("Illegal script worker response '%s'.", result));
+            }
+            return response;
+        }
+        
+        JobSystemException newFailure(final String errorMessage) {
+            awaitErrorStreamDrained();
+            return new JobSystemException("%s", errorBuffer.appendTail(errorMessage));
+        }
+        
+        private void awaitErrorStreamDrained() {
+            long deadline = System.currentTimeMillis() + ERROR_DRAIN_MILLISECONDS;
+            try {
+                long writtenBytes;
+                do {
+                    writtenBytes = errorBuffer.getTotalBytes();
+                    Thread.sleep(ERROR_DRAIN_PAUSE_MILLISECONDS);
+                } while (writtenBytes != errorBuffer.getTotalBytes() && System.currentTimeMillis() < deadline);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        void destroy() {
+            try {
+                writer.close();
+            } catch (final IOException ignored) {
+            }
+            process.destroy();
+        }
+    }
+    
+    @Getter
+    private static final class ScriptWorkerResponse {
+        
+        private boolean success;
+        
+        private String message;
+    }
+}
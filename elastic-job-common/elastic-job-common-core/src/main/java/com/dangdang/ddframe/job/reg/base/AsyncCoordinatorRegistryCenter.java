@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * 异步的用于协调分布式服务的注册中心.
+ * 
+ * <p>
+ * 所有操作立即返回, 不阻塞调用线程. 同一注册中心客户端提交的单次请求按提交顺序执行, 因此后续的同步操作可以看到之前提交的更新和删除操作.
+ * 需要多次网络往返的操作(创建不存在的节点, 临时节点)只有在返回结果完成后才保证可见.
+ * 忽略节点不存在, 节点已存在和连接丢失异常的处理方式与{@link CoordinatorRegistryCenter}一致.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface AsyncCoordinatorRegistryCenter {
+    
+    /**
+     * 直接从注册中心获取数据.
+     * 
+     * @param key 键
+     * @return 值
+     */
+    ListenableFuture<String> getDirectly(String key);
+    
+    /**
+     * 获取数据是否存在.
+     * 
+     * @param key 键
+     * @return 数据是否存在
+     */
+    ListenableFuture<Boolean> isExisted(String key);
+    
+    /**
+     * 获取子节点名称集合.
+     * 
+     * @param key 键
+     * @return 子节点名称集合
+     */
+    ListenableFuture<List<String>> getChildrenKeys(String key);
+    
+    /**
+     * 持久化注册数据.
+     * 
+     * <p>先尝试更新, 节点不存在时再创建. 节点已存在时只需一次网络往返, 且与后续操作保持提交顺序.</p>
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persist(String key, String value);
+    
+    /**
+     * 持久化临时注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persistEphemeral(String key, String value);
+    
+    /**
+     * 更新注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> update(String key, String value);
+    
+    /**
+     * 删除注册数据.
+     * 
+     * @param key 键
+     * @return 操作结果
+     */
+    ListenableFuture<Void> remove(String key);
+}
@@ -50,6 +50,67 @@ public interface CoordinatorRegistryCenter extends RegistryCenter {
      */
     int getNumChildren(String key);
     
+    /**
+     * 优先从本地缓存获取数据是否存在.
+     * 
+     * <p>缓存未覆盖该键或尚未初始化完成时直接从注册中心获取. 缓存可能短暂滞后于注册中心, 需要线性一致读时应先调用{@link #sync(String)}再直接读取.</p>
+     * 
+     * @param key 键
+     * @return 数据是否存在
+     */
+    boolean isExistedInCache(String key);
+    
+    /**
+     * 优先从本地缓存获取子节点名称集合.
+     * 
+     * <p>缓存未覆盖该键或尚未初始化完成时直接从注册中心获取.</p>
+     * 
+     * @param key 键
+     * @return 子节点名称集合
+     */
+    List<String> getChildrenKeysInCache(String key);
+    
+    /**
+     * 优先从本地缓存获取子节点数量.
+     * 
+     * <p>缓存未覆盖该键或尚未初始化完成时直接从注册中心获取.</p>
+     * 
+     * @param key 键
+     * @return 子节点数量
+     */
+    int getNumChildrenInCache(String key);
+    
+    /**
+     * 同步注册中心数据.
+     * 
+     * <p>调用返回后, 直接从注册中心读取的数据不早于调用时刻.</p>
+     * 
+     * @param key 键
+     */
+    void sync(String key);
+    
+    /**
+     * 阻塞等待数据存在.
+     * 
+     * <p>通过注册中心的监听通知唤醒, 数据创建后立即返回.</p>
+     * 
+     * @param key 键
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 数据是否存在, 等待超时则返回false
+     */
+    boolean waitUntilExisted(String key, long timeoutMilliseconds);
+    
+    /**
+     * 阻塞等待数据被删除.
+     * 
+     * <p>通过注册中心的监听通知唤醒, 数据删除后立即返回.</p>
+     * 
+     * @param key 键
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 数据是否已被删除, 等待超时则返回false
+     */
+    boolean waitUntilRemoved(String key, long timeoutMilliseconds);
+    
     /**
      * 持久化临时注册数据.
      * 
@@ -73,6 +134,20 @@ public interface CoordinatorRegistryCenter extends RegistryCenter {
      */
     void persistEphemeralSequential(String key);
     
+    /**
+     * 创建批量写操作.
+     * 
+     * @return 批量写操作
+     */
+    RegistryBatch createBatch();
+    
+    /**
+     * 获取异步注册中心.
+     * 
+     * @return 共享同一客户端的异步注册中心
+     */
+    AsyncCoordinatorRegistryCenter getAsyncRegistryCenter();
+    
     /**
      * 添加本地缓存.
      * 
@@ -87,4 +162,13 @@ public interface CoordinatorRegistryCenter extends RegistryCenter {
      * @return 注册中心数据缓存对象
      */
     Object getRawCache(String cachePath);
+    
+    /**
+     * 获取注册中心时钟.
+     * 
+     * <p>同一注册中心共享一个时钟, 首次获取时开始采样, 注册中心关闭时停止采样.</p>
+     * 
+     * @return 注册中心时钟
+     */
+    RegistryCenterClock getRegistryCenterClock();
 }
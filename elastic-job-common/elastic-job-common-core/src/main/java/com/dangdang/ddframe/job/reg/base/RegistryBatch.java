@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+/**
+ * 注册中心批量写操作.
+ * 
+ * <p>
+ * 收集多个写操作, 调用{@link #commit()}时一次性提交到注册中心, 以减少网络往返次数.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface RegistryBatch {
+    
+    /**
+     * 持久化注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量写操作
+     */
+    RegistryBatch persist(String key, String value);
+    
+    /**
+     * 注册数据不存在时创建持久化注册数据, 已存在时保持原数据不变.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量写操作
+     */
+    RegistryBatch create(String key, String value);
+    
+    /**
+     * 持久化临时注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量写操作
+     */
+    RegistryBatch persistEphemeral(String key, String value);
+    
+    /**
+     * 更新注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 批量写操作
+     */
+    RegistryBatch update(String key, String value);
+    
+    /**
+     * 删除注册数据.
+     * 
+     * @param key 键
+     * @return 批量写操作
+     */
+    RegistryBatch remove(String key);
+    
+    /**
+     * 提交所有收集的写操作.
+     */
+    void commit();
+}
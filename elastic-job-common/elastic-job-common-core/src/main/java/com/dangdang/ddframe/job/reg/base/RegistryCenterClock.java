@@ -0,0 +1,64 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+/**
+ * 注册中心时钟.
+ * 
+ * <p>
+ * 在后台周期性采样注册中心时间, 在内存中维护平滑后的本机与注册中心的时间偏移量及其误差范围, 读取时不访问注册中心.
+ * 偏移量稳定时逐步拉长采样间隔, 发现偏移量跳变或采样失败时恢复为最短采样间隔.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface RegistryCenterClock {
+    
+    /**
+     * 采样节点名称, 位于命名空间根路径下.
+     */
+    String SAMPLE_NODE_NAME = "systemTime";
+    
+    /**
+     * 判断是否已成功采样.
+     * 
+     * @return 是否已成功采样
+     */
+    boolean isSampled();
+    
+    /**
+     * 获取注册中心时间相对于本机时间的偏移毫秒数.
+     * 
+     * @return 偏移毫秒数, 正数表示注册中心时间快于本机时间
+     */
+    long getOffsetMilliseconds();
+    
+    /**
+     * 获取偏移量的误差范围毫秒数.
+     * 
+     * @return 误差范围毫秒数
+     */
+    long getErrorBoundMilliseconds();
+    
+    /**
+     * 获取估算的注册中心当前时间.
+     * 
+     * @return 注册中心当前时间毫秒数
+     */
+    long currentTimeMillis();
+}
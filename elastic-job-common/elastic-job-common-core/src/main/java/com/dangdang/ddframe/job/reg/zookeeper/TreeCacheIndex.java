@@ -0,0 +1,150 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.apache.curator.framework.recipes.cache.TreeCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按路径分段索引的注册中心缓存.
+ * 
+ * <p>
+ * 以路径段为键的并发前缀树, 查找覆盖某节点的缓存时只与路径深度相关, 与已注册的缓存数量无关.
+ * 可由多个作业初始化线程并发注册.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class TreeCacheIndex {
+    
+    private final IndexNode root = new IndexNode();
+    
+    /**
+     * 注册缓存.
+     * 
+     * @param cachePath 缓存的根路径
+     * @param cache 缓存
+     */
+    void put(final String cachePath, final TreeCache cache) {
+        IndexNode current = root;
+        for (String each : split(cachePath)) {
+            IndexNode child = current.children.get(each);
+            if (null == child) {
+                IndexNode created = new IndexNode();
+                child = current.children.putIfAbsent(each, created);
+                if (null == child) {
+                    child = created;
+                }
+            }
+            current = child;
+        }
+        current.cache = cache;
+    }
+    
+    /**
+     * 获取根路径恰好为指定路径的缓存.
+     * 
+     * @param cachePath 缓存的根路径
+     * @return 缓存, 不存在则返回null
+     */
+    TreeCache get(final String cachePath) {
+        IndexNode current = root;
+        for (String each : split(cachePath)) {
+            current = current.children.get(each);
+            if (null == current) {
+                return null;
+            }
+        }
+        return current.cache;
+    }
+    
+    /**
+     * 查找覆盖指定节点的缓存.
+     * 
+     * <p>
+     * 存在多个覆盖该节点的缓存时, 返回根路径最深的缓存.
+     * </p>
+     * 
+     * @param key 节点路径
+     * @return 缓存, 不存在则返回null
+     */
+    TreeCache find(final String key) {
+        TreeCache result = root.cache;
+        IndexNode current = root;
+        int start = 0;
+        while (start < key.length()) {
+            int end = key.indexOf('/', start);
+            if (-1 == end) {
+                end = key.length();
+            }
+            if (end > start) {
+                current = current.children.get(key.substring(start, end));
+                if (null == current) {
+                    return result;
+                }
+                if (null != current.cache) {
+                    result = current.cache;
+                }
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+    
+    /**
+     * 获取全部缓存.
+     * 
+     * @return 全部缓存
+     */
+    Collection<TreeCache> values() {
+        List<TreeCache> result = new ArrayList<>();
+        collect(root, result);
+        return result;
+    }
+    
+    private void collect(final IndexNode node, final List<TreeCache> result) {
+        if (null != node.cache) {
+            result.add(node.cache);
+        }
+        for (IndexNode each : node.children.values()) {
+            collect(each, result);
+        }
+    }
+    
+    private List<String> split(final String path) {
+        List<String> result = new ArrayList<>();
+        for (String each : path.split("/")) {
+            if (!each.isEmpty()) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    private static final class IndexNode {
+        
+        private final ConcurrentMap<String, IndexNode> children = new ConcurrentHashMap<>();
+        
+        private volatile TreeCache cache;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.AsyncCoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 基于Zookeeper后台回调的异步注册中心.
+ * 
+ * <p>
+ * 与{@link ZookeeperRegistryCenter}共享同一个客户端.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Slf4j
+final class ZookeeperAsyncRegistryCenter implements AsyncCoordinatorRegistryCenter {
+    
+    private final ZookeeperRegistryCenter regCenter;
+    
+    @Override
+    public ListenableFuture<String> getDirectly(final String key) {
+        final SettableFuture<String> result = SettableFuture.create();
+        try {
+            getClient().getData().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    if (Code.OK.intValue() == event.getResultCode()) {
+                        result.set(new String(event.getData(), Charsets.UTF_8));
+                    } else {
+                        completeWithIgnoredException(result, event, null);
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Boolean> isExisted(final String key) {
+        final SettableFuture<Boolean> result = SettableFuture.create();
+        try {
+            getClient().checkExists().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    if (Code.OK.intValue() == event.getResultCode()) {
+                        result.set(null != event.getStat());
+                    } else {
+                        completeWithIgnoredException(result, event, false);
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<List<String>> getChildrenKeys(final String key) {
+        final SettableFuture<List<String>> result = SettableFuture.create();
+        try {
+            getClient().getChildren().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    if (Code.OK.intValue() == event.getResultCode()) {
+                        List<String> children = new ArrayList<>(event.getChildren());
+                        Collections.sort(children, new Comparator<String>() {
+                            
+                            @Override
+                            public int compare(final String o1, final String o2) {
+                                return o2.compareTo(o1);
+                            }
+                        });
+                        result.set(children);
+                    } else {
+                        completeWithIgnoredException(result, event, Collections.<String>emptyList());
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> persist(final String key, final String value) {
+        final SettableFuture<Void> result = SettableFuture.create();
+        try {
+            getClient().setData().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    if (Code.NONODE.intValue() == event.getResultCode()) {
+                        create(key, value, CreateMode.PERSISTENT, result);
+                    } else {
+                        complete(result, event);
+                    }
+                }
+            }).forPath(key, value.getBytes(Charsets.UTF_8));
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistEphemeral(final String key, final String value) {
+        final SettableFuture<Void> result = SettableFuture.create();
+        try {
+            getClient().delete().deletingChildrenIfNeeded().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    if (Code.OK.intValue() == event.getResultCode() || Code.NONODE.intValue() == event.getResultCode()) {
+                        create(key, value, CreateMode.EPHEMERAL, result);
+                    } else {
+                        complete(result, event);
+                    }
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    private void create(final String key, final String value, final CreateMode createMode, final SettableFuture<Void> result) {
+        try {
+            getClient().create().creatingParentsIfNeeded().withMode(createMode).inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    complete(result, event);
+                }
+            }).forPath(key, value.getBytes(Charsets.UTF_8));
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+    }
+    
+    @Override
+    public ListenableFuture<Void> update(final String key, final String value) {
+        final SettableFuture<Void> result = SettableFuture.create();
+        try {
+            getClient().setData().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    complete(result, event);
+                }
+            }).forPath(key, value.getBytes(Charsets.UTF_8));
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> remove(final String key) {
+        final SettableFuture<Void> result = SettableFuture.create();
+        try {
+            getClient().delete().deletingChildrenIfNeeded().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    complete(result, event);
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(new RegException(ex));
+        }
+        return result;
+    }
+    
+    private CuratorFramework getClient() {
+        return regCenter.getClient();
+    }
+    
+    private static void complete(final SettableFuture<Void> result, final CuratorEvent event) {
+        if (Code.OK.intValue() == event.getResultCode()) {
+            result.set(null);
+        } else {
+            completeWithIgnoredException(result, event, null);
+        }
+    }
+    
+    private static <T> void completeWithIgnoredException(final SettableFuture<T> result, final CuratorEvent event, final T ignoredValue) {
+        Code code = Code.get(event.getResultCode());
+        if (Code.NONODE == code || Code.NODEEXISTS == code || Code.CONNECTIONLOSS == code) {
+            log.debug("Elastic job: ignored exception for: {}", KeeperException.create(code, event.getPath()).getMessage());
+            result.set(ignoredValue);
+        } else {
+            result.setException(new RegException(KeeperException.create(code, event.getPath())));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.RegistryBatch;
+import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.KeeperException.NodeExistsException;
+import org.apache.zookeeper.KeeperException.NotEmptyException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * 基于Zookeeper multi的批量写操作.
+ * 
+ * <p>
+ * 节点是否存在从本地缓存判断, 所有操作在一次multi请求中提交.
+ * 缓存中不存在的待删除节点可能是刚创建而尚未同步至缓存的节点, 提交前以并发的异步请求从注册中心确认, 确认失败时仍按存在处理.
+ * 若因缓存滞后或父节点不存在导致提交失败, 则退化为逐个执行, 创建和删除时容忍节点已存在或不存在.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Slf4j
+final class ZookeeperRegistryBatch implements RegistryBatch {
+    
+    private final ZookeeperRegistryCenter regCenter;
+    
+    private final List<Operation> operations = new ArrayList<>();
+    
+    @Override
+    public RegistryBatch persist(final String key, final String value) {
+        operations.add(new Operation(OperationType.PERSIST, key, value));
+        return this;
+    }
+    
+    @Override
+    public RegistryBatch create(final String key, final String value) {
+        operations.add(new Operation(OperationType.CREATE, key, value));
+        return this;
+    }
+    
+    @Override
+    public RegistryBatch persistEphemeral(final String key, final String value) {
+        operations.add(new Operation(OperationType.PERSIST_EPHEMERAL, key, value));
+        return this;
+    }
+    
+    @Override
+    public RegistryBatch update(final String key, final String value) {
+        operations.add(new Operation(OperationType.UPDATE, key, value));
+        return this;
+    }
+    
+    @Override
+    public RegistryBatch remove(final String key) {
+        operations.add(new Operation(OperationType.REMOVE, key, null));
+        return this;
+    }
+    
+    @Override
+    public void commit() {
+        if (operations.isEmpty()) {
+            return;
+        }
+        try {
+            CuratorTransactionFinal transaction = buildTransaction();
+            if (null != transaction) {
+                transaction.commit();
+            }
+        } catch (final NodeExistsException | NoNodeException | NotEmptyException ex) {
+            log.debug("Elastic job: batch commit conflict for: {}, fall back to single operations.", ex.getMessage());
+            commitOneByOne();
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        } finally {
+            operations.clear();
+        }
+    }
+    
+    private CuratorTransactionFinal buildTransaction() throws Exception {
+        Map<String, Boolean> existedInBatch = new HashMap<>(operations.size(), 1);
+        Set<String> uncachedRemovingKeys = getExistedUncachedRemovingKeys();
+        CuratorTransaction transaction = regCenter.getClient().inTransaction();
+        CuratorTransactionFinal result = null;
+        for (Operation each : operations) {
+            boolean existed = existedInBatch.containsKey(each.key) ? existedInBatch.get(each.key) : regCenter.isExistedInCache(each.key);
+            switch (each.type) {
+                case PERSIST:
+                    result = existed ? transaction.setData().forPath(each.key, each.getBytes()).and()
+                            : transaction.create().withMode(CreateMode.PERSISTENT).forPath(each.key, each.getBytes()).and();
+                    existedInBatch.put(each.key, true);
+                    break;
+                case CREATE:
+                    if (!existed) {
+                        result = transaction.create().withMode(CreateMode.PERSISTENT).forPath(each.key, each.getBytes()).and();
+                        existedInBatch.put(each.key, true);
+                    }
+                    break;
+                case PERSIST_EPHEMERAL:
+                    if (existed) {
+                        transaction = appendDelete(transaction, each.key);
+                    }
+                    result = transaction.create().withMode(CreateMode.EPHEMERAL).forPath(each.key, each.getBytes()).and();
+                    existedInBatch.put(each.key, true);
+                    break;
+                case UPDATE:
+                    result = transaction.setData().forPath(each.key, each.getBytes()).and();
+                    break;
+                case REMOVE:
+                    if (existed || !existedInBatch.containsKey(each.key) && uncachedRemovingKeys.contains(each.key)) {
+                        result = appendDelete(transaction, each.key);
+                        existedInBatch.put(each.key, false);
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException(each.type.name());
+            }
+            if (null != result) {
+                transaction = result;
+            }
+        }
+        return result;
+    }
+    
+    private Set<String> getExistedUncachedRemovingKeys() throws Exception {
+        Map<String, ListenableFuture<Boolean>> existedFutures = new LinkedHashMap<>();
+        for (Operation each : operations) {
+            if (OperationType.REMOVE == each.type && !existedFutures.containsKey(each.key) && !regCenter.isExistedInCache(each.key)) {
+                existedFutures.put(each.key, regCenter.getAsyncRegistryCenter().isExisted(each.key));
+            }
+        }
+        Set<String> result = new HashSet<>(existedFutures.size(), 1);
+        if (existedFutures.isEmpty()) {
+            return result;
+        }
+        Futures.successfulAsList(existedFutures.values()).get();
+        for (Entry<String, ListenableFuture<Boolean>> entry : existedFutures.entrySet()) {
+            if (isExistedOrUnknown(entry.getValue())) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+    
+    private boolean isExistedOrUnknown(final ListenableFuture<Boolean> existedFuture) {
+        try {
+            return existedFuture.get();
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            return true;
+        }
+    }
+    
+    private CuratorTransactionFinal appendDelete(final CuratorTransaction transaction, final String key) throws Exception {
+        CuratorTransaction result = transaction;
+        for (String each : regCenter.getChildrenKeysInCache(key)) {
+            result = appendDelete(result, key + "/" + each);
+        }
+        return result.delete().forPath(key).and();
+    }
+    
+    private void commitOneByOne() {
+        for (Operation each : operations) {
+            switch (each.type) {
+                case PERSIST:
+                    regCenter.persist(each.key, each.value);
+                    break;
+                case CREATE:
+                    createIfAbsent(each);
+                    break;
+                case PERSIST_EPHEMERAL:
+                    regCenter.persistEphemeral(each.key, each.value);
+                    break;
+                case UPDATE:
+                    regCenter.update(each.key, each.value);
+                    break;
+                case REMOVE:
+                    regCenter.remove(each.key);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(each.type.name());
+            }
+        }
+    }
+    
+    private void createIfAbsent(final Operation operation) {
+        try {
+            regCenter.getClient().create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).forPath(operation.key, operation.getBytes());
+        } catch (final NodeExistsException ignored) {
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+    }
+    
+    private enum OperationType {
+        
+        PERSIST, CREATE, PERSIST_EPHEMERAL, UPDATE, REMOVE
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Operation {
+        
+        private final OperationType type;
+        
+        private final String key;
+        
+        private final String value;
+        
+        private byte[] getBytes() {
+            return value.getBytes(Charsets.UTF_8);
+        }
+    }
+}
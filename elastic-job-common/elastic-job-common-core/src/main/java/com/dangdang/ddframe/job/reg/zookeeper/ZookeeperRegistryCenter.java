@@ -17,7 +17,10 @@
 
 package com.dangdang.ddframe.job.reg.zookeeper;
 
+import com.dangdang.ddframe.job.reg.base.AsyncCoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryBatch;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
@@ -28,22 +31,30 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.api.ACLProvider;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.CuratorWatcher;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.curator.utils.CloseableUtils;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.ACL;
 import org.apache.zookeeper.data.Stat;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -57,11 +68,20 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     @Getter(AccessLevel.PROTECTED)
     private ZookeeperConfiguration zkConfig;
     
-    private final Map<String, TreeCache> caches = new HashMap<>();
+    private final TreeCacheIndex caches = new TreeCacheIndex();
+    
+    private final Set<TreeCache> initializedCaches = Collections.newSetFromMap(new ConcurrentHashMap<TreeCache, Boolean>());
     
     @Getter
     private CuratorFramework client;
     
+    @Getter
+    private final AsyncCoordinatorRegistryCenter asyncRegistryCenter = new ZookeeperAsyncRegistryCenter(this);
+    
+    private volatile ZookeeperRegistryCenterClock registryCenterClock;
+    
+    private final ConcurrentHashMap<String, CountDownLatch> nodeChangedLatches = new ConcurrentHashMap<>();
+    
     public ZookeeperRegistryCenter(final ZookeeperConfiguration zkConfig) {
         this.zkConfig = zkConfig;
     }
@@ -110,8 +130,12 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public void close() {
-        for (Entry<String, TreeCache> each : caches.entrySet()) {
-            each.getValue().close();
+        if (null != registryCenterClock) {
+            registryCenterClock.close();
+        }
+        for (TreeCache each : caches.values()) {
+            initializedCaches.remove(each);
+            each.close();
         }
         waitForCacheClose();
         CloseableUtils.closeQuietly(client);
@@ -144,12 +168,7 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     }
     
     private TreeCache findTreeCache(final String key) {
-        for (Entry<String, TreeCache> entry : caches.entrySet()) {
-            if (key.startsWith(entry.getKey())) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return caches.find(key);
     }
     
     @Override
@@ -216,6 +235,129 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    @Override
+    public boolean isExistedInCache(final String key) {
+        TreeCache cache = findInitializedTreeCache(key);
+        if (null == cache) {
+            return isExisted(key);
+        }
+        return null != cache.getCurrentData(key);
+    }
+    
+    @Override
+    public List<String> getChildrenKeysInCache(final String key) {
+        TreeCache cache = findInitializedTreeCache(key);
+        if (null == cache) {
+            return getChildrenKeys(key);
+        }
+        Map<String, ChildData> children = cache.getCurrentChildren(key);
+        if (null == children) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(children.keySet());
+        Collections.sort(result, Collections.reverseOrder());
+        return result;
+    }
+    
+    @Override
+    public int getNumChildrenInCache(final String key) {
+        TreeCache cache = findInitializedTreeCache(key);
+        if (null == cache) {
+            return getNumChildren(key);
+        }
+        Map<String, ChildData> children = cache.getCurrentChildren(key);
+        return null == children ? 0 : children.size();
+    }
+    
+    private TreeCache findInitializedTreeCache(final String key) {
+        TreeCache result = findTreeCache(key);
+        return null != result && initializedCaches.contains(result) ? result : null;
+    }
+    
+    @Override
+    public void sync(final String key) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            client.sync().inBackground(new BackgroundCallback() {
+                
+                @Override
+                public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                    latch.countDown();
+                }
+            }).forPath(key);
+            if (!latch.await(zkConfig.getMaxSleepTimeMilliseconds() * zkConfig.getMaxRetries(), TimeUnit.MILLISECONDS)) {
+                throw new KeeperException.OperationTimeoutException();
+            }
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+    }
+    
+    @Override
+    public boolean waitUntilExisted(final String key, final long timeoutMilliseconds) {
+        return waitUntil(key, true, timeoutMilliseconds);
+    }
+    
+    @Override
+    public boolean waitUntilRemoved(final String key, final long timeoutMilliseconds) {
+        return waitUntil(key, false, timeoutMilliseconds);
+    }
+    
+    private boolean waitUntil(final String key, final boolean expectedExisted, final long timeoutMilliseconds) {
+        long deadline = System.currentTimeMillis() + timeoutMilliseconds;
+        try {
+            while (true) {
+                CountDownLatch latch = new CountDownLatch(1);
+                CountDownLatch armedLatch = nodeChangedLatches.putIfAbsent(key, latch);
+                boolean existed;
+                if (null == armedLatch) {
+                    existed = watchNodeChanged(key, latch);
+                } else {
+                    latch = armedLatch;
+                    existed = null != client.checkExists().forPath(key);
+                }
+                if (expectedExisted == existed) {
+                    return true;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0L || !latch.await(remaining, TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+        return false;
+    }
+    
+    /*
+     * 每个节点同一时间至多注册一个监听, 监听触发前的多次等待共用同一闭锁, 避免短时多次等待在客户端堆积监听.
+     */
+    private boolean watchNodeChanged(final String key, final CountDownLatch latch) throws Exception {
+        try {
+            return null != client.checkExists().usingWatcher(new CuratorWatcher() {
+                
+                @Override
+                public void process(final WatchedEvent event) {
+                    nodeChangedLatches.remove(key, latch);
+                    latch.countDown();
+                }
+            }).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            nodeChangedLatches.remove(key, latch);
+            latch.countDown();
+            throw ex;
+        }
+    }
+    
     @Override
     public void persist(final String key, final String value) {
         try {
@@ -279,6 +421,11 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         }
     }
     
+    @Override
+    public RegistryBatch createBatch() {
+        return new ZookeeperRegistryBatch(this);
+    }
+    
     @Override
     public void remove(final String key) {
         try {
@@ -305,6 +452,22 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         return result;
     }
     
+    @Override
+    public RegistryCenterClock getRegistryCenterClock() {
+        ZookeeperRegistryCenterClock result = registryCenterClock;
+        if (null != result) {
+            return result;
+        }
+        synchronized (this) {
+            if (null == registryCenterClock) {
+                result = new ZookeeperRegistryCenterClock(this);
+                result.start();
+                registryCenterClock = result;
+            }
+            return registryCenterClock;
+        }
+    }
+    
     @Override
     public Object getRawClient() {
         return client;
@@ -312,7 +475,16 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
     
     @Override
     public void addCacheData(final String cachePath) {
-        TreeCache cache = new TreeCache(client, cachePath);
+        final TreeCache cache = new TreeCache(client, cachePath);
+        cache.getListenable().addListener(new TreeCacheListener() {
+            
+            @Override
+            public void childEvent(final CuratorFramework client, final TreeCacheEvent event) {
+                if (TreeCacheEvent.Type.INITIALIZED == event.getType()) {
+                    initializedCaches.add(cache);
+                }
+            }
+        });
         try {
             cache.start();
         //CHECKSTYLE:OFF
@@ -320,11 +492,11 @@ public class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
         //CHECKSTYLE:ON
             RegExceptionHandler.handleException(ex);
         }
-        caches.put(cachePath + "/", cache);
+        caches.put(cachePath, cache);
     }
     
     @Override
     public Object getRawCache(final String cachePath) {
-        return caches.get(cachePath + "/");
+        return caches.get(cachePath);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.KeeperException.NodeExistsException;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Zookeeper的注册中心时钟.
+ * 
+ * <p>
+ * 每次采样对命名空间根路径下的采样节点执行一次写操作并读取其修改时间, 以写操作往返时间的中点估算本机时间, 往返时间的一半作为单次采样误差.
+ * 采样节点不在任何作业路径下, 采样不会触发作业的数据缓存事件, 也不会在作业删除后重建作业节点.
+ * 偏移量和误差范围以指数加权移动平均平滑.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class ZookeeperRegistryCenterClock implements RegistryCenterClock {
+    
+    static final long MIN_SAMPLE_INTERVAL_MILLISECONDS = 1000L;
+    
+    static final long MAX_SAMPLE_INTERVAL_MILLISECONDS = 60000L;
+    
+    static final long JUMP_THRESHOLD_MILLISECONDS = 100L;
+    
+    private static final int SMOOTHING_FACTOR = 4;
+    
+    private static final String SAMPLE_NODE_PATH = "/" + SAMPLE_NODE_NAME;
+    
+    private static final byte[] EMPTY_DATA = new byte[0];
+    
+    private final ZookeeperRegistryCenter regCenter;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("registry-center-clock-%s").daemon(true).build());
+    
+    private volatile Estimate estimate;
+    
+    private long sampleIntervalMilliseconds = MIN_SAMPLE_INTERVAL_MILLISECONDS;
+    
+    ZookeeperRegistryCenterClock(final ZookeeperRegistryCenter regCenter) {
+        this.regCenter = regCenter;
+    }
+    
+    /**
+     * 同步完成首次采样并开始周期性采样.
+     */
+    void start() {
+        schedule(sample());
+    }
+    
+    /**
+     * 停止采样.
+     */
+    void close() {
+        scheduler.shutdownNow();
+    }
+    
+    private void schedule(final long delayMilliseconds) {
+        try {
+            scheduler.schedule(new Runnable() {
+                
+                @Override
+                public void run() {
+                    schedule(sample());
+                }
+            }, delayMilliseconds, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ex) {
+            log.debug("Elastic job: registry center clock is closed.");
+        }
+    }
+    
+    private long sample() {
+        try {
+            long localTimeBefore = System.currentTimeMillis();
+            long registryCenterTime = readRegistryCenterTime();
+            long localTimeAfter = System.currentTimeMillis();
+            return update(localTimeBefore, registryCenterTime, localTimeAfter);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            log.warn("Elastic job: sample registry center time failure, cause: {}.", ex.getMessage());
+            sampleIntervalMilliseconds = MIN_SAMPLE_INTERVAL_MILLISECONDS;
+            return sampleIntervalMilliseconds;
+        }
+    }
+    
+    private long readRegistryCenterTime() throws Exception {
+        CuratorFramework client = regCenter.getClient();
+        try {
+            return client.setData().forPath(SAMPLE_NODE_PATH, EMPTY_DATA).getMtime();
+        } catch (final NoNodeException ex) {
+            try {
+                client.create().withMode(CreateMode.PERSISTENT).forPath(SAMPLE_NODE_PATH, EMPTY_DATA);
+            } catch (final NodeExistsException ignored) {
+                log.debug("Elastic job: registry center clock node '{}' created concurrently.", SAMPLE_NODE_PATH);
+            }
+            return client.setData().forPath(SAMPLE_NODE_PATH, EMPTY_DATA).getMtime();
+        }
+    }
+    
+    /**
+     * 以一次采样结果更新偏移量估算.
+     * 
+     * @param localTimeBefore 采样前的本机时间
+     * @param registryCenterTime 采样得到的注册中心时间
+     * @param localTimeAfter 采样后的本机时间
+     * @return 距下次采样的毫秒数
+     */
+    long update(final long localTimeBefore, final long registryCenterTime, final long localTimeAfter) {
+        long sampleOffset = registryCenterTime - (localTimeBefore + localTimeAfter) / 2;
+        long sampleError = (localTimeAfter - localTimeBefore + 1) / 2;
+        Estimate current = estimate;
+        if (null == current) {
+            estimate = new Estimate(sampleOffset, sampleError);
+            sampleIntervalMilliseconds = MIN_SAMPLE_INTERVAL_MILLISECONDS;
+        } else {
+            long deviation = Math.abs(sampleOffset - current.offset);
+            if (deviation > current.errorBound + sampleError + JUMP_THRESHOLD_MILLISECONDS) {
+                log.info("Elastic job: registry center clock offset jumped from {} ms to {} ms.", current.offset, sampleOffset);
+                estimate = new Estimate(sampleOffset, sampleError);
+                sampleIntervalMilliseconds = MIN_SAMPLE_INTERVAL_MILLISECONDS;
+            } else {
+                estimate = new Estimate(current.offset + (sampleOffset - current.offset) / SMOOTHING_FACTOR, 
+                        current.errorBound + (sampleError + deviation - current.errorBound) / SMOOTHING_FACTOR);
+                sampleIntervalMilliseconds = Math.min(sampleIntervalMilliseconds * 2, MAX_SAMPLE_INTERVAL_MILLISECONDS);
+            }
+        }
+        log.debug("Elastic job: registry center clock offset is {} ms, error bound is {} ms.", estimate.offset, estimate.errorBound);
+        return sampleIntervalMilliseconds;
+    }
+    
+    @Override
+    public boolean isSampled() {
+        return null != estimate;
+    }
+    
+    @Override
+    public long getOffsetMilliseconds() {
+        Estimate current = estimate;
+        return null == current ? 0L : current.offset;
+    }
+    
+    @Override
+    public long getErrorBoundMilliseconds() {
+        Estimate current = estimate;
+        return null == current ? 0L : current.errorBound;
+    }
+    
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis() + getOffsetMilliseconds();
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Estimate {
+        
+        private final long offset;
+        
+        private final long errorBound;
+    }
+}
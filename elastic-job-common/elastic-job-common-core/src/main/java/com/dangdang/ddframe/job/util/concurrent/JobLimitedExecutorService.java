@@ -0,0 +1,245 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 限制并发数的作业线程池服务.
+ * 
+ * <p>
+ * 任务不直接提交至共享线程池, 而是先进入作业自身的等待队列, 作业在共享线程池中执行的任务数不会超过并发上限.
+ * 多个作业共用同一个线程池时, 单个作业提交的大量任务不会占满共享线程池的队列, 各作业的任务交替执行.
+ * 关闭只影响本作业的任务, 不会关闭共享线程池.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class JobLimitedExecutorService extends AbstractExecutorService {
+    
+    private final Executor sharedExecutor;
+    
+    private final int concurrencyLimit;
+    
+    private final Queue<QueuedTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    
+    private final AtomicInteger runningCount = new AtomicInteger();
+    
+    private final AtomicLong startedTaskCount = new AtomicLong();
+    
+    private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+    
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+    
+    private final Object terminationLock = new Object();
+    
+    private volatile boolean shutdown;
+    
+    public JobLimitedExecutorService(final Executor sharedExecutor, final int concurrencyLimit) {
+        if (concurrencyLimit < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+        }
+        this.sharedExecutor = sharedExecutor;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+    
+    @Override
+    public void execute(final Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Job executor service has been shutdown.");
+        }
+        pendingTasks.offer(new QueuedTask(command));
+        pendingCount.incrementAndGet();
+        dispatch();
+    }
+    
+    private void dispatch() {
+        while (!pendingTasks.isEmpty()) {
+            int running = runningCount.get();
+            if (running >= concurrencyLimit) {
+                return;
+            }
+            if (!runningCount.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            QueuedTask task = pendingTasks.poll();
+            if (null == task) {
+                runningCount.decrementAndGet();
+                continue;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                sharedExecutor.execute(task);
+            } catch (final RejectedExecutionException ex) {
+                runningCount.decrementAndGet();
+                signalTermination();
+                throw ex;
+            }
+        }
+    }
+    
+    private void signalTermination() {
+        if (isTerminated()) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        signalTermination();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> result = new ArrayList<>();
+        QueuedTask each;
+        while (null != (each = pendingTasks.poll())) {
+            pendingCount.decrementAndGet();
+            result.add(each.command);
+        }
+        signalTermination();
+        return result;
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return shutdown && 0 == pendingCount.get() && 0 == runningCount.get();
+    }
+    
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * 获取并发上限.
+     * 
+     * @return 并发上限
+     */
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+    
+    /**
+     * 获取正在共享线程池中执行或等待执行的任务数.
+     * 
+     * @return 正在共享线程池中执行或等待执行的任务数
+     */
+    public int getRunningCount() {
+        return runningCount.get();
+    }
+    
+    /**
+     * 获取因达到并发上限而在作业队列中等待的任务数.
+     * 
+     * @return 因达到并发上限而在作业队列中等待的任务数
+     */
+    public int getQueueDepth() {
+        return pendingCount.get();
+    }
+    
+    /**
+     * 获取已开始执行的任务数.
+     * 
+     * @return 已开始执行的任务数
+     */
+    public long getStartedTaskCount() {
+        return startedTaskCount.get();
+    }
+    
+    /**
+     * 获取任务从提交到开始执行的平均等待毫秒数.
+     * 
+     * @return 任务从提交到开始执行的平均等待毫秒数
+     */
+    public long getAverageWaitTimeMillis() {
+        long started = startedTaskCount.get();
+        return 0L == started ? 0L : TimeUnit.NANOSECONDS.toMillis(totalWaitTimeNanos.get() / started);
+    }
+    
+    /**
+     * 获取任务从提交到开始执行的最大等待毫秒数.
+     * 
+     * @return 任务从提交到开始执行的最大等待毫秒数
+     */
+    public long getMaxWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTimeNanos.get());
+    }
+    
+    private void recordWaitTime(final long waitTimeNanos) {
+        startedTaskCount.incrementAndGet();
+        totalWaitTimeNanos.addAndGet(waitTimeNanos);
+        long max = maxWaitTimeNanos.get();
+        while (waitTimeNanos > max && !maxWaitTimeNanos.compareAndSet(max, waitTimeNanos)) {
+            max = maxWaitTimeNanos.get();
+        }
+    }
+    
+    private final class QueuedTask implements Runnable {
+        
+        private final Runnable command;
+        
+        private final long submitTimeNanos = System.nanoTime();
+        
+        QueuedTask(final Runnable command) {
+            this.command = command;
+        }
+        
+        @Override
+        public void run() {
+            recordWaitTime(System.nanoTime() - submitTimeNanos);
+            try {
+                command.run();
+            } finally {
+                runningCount.decrementAndGet();
+                dispatch();
+                signalTermination();
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.cron;
+
+import com.google.common.base.Optional;
+import lombok.Getter;
+
+import java.util.BitSet;
+import java.util.TimeZone;
+
+/**
+ * 预编译的CRON表达式.
+ * 
+ * <p>
+ * 表达式只在编译时解析一次, 秒, 分, 时, 日, 月, 周分别编译为位图, 年编译为{@link BitSet}.
+ * 计算下次触发时间时直接在位图上查找并按公历换算日期, 不创建{@code Calendar}等对象.
+ * 兼容Quartz的CRON语法, 但不支持{@code L}, {@code W}, {@code #}和{@code C}等特殊字符, 包含这些字符的表达式编译结果为空, 调用方应回退至Quartz计算.
+ * 夏令时跳过的本地时间不会触发, 由下一个有效的本地时间触发.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class CompiledCronExpression {
+    
+    private static final int MAX_YEAR = 2299;
+    
+    private static final long MILLIS_PER_SECOND = 1000L;
+    
+    private static final long MILLIS_PER_DAY = 86400000L;
+    
+    private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    
+    private static final String[] DAY_OF_WEEK_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    
+    @Getter
+    private final String cronExpression;
+    
+    @Getter
+    private final TimeZone timeZone;
+    
+    private final long seconds;
+    
+    private final long minutes;
+    
+    private final long hours;
+    
+    private final long daysOfMonth;
+    
+    private final long months;
+    
+    private final long daysOfWeek;
+    
+    private final BitSet years;
+    
+    private CompiledCronExpression(final String cronExpression, final TimeZone timeZone, final String[] fields) {
+        this.cronExpression = cronExpression;
+        this.timeZone = timeZone;
+        seconds = toMask(parseField(fields[0], 0, 59));
+        minutes = toMask(parseField(fields[1], 0, 59));
+        hours = toMask(parseField(fields[2], 0, 23));
+        daysOfMonth = "?".equals(fields[3]) ? 0L : toMask(parseField(fields[3], 1, 31));
+        months = toMask(parseField(replaceNames(fields[4], MONTH_NAMES), 1, 12));
+        daysOfWeek = "?".equals(fields[5]) ? 0L : toMask(parseField(replaceNames(fields[5], DAY_OF_WEEK_NAMES), 1, 7));
+        years = 7 == fields.length && !"*".equals(fields[6]) ? parseField(fields[6], 1970, MAX_YEAR) : null;
+    }
+    
+    /**
+     * 使用默认时区编译CRON表达式.
+     * 
+     * @param cronExpression CRON表达式
+     * @return 预编译的CRON表达式, 表达式不合法或包含不支持的特殊字符时为空
+     */
+    public static Optional<CompiledCronExpression> compile(final String cronExpression) {
+        return compile(cronExpression, TimeZone.getDefault());
+    }
+    
+    /**
+     * 编译CRON表达式.
+     * 
+     * @param cronExpression CRON表达式
+     * @param timeZone 计算触发时间使用的时区
+     * @return 预编译的CRON表达式, 表达式不合法或包含不支持的特殊字符时为空
+     */
+    public static Optional<CompiledCronExpression> compile(final String cronExpression, final TimeZone timeZone) {
+        String[] fields = cronExpression.trim().toUpperCase().split("\\s+");
+        if (fields.length < 6 || fields.length > 7 || "?".equals(fields[3]) == "?".equals(fields[5])) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(new CompiledCronExpression(cronExpression, timeZone, fields));
+        } catch (final IllegalArgumentException ex) {
+            return Optional.absent();
+        }
+    }
+    
+    private static String replaceNames(final String field, final String[] names) {
+        String result = field;
+        for (int i = 0; i < names.length; i++) {
+            result = result.replace(names[i], Integer.toString(i + 1));
+        }
+        return result;
+    }
+    
+    private static BitSet parseField(final String field, final int min, final int max) {
+        BitSet result = new BitSet(max + 1);
+        for (String each : field.split(",")) {
+            parsePart(each, min, max, result);
+        }
+        return result;
+    }
+    
+    private static void parsePart(final String part, final int min, final int max, final BitSet result) {
+        int slashIndex = part.indexOf('/');
+        String range = -1 == slashIndex ? part : part.substring(0, slashIndex);
+        int step = -1 == slashIndex ? 1 : Integer.parseInt(part.substring(slashIndex + 1));
+        int start;
+        int end;
+        if ("*".equals(range)) {
+            start = min;
+            end = max;
+        } else if (range.contains("-")) {
+            start = Integer.parseInt(range.substring(0, range.indexOf('-')));
+            end = Integer.parseInt(range.substring(range.indexOf('-') + 1));
+        } else {
+            start = Integer.parseInt(range);
+            end = -1 == slashIndex ? start : max;
+        }
+        if (step < 1 || start < min || start > max || end < min || end > max) {
+            throw new IllegalArgumentException(part);
+        }
+        int size = max - min + 1;
+        int wrappedEnd = end < start ? end + size : end;
+        for (int i = start; i <= wrappedEnd; i += step) {
+            result.set(i > max ? i - size : i);
+        }
+    }
+    
+    private static long toMask(final BitSet bitSet) {
+        return bitSet.isEmpty() ? 0L : bitSet.toLongArray()[0];
+    }
+    
+    /**
+     * 获取指定时间之后的下次触发时间.
+     * 
+     * @param afterTime 指定时间的毫秒数
+     * @return 下次触发时间的毫秒数, 不再触发则返回-1
+     */
+    public long getNextFireTimeAfter(final long afterTime) {
+        long utcTime = afterTime - floorMod(afterTime, MILLIS_PER_SECOND) + MILLIS_PER_SECOND;
+        long localTime = utcTime + timeZone.getOffset(utcTime);
+        long epochDay = floorDiv(localTime, MILLIS_PER_DAY);
+        int secondOfDay = (int) (floorMod(localTime, MILLIS_PER_DAY) / MILLIS_PER_SECOND);
+        long shiftedDay = epochDay + 719468L;
+        long era = (shiftedDay >= 0 ? shiftedDay : shiftedDay - 146096L) / 146097L;
+        int dayOfEra = (int) (shiftedDay - era * 146097L);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (yearOfEra + era * 400L) + (month <= 2 ? 1 : 0);
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        while (year <= MAX_YEAR) {
+            if (null != years && !years.get(year)) {
+                year = years.nextSetBit(year);
+                if (year < 0) {
+                    return -1L;
+                }
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+            int nextMonth = nextBit(months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+            int nextDay = nextDay(year, month, day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = 0;
+                minute = 0;
+                second = 0;
+            }
+            int nextHour = nextBit(hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = 0;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = 0;
+                second = 0;
+            }
+            int nextMinute = nextBit(minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = 0;
+                second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            int nextSecond = nextBit(seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            second = nextSecond;
+            long candidateLocalTime = (daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second) * MILLIS_PER_SECOND;
+            long result = toUtcTime(candidateLocalTime);
+            if (result > afterTime && result + timeZone.getOffset(result) == candidateLocalTime) {
+                return result;
+            }
+            second++;
+        }
+        return -1L;
+    }
+    
+    private int nextDay(final int year, final int month, final int day) {
+        int daysInMonth = daysInMonth(year, month);
+        if (day > daysInMonth) {
+            return -1;
+        }
+        if (0L != daysOfMonth) {
+            int result = nextBit(daysOfMonth, day);
+            return result > daysInMonth ? -1 : result;
+        }
+        int dayOfWeek = (int) floorMod(daysFromCivil(year, month, day) + 4L, 7L) + 1;
+        for (int result = day; result <= daysInMonth; result++) {
+            if (0L != (daysOfWeek & 1L << dayOfWeek)) {
+                return result;
+            }
+            dayOfWeek = 7 == dayOfWeek ? 1 : dayOfWeek + 1;
+        }
+        return -1;
+    }
+    
+    private long toUtcTime(final long localTime) {
+        int offset = timeZone.getOffset(localTime - timeZone.getRawOffset());
+        long result = localTime - offset;
+        int actualOffset = timeZone.getOffset(result);
+        return actualOffset == offset ? result : localTime - actualOffset;
+    }
+    
+    private static int nextBit(final long mask, final int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long remaining = mask & -1L << from;
+        return 0L == remaining ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+    
+    private static int daysInMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return (0 == year % 4 && 0 != year % 100) || 0 == year % 400 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+    
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = shiftedYear / 400;
+        int yearOfEra = shiftedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+    
+    private static long floorDiv(final long dividend, final long divisor) {
+        long result = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend ^ divisor) < 0) ? result - 1 : result;
+    }
+    
+    private static long floorMod(final long dividend, final long divisor) {
+        return dividend - floorDiv(dividend, divisor) * divisor;
+    }
+    
+    @Override
+    public String toString() {
+        return cronExpression;
+    }
+}
@@ -54,12 +54,18 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         String jobParameter = "";
         boolean failover = false;
         boolean misfire = failover;
+        long itemTimeoutMilliseconds = 0L;
+        long executionTimeoutMilliseconds = 0L;
         String description = "";
         JobProperties jobProperties = new JobProperties();
         JobType jobType = null;
         String jobClass = "";
         boolean streamingProcess = false;
+        int prefetchDepth = 0;
+        int processBatchSize = 0;
         String scriptCommandLine = "";
+        int workerPoolSize = 0;
+        int workerMaxRequests = 0;
         Map<String, Object> customizedValueMap = new HashMap<>(32, 1);
         in.beginObject();
         while (in.hasNext()) {
@@ -86,6 +92,12 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
                 case "misfire":
                     misfire = in.nextBoolean();
                     break;
+                case "itemTimeoutMilliseconds":
+                    itemTimeoutMilliseconds = in.nextLong();
+                    break;
+                case "executionTimeoutMilliseconds":
+                    executionTimeoutMilliseconds = in.nextLong();
+                    break;
                 case "description":
                     description = in.nextString();
                     break;
@@ -101,9 +113,21 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
                 case "streamingProcess":
                     streamingProcess = in.nextBoolean();
                     break;
+                case "prefetchDepth":
+                    prefetchDepth = in.nextInt();
+                    break;
+                case "processBatchSize":
+                    processBatchSize = in.nextInt();
+                    break;
                 case "scriptCommandLine":
                     scriptCommandLine = in.nextString();
                     break;
+                case "workerPoolSize":
+                    workerPoolSize = in.nextInt();
+                    break;
+                case "workerMaxRequests":
+                    workerMaxRequests = in.nextInt();
+                    break;
                 default:
                     addToCustomizedValueMap(jsonName, in, customizedValueMap);
                     break;
@@ -111,8 +135,8 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         }
         in.endObject();
         JobCoreConfiguration coreConfig = getJobCoreConfiguration(jobName, cron, shardingTotalCount, shardingItemParameters,
-                jobParameter, failover, misfire, description, jobProperties);
-        JobTypeConfiguration typeConfig = getJobTypeConfiguration(coreConfig, jobType, jobClass, streamingProcess, scriptCommandLine);
+                jobParameter, failover, misfire, itemTimeoutMilliseconds, executionTimeoutMilliseconds, description, jobProperties);
+        JobTypeConfiguration typeConfig = getJobTypeConfiguration(coreConfig, jobType, jobClass, streamingProcess, prefetchDepth, processBatchSize, scriptCommandLine, workerPoolSize, workerMaxRequests);
         return getJobRootConfiguration(typeConfig, customizedValueMap);
     }
     
@@ -139,17 +163,19 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
     
     private JobCoreConfiguration getJobCoreConfiguration(final String jobName, final String cron, final int shardingTotalCount,
                                                          final String shardingItemParameters, final String jobParameter, final boolean failover,
-                                                         final boolean misfire, final String description,
+                                                         final boolean misfire, final long itemTimeoutMilliseconds, final long executionTimeoutMilliseconds, final String description,
                                                          final JobProperties jobProperties) {
         return JobCoreConfiguration.newBuilder(jobName, cron, shardingTotalCount)
-                .shardingItemParameters(shardingItemParameters).jobParameter(jobParameter).failover(failover).misfire(misfire).description(description)
+                .shardingItemParameters(shardingItemParameters).jobParameter(jobParameter).failover(failover).misfire(misfire)
+                .itemTimeoutMilliseconds(itemTimeoutMilliseconds).executionTimeoutMilliseconds(executionTimeoutMilliseconds).description(description)
                 .jobProperties(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER.getKey(), jobProperties.get(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER))
                 .jobProperties(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER.getKey(), jobProperties.get(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER))
                 .build();
     }
     
     private JobTypeConfiguration getJobTypeConfiguration(
-            final JobCoreConfiguration coreConfig, final JobType jobType, final String jobClass, final boolean streamingProcess, final String scriptCommandLine) {
+            final JobCoreConfiguration coreConfig, final JobType jobType, final String jobClass, final boolean streamingProcess, final int prefetchDepth, final int processBatchSize,
+            final String scriptCommandLine, final int workerPoolSize, final int workerMaxRequests) {
         JobTypeConfiguration result;
         Preconditions.checkNotNull(jobType, "jobType cannot be null.");
         switch (jobType) {
@@ -159,10 +185,10 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
                 break;
             case DATAFLOW:
                 Preconditions.checkArgument(!Strings.isNullOrEmpty(jobClass), "jobClass cannot be empty.");
-                result = new DataflowJobConfiguration(coreConfig, jobClass, streamingProcess);
+                result = new DataflowJobConfiguration(coreConfig, jobClass, streamingProcess, prefetchDepth, processBatchSize);
                 break;
             case SCRIPT:
-                result = new ScriptJobConfiguration(coreConfig, scriptCommandLine);
+                result = new ScriptJobConfiguration(coreConfig, scriptCommandLine, workerPoolSize, workerMaxRequests);
                 break;
             default:
                 throw new UnsupportedOperationException(jobType.name());
@@ -184,14 +210,20 @@ public abstract class AbstractJobConfigurationGsonTypeAdapter<T extends JobRootC
         out.name("jobParameter").value(value.getTypeConfig().getCoreConfig().getJobParameter());
         out.name("failover").value(value.getTypeConfig().getCoreConfig().isFailover());
         out.name("misfire").value(value.getTypeConfig().getCoreConfig().isMisfire());
+        out.name("itemTimeoutMilliseconds").value(value.getTypeConfig().getCoreConfig().getItemTimeoutMilliseconds());
+        out.name("executionTimeoutMilliseconds").value(value.getTypeConfig().getCoreConfig().getExecutionTimeoutMilliseconds());
         out.name("description").value(value.getTypeConfig().getCoreConfig().getDescription());
         out.name("jobProperties").jsonValue(value.getTypeConfig().getCoreConfig().getJobProperties().json());
         if (value.getTypeConfig().getJobType() == JobType.DATAFLOW) {
             DataflowJobConfiguration dataflowJobConfig = (DataflowJobConfiguration) value.getTypeConfig();
             out.name("streamingProcess").value(dataflowJobConfig.isStreamingProcess());
+            out.name("prefetchDepth").value(dataflowJobConfig.getPrefetchDepth());
+            out.name("processBatchSize").value(dataflowJobConfig.getProcessBatchSize());
         } else if (value.getTypeConfig().getJobType() == JobType.SCRIPT) {
             ScriptJobConfiguration scriptJobConfig = (ScriptJobConfiguration) value.getTypeConfig();
             out.name("scriptCommandLine").value(scriptJobConfig.getScriptCommandLine());
+            out.name("workerPoolSize").value(scriptJobConfig.getWorkerPoolSize());
+            out.name("workerMaxRequests").value(scriptJobConfig.getWorkerMaxRequests());
         }
         writeCustomized(out, value);
         out.endObject();
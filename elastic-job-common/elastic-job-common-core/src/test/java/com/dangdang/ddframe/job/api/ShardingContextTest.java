@@ -17,12 +17,17 @@
 
 package com.dangdang.ddframe.job.api;
 
+import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import org.junit.Test;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class ShardingContextTest {
     
@@ -43,4 +48,26 @@ public final class ShardingContextTest {
         assertThat(new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1).toString(), 
                 is("ShardingContext(jobName=test_job, taskId=fake_task_id, shardingTotalCount=2, jobParameter=, shardingItem=1, shardingParameter=B)"));
     }
+    
+    @Test
+    public void assertCommitOffsetAndGetLastOffset() {
+        JobFacade jobFacade = mock(JobFacade.class);
+        ShardingContext actual = new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1, jobFacade);
+        actual.commitOffset("100");
+        verify(jobFacade).commitItemOffset(1, "100");
+        when(jobFacade.getItemOffset(1)).thenReturn("100");
+        assertThat(actual.getLastOffset(), is("100"));
+    }
+    
+    @Test
+    public void assertGetLastOffsetWithoutJobFacade() {
+        ShardingContext actual = new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1);
+        actual.commitOffset("100");
+        assertThat(actual.getLastOffset(), nullValue());
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void assertCommitNullOffset() {
+        new ShardingContext(ShardingContextsBuilder.getMultipleShardingContexts(), 1, mock(JobFacade.class)).commitOffset(null);
+    }
 }
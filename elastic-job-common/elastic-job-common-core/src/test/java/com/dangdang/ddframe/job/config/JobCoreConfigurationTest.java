@@ -33,12 +33,15 @@ public final class JobCoreConfigurationTest {
     public void assertBuildAllProperties() {
         JobCoreConfiguration actual = JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3)
                 .shardingItemParameters("0=a,1=b,2=c").jobParameter("param").failover(true).misfire(false).description("desc")
+                .itemTimeoutMilliseconds(1000L).executionTimeoutMilliseconds(5000L)
                 .jobProperties("job_exception_handler", IgnoreJobExceptionHandler.class.getName()).build();
         assertRequiredProperties(actual);
         assertThat(actual.getShardingItemParameters(), is("0=a,1=b,2=c"));
         assertThat(actual.getJobParameter(), is("param"));
         assertTrue(actual.isFailover());
         assertFalse(actual.isMisfire());
+        assertThat(actual.getItemTimeoutMilliseconds(), is(1000L));
+        assertThat(actual.getExecutionTimeoutMilliseconds(), is(5000L));
         assertThat(actual.getDescription(), is("desc"));
         assertThat(actual.getJobProperties().get(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER), is(IgnoreJobExceptionHandler.class.getName()));
     }
@@ -69,6 +72,8 @@ public final class JobCoreConfigurationTest {
         assertThat(actual.getJobParameter(), is(""));
         assertFalse(actual.isFailover());
         assertTrue(actual.isMisfire());
+        assertThat(actual.getItemTimeoutMilliseconds(), is(0L));
+        assertThat(actual.getExecutionTimeoutMilliseconds(), is(0L));
         assertThat(actual.getDescription(), is(""));
         assertThat(actual.getJobProperties().get(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER), is(DefaultJobExceptionHandler.class.getName()));
     }
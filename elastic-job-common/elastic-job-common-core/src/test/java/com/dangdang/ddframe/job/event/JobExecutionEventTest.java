@@ -40,6 +40,7 @@ public final class JobExecutionEventTest {
         assertNotNull(actual.getStartTime());
         assertNull(actual.getCompleteTime());
         assertFalse(actual.isSuccess());
+        assertFalse(actual.isTimeout());
         assertThat(actual.getFailureCause(), is(""));
     }
     
@@ -59,4 +60,14 @@ public final class JobExecutionEventTest {
         assertFalse(failureEvent.isSuccess());
         assertThat(failureEvent.getFailureCause(), startsWith("java.lang.RuntimeException: failure"));
     }
+    
+    @Test
+    public void assertExecutionTimeout() {
+        JobExecutionEvent startEvent = new JobExecutionEvent("fake_task_id", "test_job", JobExecutionEvent.ExecutionSource.NORMAL_TRIGGER, 0);
+        JobExecutionEvent timeoutEvent = startEvent.executionTimeout(1000L);
+        assertNotNull(timeoutEvent.getCompleteTime());
+        assertFalse(timeoutEvent.isSuccess());
+        assertTrue(timeoutEvent.isTimeout());
+        assertThat(timeoutEvent.getFailureCause(), startsWith("com.dangdang.ddframe.job.exception.JobExecutionTimeoutException: Job 'test_job' item '0' execution timeout after 1000 milliseconds."));
+    }
 }
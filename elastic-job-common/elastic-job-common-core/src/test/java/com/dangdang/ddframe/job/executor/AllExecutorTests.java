@@ -20,8 +20,12 @@ package com.dangdang.ddframe.job.executor;
 import com.dangdang.ddframe.job.executor.handler.ExecutorServiceHandlerRegistryTest;
 import com.dangdang.ddframe.job.executor.handler.JobPropertiesTest;
 import com.dangdang.ddframe.job.executor.handler.impl.DefaultJobExceptionHandlerTest;
+import com.dangdang.ddframe.job.executor.handler.impl.SharedExecutorServiceHandlerTest;
+import com.dangdang.ddframe.job.executor.type.AdaptiveFetchSizeControllerTest;
 import com.dangdang.ddframe.job.executor.type.DataflowJobExecutorTest;
 import com.dangdang.ddframe.job.executor.type.ScriptJobExecutorTest;
+import com.dangdang.ddframe.job.executor.type.ScriptOutputBufferTest;
+import com.dangdang.ddframe.job.executor.type.ScriptWorkerPoolTest;
 import com.dangdang.ddframe.job.executor.type.SimpleJobExecutorTest;
 import com.dangdang.ddframe.job.executor.type.WrongJobExecutorTest;
 import org.junit.runner.RunWith;
@@ -33,11 +37,15 @@ import org.junit.runners.Suite.SuiteClasses;
         JobExecutorFactoryTest.class,
         ExecutorServiceHandlerRegistryTest.class, 
         JobPropertiesTest.class,
-        DefaultJobExceptionHandlerTest.class, 
+        DefaultJobExceptionHandlerTest.class,
+        SharedExecutorServiceHandlerTest.class, 
         SimpleJobExecutorTest.class,
         WrongJobExecutorTest.class,
         DataflowJobExecutorTest.class, 
-        ScriptJobExecutorTest.class
+        AdaptiveFetchSizeControllerTest.class, 
+        ScriptJobExecutorTest.class, 
+        ScriptWorkerPoolTest.class, 
+        ScriptOutputBufferTest.class
     })
 public final class AllExecutorTests {
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.handler.impl;
+
+import com.dangdang.ddframe.job.util.concurrent.JobLimitedExecutorService;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SharedExecutorServiceHandlerTest {
+    
+    @Test
+    public void assertCreateExecutorService() throws InterruptedException {
+        ExecutorService actual = new SharedExecutorServiceHandler().createExecutorService("test_job");
+        assertThat(actual, instanceOf(JobLimitedExecutorService.class));
+        assertThat(((JobLimitedExecutorService) actual).getConcurrencyLimit(), is(Math.max(SharedExecutorServiceHandler.getParallelism() / 2, 1)));
+        final CountDownLatch latch = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            actual.submit(new Runnable() {
+                
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(3L, TimeUnit.SECONDS));
+        actual.shutdown();
+        assertTrue(actual.awaitTermination(3L, TimeUnit.SECONDS));
+        assertTrue(SharedExecutorServiceHandler.getQueueDepth() >= 0L);
+        assertTrue(SharedExecutorServiceHandler.getActiveThreadCount() >= 0);
+    }
+    
+    @Test
+    public void assertCreateExecutorServiceWithCustomizedConcurrencyLimit() {
+        ExecutorService actual = new SharedExecutorServiceHandler() {
+            
+            @Override
+            protected int getConcurrencyLimit(final String jobName) {
+                return 1;
+            }
+        }.createExecutorService("test_job");
+        assertThat(((JobLimitedExecutorService) actual).getConcurrencyLimit(), is(1));
+    }
+    
+    @Test
+    public void assertShutdownOneJobNotAffectOthers() throws InterruptedException {
+        ExecutorService first = new SharedExecutorServiceHandler().createExecutorService("test_job_1");
+        ExecutorService second = new SharedExecutorServiceHandler().createExecutorService("test_job_2");
+        first.shutdown();
+        final CountDownLatch latch = new CountDownLatch(1);
+        second.submit(new Runnable() {
+            
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(3L, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.dataflow.AdaptiveFetchConfiguration;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class AdaptiveFetchSizeControllerTest {
+    
+    private final AdaptiveFetchConfiguration config = new AdaptiveFetchConfiguration(10, 170, 100L);
+    
+    @Test
+    public void assertGetInitialFetchSize() {
+        assertThat(new AdaptiveFetchSizeController(config).getFetchSize(), is(10));
+    }
+    
+    @Test
+    public void assertIncreaseWhenBatchIsFullAndFast() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        controller.processed(10, 10, 10L, 10L);
+        assertThat(controller.getFetchSize(), is(20));
+    }
+    
+    @Test
+    public void assertIncreaseNotExceedMaxFetchSize() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        for (int i = 0; i < 20; i++) {
+            controller.processed(controller.getFetchSize(), controller.getFetchSize(), 10L, 10L);
+        }
+        assertThat(controller.getFetchSize(), is(170));
+    }
+    
+    @Test
+    public void assertIncreaseWhenPrefetchedBatchIsFullForPreviousFetchSize() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        controller.processed(10, 10, 10L, 10L);
+        controller.processed(10, 10, 10L, 10L);
+        assertThat(controller.getFetchSize(), is(30));
+    }
+    
+    @Test
+    public void assertKeepWhenBatchIsNotFull() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        controller.processed(10, 5, 10L, 10L);
+        assertThat(controller.getFetchSize(), is(10));
+    }
+    
+    @Test
+    public void assertDecreaseWhenBatchIsSlow() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        for (int i = 0; i < 7; i++) {
+            controller.processed(controller.getFetchSize(), controller.getFetchSize(), 10L, 10L);
+        }
+        assertThat(controller.getFetchSize(), is(80));
+        controller.processed(80, 80, 60L, 60L);
+        assertThat(controller.getFetchSize(), is(40));
+    }
+    
+    @Test
+    public void assertDecreaseNotLessThanMinFetchSize() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        controller.processed(10, 10, 200L, 200L);
+        assertThat(controller.getFetchSize(), is(10));
+    }
+    
+    @Test
+    public void assertDecreaseWhenHeapHeadroomIsInsufficient() {
+        AdaptiveFetchSizeController controller = new AdaptiveFetchSizeController(config, 0d);
+        controller.processed(10, 10, 10L, 10L);
+        AdaptiveFetchSizeController pressuredController = new AdaptiveFetchSizeController(config, 1.01d);
+        pressuredController.processed(10, 10, 10L, 10L);
+        assertThat(controller.getFetchSize(), is(20));
+        assertThat(pressuredController.getFetchSize(), is(10));
+    }
+}
@@ -17,22 +17,38 @@
 
 package com.dangdang.ddframe.job.executor.type;
 
+import com.dangdang.ddframe.job.api.dataflow.DataflowJob;
+import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import com.dangdang.ddframe.job.fixture.config.TestDataflowJobConfiguration;
 import com.dangdang.ddframe.job.fixture.job.JobCaller;
+import com.dangdang.ddframe.job.fixture.job.TestAdaptiveDataflowJob;
+import com.dangdang.ddframe.job.fixture.job.TestBatchDataflowJob;
 import com.dangdang.ddframe.job.fixture.job.TestDataflowJob;
+import com.dangdang.ddframe.job.fixture.job.TestPartitionedDataflowJob;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -166,11 +182,231 @@ public final class DataflowJobExecutorTest {
         verify(jobCaller).processData(4);
     }
     
+    @Test
+    public void assertIsReusableWhenStreamingProcessUnchanged() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        dataflowJobExecutor.execute();
+        assertTrue(dataflowJobExecutor.isReusable(new TestDataflowJobConfiguration(true)));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenStreamingProcessChanged() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        dataflowJobExecutor.execute();
+        assertFalse(dataflowJobExecutor.isReusable(new TestDataflowJobConfiguration(false)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteWhenFetchDataIsNotEmptyForPipelinedStreamingProcessAndMultipleShardingItems() {
+        setUp(true, 2, ShardingContextsBuilder.getMultipleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1), Collections.<Object>singletonList(2), Collections.emptyList());
+        when(jobCaller.fetchData(1)).thenReturn(Arrays.<Object>asList(3, 4), Collections.emptyList());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        dataflowJobExecutor.execute();
+        verify(jobCaller, times(3)).fetchData(0);
+        verify(jobCaller, times(2)).fetchData(1);
+        verify(jobCaller).processData(1);
+        verify(jobCaller).processData(2);
+        verify(jobCaller).processData(3);
+        verify(jobCaller).processData(4);
+    }
+    
+    @Test
+    public void assertExecuteWhenFetchDataIsNotEmptyAndIsNotEligibleForJobRunningForPipelinedStreamingProcess() {
+        setUp(true, 1, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(false);
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1), Collections.<Object>singletonList(2));
+        dataflowJobExecutor.execute();
+        verify(jobCaller).processData(1);
+        verify(jobCaller, times(0)).processData(2);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteWhenFetchDataFailureForPipelinedStreamingProcess() {
+        setUp(true, 1, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>singletonList(1)).thenThrow(new IllegalStateException());
+        dataflowJobExecutor.execute();
+        verify(jobCaller, times(2)).fetchData(0);
+        verify(jobCaller).processData(1);
+        verify(jobFacade).postJobExecutionEvent(argThat(new ArgumentMatcher<JobExecutionEvent>() {
+            
+            @Override
+            public boolean matches(final Object argument) {
+                JobExecutionEvent event = (JobExecutionEvent) argument;
+                return !event.isSuccess() && event.getFailureCause().contains(IllegalStateException.class.getName());
+            }
+        }));
+    }
+    
+    @Test
+    public void assertCloseWhilePrefetchingForPipelinedStreamingProcess() throws InterruptedException {
+        setUp(true, 1, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        final CountDownLatch fetching = new CountDownLatch(1);
+        doAnswer(new Answer<Object>() {
+            
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws InterruptedException {
+                fetching.countDown();
+                Thread.sleep(10000L);
+                return Collections.emptyList();
+            }
+        }).when(jobCaller).fetchData(0);
+        Thread executingThread = new Thread(new Runnable() {
+            
+            @Override
+            public void run() {
+                dataflowJobExecutor.execute();
+            }
+        });
+        executingThread.start();
+        assertTrue(fetching.await(3000L, TimeUnit.MILLISECONDS));
+        dataflowJobExecutor.close();
+        executingThread.join(3000L);
+        assertFalse(executingThread.isAlive());
+        verify(jobFacade).postJobExecutionEvent(argThat(new ArgumentMatcher<JobExecutionEvent>() {
+            
+            @Override
+            public boolean matches(final Object argument) {
+                JobExecutionEvent event = (JobExecutionEvent) argument;
+                return !event.isSuccess() && event.getFailureCause().contains(InterruptedException.class.getName());
+            }
+        }));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenPrefetchDepthChanged() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        dataflowJobExecutor.execute();
+        assertFalse(dataflowJobExecutor.isReusable(new TestDataflowJobConfiguration(true, 2, 0)));
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessBatchSizeIsLargerThanFetchedData() {
+        TestBatchDataflowJob dataflowJob = new TestBatchDataflowJob(jobCaller);
+        setUp(false, 0, 5, ShardingContextsBuilder.getSingleShardingContexts(), dataflowJob);
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3));
+        dataflowJobExecutor.execute();
+        assertThat(dataflowJob.getProcessedBatches(), is(Collections.singletonList(Arrays.<Object>asList(1, 2, 3))));
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessBatchSizeSplitsFetchedData() {
+        TestBatchDataflowJob dataflowJob = new TestBatchDataflowJob(jobCaller);
+        setUp(false, 0, 2, ShardingContextsBuilder.getSingleShardingContexts(), dataflowJob);
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3, 4, 5));
+        dataflowJobExecutor.execute();
+        assertThat(dataflowJob.getProcessedBatches().size(), is(3));
+        assertTrue(dataflowJob.getProcessedBatches().containsAll(Arrays.asList(Arrays.<Object>asList(1, 2), Arrays.<Object>asList(3, 4), Collections.<Object>singletonList(5))));
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessBatchSizeSplitsFetchedDataByPartitionKey() {
+        TestPartitionedDataflowJob dataflowJob = new TestPartitionedDataflowJob(jobCaller);
+        setUp(false, 0, 3, ShardingContextsBuilder.getSingleShardingContexts(), dataflowJob);
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3, 4, 5, 6));
+        dataflowJobExecutor.execute();
+        assertThat(dataflowJob.getProcessedBatches().size(), is(2));
+        assertTrue(dataflowJob.getProcessedBatches().containsAll(Arrays.asList(Arrays.<Object>asList(1, 3, 5), Arrays.<Object>asList(2, 4, 6))));
+    }
+    
+    @Test
+    public void assertExecuteWhenProcessSubBatchFailure() {
+        setUp(false, 0, 1, ShardingContextsBuilder.getSingleShardingContexts(), new TestDataflowJob(jobCaller));
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3));
+        doThrow(new IllegalStateException()).when(jobCaller).processData(2);
+        dataflowJobExecutor.execute();
+        verify(jobCaller).processData(2);
+        verify(jobFacade).postJobExecutionEvent(argThat(new ArgumentMatcher<JobExecutionEvent>() {
+            
+            @Override
+            public boolean matches(final Object argument) {
+                JobExecutionEvent event = (JobExecutionEvent) argument;
+                return !event.isSuccess() && event.getFailureCause().contains(IllegalStateException.class.getName());
+            }
+        }));
+    }
+    
+    @Test
+    public void assertExecuteWhenInterruptedWhileWaitingSubBatches() throws InterruptedException {
+        setUp(false, 0, 1, ShardingContextsBuilder.getSingleShardingContexts(), new TestDataflowJob(jobCaller));
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2, 3));
+        final Thread executingThread = Thread.currentThread();
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws InterruptedException {
+                if (executingThread == Thread.currentThread()) {
+                    executingThread.interrupt();
+                } else {
+                    release.await(3000L, TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }
+        }).when(jobCaller).processData(any());
+        try {
+            dataflowJobExecutor.execute();
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+        }
+        verify(jobFacade).postJobExecutionEvent(argThat(new ArgumentMatcher<JobExecutionEvent>() {
+            
+            @Override
+            public boolean matches(final Object argument) {
+                JobExecutionEvent event = (JobExecutionEvent) argument;
+                return !event.isSuccess() && event.getFailureCause().contains(InterruptedException.class.getName());
+            }
+        }));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void assertExecuteWhenFetchDataForAdaptiveDataflowJob() {
+        TestAdaptiveDataflowJob dataflowJob = new TestAdaptiveDataflowJob(jobCaller);
+        setUp(true, 0, 0, ShardingContextsBuilder.getSingleShardingContexts(), dataflowJob);
+        when(jobFacade.isEligibleForJobRunning()).thenReturn(true);
+        when(jobCaller.fetchData(0)).thenReturn(Collections.<Object>nCopies(10, 1), Collections.<Object>nCopies(20, 2), Collections.emptyList());
+        dataflowJobExecutor.execute();
+        assertThat(dataflowJob.getRequestedFetchSizes(), is(Arrays.asList(10, 20, 30)));
+        verify(jobCaller, times(10)).processData(1);
+        verify(jobCaller, times(20)).processData(2);
+        assertThat(dataflowJobExecutor.getRecommendedFetchSizes(), is(Collections.singletonMap(0, 30)));
+    }
+    
+    @Test
+    public void assertGetRecommendedFetchSizesWhenNotAdaptiveDataflowJob() {
+        setUp(false, ShardingContextsBuilder.getSingleShardingContexts());
+        when(jobCaller.fetchData(0)).thenReturn(Arrays.<Object>asList(1, 2));
+        dataflowJobExecutor.execute();
+        assertTrue(dataflowJobExecutor.getRecommendedFetchSizes().isEmpty());
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenProcessBatchSizeChanged() {
+        setUp(true, ShardingContextsBuilder.getSingleShardingContexts());
+        dataflowJobExecutor.execute();
+        assertFalse(dataflowJobExecutor.isReusable(new TestDataflowJobConfiguration(true, 0, 2)));
+    }
+    
     private void setUp(final boolean isStreamingProcess, final ShardingContexts shardingContexts) {
+        setUp(isStreamingProcess, 0, shardingContexts);
+    }
+    
+    private void setUp(final boolean isStreamingProcess, final int prefetchDepth, final ShardingContexts shardingContexts) {
+        setUp(isStreamingProcess, prefetchDepth, 0, shardingContexts, new TestDataflowJob(jobCaller));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void setUp(final boolean isStreamingProcess, final int prefetchDepth, final int processBatchSize, final ShardingContexts shardingContexts, final DataflowJob<?> dataflowJob) {
         this.shardingContexts = shardingContexts;
-        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestDataflowJobConfiguration(isStreamingProcess));
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestDataflowJobConfiguration(isStreamingProcess, prefetchDepth, processBatchSize));
         when(jobFacade.getShardingContexts()).thenReturn(shardingContexts);
-        dataflowJobExecutor = new DataflowJobExecutor(new TestDataflowJob(jobCaller), jobFacade);
+        dataflowJobExecutor = new DataflowJobExecutor((DataflowJob<Object>) dataflowJob, jobFacade);
         ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
     }
 }
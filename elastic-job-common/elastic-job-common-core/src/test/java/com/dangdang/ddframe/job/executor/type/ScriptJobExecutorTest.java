@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.job.executor.type;
 
+import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.exception.JobSystemException;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
@@ -26,11 +27,18 @@ import com.dangdang.ddframe.job.fixture.handler.IgnoreJobExceptionHandler;
 import com.dangdang.ddframe.job.fixture.handler.ThrowJobExceptionHandler;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.IOException;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -85,4 +93,56 @@ public final class ScriptJobExecutorTest {
         scriptJobExecutor.execute();
         verify(jobFacade).loadJobRootConfiguration(true);
     }
+    
+    @Test
+    public void assertExecuteFailureWithOutputTail() {
+        assumeFalse(System.getProperties().getProperty("os.name").contains("Windows"));
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, ShardingContextsBuilder.getSingleShardingContexts());
+        String scriptCommandLine = "sh " + ScriptJobExecutorTest.class.getResource("/script/failure.sh").getPath();
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestScriptJobConfiguration(scriptCommandLine, IgnoreJobExceptionHandler.class));
+        scriptJobExecutor = new ScriptJobExecutor(jobFacade);
+        scriptJobExecutor.execute();
+        ArgumentCaptor<JobExecutionEvent> eventCaptor = ArgumentCaptor.forClass(JobExecutionEvent.class);
+        verify(jobFacade, times(2)).postJobExecutionEvent(eventCaptor.capture());
+        JobExecutionEvent completeEvent = eventCaptor.getAllValues().get(1);
+        assertFalse(completeEvent.isSuccess());
+        assertThat(completeEvent.getFailureCause(), containsString("script failure output"));
+    }
+    
+    @Test
+    public void assertExecuteSuccessByScriptWorker() {
+        assumeFalse(System.getProperties().getProperty("os.name").contains("Windows"));
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getSingleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        String scriptCommandLine = "sh " + ScriptJobExecutorTest.class.getResource("/script/worker.sh").getPath();
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestScriptJobConfiguration(scriptCommandLine, ThrowJobExceptionHandler.class, 1));
+        scriptJobExecutor = new ScriptJobExecutor(jobFacade);
+        try {
+            scriptJobExecutor.execute();
+        } finally {
+            scriptJobExecutor.close();
+        }
+        ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
+    }
+    
+    @Test
+    public void assertIsReusableWhenScriptCommandLineUnchanged() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestScriptJobConfiguration("exists_file", IgnoreJobExceptionHandler.class));
+        scriptJobExecutor = new ScriptJobExecutor(jobFacade);
+        assertTrue(scriptJobExecutor.isReusable(new TestScriptJobConfiguration("exists_file", IgnoreJobExceptionHandler.class)));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenScriptCommandLineChanged() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestScriptJobConfiguration("exists_file", IgnoreJobExceptionHandler.class));
+        scriptJobExecutor = new ScriptJobExecutor(jobFacade);
+        assertFalse(scriptJobExecutor.isReusable(new TestScriptJobConfiguration("other_file", IgnoreJobExceptionHandler.class)));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenWorkerPoolSizeChanged() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestScriptJobConfiguration("exists_file", IgnoreJobExceptionHandler.class));
+        scriptJobExecutor = new ScriptJobExecutor(jobFacade);
+        assertFalse(scriptJobExecutor.isReusable(new TestScriptJobConfiguration("exists_file", IgnoreJobExceptionHandler.class, 2)));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class ScriptOutputBufferTest {
+    
+    @Test
+    public void assertGetTailWhenEmpty() {
+        assertThat(new ScriptOutputBuffer(8).getTail(), is(""));
+    }
+    
+    @Test
+    public void assertGetTailWhenNotFull() {
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer(8);
+        write(outputBuffer, "abc");
+        outputBuffer.write('d');
+        assertThat(outputBuffer.getTail(), is("abcd"));
+    }
+    
+    @Test
+    public void assertGetTailWhenWrapped() {
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer(8);
+        write(outputBuffer, "abcdef");
+        write(outputBuffer, "ghijk");
+        assertThat(outputBuffer.getTail(), is("...defghijk"));
+    }
+    
+    @Test
+    public void assertGetTailWhenWriteExceedsCapacity() {
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer(8);
+        write(outputBuffer, "ab");
+        write(outputBuffer, "0123456789");
+        assertThat(outputBuffer.getTail(), is("...23456789"));
+    }
+    
+    @Test
+    public void assertReset() {
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer(8);
+        write(outputBuffer, "0123456789");
+        outputBuffer.reset();
+        write(outputBuffer, "ab");
+        assertThat(outputBuffer.getTail(), is("ab"));
+    }
+    
+    @Test
+    public void assertAppendTail() {
+        ScriptOutputBuffer outputBuffer = new ScriptOutputBuffer(8);
+        assertThat(outputBuffer.appendTail("failure"), is("failure"));
+        write(outputBuffer, "ab");
+        assertThat(outputBuffer.appendTail("failure"), is(String.format("failure%nScript output tail:%nab")));
+    }
+    
+    private void write(final ScriptOutputBuffer outputBuffer, final String value) {
+        byte[] bytes = value.getBytes(Charsets.UTF_8);
+        outputBuffer.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.executor.type;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+
+public final class ScriptWorkerPoolTest {
+    
+    private ScriptWorkerPool scriptWorkerPool;
+    
+    @Before
+    public void setUp() {
+        assumeFalse(System.getProperties().getProperty("os.name").contains("Windows"));
+    }
+    
+    @After
+    public void tearDown() {
+        if (null != scriptWorkerPool) {
+            scriptWorkerPool.close();
+        }
+    }
+    
+    @Test
+    public void assertExecuteReusesWorker() {
+        scriptWorkerPool = createScriptWorkerPool(0);
+        for (int i = 0; i < 3; i++) {
+            scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+        }
+        assertThat(scriptWorkerPool.getStartedWorkerCount(), is(1));
+    }
+    
+    @Test
+    public void assertExecuteRestartsWorkerWhenMaxRequestsReached() {
+        scriptWorkerPool = createScriptWorkerPool(2);
+        for (int i = 0; i < 3; i++) {
+            scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+        }
+        assertThat(scriptWorkerPool.getStartedWorkerCount(), is(2));
+    }
+    
+    @Test
+    public void assertExecuteFailureKeepsWorker() {
+        scriptWorkerPool = createScriptWorkerPool(0);
+        assertThat(assertExecuteFailure(createShardingContext("failure")).getMessage(), containsString("script failure output"));
+        scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+        assertThat(scriptWorkerPool.getStartedWorkerCount(), is(1));
+    }
+    
+    @Test
+    public void assertExecuteTimeoutRestartsWorker() {
+        scriptWorkerPool = createScriptWorkerPool(0);
+        assertExecuteFailure(createShardingContext("timeout"));
+        scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+        assertThat(scriptWorkerPool.getStartedWorkerCount(), is(2));
+    }
+    
+    @Test
+    public void assertExecuteRestartsWorkerWhenWorkerExited() {
+        scriptWorkerPool = createScriptWorkerPool(0);
+        assertExecuteFailure(createShardingContext("exit"));
+        scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+        assertThat(scriptWorkerPool.getStartedWorkerCount(), is(2));
+    }
+    
+    @Test(expected = JobSystemException.class)
+    public void assertExecuteAfterClose() {
+        scriptWorkerPool = createScriptWorkerPool(0);
+        scriptWorkerPool.close();
+        scriptWorkerPool.execute(createShardingContext("success"), 5000L);
+    }
+    
+    private JobSystemException assertExecuteFailure(final ShardingContext shardingContext) {
+        try {
+            scriptWorkerPool.execute(shardingContext, 500L);
+        } catch (final JobSystemException ex) {
+            return ex;
+        }
+        fail("Expected JobSystemException.");
+        return null;
+    }
+    
+    private ScriptWorkerPool createScriptWorkerPool(final int maxRequestsPerWorker) {
+        return new ScriptWorkerPool("sh " + ScriptWorkerPoolTest.class.getResource("/script/worker.sh").getPath(), 1, maxRequestsPerWorker);
+    }
+    
+    private ShardingContext createShardingContext(final String shardingParameter) {
+        return new ShardingContext(new ShardingContexts("fake_task_id", "test_job", 1, "", Collections.singletonMap(0, shardingParameter)), 0);
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.job.executor.type;
 
+import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
 import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
@@ -26,21 +27,34 @@ import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.executor.handler.impl.DefaultExecutorServiceHandler;
 import com.dangdang.ddframe.job.executor.handler.impl.DefaultJobExceptionHandler;
+import com.dangdang.ddframe.job.executor.handler.impl.SharedExecutorServiceHandler;
 import com.dangdang.ddframe.job.fixture.ShardingContextsBuilder;
 import com.dangdang.ddframe.job.fixture.config.TestSimpleJobConfiguration;
+import com.dangdang.ddframe.job.fixture.handler.IgnoreJobExceptionHandler;
 import com.dangdang.ddframe.job.fixture.job.JobCaller;
 import com.dangdang.ddframe.job.fixture.job.TestSimpleJob;
+import lombok.RequiredArgsConstructor;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.unitils.util.ReflectionUtils;
 
+import java.util.Collection;
 import java.util.Collections;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -164,6 +178,7 @@ public final class SimpleJobExecutorTest {
         verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
         ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
         verify(jobCaller, times(shardingContexts.getShardingTotalCount())).execute();
+        assertThat(shardingContexts.getItemExecutionDurations().keySet(), is(shardingContexts.getShardingItemParameters().keySet()));
     }
     
     @Test
@@ -232,4 +247,108 @@ public final class SimpleJobExecutorTest {
             verify(jobCaller, times(2)).execute();
         }
     }
+    
+    @Test
+    public void assertExecuteTwiceWithoutCarryingOverItemErrors() {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        doThrow(RuntimeException.class).doNothing().when(jobCaller).execute();
+        simpleJobExecutor.execute();
+        simpleJobExecutor.execute();
+        verify(jobFacade).postJobStatusTraceEvent(Matchers.eq(shardingContexts.getTaskId()), Matchers.eq(State.TASK_ERROR), Matchers.anyString());
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+    }
+    
+    @Test
+    public void assertIsReusableWhenConfigurationUnchanged() {
+        assertTrue(simpleJobExecutor.isReusable(new TestSimpleJobConfiguration()));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenJobExceptionHandlerChanged() {
+        assertFalse(simpleJobExecutor.isReusable(new TestSimpleJobConfiguration(IgnoreJobExceptionHandler.class.getCanonicalName(), null)));
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenExecutorServiceHandlerChanged() {
+        assertFalse(simpleJobExecutor.isReusable(new TestSimpleJobConfiguration(null, SharedExecutorServiceHandler.class.getCanonicalName())));
+    }
+    
+    @Test
+    public void assertExecuteWhenItemTimeout() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration(200L, 0L));
+        simpleJobExecutor = new SimpleJobExecutor(new TestSimpleJob(jobCaller), jobFacade);
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        doAnswer(new SleepAnswer(10000L)).doNothing().when(jobCaller).execute();
+        long startTime = System.currentTimeMillis();
+        simpleJobExecutor.execute();
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        assertTimeout(shardingContexts, 1);
+        ElasticJobVerify.verifyForIsNotMisfire(jobFacade, shardingContexts);
+    }
+    
+    @Test
+    public void assertExecuteWhenExecutionTimeoutForSingleShardingItem() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration(0L, 200L));
+        simpleJobExecutor = new SimpleJobExecutor(new TestSimpleJob(jobCaller), jobFacade);
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getSingleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        doAnswer(new SleepAnswer(10000L)).when(jobCaller).execute();
+        long startTime = System.currentTimeMillis();
+        simpleJobExecutor.execute();
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        assertTimeout(shardingContexts, 1);
+        verify(jobFacade).releaseTimeoutItems(Collections.singletonList(0));
+    }
+    
+    @Test
+    public void assertExecuteWithTimeoutButNotTimeout() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(new TestSimpleJobConfiguration(5000L, 10000L));
+        simpleJobExecutor = new SimpleJobExecutor(new TestSimpleJob(jobCaller), jobFacade);
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        ElasticJobVerify.prepareForIsNotMisfire(jobFacade, shardingContexts);
+        simpleJobExecutor.execute();
+        verify(jobCaller, times(2)).execute();
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+        verify(jobFacade, times(0)).releaseTimeoutItems(Matchers.<Collection<Integer>>any());
+        assertTimeout(shardingContexts, 0);
+    }
+    
+    @Test
+    public void assertIsNotReusableWhenTimeoutChanged() {
+        assertFalse(simpleJobExecutor.isReusable(new TestSimpleJobConfiguration(1000L, 0L)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void assertTimeout(final ShardingContexts shardingContexts, final int expectedTimeoutCount) {
+        ArgumentCaptor<JobExecutionEvent> eventCaptor = ArgumentCaptor.forClass(JobExecutionEvent.class);
+        verify(jobFacade, atLeastOnce()).postJobExecutionEvent(eventCaptor.capture());
+        int actualTimeoutCount = 0;
+        for (JobExecutionEvent each : eventCaptor.getAllValues()) {
+            if (each.isTimeout()) {
+                actualTimeoutCount++;
+                assertFalse(each.isSuccess());
+            }
+        }
+        assertThat(actualTimeoutCount, is(expectedTimeoutCount));
+        if (expectedTimeoutCount > 0) {
+            ArgumentCaptor<Collection> itemsCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(jobFacade).releaseTimeoutItems(itemsCaptor.capture());
+            assertThat(itemsCaptor.getValue().size(), is(expectedTimeoutCount));
+            verify(jobFacade).postJobStatusTraceEvent(Matchers.eq(shardingContexts.getTaskId()), Matchers.eq(State.TASK_ERROR), Matchers.contains("JobExecutionTimeoutException"));
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class SleepAnswer implements Answer<Void> {
+        
+        private final long sleepMilliseconds;
+        
+        @Override
+        public Void answer(final InvocationOnMock invocation) throws InterruptedException {
+            Thread.sleep(sleepMilliseconds);
+            return null;
+        }
+    }
 }
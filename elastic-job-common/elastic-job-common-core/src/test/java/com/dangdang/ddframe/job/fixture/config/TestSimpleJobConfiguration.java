@@ -34,15 +34,25 @@ public final class TestSimpleJobConfiguration implements JobRootConfiguration {
     
     private String executorServiceHandlerClassName;
     
+    private long itemTimeoutMilliseconds;
+    
+    private long executionTimeoutMilliseconds;
+    
     public TestSimpleJobConfiguration(final String jobExceptionHandlerClassName, final String executorServiceHandlerClassName) {
         this.jobExceptionHandlerClassName = jobExceptionHandlerClassName;
         this.executorServiceHandlerClassName = executorServiceHandlerClassName;
     }
     
+    public TestSimpleJobConfiguration(final long itemTimeoutMilliseconds, final long executionTimeoutMilliseconds) {
+        this.itemTimeoutMilliseconds = itemTimeoutMilliseconds;
+        this.executionTimeoutMilliseconds = executionTimeoutMilliseconds;
+    }
+    
     @Override
     public JobTypeConfiguration getTypeConfig() {
         JobCoreConfiguration.Builder builder = JobCoreConfiguration.newBuilder(ShardingContextsBuilder.JOB_NAME, "0/1 * * * * ?", 3)
-                .shardingItemParameters("0=A,1=B,2=C").jobParameter("param").failover(true).misfire(false).description("desc");
+                .shardingItemParameters("0=A,1=B,2=C").jobParameter("param").failover(true).misfire(false).description("desc")
+                .itemTimeoutMilliseconds(itemTimeoutMilliseconds).executionTimeoutMilliseconds(executionTimeoutMilliseconds);
         if (null == jobExceptionHandlerClassName) {
             builder.jobProperties(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER.getKey(), ThrowJobExceptionHandler.class.getCanonicalName());
         } else {
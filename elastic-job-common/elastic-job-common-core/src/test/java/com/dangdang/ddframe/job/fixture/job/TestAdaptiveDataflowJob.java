@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.fixture.job;
+
+import com.dangdang.ddframe.job.api.ShardingContext;
+import com.dangdang.ddframe.job.api.dataflow.AdaptiveDataflowJob;
+import com.dangdang.ddframe.job.api.dataflow.AdaptiveFetchConfiguration;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@RequiredArgsConstructor
+public final class TestAdaptiveDataflowJob implements AdaptiveDataflowJob<Object> {
+    
+    private final JobCaller jobCaller;
+    
+    @Getter
+    private final List<Integer> requestedFetchSizes = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public List<Object> fetchData(final ShardingContext shardingContext) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public List<Object> fetchData(final ShardingContext shardingContext, final int fetchSize) {
+        requestedFetchSizes.add(fetchSize);
+        return jobCaller.fetchData(shardingContext.getShardingItem());
+    }
+    
+    @Override
+    public void processData(final ShardingContext shardingContext, final List<Object> data) {
+        for (Object each : data) {
+            jobCaller.processData(each);
+        }
+    }
+    
+    @Override
+    public AdaptiveFetchConfiguration getAdaptiveFetchConfiguration() {
+        return new AdaptiveFetchConfiguration(10, 170, 60000L);
+    }
+}
@@ -18,14 +18,19 @@
 package com.dangdang.ddframe.job.reg;
 
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandlerTest;
+import com.dangdang.ddframe.job.reg.zookeeper.TreeCacheIndexTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperConfigurationTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperElectionServiceTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterAsyncTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterBatchTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterClockTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterForAuthTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterInitFailureTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterMiscellaneousTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterModifyTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterQueryWithCacheTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterQueryWithoutCacheTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterWaitTest;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.junit.runner.RunWith;
@@ -35,11 +40,16 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         ZookeeperConfigurationTest.class, 
+        TreeCacheIndexTest.class, 
         ZookeeperRegistryCenterForAuthTest.class, 
         ZookeeperRegistryCenterQueryWithCacheTest.class, 
         ZookeeperRegistryCenterQueryWithoutCacheTest.class, 
         ZookeeperRegistryCenterModifyTest.class, 
         ZookeeperRegistryCenterMiscellaneousTest.class,
+        ZookeeperRegistryCenterBatchTest.class,
+        ZookeeperRegistryCenterAsyncTest.class,
+        ZookeeperRegistryCenterClockTest.class,
+        ZookeeperRegistryCenterWaitTest.class,
         ZookeeperElectionServiceTest.class,
         RegExceptionHandlerTest.class, 
         ZookeeperRegistryCenterInitFailureTest.class
@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public final class TreeCacheIndexTest {
+    
+    private final TreeCacheIndex index = new TreeCacheIndex();
+    
+    @Test
+    public void assertFindWhenEmpty() {
+        assertNull(index.find("/test_job/config"));
+    }
+    
+    @Test
+    public void assertFindCoveringCache() {
+        TreeCache cache = mock(TreeCache.class);
+        index.put("/test_job", cache);
+        assertThat(index.find("/test_job"), is(cache));
+        assertThat(index.find("/test_job/config"), is(cache));
+        assertThat(index.find("/test_job/servers/host0/status"), is(cache));
+        assertNull(index.find("/test_job_other/config"));
+        assertNull(index.find("/other/test_job/config"));
+    }
+    
+    @Test
+    public void assertFindDeepestCoveringCache() {
+        TreeCache parentCache = mock(TreeCache.class);
+        TreeCache childCache = mock(TreeCache.class);
+        index.put("/test_job", parentCache);
+        index.put("/test_job/servers", childCache);
+        assertThat(index.find("/test_job/config"), is(parentCache));
+        assertThat(index.find("/test_job/servers/host0"), is(childCache));
+    }
+    
+    @Test
+    public void assertGet() {
+        TreeCache cache = mock(TreeCache.class);
+        index.put("/test_job/servers", cache);
+        assertThat(index.get("/test_job/servers"), is(cache));
+        assertNull(index.get("/test_job"));
+        assertNull(index.get("/test_job/servers/host0"));
+    }
+    
+    @Test
+    public void assertValues() {
+        TreeCache cache0 = mock(TreeCache.class);
+        TreeCache cache1 = mock(TreeCache.class);
+        index.put("/test_job_0", cache0);
+        index.put("/test_job_1", cache1);
+        assertThat(index.values().size(), is(2));
+        assertThat(index.values(), hasItems(cache0, cache1));
+    }
+    
+    @Test
+    public void assertConcurrentPut() throws InterruptedException {
+        int jobCount = 3000;
+        final List<TreeCache> caches = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            caches.add(mock(TreeCache.class));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        final CountDownLatch latch = new CountDownLatch(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            final int jobIndex = i;
+            executorService.submit(new Runnable() {
+                
+                @Override
+                public void run() {
+                    index.put("/test_job_" + jobIndex, caches.get(jobIndex));
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10L, TimeUnit.SECONDS));
+        executorService.shutdown();
+        for (int i = 0; i < jobCount; i++) {
+            assertThat(index.find("/test_job_" + i + "/sharding/0/running"), is(caches.get(i)));
+        }
+        assertThat(index.values().size(), is(jobCount));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.dangdang.ddframe.job.reg.base.AsyncCoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterAsyncTest {
+    
+    private static final ZookeeperConfiguration ZOOKEEPER_CONFIGURATION = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterAsyncTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    private static AsyncCoordinatorRegistryCenter asyncRegCenter;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
+        ZOOKEEPER_CONFIGURATION.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter.init();
+        ZookeeperRegistryCenterTestUtil.persist(zkRegCenter);
+        asyncRegCenter = zkRegCenter.getAsyncRegistryCenter();
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertQuery() throws ExecutionException, InterruptedException {
+        assertThat(asyncRegCenter.getDirectly("/test").get(), is("test"));
+        assertNull(asyncRegCenter.getDirectly("/test/not_existed").get());
+        assertTrue(asyncRegCenter.isExisted("/test/deep").get());
+        assertFalse(asyncRegCenter.isExisted("/test/not_existed").get());
+        assertThat(asyncRegCenter.getChildrenKeys("/test").get(), is(Arrays.asList("deep", "child")));
+        assertThat(asyncRegCenter.getChildrenKeys("/test/not_existed").get(), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertPersist() throws ExecutionException, InterruptedException {
+        asyncRegCenter.persist("/async/persist", "new_value").get();
+        assertThat(zkRegCenter.getDirectly("/async/persist"), is("new_value"));
+        asyncRegCenter.persist("/async/persist", "update_value").get();
+        assertThat(zkRegCenter.getDirectly("/async/persist"), is("update_value"));
+    }
+    
+    @Test
+    public void assertPersistEphemeral() throws ExecutionException, InterruptedException {
+        asyncRegCenter.persistEphemeral("/async/ephemeral", "ephemeral_value").get();
+        asyncRegCenter.persistEphemeral("/async/ephemeral", "ephemeral_value_again").get();
+        assertThat(zkRegCenter.getDirectly("/async/ephemeral"), is("ephemeral_value_again"));
+    }
+    
+    @Test
+    public void assertUpdateAndRemove() throws ExecutionException, InterruptedException {
+        zkRegCenter.persist("/async/update/nested", "before_update");
+        asyncRegCenter.update("/async/update/nested", "after_update").get();
+        assertThat(zkRegCenter.getDirectly("/async/update/nested"), is("after_update"));
+        asyncRegCenter.update("/async/not_existed", "after_update").get();
+        asyncRegCenter.remove("/async/update").get();
+        assertFalse(zkRegCenter.isExisted("/async/update"));
+        asyncRegCenter.remove("/async/not_existed").get();
+    }
+    
+    @Test
+    public void assertPipelinedWritesAreVisibleToLaterSyncReads() {
+        zkRegCenter.persist("/async/pipelined", "");
+        for (int i = 0; i < 10; i++) {
+            asyncRegCenter.persist("/async/pipelined", String.valueOf(i));
+        }
+        assertThat(zkRegCenter.getDirectly("/async/pipelined"), is("9"));
+    }
+}
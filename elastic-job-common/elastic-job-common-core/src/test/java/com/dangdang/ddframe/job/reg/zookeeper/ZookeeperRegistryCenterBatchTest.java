@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterBatchTest {
+    
+    private static final ZookeeperConfiguration ZOOKEEPER_CONFIGURATION = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterBatchTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    @BeforeClass
+    public static void setUp() throws InterruptedException {
+        EmbedTestingServer.start();
+        zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
+        ZOOKEEPER_CONFIGURATION.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter.init();
+        ZookeeperRegistryCenterTestUtil.persist(zkRegCenter);
+        zkRegCenter.addCacheData("/test");
+        Thread.sleep(500L);
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertCommitEmptyBatch() {
+        zkRegCenter.createBatch().commit();
+    }
+    
+    @Test
+    public void assertCommitWithExistedAndNewNodes() {
+        zkRegCenter.createBatch().persist("/test", "test_batch").persist("/test/batch_new", "new").persistEphemeral("/test/batch_ephemeral", "ephemeral").update("/test/child", "child_batch").commit();
+        assertThat(zkRegCenter.getDirectly("/test"), is("test_batch"));
+        assertThat(zkRegCenter.getDirectly("/test/batch_new"), is("new"));
+        assertThat(zkRegCenter.getDirectly("/test/batch_ephemeral"), is("ephemeral"));
+        assertThat(zkRegCenter.getDirectly("/test/child"), is("child_batch"));
+        zkRegCenter.persist("/test", "test");
+        zkRegCenter.persist("/test/child", "child");
+    }
+    
+    @Test
+    public void assertCommitWithMissingParent() {
+        zkRegCenter.createBatch().persist("/test/batch_parent/missing", "missing").persist("/batch_uncached/new", "new").commit();
+        assertThat(zkRegCenter.getDirectly("/test/batch_parent/missing"), is("missing"));
+        assertThat(zkRegCenter.getDirectly("/batch_uncached/new"), is("new"));
+    }
+    
+    @Test
+    public void assertCommitWithRemove() throws InterruptedException {
+        zkRegCenter.persist("/test/batch_remove/nested", "nested");
+        while (!zkRegCenter.isExistedInCache("/test/batch_remove/nested")) {
+            Thread.sleep(10L);
+        }
+        zkRegCenter.createBatch().remove("/test/batch_remove").remove("/test/batch_not_existed").commit();
+        assertFalse(zkRegCenter.isExisted("/test/batch_remove"));
+        assertTrue(zkRegCenter.isExisted("/test"));
+    }
+    
+    @Test
+    public void assertCommitWithRemoveNodesNotYetInCache() {
+        zkRegCenter.persist("/test/batch_fresh", "fresh");
+        zkRegCenter.persistEphemeral("/test/batch_fresh_ephemeral", "fresh");
+        zkRegCenter.createBatch().remove("/test/batch_fresh_ephemeral").commit();
+        assertFalse(zkRegCenter.isExisted("/test/batch_fresh_ephemeral"));
+        zkRegCenter.persist("/test/batch_fresh/nested", "nested");
+        zkRegCenter.createBatch().remove("/test/batch_fresh").commit();
+        assertFalse(zkRegCenter.isExisted("/test/batch_fresh"));
+    }
+    
+    @Test
+    public void assertCommitWithCreate() {
+        zkRegCenter.createBatch().create("/test/child", "child_create").create("/test/batch_create", "create").create("/test/batch_create_parent/missing", "missing").commit();
+        assertThat(zkRegCenter.getDirectly("/test/child"), is("child"));
+        assertThat(zkRegCenter.getDirectly("/test/batch_create"), is("create"));
+        assertThat(zkRegCenter.getDirectly("/test/batch_create_parent/missing"), is("missing"));
+    }
+}
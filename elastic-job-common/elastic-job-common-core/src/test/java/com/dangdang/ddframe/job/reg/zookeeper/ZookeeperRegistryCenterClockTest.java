@@ -0,0 +1,73 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterClockTest {
+    
+    private final ZookeeperRegistryCenterClock registryCenterClock = new ZookeeperRegistryCenterClock(null);
+    
+    @Test
+    public void assertNotSampled() {
+        assertFalse(registryCenterClock.isSampled());
+        assertThat(registryCenterClock.getOffsetMilliseconds(), is(0L));
+        assertThat(registryCenterClock.getErrorBoundMilliseconds(), is(0L));
+    }
+    
+    @Test
+    public void assertFirstSample() {
+        assertThat(registryCenterClock.update(1000L, 6010L, 1020L), is(ZookeeperRegistryCenterClock.MIN_SAMPLE_INTERVAL_MILLISECONDS));
+        assertTrue(registryCenterClock.isSampled());
+        assertThat(registryCenterClock.getOffsetMilliseconds(), is(5000L));
+        assertThat(registryCenterClock.getErrorBoundMilliseconds(), is(10L));
+    }
+    
+    @Test
+    public void assertStableSamplesSmoothOffsetAndBackOff() {
+        registryCenterClock.update(1000L, 6010L, 1020L);
+        assertThat(registryCenterClock.update(2000L, 7050L, 2020L), is(ZookeeperRegistryCenterClock.MIN_SAMPLE_INTERVAL_MILLISECONDS * 2));
+        assertThat(registryCenterClock.getOffsetMilliseconds(), is(5010L));
+        assertThat(registryCenterClock.getErrorBoundMilliseconds(), is(20L));
+        assertThat(registryCenterClock.update(3000L, 8010L, 3020L), is(ZookeeperRegistryCenterClock.MIN_SAMPLE_INTERVAL_MILLISECONDS * 4));
+    }
+    
+    @Test
+    public void assertSampleIntervalNotExceedMax() {
+        long interval = 0L;
+        for (int i = 0; i < 20; i++) {
+            interval = registryCenterClock.update(i * 1000L, i * 1000L + 5010L, i * 1000L + 20L);
+        }
+        assertThat(interval, is(ZookeeperRegistryCenterClock.MAX_SAMPLE_INTERVAL_MILLISECONDS));
+        assertThat(registryCenterClock.getOffsetMilliseconds(), is(5000L));
+    }
+    
+    @Test
+    public void assertJumpResetsOffsetAndSampleInterval() {
+        registryCenterClock.update(1000L, 6010L, 1020L);
+        registryCenterClock.update(2000L, 7010L, 2020L);
+        assertThat(registryCenterClock.update(3000L, 3010L, 3020L), is(ZookeeperRegistryCenterClock.MIN_SAMPLE_INTERVAL_MILLISECONDS));
+        assertThat(registryCenterClock.getOffsetMilliseconds(), is(0L));
+        assertThat(registryCenterClock.getErrorBoundMilliseconds(), is(10L));
+    }
+}
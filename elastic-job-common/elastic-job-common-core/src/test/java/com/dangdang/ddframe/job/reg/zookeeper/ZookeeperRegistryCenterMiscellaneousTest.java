@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.reg.zookeeper;
 
 import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.junit.AfterClass;
@@ -27,6 +28,7 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public final class ZookeeperRegistryCenterMiscellaneousTest {
     
@@ -65,4 +67,13 @@ public final class ZookeeperRegistryCenterMiscellaneousTest {
         ZookeeperRegistryCenter zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
         assertThat(zkRegCenter.getZkConfig(), is(ZOOKEEPER_CONFIGURATION));
     }
+    
+    @Test
+    public void assertGetRegistryCenterClock() {
+        RegistryCenterClock actual = zkRegCenter.getRegistryCenterClock();
+        assertTrue(actual.isSampled());
+        assertTrue(Math.abs(actual.getOffsetMilliseconds()) <= actual.getErrorBoundMilliseconds() + 1000L);
+        assertTrue(zkRegCenter.isExisted("/" + RegistryCenterClock.SAMPLE_NODE_NAME));
+        assertThat(zkRegCenter.getRegistryCenterClock(), is(actual));
+    }
 }
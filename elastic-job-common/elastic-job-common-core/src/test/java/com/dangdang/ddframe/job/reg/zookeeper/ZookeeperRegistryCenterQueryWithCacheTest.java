@@ -23,9 +23,14 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 public final class ZookeeperRegistryCenterQueryWithCacheTest {
     
@@ -35,13 +40,14 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
     private static ZookeeperRegistryCenter zkRegCenter;
     
     @BeforeClass
-    public static void setUp() {
+    public static void setUp() throws InterruptedException {
         EmbedTestingServer.start();
         zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
         ZOOKEEPER_CONFIGURATION.setConnectionTimeoutMilliseconds(30000);
         zkRegCenter.init();
         ZookeeperRegistryCenterTestUtil.persist(zkRegCenter);
         zkRegCenter.addCacheData("/test");
+        Thread.sleep(500L);
     }
     
     @AfterClass
@@ -59,4 +65,29 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
         assertThat(zkRegCenter.get("/test"), is("test"));
         assertThat(zkRegCenter.get("/test/deep/nested"), is("deepNested"));
     }
+    
+    @Test
+    public void assertIsExistedInCache() {
+        assertTrue(zkRegCenter.isExistedInCache("/test/deep/nested"));
+        assertFalse(zkRegCenter.isExistedInCache("/test/notExisted"));
+        assertTrue(zkRegCenter.isExistedInCache("/test"));
+    }
+    
+    @Test
+    public void assertGetChildrenKeysInCache() {
+        assertThat(zkRegCenter.getChildrenKeysInCache("/test"), is(Arrays.asList("deep", "child")));
+        assertThat(zkRegCenter.getChildrenKeysInCache("/test/notExisted"), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertGetNumChildrenInCache() {
+        assertThat(zkRegCenter.getNumChildrenInCache("/test/deep"), is(1));
+        assertThat(zkRegCenter.getNumChildrenInCache("/test/notExisted"), is(0));
+    }
+    
+    @Test
+    public void assertSync() {
+        zkRegCenter.sync("/test");
+        assertThat(zkRegCenter.getDirectly("/test"), is("test"));
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.unitils.util.ReflectionUtils;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ZookeeperRegistryCenterWaitTest {
+    
+    private static final ZookeeperConfiguration ZOOKEEPER_CONFIGURATION = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterWaitTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    private static ScheduledExecutorService scheduler;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        ZOOKEEPER_CONFIGURATION.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
+        zkRegCenter.init();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        scheduler.shutdown();
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertWaitUntilExistedWhenExisted() {
+        zkRegCenter.persist("/test/existed", "");
+        assertTrue(zkRegCenter.waitUntilExisted("/test/existed", 0L));
+    }
+    
+    @Test
+    public void assertWaitUntilExistedTimeout() {
+        assertFalse(zkRegCenter.waitUntilExisted("/test/neverCreated", 100L));
+    }
+    
+    @Test
+    public void assertWaitUntilExistedWakesOnCreate() {
+        scheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.persist("/test/created", "");
+            }
+        }, 200L, TimeUnit.MILLISECONDS);
+        long startTime = System.currentTimeMillis();
+        assertTrue(zkRegCenter.waitUntilExisted("/test/created", 10000L));
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+    }
+    
+    @Test
+    public void assertWaitUntilExistedSharesWatcherAcrossTimeouts() throws NoSuchFieldException {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(zkRegCenter.waitUntilExisted("/test/createdLater", 10L));
+        }
+        Map<?, ?> nodeChangedLatches = (Map) ReflectionUtils.getFieldValue(zkRegCenter, ZookeeperRegistryCenter.class.getDeclaredField("nodeChangedLatches"));
+        Object armedLatch = nodeChangedLatches.get("/test/createdLater");
+        assertNotNull(armedLatch);
+        assertFalse(zkRegCenter.waitUntilExisted("/test/createdLater", 10L));
+        assertThat(nodeChangedLatches.get("/test/createdLater"), is(armedLatch));
+        scheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.persist("/test/createdLater", "");
+            }
+        }, 100L, TimeUnit.MILLISECONDS);
+        assertTrue(zkRegCenter.waitUntilExisted("/test/createdLater", 10000L));
+    }
+    
+    @Test
+    public void assertWaitUntilRemovedWhenNotExisted() {
+        assertTrue(zkRegCenter.waitUntilRemoved("/test/notExisted", 0L));
+    }
+    
+    @Test
+    public void assertWaitUntilRemovedTimeout() {
+        zkRegCenter.persist("/test/neverRemoved", "");
+        assertFalse(zkRegCenter.waitUntilRemoved("/test/neverRemoved", 100L));
+    }
+    
+    @Test
+    public void assertWaitUntilRemovedWakesOnRemoveAfterUpdate() {
+        zkRegCenter.persist("/test/removed", "");
+        scheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.update("/test/removed", "updated");
+            }
+        }, 100L, TimeUnit.MILLISECONDS);
+        scheduler.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                zkRegCenter.remove("/test/removed");
+            }
+        }, 300L, TimeUnit.MILLISECONDS);
+        long startTime = System.currentTimeMillis();
+        assertTrue(zkRegCenter.waitUntilRemoved("/test/removed", 10000L));
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+    }
+}
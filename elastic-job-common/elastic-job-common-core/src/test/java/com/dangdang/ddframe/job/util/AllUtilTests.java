@@ -18,8 +18,10 @@
 package com.dangdang.ddframe.job.util;
 
 import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObjectTest;
+import com.dangdang.ddframe.job.util.concurrent.JobLimitedExecutorServiceTest;
 import com.dangdang.ddframe.job.util.config.ShardingItemParametersTest;
 import com.dangdang.ddframe.job.util.config.ShardingItemsTest;
+import com.dangdang.ddframe.job.util.cron.CompiledCronExpressionTest;
 import com.dangdang.ddframe.job.util.digest.EncryptionTest;
 import com.dangdang.ddframe.job.util.env.HostExceptionTest;
 import com.dangdang.ddframe.job.util.env.LocalHostServiceTest;
@@ -35,6 +37,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
         ExecutorServiceObjectTest.class, 
+        JobLimitedExecutorServiceTest.class, 
         EncryptionTest.class, 
         TimeServiceTest.class, 
         LocalHostServiceTest.class, 
@@ -42,7 +45,8 @@ import org.junit.runners.Suite.SuiteClasses;
         GsonFactoryTest.class, 
         JobConfigurationGsonTypeAdapterTest.class, 
         ShardingItemsTest.class, 
-        ShardingItemParametersTest.class
+        ShardingItemParametersTest.class, 
+        CompiledCronExpressionTest.class
     })
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AllUtilTests {
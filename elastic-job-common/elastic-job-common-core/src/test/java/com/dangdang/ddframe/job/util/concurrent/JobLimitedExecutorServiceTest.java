@@ -0,0 +1,147 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.concurrent;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class JobLimitedExecutorServiceTest {
+    
+    private final ExecutorService sharedExecutor = Executors.newCachedThreadPool();
+    
+    @After
+    public void tearDown() {
+        sharedExecutor.shutdownNow();
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void assertCreateWithIllegalConcurrencyLimit() {
+        new JobLimitedExecutorService(sharedExecutor, 0);
+    }
+    
+    @Test
+    public void assertExecuteWithinConcurrencyLimit() throws InterruptedException {
+        JobLimitedExecutorService executorService = new JobLimitedExecutorService(sharedExecutor, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(5);
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            executorService.execute(new BlockingTask(release, completed, concurrency, maxConcurrency));
+        }
+        Thread.sleep(200L);
+        assertThat(executorService.getConcurrencyLimit(), is(2));
+        assertThat(executorService.getRunningCount(), is(2));
+        assertThat(executorService.getQueueDepth(), is(3));
+        assertThat(executorService.getStartedTaskCount(), is(2L));
+        release.countDown();
+        assertTrue(completed.await(3L, TimeUnit.SECONDS));
+        assertThat(maxConcurrency.get(), is(2));
+        assertThat(executorService.getStartedTaskCount(), is(5L));
+        assertThat(executorService.getQueueDepth(), is(0));
+        assertTrue(executorService.getMaxWaitTimeMillis() >= 100L);
+        assertTrue(executorService.getAverageWaitTimeMillis() <= executorService.getMaxWaitTimeMillis());
+    }
+    
+    @Test
+    public void assertShutdown() throws InterruptedException {
+        JobLimitedExecutorService executorService = new JobLimitedExecutorService(sharedExecutor, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(2);
+        executorService.execute(new BlockingTask(release, completed, new AtomicInteger(), new AtomicInteger()));
+        executorService.execute(new BlockingTask(release, completed, new AtomicInteger(), new AtomicInteger()));
+        executorService.shutdown();
+        assertTrue(executorService.isShutdown());
+        assertFalse(executorService.isTerminated());
+        assertFalse(executorService.awaitTermination(100L, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(executorService.awaitTermination(3L, TimeUnit.SECONDS));
+        assertTrue(executorService.isTerminated());
+        assertThat(completed.getCount(), is(0L));
+        assertFalse(sharedExecutor.isShutdown());
+    }
+    
+    @Test
+    public void assertShutdownNow() throws InterruptedException {
+        JobLimitedExecutorService executorService = new JobLimitedExecutorService(sharedExecutor, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(2);
+        executorService.execute(new BlockingTask(release, completed, new AtomicInteger(), new AtomicInteger()));
+        executorService.execute(new BlockingTask(release, completed, new AtomicInteger(), new AtomicInteger()));
+        List<Runnable> actual = executorService.shutdownNow();
+        assertThat(actual.size(), is(1));
+        assertThat(executorService.getQueueDepth(), is(0));
+        release.countDown();
+        assertTrue(executorService.awaitTermination(3L, TimeUnit.SECONDS));
+        assertThat(completed.getCount(), is(1L));
+    }
+    
+    @Test(expected = RejectedExecutionException.class)
+    public void assertExecuteAfterShutdown() {
+        JobLimitedExecutorService executorService = new JobLimitedExecutorService(sharedExecutor, 1);
+        executorService.shutdown();
+        executorService.execute(new BlockingTask(new CountDownLatch(0), new CountDownLatch(1), new AtomicInteger(), new AtomicInteger()));
+    }
+    
+    private static final class BlockingTask implements Runnable {
+        
+        private final CountDownLatch release;
+        
+        private final CountDownLatch completed;
+        
+        private final AtomicInteger concurrency;
+        
+        private final AtomicInteger maxConcurrency;
+        
+        BlockingTask(final CountDownLatch release, final CountDownLatch completed, final AtomicInteger concurrency, final AtomicInteger maxConcurrency) {
+            this.release = release;
+            this.completed = completed;
+            this.concurrency = concurrency;
+            this.maxConcurrency = maxConcurrency;
+        }
+        
+        @Override
+        public void run() {
+            int current = concurrency.incrementAndGet();
+            while (current > maxConcurrency.get()) {
+                maxConcurrency.compareAndSet(maxConcurrency.get(), current);
+            }
+            try {
+                release.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrency.decrementAndGet();
+                completed.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.cron;
+
+import org.junit.Test;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class CompiledCronExpressionTest {
+    
+    private static final String[] EXPRESSIONS = {
+        "* * * * * ?", 
+        "0/1 * * * * ?", 
+        "0/5 * * * * ?", 
+        "3/7 * * * * ?", 
+        "0 0/10 * * * ?", 
+        "15,45 10-20/3 * * * ?", 
+        "0 0 22-2 * * ?", 
+        "0 30 9 ? * MON-FRI", 
+        "0 0 12 ? * SAT,SUN", 
+        "0 0 0 ? * FRI-MON", 
+        "0 0 0 29 2 ?", 
+        "0 0 0 31 * ?", 
+        "0 0 12 1/5 JAN,JUL,DEC ?", 
+        "59 59 23 31 12 ? *", 
+        "0 0 0 1 1 ? 2030-2032", 
+        "0 15 10 ? * 6 2025,2027", 
+        "0 0 3 ? * 1", 
+        "0 30 2 * * ?", 
+        "0 0 1 * * ?",
+    };
+    
+    @Test
+    public void assertCompileUnsupportedExpressions() {
+        assertFalse(CompiledCronExpression.compile("0 0 12 L * ?").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 15W * ?").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 ? * 6L").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 ? * 6#3").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 * * *").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 ? * ?").isPresent());
+        assertFalse(CompiledCronExpression.compile("0 0 12 * *").isPresent());
+        assertFalse(CompiledCronExpression.compile("60 0 12 * * ?").isPresent());
+        assertFalse(CompiledCronExpression.compile("a 0 12 * * ?").isPresent());
+    }
+    
+    @Test
+    public void assertCompile() {
+        CompiledCronExpression actual = CompiledCronExpression.compile("0 30 9 ? * MON-FRI", TimeZone.getTimeZone("Asia/Shanghai")).get();
+        assertThat(actual.getCronExpression(), is("0 30 9 ? * MON-FRI"));
+        assertThat(actual.getTimeZone(), is(TimeZone.getTimeZone("Asia/Shanghai")));
+        assertThat(actual.toString(), is("0 30 9 ? * MON-FRI"));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeAfterWhenNoMoreFire() {
+        assertThat(CompiledCronExpression.compile("0 0 0 1 1 ? 2001").get().getNextFireTimeAfter(System.currentTimeMillis()), is(-1L));
+        assertThat(CompiledCronExpression.compile("0 0 0 30 2 ?").get().getNextFireTimeAfter(System.currentTimeMillis()), is(-1L));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeAfterSameAsQuartzInUtc() throws ParseException {
+        assertSameAsQuartz(TimeZone.getTimeZone("UTC"));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeAfterSameAsQuartzInShanghai() throws ParseException {
+        assertSameAsQuartz(TimeZone.getTimeZone("Asia/Shanghai"));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeAfterSameAsQuartzInNewYork() throws ParseException {
+        assertSameAsQuartz(TimeZone.getTimeZone("America/New_York"));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeAfterSkipsDaylightSavingGap() {
+        TimeZone timeZone = TimeZone.getTimeZone("America/New_York");
+        CompiledCronExpression actual = CompiledCronExpression.compile("0 30 2 * * ?", timeZone).get();
+        long beforeGap = utc(2024, 3, 10, 5, 0, 0);
+        assertThat(actual.getNextFireTimeAfter(beforeGap), is(utc(2024, 3, 11, 6, 30, 0)));
+    }
+    
+    private void assertSameAsQuartz(final TimeZone timeZone) throws ParseException {
+        Random random = new Random(20161017L);
+        for (String each : EXPRESSIONS) {
+            CronExpression expected = new CronExpression(each);
+            expected.setTimeZone(timeZone);
+            CompiledCronExpression actual = CompiledCronExpression.compile(each, timeZone).get();
+            for (int i = 0; i < 200; i++) {
+                long afterTime = utc(2000 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60))
+                        + random.nextInt(1000);
+                for (int j = 0; j < 5 && afterTime >= 0L; j++) {
+                    long expectedTime = toTime(expected.getNextValidTimeAfter(new Date(afterTime)));
+                    if (isInDaylightSavingTransition(timeZone, expectedTime)) {
+                        break;
+                    }
+                    long actualTime = actual.getNextFireTimeAfter(afterTime);
+                    assertThat(String.format("'%s' after %s in %s", each, new Date(afterTime), timeZone.getID()), actualTime, is(expectedTime));
+                    afterTime = actualTime;
+                }
+            }
+        }
+    }
+    
+    private long utc(final int year, final int month, final int day, final int hour, final int minute, final int second) {
+        Calendar result = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        result.clear();
+        result.set(year, month - 1, day, hour, minute, second);
+        return result.getTimeInMillis();
+    }
+    
+    private long toTime(final Date date) {
+        return null == date ? -1L : date.getTime();
+    }
+    
+    private boolean isInDaylightSavingTransition(final TimeZone timeZone, final long time) {
+        return time >= 0L && timeZone.getOffset(time - 3 * 3600 * 1000L) != timeZone.getOffset(time + 3 * 3600 * 1000L);
+    }
+}
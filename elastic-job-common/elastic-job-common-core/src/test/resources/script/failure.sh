@@ -0,0 +1,3 @@
+#!/bin/sh
+echo "script failure output" >&2
+exit 1
@@ -0,0 +1,9 @@
+#!/bin/sh
+while read -r line; do
+    case "$line" in
+        *'"shardingParameter":"failure"'*) echo 'script failure output' >&2; echo '{"success":false,"message":"failure"}' ;;
+        *'"shardingParameter":"timeout"'*) sleep 10 ;;
+        *'"shardingParameter":"exit"'*) exit 1 ;;
+        *) echo '{"success":true}' ;;
+    esac
+done
@@ -24,14 +24,15 @@ import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.JobEventConfiguration;
 import com.dangdang.ddframe.job.exception.JobConfigurationException;
 import com.dangdang.ddframe.job.exception.JobSystemException;
-import com.dangdang.ddframe.job.executor.JobExecutorFactory;
 import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.lite.api.listener.ElasticJobListener;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.executor.JobExecutor;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibility;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.schedule.LiteJobFacade;
+import com.dangdang.ddframe.job.lite.internal.schedule.SharedJobScheduleController;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Optional;
 import lombok.Setter;
@@ -90,10 +91,17 @@ public class JobScheduler {
      * spring初始化类后，调用的初始化方法
      */
     public void init() {
+        jobRegistry.removeJobExecutor(jobName);
         jobExecutor.init();
-        JobTypeConfiguration jobTypeConfig = jobExecutor.getSchedulerFacade().loadJobConfiguration().getTypeConfig();
-        JobScheduleController jobScheduleController = new JobScheduleController(
-                createScheduler(jobTypeConfig.getCoreConfig().isMisfire()), createJobDetail(jobTypeConfig.getJobClass()), jobExecutor.getSchedulerFacade(), jobName);
+        LiteJobConfiguration liteJobConfig = jobExecutor.getSchedulerFacade().loadJobConfiguration();
+        JobTypeConfiguration jobTypeConfig = liteJobConfig.getTypeConfig();
+        JobScheduleController jobScheduleController;
+        if (liteJobConfig.isSharedScheduler()) {
+            jobScheduleController = new SharedJobScheduleController(jobExecutor.getSchedulerFacade(), jobName, createElasticJob(jobTypeConfig.getJobClass()), jobFacade);
+        } else {
+            jobScheduleController = new JobScheduleController(
+                    createScheduler(jobTypeConfig.getCoreConfig().isMisfire()), createJobDetail(jobTypeConfig.getJobClass()), jobExecutor.getSchedulerFacade(), jobName);
+        }
         jobScheduleController.scheduleJob(jobTypeConfig.getCoreConfig().getCron());
         jobRegistry.addJobScheduleController(jobName, jobScheduleController);
     }
@@ -101,17 +109,26 @@ public class JobScheduler {
     private JobDetail createJobDetail(final String jobClass) {
         JobDetail result = JobBuilder.newJob(LiteJob.class).withIdentity(jobName).build();
         result.getJobDataMap().put(JOB_FACADE_DATA_MAP_KEY, jobFacade);
+        ElasticJob elasticJob = createElasticJob(jobClass);
+        if (null != elasticJob) {
+            result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJob);
+        }
+        return result;
+    }
+    
+    private ElasticJob createElasticJob(final String jobClass) {
         Optional<ElasticJob> elasticJobInstance = createElasticJobInstance();
         if (elasticJobInstance.isPresent()) {
-            result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJobInstance.get());
-        } else if (!jobClass.equals(ScriptJob.class.getCanonicalName())) {
-            try {
-                result.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, Class.forName(jobClass).newInstance());
-            } catch (final ReflectiveOperationException ex) {
-                throw new JobConfigurationException("Elastic-Job: Job class '%s' can not initialize.", jobClass);
-            }
+            return elasticJobInstance.get();
+        }
+        if (jobClass.equals(ScriptJob.class.getCanonicalName())) {
+            return null;
+        }
+        try {
+            return (ElasticJob) Class.forName(jobClass).newInstance();
+        } catch (final ReflectiveOperationException ex) {
+            throw new JobConfigurationException("Elastic-Job: Job class '%s' can not initialize.", jobClass);
         }
-        return result;
     }
 
     protected Optional<ElasticJob> createElasticJobInstance() {
@@ -162,7 +179,12 @@ public class JobScheduler {
      * 停止作业调度.
      */
     public void shutdown() {
+        JobEligibility jobEligibility = jobRegistry.getJobEligibility(jobName);
+        if (null != jobEligibility) {
+            jobEligibility.setShutdown(true);
+        }
         jobRegistry.getJobScheduleController(jobName).shutdown();
+        jobRegistry.removeJobExecutor(jobName);
     }
 
     /**
@@ -180,7 +202,7 @@ public class JobScheduler {
 
         @Override
         public void execute(final JobExecutionContext context) throws JobExecutionException {
-            JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+            JobRegistry.getInstance().getJobExecutor(context.getJobDetail().getKey().getName(), elasticJob, jobFacade).execute();
         }
     }
 }
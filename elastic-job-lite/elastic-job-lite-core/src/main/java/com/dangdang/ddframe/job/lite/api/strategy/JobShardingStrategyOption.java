@@ -17,8 +17,11 @@
 
 package com.dangdang.ddframe.job.lite.api.strategy;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * 作业分片策略选项.
@@ -26,7 +29,7 @@ import lombok.RequiredArgsConstructor;
  * @author zhangliang
  */
 @Getter
-@RequiredArgsConstructor
+@AllArgsConstructor
 public final class JobShardingStrategyOption {
     
     /**
@@ -38,4 +41,26 @@ public final class JobShardingStrategyOption {
      * 作业分片总数.
      */
     private final int shardingTotalCount;
+    
+    /**
+     * 作业服务器IP地址和其上报的容量信息对照表.
+     * 
+     * <p>未上报容量信息的作业服务器不在对照表中.</p>
+     */
+    private final Map<String, ServerCapacity> serverCapacities;
+    
+    /**
+     * 分片项和其执行耗时的指数加权移动平均毫秒数对照表.
+     * 
+     * <p>没有执行记录的分片项不在对照表中.</p>
+     */
+    private final Map<Integer, Long> itemAverageDurations;
+    
+    public JobShardingStrategyOption(final String jobName, final int shardingTotalCount) {
+        this(jobName, shardingTotalCount, Collections.<String, ServerCapacity>emptyMap());
+    }
+    
+    public JobShardingStrategyOption(final String jobName, final int shardingTotalCount, final Map<String, ServerCapacity> serverCapacities) {
+        this(jobName, shardingTotalCount, serverCapacities, Collections.<Integer, Long>emptyMap());
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 作业服务器上报的容量信息.
+ * 
+ * @author zhangliang
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public final class ServerCapacity {
+    
+    /**
+     * 可用处理器数量.
+     */
+    private final int availableProcessors;
+    
+    /**
+     * 最近一分钟的系统平均负载, 不可用时为负数.
+     */
+    private final double systemLoadAverage;
+    
+    /**
+     * 作业服务器进程内正在运行的分片项数量.
+     */
+    private final int activeItemCount;
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于作业服务器上报容量加权分配的分片策略.
+ * 
+ * <p>
+ * 每台服务器的权重为空闲处理器数除以(1 + 每个处理器上正在运行的分片项数).
+ * 空闲处理器数为可用处理器数减去系统平均负载, 且至少保留可用处理器数的10%.
+ * 未上报容量信息的服务器使用已上报服务器的平均权重.
+ * 分片项按权重比例分配, 取整后多余的分片项依次分配给小数部分最大的服务器, 每台服务器分到的分片项连续.
+ * 如: 8核和32核的空闲服务器各一台, 分成10片, 则每台服务器分到的分片是: 1=[0,1], 2=[2,3,4,5,6,7,8,9].
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class CapacityWeightedJobShardingStrategy implements JobShardingStrategy {
+    
+    private static final double MIN_IDLE_RATIO = 0.1;
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        int[] itemCounts = getItemCounts(getWeights(serversList, option.getServerCapacities()), option.getShardingTotalCount());
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        int item = 0;
+        for (int i = 0; i < serversList.size(); i++) {
+            List<Integer> shardingItems = new ArrayList<>(itemCounts[i]);
+            for (int j = 0; j < itemCounts[i]; j++) {
+                shardingItems.add(item++);
+            }
+            result.put(serversList.get(i), shardingItems);
+        }
+        return result;
+    }
+    
+    private double[] getWeights(final List<String> serversList, final Map<String, ServerCapacity> serverCapacities) {
+        double[] result = new double[serversList.size()];
+        double totalKnownWeight = 0;
+        int knownCount = 0;
+        for (int i = 0; i < serversList.size(); i++) {
+            ServerCapacity serverCapacity = serverCapacities.get(serversList.get(i));
+            if (null != serverCapacity) {
+                result[i] = getWeight(serverCapacity);
+                totalKnownWeight += result[i];
+                knownCount++;
+            }
+        }
+        double defaultWeight = 0 == knownCount ? 1 : totalKnownWeight / knownCount;
+        for (int i = 0; i < serversList.size(); i++) {
+            if (!serverCapacities.containsKey(serversList.get(i))) {
+                result[i] = defaultWeight;
+            }
+        }
+        return result;
+    }
+    
+    private double getWeight(final ServerCapacity serverCapacity) {
+        int processors = Math.max(serverCapacity.getAvailableProcessors(), 1);
+        double idleProcessors = Math.max(processors - Math.max(serverCapacity.getSystemLoadAverage(), 0), processors * MIN_IDLE_RATIO);
+        return idleProcessors / (1 + (double) Math.max(serverCapacity.getActiveItemCount(), 0) / processors);
+    }
+    
+    private int[] getItemCounts(final double[] weights, final int shardingTotalCount) {
+        double totalWeight = 0;
+        for (double each : weights) {
+            totalWeight += each;
+        }
+        int[] result = new int[weights.length];
+        final double[] remainders = new double[weights.length];
+        List<Integer> indexes = new ArrayList<>(weights.length);
+        int assignedCount = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double quota = shardingTotalCount * weights[i] / totalWeight;
+            result[i] = (int) quota;
+            remainders[i] = quota - result[i];
+            assignedCount += result[i];
+            indexes.add(i);
+        }
+        Collections.sort(indexes, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                int compareResult = Double.compare(remainders[o2], remainders[o1]);
+                return 0 == compareResult ? o1.compareTo(o2) : compareResult;
+            }
+        });
+        for (int i = 0; i < shardingTotalCount - assignedCount; i++) {
+            result[indexes.get(i % indexes.size())]++;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Iterables;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 基于带虚拟节点的一致性哈希算法的分片策略.
+ * 
+ * <p>
+ * 每台服务器在哈希环上映射多个虚拟节点, 分片项根据作业名称和分片序号的哈希值顺时针查找服务器.
+ * 服务器加入或离开时, 只有约1/N的分片项会迁移至其他服务器, 便于保留作业服务器本地的缓存和连接.
+ * 为避免分片项较少时负载倾斜, 每台服务器分到的分片项不超过平均值的1.25倍, 超出时顺延至环上的下一台服务器.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class ConsistentHashJobShardingStrategy implements JobShardingStrategy {
+    
+    private static final int VIRTUAL_NODE_COUNT = 160;
+    
+    private static final double LOAD_FACTOR = 1.25;
+    
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        NavigableMap<Long, String> ring = createRing(serversList);
+        int capacity = (int) Math.ceil(option.getShardingTotalCount() * LOAD_FACTOR / serversList.size());
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        for (String each : serversList) {
+            result.put(each, new ArrayList<Integer>(capacity));
+        }
+        for (int i = 0; i < option.getShardingTotalCount(); i++) {
+            result.get(locate(ring, hash(option.getJobName() + "/" + i), result, capacity)).add(i);
+        }
+        return result;
+    }
+    
+    private NavigableMap<Long, String> createRing(final List<String> serversList) {
+        NavigableMap<Long, String> result = new TreeMap<>();
+        for (String each : serversList) {
+            for (int i = 0; i < VIRTUAL_NODE_COUNT; i++) {
+                result.put(hash(each + "#" + i), each);
+            }
+        }
+        return result;
+    }
+    
+    private String locate(final NavigableMap<Long, String> ring, final long itemHash, final Map<String, List<Integer>> shardingResult, final int capacity) {
+        for (String each : Iterables.concat(ring.tailMap(itemHash, true).values(), ring.headMap(itemHash, false).values())) {
+            if (shardingResult.get(each).size() < capacity) {
+                return each;
+            }
+        }
+        throw new IllegalStateException("No server has remaining capacity.");
+    }
+    
+    private long hash(final String key) {
+        return HASH_FUNCTION.hashString(key, Charsets.UTF_8).asLong();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于分片项历史执行耗时的最长处理时间优先装箱分片策略.
+ * 
+ * <p>
+ * 分片项按执行耗时的指数加权移动平均值从长到短排序, 依次分配给当前累计耗时最小的服务器, 以缩短全部分片项执行完成的时间.
+ * 没有执行记录的分片项使用已有记录的平均耗时, 均无记录时退化为按数量平均分配.
+ * 如: 3台服务器, 分成10片, 分片项7耗时40秒, 其余分片项耗时2秒, 则每台服务器分到的分片是: 1=[7], 2=[0,2,4,6,9], 3=[1,3,5,8].
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class LongestProcessingTimeJobShardingStrategy implements JobShardingStrategy {
+    
+    @Override
+    public Map<String, List<Integer>> sharding(final List<String> serversList, final JobShardingStrategyOption option) {
+        if (serversList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final long[] durations = getDurations(option.getShardingTotalCount(), option.getItemAverageDurations());
+        List<Integer> items = new ArrayList<>(option.getShardingTotalCount());
+        for (int i = 0; i < option.getShardingTotalCount(); i++) {
+            items.add(i);
+        }
+        Collections.sort(items, new Comparator<Integer>() {
+            
+            @Override
+            public int compare(final Integer o1, final Integer o2) {
+                int result = Long.compare(durations[o2], durations[o1]);
+                return 0 == result ? o1.compareTo(o2) : result;
+            }
+        });
+        List<List<Integer>> shardingItems = new ArrayList<>(serversList.size());
+        long[] loads = new long[serversList.size()];
+        for (int i = 0; i < serversList.size(); i++) {
+            shardingItems.add(new ArrayList<Integer>());
+        }
+        for (int each : items) {
+            int server = getLeastLoadedServer(loads, shardingItems);
+            shardingItems.get(server).add(each);
+            loads[server] += durations[each];
+        }
+        Map<String, List<Integer>> result = new LinkedHashMap<>(serversList.size());
+        for (int i = 0; i < serversList.size(); i++) {
+            Collections.sort(shardingItems.get(i));
+            result.put(serversList.get(i), shardingItems.get(i));
+        }
+        return result;
+    }
+    
+    private long[] getDurations(final int shardingTotalCount, final Map<Integer, Long> itemAverageDurations) {
+        long totalKnownDuration = 0;
+        int knownCount = 0;
+        for (int i = 0; i < shardingTotalCount; i++) {
+            Long duration = itemAverageDurations.get(i);
+            if (null != duration) {
+                totalKnownDuration += Math.max(duration, 1L);
+                knownCount++;
+            }
+        }
+        long defaultDuration = 0 == knownCount ? 1L : Math.max(totalKnownDuration / knownCount, 1L);
+        long[] result = new long[shardingTotalCount];
+        for (int i = 0; i < shardingTotalCount; i++) {
+            Long duration = itemAverageDurations.get(i);
+            result[i] = null == duration ? defaultDuration : Math.max(duration, 1L);
+        }
+        return result;
+    }
+    
+    private int getLeastLoadedServer(final long[] loads, final List<List<Integer>> shardingItems) {
+        int result = 0;
+        for (int i = 1; i < loads.length; i++) {
+            if (loads[i] < loads[result] || loads[i] == loads[result] && shardingItems.get(i).size() < shardingItems.get(result).size()) {
+                result = i;
+            }
+        }
+        return result;
+    }
+}
@@ -48,6 +48,8 @@ public class LiteJobConfiguration implements JobRootConfiguration {
     
     private final boolean overwrite;
     
+    private final boolean sharedScheduler;
+    
     /**
      * 获取作业名称.
      * 
@@ -93,6 +95,8 @@ public class LiteJobConfiguration implements JobRootConfiguration {
         
         private boolean overwrite;
         
+        private boolean sharedScheduler;
+        
         /**
          * 设置监控作业执行时状态.
          *
@@ -189,13 +193,30 @@ public class LiteJobConfiguration implements JobRootConfiguration {
             return this;
         }
         
+        /**
+         * 设置是否使用进程内共享的调度引擎.
+         * 
+         * <p>
+         * 默认每个作业独占一个Quartz调度器及其调度线程和工作线程.
+         * 使用共享调度引擎时, 同一进程内的作业共用一个计时线程和有界的工作线程池, 适用于单个进程承载大量作业的场景.
+         * </p>
+         *
+         * @param sharedScheduler 是否使用进程内共享的调度引擎
+         *
+         * @return 作业配置构建器
+         */
+        public Builder sharedScheduler(final boolean sharedScheduler) {
+            this.sharedScheduler = sharedScheduler;
+            return this;
+        }
+        
         /**
          * 构建作业配置对象.
          * 
          * @return 作业配置对象
          */
         public final LiteJobConfiguration build() {
-            return new LiteJobConfiguration(jobConfig, monitorExecution, maxTimeDiffSeconds, monitorPort, jobShardingStrategyClass, disabled, overwrite);
+            return new LiteJobConfiguration(jobConfig, monitorExecution, maxTimeDiffSeconds, monitorPort, jobShardingStrategyClass, disabled, overwrite, sharedScheduler);
         }
     }
 }
@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.exception.JobExecutionEnvironmentException;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import com.google.common.base.Optional;
 
 /**
@@ -100,6 +101,8 @@ public class ConfigurationService {
 
     /**
      * 检查本机与注册中心的时间误差秒数是否在允许范围.
+     * 
+     * <p>优先使用注册中心时钟在内存中维护的偏移量, 时钟尚未成功采样时直接获取注册中心时间.</p>
      *
      * @throws JobExecutionEnvironmentException 本机与注册中心的时间误差秒数不在允许范围所抛出的异常
      */
@@ -108,7 +111,9 @@ public class ConfigurationService {
         if (-1 == maxTimeDiffSeconds) {
             return;
         }
-        long timeDiff = Math.abs(System.currentTimeMillis() - jobNodeStorage.getRegistryCenterTime());
+        RegistryCenterClock registryCenterClock = jobNodeStorage.getRegistryCenterClock();
+        long timeDiff = registryCenterClock.isSampled()
+                ? Math.abs(registryCenterClock.getOffsetMilliseconds()) : Math.abs(System.currentTimeMillis() - jobNodeStorage.getRegistryCenterTime());
         if (timeDiff > maxTimeDiffSeconds * 1000L) {
             throw new JobExecutionEnvironmentException(
                     "Time different between job server and register center exceed '%s' seconds, max time different is '%s' seconds.", Long.valueOf(timeDiff / 1000).intValue(), maxTimeDiffSeconds);
@@ -99,6 +99,9 @@ public final class LiteJobConfigurationGsonFactory {
                 case "overwrite":
                     customizedValueMap.put("overwrite", in.nextBoolean());
                     break;
+                case "sharedScheduler":
+                    customizedValueMap.put("sharedScheduler", in.nextBoolean());
+                    break;
                 default:
                     in.skipValue();
                     break;
@@ -126,6 +129,9 @@ public final class LiteJobConfigurationGsonFactory {
             if (customizedValueMap.containsKey("overwrite")) {
                 builder.overwrite((boolean) customizedValueMap.get("overwrite"));
             }
+            if (customizedValueMap.containsKey("sharedScheduler")) {
+                builder.sharedScheduler((boolean) customizedValueMap.get("sharedScheduler"));
+            }
             return builder.build();
         }
     
@@ -137,6 +143,7 @@ public final class LiteJobConfigurationGsonFactory {
             out.name("jobShardingStrategyClass").value(value.getJobShardingStrategyClass());
             out.name("disabled").value(value.isDisabled());
             out.name("overwrite").value(value.isOverwrite());
+            out.name("sharedScheduler").value(value.isSharedScheduler());
         }
     }
 }
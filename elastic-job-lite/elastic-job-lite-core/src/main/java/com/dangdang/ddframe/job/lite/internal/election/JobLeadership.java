@@ -0,0 +1,255 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.election;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.curator.framework.recipes.leader.LeaderLatch;
+import org.apache.curator.framework.recipes.leader.LeaderLatchListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 作业在本进程内的主节点身份.
+ * 
+ * <p>
+ * 每个作业在进程内只持有一个长期存在的选举锁, 直到退出选举才关闭.
+ * 是否为主节点的标记保存在内存中, 由选举锁的监听器更新, 变更时发布主节点变更事件.
+ * 选举锁的监听器在独立线程中执行, 避免在注册中心的事件线程中访问注册中心.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+@Slf4j
+final class JobLeadership {
+    
+    private static final ConcurrentMap<String, JobLeadership> INSTANCES = new ConcurrentHashMap<>();
+    
+    private static final ExecutorService LATCH_LISTENER_EXECUTOR = Executors.newSingleThreadExecutor(
+            new BasicThreadFactory.Builder().namingPattern("elastic-job-leadership-%s").daemon(true).build());
+    
+    private final String jobName;
+    
+    private final AtomicBoolean leader = new AtomicBoolean();
+    
+    private final List<LeadershipListener> listeners = new CopyOnWriteArrayList<>();
+    
+    private LeaderLatch latch;
+    
+    private volatile boolean forced;
+    
+    /**
+     * 获取作业的主节点身份.
+     * 
+     * @param jobName 作业名称
+     * @return 作业的主节点身份
+     */
+    static JobLeadership getInstance(final String jobName) {
+        JobLeadership result = INSTANCES.get(jobName);
+        if (null == result) {
+            JobLeadership created = new JobLeadership(jobName);
+            result = INSTANCES.putIfAbsent(jobName, created);
+            if (null == result) {
+                result = created;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 判断本机是否为主节点.
+     * 
+     * @return 本机是否为主节点
+     */
+    boolean isLeader() {
+        return leader.get();
+    }
+    
+    /**
+     * 判断本机是否正在参与选举.
+     * 
+     * @return 本机是否正在参与选举
+     */
+    synchronized boolean isParticipating() {
+        return null != latch;
+    }
+    
+    /**
+     * 判断指定的选举锁是否为当前参与选举使用的选举锁.
+     * 
+     * @param latch 选举锁
+     * @return 是否为当前参与选举使用的选举锁
+     */
+    synchronized boolean isParticipatingWith(final LeaderLatch latch) {
+        return null != this.latch && this.latch == latch;
+    }
+    
+    /**
+     * 判断本机是否持有选举锁.
+     * 
+     * @return 本机是否持有选举锁
+     */
+    synchronized boolean hasLatchLeadership() {
+        return null != latch && latch.hasLeadership();
+    }
+    
+    /**
+     * 判断本次参与选举是否为强制选举.
+     * 
+     * @return 是否为强制选举
+     */
+    boolean isForced() {
+        return forced;
+    }
+    
+    /**
+     * 结束强制选举.
+     */
+    void clearForced() {
+        forced = false;
+    }
+    
+    /**
+     * 使用选举锁参与选举.
+     * 
+     * <p>已在参与选举时忽略.</p>
+     * 
+     * @param latch 未启动的选举锁
+     * @param listener 选举锁监听器
+     * @param isForced 是否为强制选举
+     * @throws Exception 启动选举锁失败所抛出的异常
+     */
+    synchronized void participate(final LeaderLatch latch, final LeaderLatchListener listener, final boolean isForced) throws Exception {
+        if (null != this.latch) {
+            return;
+        }
+        latch.addListener(listener, LATCH_LISTENER_EXECUTOR);
+        forced = isForced;
+        latch.start();
+        this.latch = latch;
+    }
+    
+    /**
+     * 等待获取选举锁.
+     * 
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 是否获取到选举锁
+     */
+    boolean awaitLatchLeadership(final long timeoutMilliseconds) {
+        LeaderLatch current;
+        synchronized (this) {
+            current = latch;
+        }
+        if (null == current) {
+            return false;
+        }
+        try {
+            return current.await(timeoutMilliseconds, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * 退出选举.
+     * 
+     * <p>关闭选举锁并放弃主节点身份.</p>
+     */
+    void quit() {
+        synchronized (this) {
+            if (null != latch) {
+                try {
+                    latch.close();
+                //CHECKSTYLE:OFF
+                } catch (final Exception ex) {
+                //CHECKSTYLE:ON
+                    log.debug("Elastic job: job '{}' close leader latch failure, cause: {}.", jobName, ex.getMessage());
+                }
+                latch = null;
+            }
+            forced = false;
+        }
+        release();
+    }
+    
+    /**
+     * 成为主节点.
+     * 
+     * @return 是否由非主节点变为主节点
+     */
+    boolean acquire() {
+        if (leader.compareAndSet(false, true)) {
+            publish(true);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * 放弃主节点身份.
+     * 
+     * @return 是否由主节点变为非主节点
+     */
+    boolean release() {
+        if (leader.compareAndSet(true, false)) {
+            publish(false);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * 添加主节点变更监听器.
+     * 
+     * @param listener 主节点变更监听器
+     */
+    void addListener(final LeadershipListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * 删除主节点变更监听器.
+     * 
+     * @param listener 主节点变更监听器
+     */
+    void removeListener(final LeadershipListener listener) {
+        listeners.remove(listener);
+    }
+    
+    private void publish(final boolean isLeader) {
+        log.debug("Elastic job: job '{}' leadership changed, is leader: {}.", jobName, isLeader);
+        for (LeadershipListener each : listeners) {
+            try {
+                each.leadershipChanged(jobName, isLeader);
+            } catch (final RuntimeException ex) {
+                log.warn("Elastic job: leadership listener of job '{}' failure, cause: {}.", jobName, ex.getMessage());
+            }
+        }
+    }
+}
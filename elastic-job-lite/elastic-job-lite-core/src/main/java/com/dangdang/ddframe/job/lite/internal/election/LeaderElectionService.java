@@ -19,44 +19,97 @@ package com.dangdang.ddframe.job.lite.internal.election;
 
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
-import com.dangdang.ddframe.job.lite.internal.storage.LeaderExecutionCallback;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
+import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.recipes.leader.LeaderLatch;
+import org.apache.curator.framework.recipes.leader.LeaderLatchListener;
 
 /**
  * 主节点的选举及判断是否为主节点服务类.
  *
+ * <p>
+ * 每个作业在进程内持有一个长期存在的选举锁, 获取选举锁的服务器成为主节点并写入主节点IP.
+ * 本机是否为主节点保存在内存中, 判断时无需访问注册中心.
+ * </p>
+ *
  * @author zhangliang
  */
 @Slf4j
 public class LeaderElectionService {
 
+    private static final long ELECTING_TIMEOUT_MILLISECONDS = 100L;
+
+    private static final long FORCE_ELECTING_TIMEOUT_MILLISECONDS = 5000L;
+
     private final LocalHostService localHostService = new LocalHostService();
 
     private final ServerService serverService;
 
     private final JobNodeStorage jobNodeStorage;
 
+    private final JobLeadership jobLeadership;
+
     public LeaderElectionService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         jobNodeStorage = new JobNodeStorage(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
+        jobLeadership = JobLeadership.getInstance(jobName);
     }
 
     /**
      * 强制选举主节点. 不校验本机服务是否可用，直接选举为主节点
+     *
+     * <p>
+     * 作业启动时调用, 重新加入选举. 当前无主节点时等待选举结果.
+     * </p>
      */
     public void leaderForceElection() {
-        jobNodeStorage.executeInLeader(ElectionNode.LATCH, new LeaderElectionExecutionCallback(true));
+        jobLeadership.quit();
+        participate(true);
+        if (!hasLeader() && jobLeadership.awaitLatchLeadership(FORCE_ELECTING_TIMEOUT_MILLISECONDS)) {
+            becomeLeader();
+        }
+        jobLeadership.clearForced();
     }
 
     /**
      * 选举主节点.本机服务必须可用才能选为主节点
+     *
+     * <p>
+     * 已持有选举锁时补写主节点IP, 未参与选举时加入选举.
+     * </p>
      */
     public void leaderElection() {
-        jobNodeStorage.executeInLeader(ElectionNode.LATCH, new LeaderElectionExecutionCallback(false));
+        if (jobLeadership.hasLatchLeadership()) {
+            becomeLeader();
+            return;
+        }
+        if (!jobLeadership.isParticipating() && serverService.isAvailableServer(localHostService.getIp())) {
+            participate(false);
+        }
+    }
+
+    private void participate(final boolean isForceElect) {
+        LeaderLatch latch = jobNodeStorage.createLeaderLatch(ElectionNode.LATCH);
+        try {
+            jobLeadership.participate(latch, new LeaderElectionLatchListener(latch), isForceElect);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+    }
+
+    private void becomeLeader() {
+        String localHostIp = localHostService.getIp();
+        synchronized (jobLeadership) {
+            jobLeadership.acquire();
+            if (!localHostIp.equals(jobNodeStorage.getJobNodeDataDirectly(ElectionNode.LEADER_HOST))) {
+                jobNodeStorage.fillEphemeralJobNode(ElectionNode.LEADER_HOST, localHostIp);
+            }
+        }
     }
 
     /**
@@ -64,18 +117,25 @@ public class LeaderElectionService {
      * <p>
      * <p>
      * 如果主节点正在选举中而导致取不到主节点, 则阻塞至主节点选举完成再返回.
+     * 主节点创建后立即唤醒, 等待超时仍无主节点则参与选举.
      * </p>
      *
      * @return 当前节点是否是主节点
      */
     public Boolean isLeader() {
-        String localHostIp = localHostService.getIp();
+        if (jobLeadership.isLeader()) {
+            return true;
+        }
+        if (jobNodeStorage.isJobNodeExistedInCache(ElectionNode.LEADER_HOST)) {
+            return false;
+        }
         while (!hasLeader() && !serverService.getAvailableServers().isEmpty()) {
-            log.info("Leader node is electing, waiting for {} ms", 100);
-            BlockUtils.waitingShortTime();
-            leaderElection();
+            log.info("Leader node is electing, waiting for {} ms", ELECTING_TIMEOUT_MILLISECONDS);
+            if (!jobNodeStorage.waitUntilJobNodeExisted(ElectionNode.LEADER_HOST, ELECTING_TIMEOUT_MILLISECONDS)) {
+                leaderElection();
+            }
         }
-        return localHostIp.equals(jobNodeStorage.getJobNodeData(ElectionNode.LEADER_HOST));
+        return jobLeadership.isLeader();
     }
 
     /**
@@ -94,22 +154,56 @@ public class LeaderElectionService {
 
     /**
      * 删除主节点供重新选举.
+     *
+     * <p>
+     * 本机同时退出选举, 直到本机服务重新可用时再加入选举.
+     * </p>
      */
     public void removeLeader() {
         jobNodeStorage.removeJobNodeIfExisted(ElectionNode.LEADER_HOST);
+        jobLeadership.quit();
+    }
+
+    /**
+     * 添加主节点变更监听器.
+     *
+     * @param listener 主节点变更监听器
+     */
+    public void addLeadershipListener(final LeadershipListener listener) {
+        jobLeadership.addListener(listener);
+    }
+
+    /**
+     * 删除主节点变更监听器.
+     *
+     * @param listener 主节点变更监听器
+     */
+    public void removeLeadershipListener(final LeadershipListener listener) {
+        jobLeadership.removeListener(listener);
     }
 
     @RequiredArgsConstructor
-    class LeaderElectionExecutionCallback implements LeaderExecutionCallback {
+    class LeaderElectionLatchListener implements LeaderLatchListener {
 
-        private final boolean isForceElect;
+        private final LeaderLatch latch;
+
+        @Override
+        public void isLeader() {
+            if (!jobLeadership.isParticipatingWith(latch) || jobLeadership.isLeader()) {
+                return;
+            }
+            // 强制选举不校验本机服务是否可用, 否则本机服务不可用时退出选举, 由其他服务器获取选举锁
+            if (jobLeadership.isForced() || serverService.isAvailableServer(localHostService.getIp())) {
+                becomeLeader();
+            } else {
+                jobLeadership.quit();
+            }
+        }
 
         @Override
-        public void execute() {
-            // 只有在主节点不存在的时候才会写
-            if (!jobNodeStorage.isJobNodeExisted(ElectionNode.LEADER_HOST) && (isForceElect || serverService.isAvailableServer(localHostService.getIp()))) {
-                // 将本机IP写入 "/jobName/leader/election/host"
-                jobNodeStorage.fillEphemeralJobNode(ElectionNode.LEADER_HOST, localHostService.getIp());
+        public void notLeader() {
+            if (jobLeadership.isParticipatingWith(latch)) {
+                jobLeadership.release();
             }
         }
     }
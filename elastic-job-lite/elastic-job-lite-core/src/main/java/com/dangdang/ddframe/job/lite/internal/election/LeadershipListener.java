@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.election;
+
+/**
+ * 主节点变更监听器.
+ * 
+ * @author zhangliang
+ */
+public interface LeadershipListener {
+    
+    /**
+     * 本机成为主节点或不再是主节点时调用.
+     * 
+     * @param jobName 作业名称
+     * @param isLeader 本机是否为主节点
+     */
+    void leadershipChanged(String jobName, boolean isLeader);
+}
@@ -46,6 +46,17 @@ public final class ExecutionNode {
 
     static final String MISFIRE = ROOT + "/%s/misfire";
 
+    static final String AVERAGE_DURATION = ROOT + "/%s/averageDuration";
+
+    /**
+     * 分片项处理进度根节点.
+     * 
+     * <p>不位于执行状态根节点下, 关闭监控作业执行时状态而清理执行状态时不会清理处理进度.</p>
+     */
+    static final String OFFSET_ROOT = "offset";
+
+    static final String OFFSET = OFFSET_ROOT + "/%s";
+
     static final String LEADER_ROOT = ElectionNode.ROOT + "/" + ROOT;
 
     static final String NECESSARY = LEADER_ROOT + "/necessary";
@@ -88,6 +99,14 @@ public final class ExecutionNode {
         return String.format(MISFIRE, item);
     }
 
+    static String getAverageDurationNode(final int item) {
+        return String.format(AVERAGE_DURATION, item);
+    }
+
+    static String getOffsetNode(final int item) {
+        return String.format(OFFSET, item);
+    }
+
     /**
      * 根据运行中的分片路径获取分片项.
      *
@@ -24,16 +24,19 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerStatus;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
 import com.google.common.base.Function;
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 执行作业的服务.
@@ -43,6 +46,10 @@ import java.util.List;
  */
 public class ExecutionService {
     
+    private static final long WAITING_TIMEOUT_MILLISECONDS = 1000L;
+    
+    private static final int AVERAGE_DURATION_SMOOTHING_FACTOR = 4;
+    
     private final String jobName;
     
     private final JobNodeStorage jobNodeStorage;
@@ -69,18 +76,17 @@ public class ExecutionService {
     public void registerJobBegin(final ShardingContexts shardingContexts) {
         if (!shardingContexts.getShardingItemParameters().isEmpty() && configService.load(true).isMonitorExecution()) {
             serverService.updateServerStatus(ServerStatus.RUNNING);
+            JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
+            Date nextFireTime = null == jobScheduleController ? null : jobScheduleController.getNextFireTime();
+            JobNodeBatch batch = jobNodeStorage.createBatch();
             for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-                jobNodeStorage.fillEphemeralJobNode(ExecutionNode.getRunningNode(each), "");
-                jobNodeStorage.replaceJobNode(ExecutionNode.getLastBeginTimeNode(each), System.currentTimeMillis());
-                JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
-                if (null == jobScheduleController) {
-                    continue;
-                }
-                Date nextFireTime = jobScheduleController.getNextFireTime();
+                batch.fillEphemeralJobNode(ExecutionNode.getRunningNode(each), "");
+                batch.replaceJobNode(ExecutionNode.getLastBeginTimeNode(each), System.currentTimeMillis());
                 if (null != nextFireTime) {
-                    jobNodeStorage.replaceJobNode(ExecutionNode.getNextFireTimeNode(each), nextFireTime.getTime());
+                    batch.replaceJobNode(ExecutionNode.getNextFireTimeNode(each), nextFireTime.getTime());
                 }
             }
+            batch.commit();
         }
     }
     
@@ -95,16 +101,18 @@ public class ExecutionService {
         if (leaderElectionService.isLeader()) {
             jobNodeStorage.fillEphemeralJobNode(ExecutionNode.CLEANING, "");
             List<Integer> items = getAllItems();
+            JobNodeBatch batch = jobNodeStorage.createBatch();
             for (int each : items) {
-                jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getCompletedNode(each));
+                batch.removeJobNodeIfExisted(ExecutionNode.getCompletedNode(each));
             }
+            batch.commit();
             if (jobNodeStorage.isJobNodeExisted(ExecutionNode.NECESSARY)) {
                 fixExecutionInfo(items);
             }
             jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.CLEANING);
         }
         while (jobNodeStorage.isJobNodeExisted(ExecutionNode.CLEANING)) {
-            BlockUtils.waitingShortTime();
+            jobNodeStorage.waitUntilJobNodeRemoved(ExecutionNode.CLEANING, WAITING_TIMEOUT_MILLISECONDS);
         }
     }
     
@@ -133,11 +141,45 @@ public class ExecutionService {
             return;
         }
         serverService.updateServerStatus(ServerStatus.READY);
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-            jobNodeStorage.createJobNodeIfNeeded(ExecutionNode.getCompletedNode(each));
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
-            jobNodeStorage.replaceJobNode(ExecutionNode.getLastCompleteTimeNode(each), System.currentTimeMillis());
+            batch.createJobNodeIfNeeded(ExecutionNode.getCompletedNode(each));
+            batch.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
+            batch.replaceJobNode(ExecutionNode.getLastCompleteTimeNode(each), System.currentTimeMillis());
+            Long duration = shardingContexts.getItemExecutionDurations().get(each);
+            if (null != duration) {
+                batch.replaceJobNode(ExecutionNode.getAverageDurationNode(each), getAverageDuration(each, duration));
+            }
+        }
+        batch.commit();
+    }
+    
+    private long getAverageDuration(final int item, final long duration) {
+        String previous = jobNodeStorage.getJobNodeData(ExecutionNode.getAverageDurationNode(item));
+        if (Strings.isNullOrEmpty(previous)) {
+            return duration;
+        }
+        long previousAverage = Long.parseLong(previous);
+        return previousAverage + (duration - previousAverage) / AVERAGE_DURATION_SMOOTHING_FACTOR;
+    }
+    
+    /**
+     * 获取分片项执行耗时的指数加权移动平均毫秒数.
+     * 
+     * <p>从本地缓存获取, 没有执行记录的分片项不在结果中.</p>
+     * 
+     * @param shardingTotalCount 分片总数
+     * @return 分片项和平均执行耗时毫秒数对照表
+     */
+    public Map<Integer, Long> getItemAverageDurations(final int shardingTotalCount) {
+        Map<Integer, Long> result = new LinkedHashMap<>(shardingTotalCount, 1);
+        for (int i = 0; i < shardingTotalCount; i++) {
+            String data = jobNodeStorage.getJobNodeData(ExecutionNode.getAverageDurationNode(i));
+            if (!Strings.isNullOrEmpty(data)) {
+                result.put(i, Long.parseLong(data));
+            }
         }
+        return result;
     }
     
     /**
@@ -158,9 +200,11 @@ public class ExecutionService {
      * @param items 需要清理的分片项列表
      */
     public void clearRunningInfo(final List<Integer> items) {
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
+            batch.removeJobNodeIfExisted(ExecutionNode.getRunningNode(each));
         }
+        batch.commit();
     }
     
     /**
@@ -186,9 +230,11 @@ public class ExecutionService {
         if (!configService.load(true).isMonitorExecution()) {
             return;
         }
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : items) {
-            jobNodeStorage.createJobNodeIfNeeded(ExecutionNode.getMisfireNode(each));
+            batch.createJobNodeIfNeeded(ExecutionNode.getMisfireNode(each));
         }
+        batch.commit();
     }
     
     /**
@@ -213,9 +259,11 @@ public class ExecutionService {
      * @param items 需要清除错过执行的任务分片项
      */
     public void clearMisfire(final Collection<Integer> items) {
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ExecutionNode.getMisfireNode(each));
+            batch.removeJobNodeIfExisted(ExecutionNode.getMisfireNode(each));
         }
+        batch.commit();
     }
     
     /**
@@ -238,6 +286,10 @@ public class ExecutionService {
     /**
      * 判断分片项中是否还有执行中的作业.
      * 
+     * <p>
+     * 优先从本地缓存判断, 缓存中存在的执行中分片项再从注册中心确认, 避免缓存滞后导致误判为执行中.
+     * </p>
+     * 
      * @param items 需要判断的分片项列表
      * @return 分片项中是否还有执行中的作业
      */
@@ -246,7 +298,8 @@ public class ExecutionService {
             return false;
         }
         for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ExecutionNode.getRunningNode(each))) {
+            String runningNode = ExecutionNode.getRunningNode(each);
+            if (jobNodeStorage.isJobNodeExistedInCache(runningNode) && jobNodeStorage.isJobNodeExisted(runningNode)) {
                 return true;
             }
         }
@@ -259,11 +312,36 @@ public class ExecutionService {
      * @return 是否还有执行中的作业
      */
     public boolean hasRunningItems() {
-        return hasRunningItems(getAllItems());
+        return hasRunningItems(toItems(jobNodeStorage.getJobNodeChildrenKeysInCache(ExecutionNode.ROOT)));
+    }
+    
+    /**
+     * 阻塞等待指定分片项中执行中的作业完成.
+     * 
+     * <p>
+     * 依次监听执行中分片项的运行节点, 运行节点删除后立即唤醒.
+     * </p>
+     * 
+     * @param items 需要等待的分片项列表
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 等待超时前指定分片项中执行中的作业是否都已完成
+     */
+    public boolean waitUntilRunningItemsCompleted(final Collection<Integer> items, final long timeoutMilliseconds) {
+        long deadline = System.currentTimeMillis() + timeoutMilliseconds;
+        for (int each : items) {
+            if (!jobNodeStorage.waitUntilJobNodeRemoved(ExecutionNode.getRunningNode(each), Math.max(deadline - System.currentTimeMillis(), 0L))) {
+                return false;
+            }
+        }
+        return true;
     }
     
     private List<Integer> getAllItems() {
-        return Lists.transform(jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT), new Function<String, Integer>() {
+        return toItems(jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT));
+    }
+    
+    private List<Integer> toItems(final List<String> itemNames) {
+        return Lists.transform(itemNames, new Function<String, Integer>() {
             
             @Override
             public Integer apply(final String input) {
@@ -0,0 +1,168 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 分片项处理进度服务.
+ * 
+ * <p>
+ * 处理进度持久化于"offset/{item}"节点, 不随执行状态一同清理.
+ * 仅接受本机正在执行的分片项提交的进度, 分片项执行完成后提交的进度将被丢弃, 避免超时后仍在执行的分片覆盖新执行者的进度.
+ * 同一分片项每{@value #WRITE_INTERVAL_MILLISECONDS}毫秒最多写入一次注册中心, 期间提交的进度暂存于本地,
+ * 由间隔到期后的下一次提交或分片项执行完成时写入.
+ * 节点可能尚不存在的首次写入以及执行完成时的写入为同步写入, 其余为异步写入, 同一注册中心客户端保证写入顺序.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public class ItemOffsetService {
+    
+    static final long WRITE_INTERVAL_MILLISECONDS = 1000L;
+    
+    private final JobNodeStorage jobNodeStorage;
+    
+    private final ConcurrentMap<Integer, ItemOffset> itemOffsets = new ConcurrentHashMap<>();
+    
+    private final String jobName;
+    
+    public ItemOffsetService(final CoordinatorRegistryCenter regCenter, final String jobName) {
+        jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+        this.jobName = jobName;
+    }
+    
+    /**
+     * 登记本机开始执行的分片项.
+     * 
+     * @param items 分片项集合
+     */
+    public void begin(final Collection<Integer> items) {
+        for (int each : items) {
+            ItemOffset previous = itemOffsets.put(each, new ItemOffset());
+            if (null != previous) {
+                release(each, previous);
+            }
+        }
+    }
+    
+    /**
+     * 获取分片项最近提交的处理进度.
+     * 
+     * <p>本机提交过的进度从本地读取, 否则直接从注册中心读取, 以便获取失效转移前其他作业服务器提交的进度.</p>
+     * 
+     * @param item 分片项
+     * @return 最近提交的处理进度, 从未提交过时返回null
+     */
+    public String getOffset(final int item) {
+        ItemOffset itemOffset = itemOffsets.get(item);
+        if (null != itemOffset) {
+            synchronized (itemOffset) {
+                if (0L != itemOffset.lastWriteTime) {
+                    return itemOffset.offset;
+                }
+            }
+        }
+        return jobNodeStorage.getJobNodeDataDirectly(ExecutionNode.getOffsetNode(item));
+    }
+    
+    /**
+     * 提交分片项的处理进度.
+     * 
+     * <p>分片项未在本机执行时丢弃提交的进度.</p>
+     * 
+     * @param item 分片项
+     * @param offset 处理进度
+     */
+    public void commitOffset(final int item, final String offset) {
+        ItemOffset itemOffset = itemOffsets.get(item);
+        if (null == itemOffset) {
+            rejectOffset(item, offset);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (itemOffset) {
+            if (itemOffset.released) {
+                rejectOffset(item, offset);
+                return;
+            }
+            itemOffset.offset = offset;
+            itemOffset.dirty = true;
+            if (0L == itemOffset.lastWriteTime) {
+                jobNodeStorage.replaceJobNode(ExecutionNode.getOffsetNode(item), offset);
+                written(itemOffset, now);
+            } else if (now - itemOffset.lastWriteTime >= WRITE_INTERVAL_MILLISECONDS) {
+                jobNodeStorage.replaceJobNodeAsync(ExecutionNode.getOffsetNode(item), offset);
+                written(itemOffset, now);
+            }
+        }
+    }
+    
+    /**
+     * 写入分片项暂存的处理进度并清理本地状态.
+     * 
+     * <p>分片项执行完成时调用, 分片项之后可能被分配至其他作业服务器, 再次获取进度时需从注册中心读取.</p>
+     * 
+     * @param items 分片项集合
+     */
+    public void flush(final Collection<Integer> items) {
+        for (int each : items) {
+            ItemOffset itemOffset = itemOffsets.remove(each);
+            if (null != itemOffset) {
+                release(each, itemOffset);
+            }
+        }
+    }
+    
+    private void release(final int item, final ItemOffset itemOffset) {
+        synchronized (itemOffset) {
+            itemOffset.released = true;
+            if (itemOffset.dirty) {
+                jobNodeStorage.replaceJobNode(ExecutionNode.getOffsetNode(item), itemOffset.offset);
+                written(itemOffset, System.currentTimeMillis());
+            }
+        }
+    }
+    
+    private void rejectOffset(final int item, final String offset) {
+        log.warn("Elastic job: item '{}' of job '{}' is not running on this server, offset '{}' discarded.", item, jobName, offset);
+    }
+    
+    private void written(final ItemOffset itemOffset, final long now) {
+        itemOffset.dirty = false;
+        itemOffset.lastWriteTime = now;
+    }
+    
+    private static final class ItemOffset {
+        
+        private String offset;
+        
+        private boolean dirty;
+        
+        private long lastWriteTime;
+        
+        private boolean released;
+    }
+}
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.lite.internal.failover;
 
 import com.dangdang.ddframe.job.lite.internal.election.ElectionNode;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNode;
+import com.dangdang.ddframe.job.lite.internal.server.ServerNode;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 
 /**
@@ -40,6 +41,8 @@ public final class FailoverNode {
     
     private static final String EXECUTION_FAILOVER = ExecutionNode.ROOT + "/%s/" + FAILOVER;
     
+    private static final String SERVER_FAILOVER = ServerNode.ROOT + "/%s/" + FAILOVER;
+    
     private final JobNodePath jobNodePath;
     
     public FailoverNode(final String jobName) {
@@ -54,6 +57,10 @@ public final class FailoverNode {
         return String.format(EXECUTION_FAILOVER, item);
     }
     
+    static String getServerFailoverNode(final String ip) {
+        return String.format(SERVER_FAILOVER, ip);
+    }
+    
     /**
      * 根据失效转移执行路径获取分片项.
      * 
@@ -17,14 +17,16 @@
 
 package com.dangdang.ddframe.job.lite.internal.failover;
 
-import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNode;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.LeaderExecutionCallback;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.util.config.ShardingItems;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -88,32 +90,37 @@ public class FailoverService {
     /**
      * 更新执行完毕失效转移的分片项状态.
      * 
+     * <p>
+     * 作业服务器的失效转移索引节点以读取后改写的方式更新, 因此与认领失效分片项在同一主节点锁内完成, 避免互相覆盖.
+     * 执行完毕的分片项均不在本机失效转移索引中时无需更新, 不获取主节点锁.
+     * </p>
+     * 
      * @param items 执行完毕失效转移的分片项集合
      */
     public void updateFailoverComplete(final Collection<Integer> items) {
-        for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(each));
+        if (!Collections.disjoint(getLocalHostFailoverItems(), items)) {
+            jobNodeStorage.executeInLeader(FailoverNode.LATCH, new FailoverCompleteExecutionCallback(items));
+        }
+    }
+    
+    private void fillServerFailoverNode(final JobNodeBatch batch, final List<Integer> items) {
+        String node = FailoverNode.getServerFailoverNode(localHostService.getIp());
+        if (items.isEmpty()) {
+            batch.removeJobNodeIfExisted(node);
+        } else {
+            batch.fillEphemeralJobNode(node, ShardingItems.toItemsString(items));
         }
     }
     
     /**
      * 获取运行在本作业服务器的失效转移序列号.
      * 
+     * <p>从作业服务器的失效转移索引节点一次读取, 该节点与分片项的失效转移节点在同一事务中更新.</p>
+     * 
      * @return 运行在本作业服务器的失效转移序列号
      */
     public List<Integer> getLocalHostFailoverItems() {
-        List<String> items = jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT);
-        List<Integer> result = new ArrayList<>(items.size());
-        String ip = localHostService.getIp();
-        for (String each : items) {
-            int item = Integer.parseInt(each);
-            String node = FailoverNode.getExecutionFailoverNode(item);
-            if (jobNodeStorage.isJobNodeExisted(node) && ip.equals(jobNodeStorage.getJobNodeDataDirectly(node))) {
-                result.add(item);
-            }
-        }
-        Collections.sort(result);
-        return result;
+        return ShardingItems.toItemList(jobNodeStorage.getJobNodeDataDirectly(FailoverNode.getServerFailoverNode(localHostService.getIp())));
     }
     
     /**
@@ -136,8 +143,46 @@ public class FailoverService {
      * 删除作业失效转移信息.
      */
     public void removeFailoverInfo() {
-        for (String each : jobNodeStorage.getJobNodeChildrenKeys(ExecutionNode.ROOT)) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(Integer.parseInt(each)));
+        JobNodeBatch batch = jobNodeStorage.createBatch();
+        for (String each : serverService.getAllServers()) {
+            String serverFailoverNode = FailoverNode.getServerFailoverNode(each);
+            for (int item : ShardingItems.toItemList(jobNodeStorage.getJobNodeDataDirectly(serverFailoverNode))) {
+                batch.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(item));
+            }
+            batch.removeJobNodeIfExisted(serverFailoverNode);
+        }
+        batch.commit();
+    }
+    
+    /**
+     * 计算本次在主节点内认领的失效分片项数量.
+     * 
+     * <p>按可用作业服务器数量均摊待转移的分片项, 使存活的服务器各自批量认领, 而非逐项争抢主节点.</p>
+     * 
+     * @param crashedItemsCount 待失效转移的分片项数量
+     * @return 本次认领的分片项数量
+     */
+    int getClaimSize(final int crashedItemsCount) {
+        int availableServersCount = Math.max(serverService.getAvailableServers().size(), 1);
+        return Math.min(crashedItemsCount, Math.max((crashedItemsCount + availableServersCount - 1) / availableServersCount, 1));
+    }
+    
+    @RequiredArgsConstructor
+    class FailoverCompleteExecutionCallback implements LeaderExecutionCallback {
+        
+        private final Collection<Integer> items;
+        
+        @Override
+        public void execute() {
+            List<Integer> remainingItems = new ArrayList<>(getLocalHostFailoverItems());
+            JobNodeBatch batch = jobNodeStorage.createBatch();
+            for (int each : items) {
+                if (remainingItems.remove(Integer.valueOf(each))) {
+                    batch.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(each));
+                }
+            }
+            fillServerFailoverNode(batch, remainingItems);
+            batch.commit();
         }
     }
     
@@ -148,10 +193,22 @@ public class FailoverService {
             if (!needFailover()) {
                 return;
             }
-            int crashedItem = Integer.parseInt(jobNodeStorage.getJobNodeChildrenKeys(FailoverNode.ITEMS_ROOT).get(0));
-            log.debug("Failover job '{}' begin, crashed item '{}'", jobName, crashedItem);
-            jobNodeStorage.fillEphemeralJobNode(FailoverNode.getExecutionFailoverNode(crashedItem), localHostService.getIp());
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getItemsNode(crashedItem));
+            List<String> crashedItems = jobNodeStorage.getJobNodeChildrenKeys(FailoverNode.ITEMS_ROOT);
+            List<String> claimedItems = crashedItems.subList(0, getClaimSize(crashedItems.size()));
+            log.debug("Failover job '{}' begin, crashed items '{}'", jobName, claimedItems);
+            List<Integer> localHostFailoverItems = new ArrayList<>(getLocalHostFailoverItems());
+            JobNodeBatch batch = jobNodeStorage.createBatch();
+            for (String each : claimedItems) {
+                int crashedItem = Integer.parseInt(each);
+                batch.fillEphemeralJobNode(FailoverNode.getExecutionFailoverNode(crashedItem), localHostService.getIp());
+                batch.removeJobNodeIfExisted(FailoverNode.getItemsNode(crashedItem));
+                if (!localHostFailoverItems.contains(crashedItem)) {
+                    localHostFailoverItems.add(crashedItem);
+                }
+            }
+            Collections.sort(localHostFailoverItems);
+            fillServerFailoverNode(batch, localHostFailoverItems);
+            batch.commit();
             // TODO 不应使用triggerJob, 而是使用executor统一调度
             JobRegistry.getInstance().getJobScheduleController(jobName).triggerJob();
         }
@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.guarantee;
 
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 
@@ -46,9 +47,11 @@ public class GuaranteeService {
      * @param shardingItems 待注册的分片项
      */
     public void registerStart(final Collection<Integer> shardingItems) {
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getStartedNode(each));
+            batch.createJobNodeIfNeeded(GuaranteeNode.getStartedNode(each));
         }
+        batch.commit();
     }
 
     /**
@@ -74,9 +77,11 @@ public class GuaranteeService {
      * @param shardingItems 待注册的分片项
      */
     public void registerComplete(final Collection<Integer> shardingItems) {
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getCompletedNode(each));
+            batch.createJobNodeIfNeeded(GuaranteeNode.getCompletedNode(each));
         }
+        batch.commit();
     }
 
     /**
@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.monitor;
 
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.util.SensitiveInfoUtils;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Joiner;
@@ -34,6 +35,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map.Entry;
 
 /**
  * 作业监控服务.
@@ -45,6 +47,8 @@ public class MonitorService {
     
     public static final String DUMP_COMMAND = "dump";
     
+    public static final String FETCH_SIZE_COMMAND = "fetchsize";
+    
     private final String jobName;
     
     private final CoordinatorRegistryCenter regCenter;
@@ -104,6 +108,8 @@ public class MonitorService {
                 List<String> result = new ArrayList<>();
                 dumpDirectly("/" + jobName, result);
                 outputMessage(writer, Joiner.on("\n").join(SensitiveInfoUtils.filterSensitiveIps(result)) + "\n");
+            } else if (null != cmdLine && FETCH_SIZE_COMMAND.equalsIgnoreCase(cmdLine)) {
+                outputMessage(writer, dumpRecommendedFetchSizes() + "\n");
             }
         }
     }
@@ -128,6 +134,14 @@ public class MonitorService {
         }
     }
     
+    private String dumpRecommendedFetchSizes() {
+        List<String> result = new ArrayList<>();
+        for (Entry<Integer, Integer> entry : JobRegistry.getInstance().getRecommendedFetchSizes(jobName).entrySet()) {
+            result.add(Joiner.on(" | ").join(entry.getKey(), entry.getValue()));
+        }
+        return Joiner.on("\n").join(result);
+    }
+    
     private void outputMessage(final BufferedWriter outputWriter, final String msg) throws IOException {
         outputWriter.append(msg);
         outputWriter.flush();
@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.config.JobTypeConfiguration;
+import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import lombok.AccessLevel;
+import lombok.Setter;
+
+/**
+ * 作业运行资格的内存状态.
+ * 
+ * <p>
+ * 暂停, 重分片, 关闭以及注册中心连接状态由作业启动时从注册中心读取初始值, 之后由注册中心节点监听器更新,
+ * 使流式作业每个批次的运行资格判断仅读取内存, 不再访问注册中心.
+ * 暂停和重分片状态的初始值仅在监听器尚未更新该状态时生效, 避免读取初始值期间到达的更新被旧值覆盖.
+ * 状态的滞后时间以注册中心通知到达本地缓存监听器的时间为上限, 通常为毫秒级, 滞后期间最多多执行一个批次.
+ * 与注册中心连接丢失时, 由于无法感知节点变化, 作业视为不具备运行资格.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Setter
+public final class JobEligibility {
+    
+    @Setter(AccessLevel.NONE)
+    private volatile boolean paused;
+    
+    @Setter(AccessLevel.NONE)
+    private volatile boolean needSharding;
+    
+    private volatile boolean shutdown;
+    
+    private volatile boolean disconnected;
+    
+    @Setter(AccessLevel.NONE)
+    private volatile boolean oneOffDataflow;
+    
+    @Setter(AccessLevel.NONE)
+    private boolean pausedUpdated;
+    
+    @Setter(AccessLevel.NONE)
+    private boolean needShardingUpdated;
+    
+    /**
+     * 由监听器更新暂停状态.
+     * 
+     * @param paused 是否暂停
+     */
+    public synchronized void setPaused(final boolean paused) {
+        this.paused = paused;
+        pausedUpdated = true;
+    }
+    
+    /**
+     * 设置暂停状态的初始值.
+     * 
+     * <p>监听器已更新过暂停状态时忽略.</p>
+     * 
+     * @param paused 是否暂停
+     */
+    public synchronized void initPaused(final boolean paused) {
+        if (!pausedUpdated) {
+            this.paused = paused;
+        }
+    }
+    
+    /**
+     * 由监听器更新重分片状态.
+     * 
+     * @param needSharding 是否需要重分片
+     */
+    public synchronized void setNeedSharding(final boolean needSharding) {
+        this.needSharding = needSharding;
+        needShardingUpdated = true;
+    }
+    
+    /**
+     * 设置重分片状态的初始值.
+     * 
+     * <p>监听器已更新过重分片状态时忽略.</p>
+     * 
+     * @param needSharding 是否需要重分片
+     */
+    public synchronized void initNeedSharding(final boolean needSharding) {
+        if (!needShardingUpdated) {
+            this.needSharding = needSharding;
+        }
+    }
+    
+    /**
+     * 根据作业配置更新运行资格.
+     * 
+     * @param jobTypeConfig 作业类型配置
+     */
+    public void setJobTypeConfiguration(final JobTypeConfiguration jobTypeConfig) {
+        oneOffDataflow = jobTypeConfig instanceof DataflowJobConfiguration && !((DataflowJobConfiguration) jobTypeConfig).isStreamingProcess();
+    }
+    
+    /**
+     * 判断作业是否符合继续运行的条件.
+     * 
+     * @return 作业是否符合继续运行的条件
+     */
+    public boolean isEligibleForJobRunning() {
+        return !paused && !needSharding && !shutdown && !disconnected && !oneOffDataflow;
+    }
+}
@@ -17,9 +17,16 @@
 
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
+import com.dangdang.ddframe.job.api.ElasticJob;
+import com.dangdang.ddframe.job.config.JobRootConfiguration;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
+import com.dangdang.ddframe.job.executor.JobExecutorFactory;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.executor.type.DataflowJobExecutor;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +43,12 @@ public final class JobRegistry {
     
     private Map<String, JobScheduleController> schedulerMap = new ConcurrentHashMap<>();
     
+    private Map<String, Integer> runningItemCountMap = new ConcurrentHashMap<>();
+    
+    private ConcurrentHashMap<String, AbstractElasticJobExecutor> jobExecutorMap = new ConcurrentHashMap<>();
+    
+    private Map<String, JobEligibility> jobEligibilityMap = new ConcurrentHashMap<>();
+    
     /**
      * 获取作业注册表实例.
      * 
@@ -71,4 +84,110 @@ public final class JobRegistry {
     public JobScheduleController getJobScheduleController(final String jobName) {
         return schedulerMap.get(jobName);
     }
+    
+    /**
+     * 获取作业执行器.
+     * 
+     * <p>
+     * 作业执行器在多次触发间复用, 不存在时创建并缓存.
+     * </p>
+     * 
+     * @param jobName 作业名称
+     * @param elasticJob 分布式弹性作业
+     * @param jobFacade 作业内部服务门面服务
+     * @return 作业执行器
+     */
+    public AbstractElasticJobExecutor getJobExecutor(final String jobName, final ElasticJob elasticJob, final JobFacade jobFacade) {
+        AbstractElasticJobExecutor result = jobExecutorMap.get(jobName);
+        if (null != result) {
+            return result;
+        }
+        result = JobExecutorFactory.getJobExecutor(elasticJob, jobFacade);
+        AbstractElasticJobExecutor previous = jobExecutorMap.putIfAbsent(jobName, result);
+        return null == previous ? result : previous;
+    }
+    
+    /**
+     * 作业配置变化时使不再适用的作业执行器失效.
+     * 
+     * @param jobName 作业名称
+     * @param latestJobRootConfig 变更后的作业配置
+     */
+    public void invalidateJobExecutor(final String jobName, final JobRootConfiguration latestJobRootConfig) {
+        AbstractElasticJobExecutor jobExecutor = jobExecutorMap.get(jobName);
+        if (null != jobExecutor && !jobExecutor.isReusable(latestJobRootConfig) && jobExecutorMap.remove(jobName, jobExecutor)) {
+            jobExecutor.close();
+        }
+    }
+    
+    /**
+     * 删除作业执行器.
+     * 
+     * @param jobName 作业名称
+     */
+    public void removeJobExecutor(final String jobName) {
+        AbstractElasticJobExecutor jobExecutor = jobExecutorMap.remove(jobName);
+        if (null != jobExecutor) {
+            jobExecutor.close();
+        }
+    }
+    
+    /**
+     * 添加作业运行资格.
+     * 
+     * @param jobName 作业名称
+     * @param jobEligibility 作业运行资格
+     */
+    public void addJobEligibility(final String jobName, final JobEligibility jobEligibility) {
+        jobEligibilityMap.put(jobName, jobEligibility);
+    }
+    
+    /**
+     * 获取作业运行资格.
+     * 
+     * @param jobName 作业名称
+     * @return 作业运行资格, 作业未启动时返回null
+     */
+    public JobEligibility getJobEligibility(final String jobName) {
+        return jobEligibilityMap.get(jobName);
+    }
+    
+    /**
+     * 设置作业正在运行的分片项数量.
+     * 
+     * @param jobName 作业名称
+     * @param runningItemCount 正在运行的分片项数量
+     */
+    public void setRunningItemCount(final String jobName, final int runningItemCount) {
+        runningItemCountMap.put(jobName, runningItemCount);
+    }
+    
+    /**
+     * 获取作业各分片项的建议抓取数据量.
+     * 
+     * <p>仅作业为实现了自适应抓取的数据流作业且已执行过时有值.</p>
+     * 
+     * @param jobName 作业名称
+     * @return 分片项与建议抓取数据量的映射
+     */
+    public Map<Integer, Integer> getRecommendedFetchSizes(final String jobName) {
+        AbstractElasticJobExecutor jobExecutor = jobExecutorMap.get(jobName);
+        if (!(jobExecutor instanceof DataflowJobExecutor)) {
+            return Collections.emptyMap();
+        }
+        return ((DataflowJobExecutor) jobExecutor).getRecommendedFetchSizes();
+    }
+    
+    /**
+     * 获取本进程内所有作业正在运行的分片项数量.
+     * 
+     * @return 正在运行的分片项数量
+     */
+    public int getRunningItemCount() {
+        int result = 0;
+        for (int each : runningItemCountMap.values()) {
+            result += each;
+        }
+        return result;
+    }
 }
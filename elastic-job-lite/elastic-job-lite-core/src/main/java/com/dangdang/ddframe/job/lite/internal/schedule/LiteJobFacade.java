@@ -32,6 +32,7 @@ import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.execution.ItemOffsetService;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
@@ -50,6 +51,8 @@ import java.util.List;
 @Slf4j
 public class LiteJobFacade implements JobFacade {
     
+    private final String jobName;
+    
     private final ConfigurationService configService;
     
     private final ShardingService shardingService;
@@ -62,17 +65,21 @@ public class LiteJobFacade implements JobFacade {
     
     private final FailoverService failoverService;
     
+    private final ItemOffsetService itemOffsetService;
+    
     private final List<ElasticJobListener> elasticJobListeners;
     
     private final JobEventBus jobEventBus;
     
     public LiteJobFacade(final CoordinatorRegistryCenter regCenter, final String jobName, final List<ElasticJobListener> elasticJobListeners, final JobEventBus jobEventBus) {
+        this.jobName = jobName;
         configService = new ConfigurationService(regCenter, jobName);
         shardingService = new ShardingService(regCenter, jobName);
         serverService = new ServerService(regCenter, jobName);
         executionContextService = new ExecutionContextService(regCenter, jobName);
         executionService = new ExecutionService(regCenter, jobName);
         failoverService = new FailoverService(regCenter, jobName);
+        itemOffsetService = new ItemOffsetService(regCenter, jobName);
         this.elasticJobListeners = elasticJobListeners;
         this.jobEventBus = jobEventBus;
     }
@@ -96,17 +103,44 @@ public class LiteJobFacade implements JobFacade {
     
     @Override
     public void registerJobBegin(final ShardingContexts shardingContexts) {
+        JobRegistry.getInstance().setRunningItemCount(shardingContexts.getJobName(), shardingContexts.getShardingItemParameters().size());
+        itemOffsetService.begin(shardingContexts.getShardingItemParameters().keySet());
         executionService.registerJobBegin(shardingContexts);
     }
     
     @Override
     public void registerJobCompleted(final ShardingContexts shardingContexts) {
+        itemOffsetService.flush(shardingContexts.getShardingItemParameters().keySet());
         executionService.registerJobCompleted(shardingContexts);
+        if (!shardingContexts.getShardingItemParameters().isEmpty()) {
+            serverService.persistServerCapacityIfChanged();
+            JobRegistry.getInstance().setRunningItemCount(shardingContexts.getJobName(), 0);
+        }
         if (configService.load(true).isFailover()) {
             failoverService.updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
         }
     }
     
+    @Override
+    public void releaseTimeoutItems(final Collection<Integer> shardingItems) {
+        if (!configService.load(true).isFailover()) {
+            return;
+        }
+        for (int each : shardingItems) {
+            failoverService.setCrashedFailoverFlag(each);
+        }
+    }
+    
+    @Override
+    public String getItemOffset(final int shardingItem) {
+        return itemOffsetService.getOffset(shardingItem);
+    }
+    
+    @Override
+    public void commitItemOffset(final int shardingItem, final String offset) {
+        itemOffsetService.commitOffset(shardingItem, offset);
+    }
+    
     public ShardingContexts getShardingContexts() {
         boolean isFailover = configService.load(true).isFailover();
         if (isFailover) {
@@ -140,6 +174,10 @@ public class LiteJobFacade implements JobFacade {
     
     @Override
     public boolean isEligibleForJobRunning() {
+        JobEligibility jobEligibility = JobRegistry.getInstance().getJobEligibility(jobName);
+        if (null != jobEligibility) {
+            return jobEligibility.isEligibleForJobRunning();
+        }
         LiteJobConfiguration liteJobConfig = configService.load(true);
         if (liteJobConfig.getTypeConfig() instanceof DataflowJobConfiguration) {
             return !serverService.isJobPausedManually() && !shardingService.isNeedSharding() && ((DataflowJobConfiguration) liteJobConfig.getTypeConfig()).isStreamingProcess();    
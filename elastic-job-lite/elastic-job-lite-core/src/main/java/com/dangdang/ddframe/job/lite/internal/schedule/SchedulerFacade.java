@@ -37,6 +37,8 @@ import java.util.List;
  */
 public class SchedulerFacade {
 
+    private final String jobName;
+
     private final ConfigurationService configService;
 
     private final LeaderElectionService leaderElectionService;
@@ -52,6 +54,7 @@ public class SchedulerFacade {
     private final ListenerManager listenerManager;
 
     public SchedulerFacade(final CoordinatorRegistryCenter regCenter, final String jobName, final List<ElasticJobListener> elasticJobListeners) {
+        this.jobName = jobName;
         //作业配置服务
         configService = new ConfigurationService(regCenter, jobName);
         // leader选举服务
@@ -87,6 +90,20 @@ public class SchedulerFacade {
         shardingService.setReshardingFlag();
         monitorService.listen();
         listenerManager.setCurrentShardingTotalCount(configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount());
+        registerJobEligibility();
+    }
+
+    /**
+     * 注册作业运行资格的内存状态.
+     * 先注册再读取初始值, 读取期间到达的节点变化通知优先于初始值, 避免被读取到的旧值覆盖.
+     */
+    private void registerJobEligibility() {
+        JobEligibility jobEligibility = new JobEligibility();
+        jobEligibility.initNeedSharding(true);
+        JobRegistry.getInstance().addJobEligibility(jobName, jobEligibility);
+        jobEligibility.setJobTypeConfiguration(configService.load(true).getTypeConfig());
+        jobEligibility.initPaused(serverService.isJobPausedManually());
+        jobEligibility.initNeedSharding(shardingService.isNeedSharding());
     }
 
     /**
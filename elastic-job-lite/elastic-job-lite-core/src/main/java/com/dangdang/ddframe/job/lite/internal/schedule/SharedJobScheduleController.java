@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.api.ElasticJob;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.TriggerBuilder;
+
+import java.util.Date;
+
+/**
+ * 基于进程内共享调度引擎的作业调度控制器.
+ * 
+ * <p>
+ * 不为作业创建独立的Quartz调度器, 调度操作均委托给{@link SharedJobScheduleEngine}.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SharedJobScheduleController extends JobScheduleController {
+    
+    private final SharedJobScheduleEngine engine;
+    
+    private final SchedulerFacade schedulerFacade;
+    
+    private final String jobName;
+    
+    private final Runnable job;
+    
+    public SharedJobScheduleController(final SchedulerFacade schedulerFacade, final String jobName, final ElasticJob elasticJob, final JobFacade jobFacade) {
+        this(SharedJobScheduleEngine.getInstance(), schedulerFacade, jobName, elasticJob, jobFacade);
+    }
+    
+    SharedJobScheduleController(final SharedJobScheduleEngine engine, final SchedulerFacade schedulerFacade, final String jobName, final ElasticJob elasticJob, final JobFacade jobFacade) {
+        super(null, null, schedulerFacade, jobName);
+        this.engine = engine;
+        this.schedulerFacade = schedulerFacade;
+        this.jobName = jobName;
+        job = new Runnable() {
+            
+            @Override
+            public void run() {
+                JobRegistry.getInstance().getJobExecutor(jobName, elasticJob, jobFacade).execute();
+            }
+        };
+    }
+    
+    @Override
+    public void scheduleJob(final String cron) {
+        if (!engine.checkExists(jobName)) {
+            engine.scheduleJob(jobName, createTrigger(cron), schedulerFacade.loadJobConfiguration().getTypeConfig().getCoreConfig().isMisfire(), 
+                    job, schedulerFacade.newJobTriggerListener());
+        }
+    }
+    
+    @Override
+    public void rescheduleJob(final String cron) {
+        CronTrigger trigger = engine.getTrigger(jobName);
+        if (null != trigger && !cron.equals(trigger.getCronExpression())) {
+            engine.rescheduleJob(jobName, createTrigger(cron));
+        }
+    }
+    
+    private CronTrigger createTrigger(final String cron) {
+        return TriggerBuilder.newTrigger().withIdentity(jobName).withSchedule(CronScheduleBuilder.cronSchedule(cron)).build();
+    }
+    
+    @Override
+    public Date getNextFireTime() {
+        return engine.getNextFireTime(jobName);
+    }
+    
+    @Override
+    public void pauseJob() {
+        engine.pauseJob(jobName);
+    }
+    
+    @Override
+    public void resumeJob() {
+        engine.resumeJob(jobName);
+    }
+    
+    @Override
+    public void triggerJob() {
+        engine.triggerJob(jobName);
+    }
+    
+    @Override
+    public void shutdown() {
+        schedulerFacade.releaseJobResource();
+        engine.unscheduleJob(jobName);
+    }
+}
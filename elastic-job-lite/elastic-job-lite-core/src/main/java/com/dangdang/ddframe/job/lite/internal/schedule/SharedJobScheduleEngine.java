@@ -0,0 +1,424 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.util.cron.CompiledCronExpression;
+import com.google.common.base.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.quartz.CronTrigger;
+import org.quartz.TriggerListener;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内共享的作业调度引擎.
+ * 
+ * <p>
+ * 所有作业共用一个计时线程计算触发时间, 触发后交由有界的共享工作线程池执行.
+ * 触发时间使用预编译的CRON表达式计算并缓存至下次触发, 表达式不支持预编译时回退至Quartz触发器计算.
+ * 同一作业不会并发执行: 上次执行未完成时到达的触发, 开启错过任务重新执行则在上次执行完成后合并补偿执行一次, 否则通知触发监听器作业错过执行, 每次重叠执行至多通知一次.
+ * 暂停期间到达的触发不通知触发监听器, 开启错过任务重新执行则在恢复后合并补偿执行一次.
+ * 工作线程池的等待队列有界, 队列已满时到达的触发同样按错过执行处理: 开启错过任务重新执行则在下次执行完成后补偿执行一次, 否则由该作业下次在工作线程中执行时通知触发监听器.
+ * 触发监听器可能访问注册中心, 因此从不在计时线程中调用.
+ * 计时线程和工作线程空闲超时后自动回收, 所有作业停止调度后不会阻止进程退出.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public class SharedJobScheduleEngine {
+    
+    private static final long KEEP_ALIVE_MINUTES = 5L;
+    
+    private static final int QUEUE_SIZE_PER_WORKER_THREAD = 4;
+    
+    private static volatile SharedJobScheduleEngine instance;
+    
+    private final ScheduledThreadPoolExecutor timer;
+    
+    private final ExecutorService workers;
+    
+    private final ConcurrentHashMap<String, ScheduledJob> scheduledJobs = new ConcurrentHashMap<>();
+    
+    SharedJobScheduleEngine(final int workerThreadSize, final int workerQueueSize) {
+        timer = new ScheduledThreadPoolExecutor(1, new BasicThreadFactory.Builder().namingPattern("elastic-job-shared-scheduler-%s").build());
+        timer.setKeepAliveTime(KEEP_ALIVE_MINUTES, TimeUnit.MINUTES);
+        timer.allowCoreThreadTimeOut(true);
+        timer.setRemoveOnCancelPolicy(true);
+        ThreadPoolExecutor workerPool = new ThreadPoolExecutor(workerThreadSize, workerThreadSize, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(workerQueueSize), 
+                new BasicThreadFactory.Builder().namingPattern("elastic-job-shared-worker-%s").build());
+        workerPool.allowCoreThreadTimeOut(true);
+        workers = workerPool;
+    }
+    
+    /**
+     * 获取进程内共享的作业调度引擎实例.
+     * 
+     * @return 进程内共享的作业调度引擎实例
+     */
+    public static SharedJobScheduleEngine getInstance() {
+        if (null == instance) {
+            synchronized (SharedJobScheduleEngine.class) {
+                if (null == instance) {
+                    int workerThreadSize = Runtime.getRuntime().availableProcessors() * 2;
+                    instance = new SharedJobScheduleEngine(workerThreadSize, workerThreadSize * QUEUE_SIZE_PER_WORKER_THREAD);
+                }
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * 判断作业是否已调度.
+     * 
+     * @param jobName 作业名称
+     * @return 作业是否已调度
+     */
+    public boolean checkExists(final String jobName) {
+        return scheduledJobs.containsKey(jobName);
+    }
+    
+    /**
+     * 调度作业.
+     * 
+     * @param jobName 作业名称
+     * @param trigger 作业触发器
+     * @param misfire 是否开启错过任务重新执行
+     * @param job 作业执行逻辑
+     * @param triggerListener 作业触发监听器
+     */
+    public void scheduleJob(final String jobName, final CronTrigger trigger, final boolean misfire, final Runnable job, final TriggerListener triggerListener) {
+        ScheduledJob scheduledJob = new ScheduledJob(trigger, misfire, job, triggerListener);
+        if (null == scheduledJobs.putIfAbsent(jobName, scheduledJob)) {
+            scheduledJob.start();
+        }
+    }
+    
+    /**
+     * 获取作业触发器.
+     * 
+     * @param jobName 作业名称
+     * @return 作业触发器, 作业未调度则返回null
+     */
+    public CronTrigger getTrigger(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        return null == scheduledJob ? null : scheduledJob.getTrigger();
+    }
+    
+    /**
+     * 重新调度作业.
+     * 
+     * @param jobName 作业名称
+     * @param trigger 作业触发器
+     */
+    public void rescheduleJob(final String jobName, final CronTrigger trigger) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        if (null != scheduledJob) {
+            scheduledJob.reschedule(trigger);
+        }
+    }
+    
+    /**
+     * 获取作业下次触发时间.
+     * 
+     * @param jobName 作业名称
+     * @return 作业下次触发时间, 作业未调度则返回null
+     */
+    public Date getNextFireTime(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        return null == scheduledJob ? null : scheduledJob.getNextFireTime();
+    }
+    
+    /**
+     * 暂停作业.
+     * 
+     * @param jobName 作业名称
+     */
+    public void pauseJob(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        if (null != scheduledJob) {
+            scheduledJob.pause();
+        }
+    }
+    
+    /**
+     * 恢复作业.
+     * 
+     * @param jobName 作业名称
+     */
+    public void resumeJob(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        if (null != scheduledJob) {
+            scheduledJob.resume();
+        }
+    }
+    
+    /**
+     * 立刻启动作业.
+     * 
+     * @param jobName 作业名称
+     */
+    public void triggerJob(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.get(jobName);
+        if (null != scheduledJob) {
+            scheduledJob.trigger();
+        }
+    }
+    
+    /**
+     * 停止调度作业.
+     * 
+     * <p>
+     * 正在执行的作业会继续执行完毕.
+     * </p>
+     * 
+     * @param jobName 作业名称
+     */
+    public void unscheduleJob(final String jobName) {
+        ScheduledJob scheduledJob = scheduledJobs.remove(jobName);
+        if (null != scheduledJob) {
+            scheduledJob.shutdown();
+        }
+    }
+    
+    private final class ScheduledJob implements Runnable {
+        
+        private final boolean misfire;
+        
+        private final Runnable job;
+        
+        private final TriggerListener triggerListener;
+        
+        private CronTrigger trigger;
+        
+        private Optional<CompiledCronExpression> compiledCronExpression;
+        
+        private long nextFireTime = -1L;
+        
+        private ScheduledFuture<?> nextFireFuture;
+        
+        private boolean paused;
+        
+        private boolean running;
+        
+        private boolean pendingFire;
+        
+        private boolean misfireNotified;
+        
+        private boolean pendingMisfireNotification;
+        
+        private boolean shutdown;
+        
+        ScheduledJob(final CronTrigger trigger, final boolean misfire, final Runnable job, final TriggerListener triggerListener) {
+            this.trigger = trigger;
+            compiledCronExpression = CompiledCronExpression.compile(trigger.getCronExpression(), trigger.getTimeZone());
+            this.misfire = misfire;
+            this.job = job;
+            this.triggerListener = triggerListener;
+        }
+        
+        synchronized void start() {
+            scheduleNextFire(System.currentTimeMillis());
+        }
+        
+        synchronized CronTrigger getTrigger() {
+            return trigger;
+        }
+        
+        synchronized Date getNextFireTime() {
+            return nextFireTime < 0L ? null : new Date(nextFireTime);
+        }
+        
+        synchronized void reschedule(final CronTrigger trigger) {
+            if (shutdown) {
+                return;
+            }
+            this.trigger = trigger;
+            compiledCronExpression = CompiledCronExpression.compile(trigger.getCronExpression(), trigger.getTimeZone());
+            cancelNextFire();
+            scheduleNextFire(System.currentTimeMillis());
+        }
+        
+        synchronized void pause() {
+            paused = true;
+        }
+        
+        synchronized void resume() {
+            paused = false;
+            if (pendingFire && !running && !shutdown) {
+                pendingFire = false;
+                dispatch();
+            }
+        }
+        
+        synchronized void trigger() {
+            if (shutdown) {
+                return;
+            }
+            if (paused || running) {
+                pendingFire = true;
+                return;
+            }
+            dispatch();
+        }
+        
+        synchronized void shutdown() {
+            shutdown = true;
+            pendingFire = false;
+            cancelNextFire();
+            nextFireTime = -1L;
+        }
+        
+        @Override
+        public synchronized void run() {
+            if (shutdown) {
+                return;
+            }
+            scheduleNextFire(Math.max(nextFireTime, System.currentTimeMillis()));
+            if (paused) {
+                if (misfire) {
+                    pendingFire = true;
+                }
+                return;
+            }
+            if (running) {
+                misfired();
+                return;
+            }
+            dispatch();
+        }
+        
+        private void scheduleNextFire(final long afterTime) {
+            nextFireTime = getFireTimeAfter(afterTime);
+            if (nextFireTime >= 0L) {
+                nextFireFuture = timer.schedule(this, Math.max(0L, nextFireTime - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        private long getFireTimeAfter(final long afterTime) {
+            if (compiledCronExpression.isPresent()) {
+                return compiledCronExpression.get().getNextFireTimeAfter(afterTime);
+            }
+            Date result = trigger.getFireTimeAfter(new Date(afterTime));
+            return null == result ? -1L : result.getTime();
+        }
+        
+        private void cancelNextFire() {
+            if (null != nextFireFuture) {
+                nextFireFuture.cancel(false);
+                nextFireFuture = null;
+            }
+        }
+        
+        private void misfired() {
+            if (misfire) {
+                pendingFire = true;
+                return;
+            }
+            if (misfireNotified) {
+                return;
+            }
+            misfireNotified = true;
+            final CronTrigger misfiredTrigger = trigger;
+            try {
+                workers.execute(new Runnable() {
+                    
+                    @Override
+                    public void run() {
+                        notifyMisfired(misfiredTrigger);
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                pendingMisfireNotification = true;
+            }
+        }
+        
+        private void notifyMisfired(final CronTrigger misfiredTrigger) {
+            try {
+                triggerListener.triggerMisfired(misfiredTrigger);
+            //CHECKSTYLE:OFF
+            } catch (final Throwable ex) {
+            //CHECKSTYLE:ON
+                log.error("Elastic job: shared scheduler notify job misfired failure.", ex);
+            }
+        }
+        
+        private void dispatch() {
+            running = true;
+            try {
+                workers.execute(new Runnable() {
+                    
+                    @Override
+                    public void run() {
+                        execute();
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                running = false;
+                log.warn("Elastic job: shared scheduler worker queue is full, job '{}' misfired.", trigger.getKey().getName());
+                if (misfire) {
+                    pendingFire = true;
+                } else {
+                    pendingMisfireNotification = true;
+                }
+            }
+        }
+        
+        private void execute() {
+            CronTrigger misfiredTrigger = takePendingMisfiredTrigger();
+            if (null != misfiredTrigger) {
+                notifyMisfired(misfiredTrigger);
+            }
+            try {
+                job.run();
+            //CHECKSTYLE:OFF
+            } catch (final Throwable ex) {
+            //CHECKSTYLE:ON
+                log.error("Elastic job: shared scheduler execute job failure.", ex);
+            } finally {
+                completed();
+            }
+        }
+        
+        private synchronized CronTrigger takePendingMisfiredTrigger() {
+            if (!pendingMisfireNotification) {
+                return null;
+            }
+            pendingMisfireNotification = false;
+            return trigger;
+        }
+        
+        private synchronized void completed() {
+            running = false;
+            misfireNotified = false;
+            if (pendingFire && !paused && !shutdown) {
+                pendingFire = false;
+                dispatch();
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.server;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibility;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
@@ -69,11 +70,20 @@ public class JobOperationListenerManager extends AbstractListenerManager {
         @Override
         public void stateChanged(final CuratorFramework client, final ConnectionState newState) {
             JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
+            JobEligibility jobEligibility = JobRegistry.getInstance().getJobEligibility(jobName);
             if (ConnectionState.LOST == newState) {
+                if (null != jobEligibility) {
+                    jobEligibility.setDisconnected(true);
+                }
                 jobScheduleController.pauseJob();
             } else if (ConnectionState.RECONNECTED == newState) {
                 serverService.persistServerOnline(serverService.isLocalhostServerEnabled());
                 executionService.clearRunningInfo(shardingService.getLocalHostShardingItems());
+                if (null != jobEligibility) {
+                    jobEligibility.setPaused(serverService.isJobPausedManually());
+                    jobEligibility.setNeedSharding(shardingService.isNeedSharding());
+                    jobEligibility.setDisconnected(false);
+                }
                 if (!serverService.isJobPausedManually()) {
                     jobScheduleController.resumeJob();
                 }
@@ -106,6 +116,10 @@ public class JobOperationListenerManager extends AbstractListenerManager {
             if (!serverNode.isLocalJobPausedPath(path)) {
                 return;
             }
+            JobEligibility jobEligibility = JobRegistry.getInstance().getJobEligibility(jobName);
+            if (null != jobEligibility && (Type.NODE_ADDED == event.getType() || Type.NODE_REMOVED == event.getType())) {
+                jobEligibility.setPaused(Type.NODE_ADDED == event.getType());
+            }
             JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
             if (null == jobScheduleController) {
                 return;
@@ -127,6 +141,10 @@ public class JobOperationListenerManager extends AbstractListenerManager {
             if (!serverNode.isLocalJobShutdownPath(path)) {
                 return;
             }
+            JobEligibility jobEligibility = JobRegistry.getInstance().getJobEligibility(jobName);
+            if (null != jobEligibility && Type.NODE_ADDED == event.getType()) {
+                jobEligibility.setShutdown(true);
+            }
             JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
             if (null != jobScheduleController && Type.NODE_ADDED == event.getType()) {
                 jobScheduleController.shutdown();
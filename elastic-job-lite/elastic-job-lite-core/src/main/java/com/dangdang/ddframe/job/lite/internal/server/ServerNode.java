@@ -52,6 +52,8 @@ public class ServerNode {
 
     static final String SHUTDOWN = ROOT + "/%s/" + SHUTDOWN_APPENDIX;
 
+    static final String CAPACITY = ROOT + "/%s/capacity";
+
     private final LocalHostService localHostService = new LocalHostService();
 
     private final JobNodePath jobNodePath;
@@ -84,6 +86,10 @@ public class ServerNode {
         return String.format(SHUTDOWN, ip);
     }
 
+    static String getCapacityNode(final String ip) {
+        return String.format(CAPACITY, ip);
+    }
+
     /**
      * 判断给定路径是否为作业服务器立刻触发路径.
      *
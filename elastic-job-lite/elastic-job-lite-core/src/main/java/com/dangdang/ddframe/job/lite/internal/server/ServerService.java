@@ -17,13 +17,21 @@
 
 package com.dangdang.ddframe.job.lite.internal.server;
 
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
+import com.dangdang.ddframe.job.util.json.GsonFactory;
+import com.google.common.base.Strings;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 作业服务器节点服务类.
@@ -33,10 +41,14 @@ import java.util.List;
  */
 public class ServerService {
 
+    private static final double SIGNIFICANT_CHANGE_RATIO = 0.25;
+
     private final JobNodeStorage jobNodeStorage;
 
     private final LocalHostService localHostService = new LocalHostService();
 
+    private volatile ServerCapacity publishedServerCapacity;
+
     /**
      * 作业服务器节点服务类，对作业的状态：启用、立即执行、暂停作业、更新服务状态，等等的服务类
      *
@@ -51,10 +63,12 @@ public class ServerService {
      * 每次作业启动前清理上次运行状态.
      */
     public void clearPreviousServerStatus() {
+        JobNodeBatch batch = jobNodeStorage.createBatch();
         // 清理"/jobName/ip/status"节点
-        jobNodeStorage.removeJobNodeIfExisted(ServerNode.getStatusNode(localHostService.getIp()));
+        batch.removeJobNodeIfExisted(ServerNode.getStatusNode(localHostService.getIp()));
         // 清理"/jobName/ip/shutdown"节点
-        jobNodeStorage.removeJobNodeIfExisted(ServerNode.getShutdownNode(localHostService.getIp()));
+        batch.removeJobNodeIfExisted(ServerNode.getShutdownNode(localHostService.getIp()));
+        batch.commit();
     }
 
     /**
@@ -63,14 +77,68 @@ public class ServerService {
      * @param enabled 作业是否启用
      */
     public void persistServerOnline(final boolean enabled) {
-        jobNodeStorage.fillJobNode(ServerNode.getHostNameNode(localHostService.getIp()), localHostService.getHostName());
+        JobNodeBatch batch = jobNodeStorage.createBatch();
+        batch.fillJobNode(ServerNode.getHostNameNode(localHostService.getIp()), localHostService.getHostName());
         if (enabled) {
-            jobNodeStorage.removeJobNodeIfExisted(ServerNode.getDisabledNode(localHostService.getIp()));
+            batch.removeJobNodeIfExisted(ServerNode.getDisabledNode(localHostService.getIp()));
         } else {
-            jobNodeStorage.fillJobNode(ServerNode.getDisabledNode(localHostService.getIp()), "");
+            batch.fillJobNode(ServerNode.getDisabledNode(localHostService.getIp()), "");
+        }
+        batch.fillEphemeralJobNode(ServerNode.getStatusNode(localHostService.getIp()), ServerStatus.READY);
+        batch.removeJobNodeIfExisted(ServerNode.getShutdownNode(localHostService.getIp()));
+        ServerCapacity serverCapacity = createLocalServerCapacity();
+        batch.replaceJobNode(ServerNode.getCapacityNode(localHostService.getIp()), GsonFactory.getGson().toJson(serverCapacity));
+        batch.commit();
+        publishedServerCapacity = serverCapacity;
+    }
+
+    /**
+     * 容量信息变化显著时上报作业服务器的容量信息.
+     *
+     * <p>
+     * 可用处理器数变化, 或系统平均负载、正在运行的分片项数量相对上次上报的变化达到可用处理器数的四分之一(至少为1)时才上报, 避免每次作业执行都写注册中心.
+     * 异步提交, 不阻塞作业线程.
+     * </p>
+     */
+    public void persistServerCapacityIfChanged() {
+        ServerCapacity serverCapacity = createLocalServerCapacity();
+        if (!isSignificantlyChanged(publishedServerCapacity, serverCapacity)) {
+            return;
+        }
+        jobNodeStorage.replaceJobNodeAsync(ServerNode.getCapacityNode(localHostService.getIp()), GsonFactory.getGson().toJson(serverCapacity));
+        publishedServerCapacity = serverCapacity;
+    }
+    
+    private boolean isSignificantlyChanged(final ServerCapacity published, final ServerCapacity current) {
+        if (null == published || published.getAvailableProcessors() != current.getAvailableProcessors()) {
+            return true;
         }
-        jobNodeStorage.fillEphemeralJobNode(ServerNode.getStatusNode(localHostService.getIp()), ServerStatus.READY);
-        jobNodeStorage.removeJobNodeIfExisted(ServerNode.getShutdownNode(localHostService.getIp()));
+        double threshold = Math.max(current.getAvailableProcessors() * SIGNIFICANT_CHANGE_RATIO, 1);
+        return Math.abs(current.getSystemLoadAverage() - published.getSystemLoadAverage()) >= threshold
+                || Math.abs(current.getActiveItemCount() - published.getActiveItemCount()) >= threshold;
+    }
+
+    private ServerCapacity createLocalServerCapacity() {
+        return new ServerCapacity(Runtime.getRuntime().availableProcessors(), ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage(), JobRegistry.getInstance().getRunningItemCount());
+    }
+
+    /**
+     * 获取作业服务器上报的容量信息.
+     *
+     * <p>优先从本地缓存获取, 未上报容量信息的作业服务器不在结果中.</p>
+     *
+     * @param servers 作业服务器IP地址列表
+     * @return 作业服务器IP地址和容量信息对照表
+     */
+    public Map<String, ServerCapacity> getServerCapacities(final List<String> servers) {
+        Map<String, ServerCapacity> result = new LinkedHashMap<>(servers.size(), 1);
+        for (String each : servers) {
+            String data = jobNodeStorage.getJobNodeData(ServerNode.getCapacityNode(each));
+            if (!Strings.isNullOrEmpty(data)) {
+                result.put(each, GsonFactory.getGson().fromJson(data, ServerCapacity.class));
+            }
+        }
+        return result;
     }
 
     /**
@@ -106,10 +174,12 @@ public class ServerService {
     /**
      * 在开始或结束执行作业时更新服务器状态.
      *
+     * <p>异步提交, 不阻塞作业线程.</p>
+     *
      * @param status 服务器状态
      */
     public void updateServerStatus(final ServerStatus status) {
-        jobNodeStorage.updateJobNode(ServerNode.getStatusNode(localHostService.getIp()), status);
+        jobNodeStorage.updateJobNodeAsync(ServerNode.getStatusNode(localHostService.getIp()), status);
     }
 
     /**
@@ -146,6 +216,35 @@ public class ServerService {
         return result;
     }
 
+    /**
+     * 判断是否存在可分片的作业服务器.
+     * 
+     * <p>
+     * 优先从本地缓存查找可分片的作业服务器, 找到后再从注册中心确认; 缓存中无可确认的作业服务器时从注册中心逐一判断, 避免缓存滞后导致误判.
+     * </p>
+     *
+     * @return 是否存在可分片的作业服务器
+     */
+    public boolean hasAvailableShardingServer() {
+        List<String> servers = getAllServers();
+        for (String each : servers) {
+            if (isAvailableShardingServerInCache(each) && isAvailableShardingServer(each)) {
+                return true;
+            }
+        }
+        for (String each : servers) {
+            if (isAvailableShardingServer(each)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAvailableShardingServerInCache(final String ip) {
+        return jobNodeStorage.isJobNodeExistedInCache(ServerNode.getStatusNode(ip))
+                && !jobNodeStorage.isJobNodeExistedInCache(ServerNode.getDisabledNode(ip)) && !jobNodeStorage.isJobNodeExistedInCache(ServerNode.getShutdownNode(ip));
+    }
+
     private boolean isAvailableShardingServer(final String ip) {
         return jobNodeStorage.isJobNodeExisted(ServerNode.getStatusNode(ip))
                 && !jobNodeStorage.isJobNodeExisted(ServerNode.getDisabledNode(ip)) && !jobNodeStorage.isJobNodeExisted(ServerNode.getShutdownNode(ip));
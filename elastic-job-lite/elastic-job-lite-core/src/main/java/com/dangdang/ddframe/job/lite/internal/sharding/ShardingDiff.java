@@ -0,0 +1,207 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * 作业分片结果的差异.
+ * 
+ * <p>比较各作业服务器原有分片项和重新分片后的分片项, 只有分片项发生变化的作业服务器需要更新分片节点.</p>
+ * 
+ * @author zhangliang
+ */
+final class ShardingDiff {
+    
+    private final Map<String, List<Integer>> previousShardingItems;
+    
+    private final Map<String, List<Integer>> currentShardingItems;
+    
+    ShardingDiff(final Map<String, List<Integer>> previousShardingItems, final Map<String, List<Integer>> currentShardingItems) {
+        this.previousShardingItems = previousShardingItems;
+        this.currentShardingItems = currentShardingItems;
+    }
+    
+    /**
+     * 判断作业服务器的分片项是否未变化.
+     * 
+     * @param ip 作业服务器IP地址
+     * @return 作业服务器的分片项是否未变化
+     */
+    boolean isUnchanged(final String ip) {
+        List<Integer> previous = previousShardingItems.get(ip);
+        List<Integer> current = currentShardingItems.get(ip);
+        if (null == previous || null == current) {
+            return null == previous && null == current;
+        }
+        return new LinkedHashSet<>(previous).equals(new LinkedHashSet<>(current));
+    }
+    
+    /**
+     * 获取分片项未变化的作业服务器.
+     * 
+     * <p>原有分片项不是从0开始连续且不重复时无法可靠判断, 返回空集合.</p>
+     * 
+     * @return 分片项未变化的作业服务器
+     */
+    Collection<String> getUnchangedServers() {
+        if (!isPreviousShardingItemsComplete()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(currentShardingItems.size());
+        for (String each : currentShardingItems.keySet()) {
+            if (isUnchanged(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取需要新建分片节点的作业服务器及其分片项.
+     * 
+     * @return 需要新建分片节点的作业服务器及其分片项
+     */
+    Map<String, List<Integer>> getCreatedShardingItems() {
+        Map<String, List<Integer>> result = new LinkedHashMap<>(currentShardingItems.size(), 1);
+        for (Entry<String, List<Integer>> entry : currentShardingItems.entrySet()) {
+            if (!previousShardingItems.containsKey(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取需要更新分片节点的作业服务器及其分片项.
+     * 
+     * @return 需要更新分片节点的作业服务器及其分片项
+     */
+    Map<String, List<Integer>> getUpdatedShardingItems() {
+        Map<String, List<Integer>> result = new LinkedHashMap<>(currentShardingItems.size(), 1);
+        for (Entry<String, List<Integer>> entry : currentShardingItems.entrySet()) {
+            if (previousShardingItems.containsKey(entry.getKey()) && !isUnchanged(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取需要删除分片节点的作业服务器.
+     * 
+     * @return 需要删除分片节点的作业服务器
+     */
+    Collection<String> getRemovedServers() {
+        List<String> result = new ArrayList<>(previousShardingItems.size());
+        for (String each : previousShardingItems.keySet()) {
+            if (!currentShardingItems.containsKey(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取所属作业服务器发生变化的分片项.
+     * 
+     * <p>只有这些分片项需要等待原作业服务器执行完毕, 其余分片项可以继续执行.</p>
+     * 
+     * @return 所属作业服务器发生变化的分片项
+     */
+    Collection<Integer> getMovedItems() {
+        Map<Integer, String> currentOwners = getOwners(currentShardingItems);
+        Set<Integer> result = new LinkedHashSet<>();
+        for (Entry<Integer, String> entry : getOwners(previousShardingItems).entrySet()) {
+            if (!entry.getValue().equals(currentOwners.get(entry.getKey()))) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取重新分片前需要等待原作业服务器执行完毕的分片项.
+     * 
+     * <p>
+     * 原有分片项从0开始连续且不重复时, 只需等待所属作业服务器发生变化的分片项.
+     * 否则无法可靠判断分片项原来所属的作业服务器(如首次分片、原有分片节点读取失败), 需等待原有及重新分片后的全部分片项.
+     * </p>
+     * 
+     * @param shardingTotalCount 重新分片后的分片总数
+     * @return 需要等待执行完毕的分片项
+     */
+    Collection<Integer> getItemsToWait(final int shardingTotalCount) {
+        return isPreviousShardingItemsComplete() ? getMovedItems() : getAllItems(shardingTotalCount);
+    }
+    
+    /**
+     * 获取原有及重新分片后的全部分片项.
+     * 
+     * @param shardingTotalCount 重新分片后的分片总数
+     * @return 原有及重新分片后的全部分片项
+     */
+    Collection<Integer> getAllItems(final int shardingTotalCount) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (int i = 0; i < shardingTotalCount; i++) {
+            result.add(i);
+        }
+        result.addAll(getOwners(previousShardingItems).keySet());
+        return result;
+    }
+    
+    private boolean isPreviousShardingItemsComplete() {
+        Set<Integer> items = new HashSet<>();
+        for (List<Integer> each : previousShardingItems.values()) {
+            for (int item : each) {
+                if (!items.add(item)) {
+                    return false;
+                }
+            }
+        }
+        if (items.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (!items.contains(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private Map<Integer, String> getOwners(final Map<String, List<Integer>> shardingItems) {
+        Map<Integer, String> result = new HashMap<>();
+        for (Entry<String, List<Integer>> entry : shardingItems.entrySet()) {
+            for (int each : entry.getValue()) {
+                result.put(each, entry.getKey());
+            }
+        }
+        return result;
+    }
+}
@@ -22,7 +22,10 @@ import com.dangdang.ddframe.job.lite.internal.config.LiteJobConfigurationGsonFac
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibility;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.server.ServerNode;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import lombok.Setter;
 import org.apache.curator.framework.CuratorFramework;
@@ -44,6 +47,10 @@ public class ShardingListenerManager extends AbstractListenerManager {
 
     private final ServerNode serverNode;
 
+    private final String jobName;
+
+    private final String shardingNecessaryPath;
+
     @Setter
     private int currentShardingTotalCount;
 
@@ -53,12 +60,15 @@ public class ShardingListenerManager extends AbstractListenerManager {
         executionService = new ExecutionService(regCenter, jobName);
         configNode = new ConfigurationNode(jobName);
         serverNode = new ServerNode(jobName);
+        this.jobName = jobName;
+        shardingNecessaryPath = new JobNodePath(jobName).getFullPath(ShardingNode.NECESSARY);
     }
 
     @Override
     public void start() {
         addDataListener(new ShardingTotalCountChangedJobListener());
         addDataListener(new ListenServersChangedJobListener());
+        addDataListener(new ShardingNecessaryChangedJobListener());
     }
 
     class ShardingTotalCountChangedJobListener extends AbstractJobListener {
@@ -77,6 +87,20 @@ public class ShardingListenerManager extends AbstractListenerManager {
         }
     }
 
+    class ShardingNecessaryChangedJobListener extends AbstractJobListener {
+
+        @Override
+        protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path) {
+            if (!shardingNecessaryPath.equals(path) || (Type.NODE_ADDED != event.getType() && Type.NODE_REMOVED != event.getType())) {
+                return;
+            }
+            JobEligibility jobEligibility = JobRegistry.getInstance().getJobEligibility(jobName);
+            if (null != jobEligibility) {
+                jobEligibility.setNeedSharding(Type.NODE_ADDED == event.getType());
+            }
+        }
+    }
+
     class ListenServersChangedJobListener extends AbstractJobListener {
 
         @Override
@@ -37,6 +37,8 @@ final class ShardingNode {
     
     static final String PROCESSING = LEADER_SHARDING_ROOT + "/processing";
     
+    static final String UNCHANGED = LEADER_SHARDING_ROOT + "/unchanged";
+    
     private static final String SERVER_SHARDING = ServerNode.ROOT + "/%s/sharding";
     
     static String getShardingNode(final String ip) {
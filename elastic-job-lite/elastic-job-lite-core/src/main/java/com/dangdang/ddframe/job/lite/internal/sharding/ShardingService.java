@@ -29,14 +29,18 @@ import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.TransactionExecutionCallback;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
 import com.dangdang.ddframe.job.util.config.ShardingItems;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -49,6 +53,8 @@ import java.util.Map.Entry;
 @Slf4j
 public class ShardingService {
 
+    private static final long WAITING_TIMEOUT_MILLISECONDS = 1000L;
+
     private final String jobName;
 
     private final JobNodeStorage jobNodeStorage;
@@ -92,10 +98,12 @@ public class ShardingService {
     /**
      * 判断是否需要重分片.
      *
+     * <p>优先从本地缓存判断, 缓存中存在重分片标记时再从注册中心确认, 避免缓存滞后导致重复分片.</p>
+     *
      * @return 是否需要重分片
      */
     public boolean isNeedSharding() {
-        return jobNodeStorage.isJobNodeExisted(ShardingNode.NECESSARY);
+        return jobNodeStorage.isJobNodeExistedInCache(ShardingNode.NECESSARY) && jobNodeStorage.isJobNodeExisted(ShardingNode.NECESSARY);
     }
 
     /**
@@ -103,8 +111,7 @@ public class ShardingService {
      * 如果当前无可用节点则不分片.
      */
     public void shardingIfNecessary() {
-        List<String> availableShardingServers = serverService.getAvailableShardingServers();
-        if (availableShardingServers.isEmpty()) {
+        if (!serverService.hasAvailableShardingServer()) {
             clearShardingInfo();
             return;
         }
@@ -115,30 +122,79 @@ public class ShardingService {
             blockUntilShardingCompleted();
             return;
         }
+        List<String> availableShardingServers = serverService.getAvailableShardingServers();
+        if (availableShardingServers.isEmpty()) {
+            clearShardingInfo();
+            return;
+        }
         LiteJobConfiguration liteJobConfig = configService.load(false);
+        JobShardingStrategy jobShardingStrategy = JobShardingStrategyFactory.getStrategy(liteJobConfig.getJobShardingStrategyClass());
+        int shardingTotalCount = liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount();
+        JobShardingStrategyOption option = new JobShardingStrategyOption(
+                jobName, shardingTotalCount, serverService.getServerCapacities(availableShardingServers), executionService.getItemAverageDurations(shardingTotalCount));
+        List<String> servers = serverService.getAllServers();
+        Map<String, List<Integer>> previousShardingItems = loadShardingInfo(servers);
+        ShardingDiff shardingDiff = new ShardingDiff(previousShardingItems, jobShardingStrategy.sharding(availableShardingServers, option));
+        boolean shardingInfoLoaded = isShardingInfoLoaded(servers, previousShardingItems);
+        Collection<String> unchangedServers = shardingInfoLoaded ? shardingDiff.getUnchangedServers() : Collections.<String>emptyList();
+        jobNodeStorage.fillEphemeralJobNode(ShardingNode.UNCHANGED, Joiner.on(",").join(unchangedServers));
         if (liteJobConfig.isMonitorExecution()) {
-            waitingOtherJobCompleted();
+            waitingOtherJobCompleted(shardingInfoLoaded ? shardingDiff.getItemsToWait(shardingTotalCount) : shardingDiff.getAllItems(shardingTotalCount));
         }
         log.debug("Job '{}' sharding begin.", jobName);
         jobNodeStorage.fillEphemeralJobNode(ShardingNode.PROCESSING, "");
-        clearShardingInfo();
-        JobShardingStrategy jobShardingStrategy = JobShardingStrategyFactory.getStrategy(liteJobConfig.getJobShardingStrategyClass());
-        JobShardingStrategyOption option = new JobShardingStrategyOption(jobName, liteJobConfig.getTypeConfig().getCoreConfig().getShardingTotalCount());
-        jobNodeStorage.executeInTransaction(new PersistShardingInfoTransactionExecutionCallback(jobShardingStrategy.sharding(availableShardingServers, option)));
+        jobNodeStorage.executeInTransaction(new PersistShardingInfoTransactionExecutionCallback(shardingDiff));
         log.debug("Job '{}' sharding complete.", jobName);
     }
+    
+    private Map<String, List<Integer>> loadShardingInfo(final List<String> servers) {
+        Map<String, List<Integer>> result = new LinkedHashMap<>(servers.size(), 1);
+        for (String each : servers) {
+            String shardingItems = jobNodeStorage.getJobNodeDataDirectly(ShardingNode.getShardingNode(each));
+            if (null != shardingItems) {
+                result.put(each, ShardingItems.toItemList(shardingItems));
+            }
+        }
+        return result;
+    }
 
+    /*
+     * 本地缓存中存在而注册中心未读到的分片节点说明读取失败, 此时原有分片项不可靠.
+     */
+    private boolean isShardingInfoLoaded(final List<String> servers, final Map<String, List<Integer>> previousShardingItems) {
+        for (String each : servers) {
+            if (!previousShardingItems.containsKey(each) && jobNodeStorage.isJobNodeExistedInCache(ShardingNode.getShardingNode(each))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 主节点发布的分片项未变化的作业服务器无需等待分片完成, 直接使用原有分片项执行.
+     */
     private void blockUntilShardingCompleted() {
         while (!leaderElectionService.isLeader() && (jobNodeStorage.isJobNodeExisted(ShardingNode.NECESSARY) || jobNodeStorage.isJobNodeExisted(ShardingNode.PROCESSING))) {
-            log.debug("Job '{}' sleep short time until sharding completed.", jobName);
-            BlockUtils.waitingShortTime();
+            if (isLocalHostShardingUnchanged()) {
+                log.debug("Job '{}' sharding items unchanged, skip waiting until sharding completed.", jobName);
+                return;
+            }
+            log.debug("Job '{}' waiting until sharding completed.", jobName);
+            if (jobNodeStorage.waitUntilJobNodeRemoved(ShardingNode.NECESSARY, WAITING_TIMEOUT_MILLISECONDS)) {
+                jobNodeStorage.waitUntilJobNodeRemoved(ShardingNode.PROCESSING, WAITING_TIMEOUT_MILLISECONDS);
+            }
         }
     }
 
-    private void waitingOtherJobCompleted() {
-        while (executionService.hasRunningItems()) {
-            log.debug("Job '{}' sleep short time until other job completed.", jobName);
-            BlockUtils.waitingShortTime();
+    private boolean isLocalHostShardingUnchanged() {
+        String unchangedServers = jobNodeStorage.getJobNodeDataDirectly(ShardingNode.UNCHANGED);
+        return !Strings.isNullOrEmpty(unchangedServers) && Splitter.on(",").splitToList(unchangedServers).contains(localHostService.getIp());
+    }
+
+    private void waitingOtherJobCompleted(final Collection<Integer> items) {
+        while (executionService.hasRunningItems(items)) {
+            log.debug("Job '{}' waiting until other job completed, items '{}'.", jobName, items);
+            executionService.waitUntilRunningItemsCompleted(items, WAITING_TIMEOUT_MILLISECONDS);
         }
     }
 
@@ -164,14 +220,21 @@ public class ShardingService {
     @RequiredArgsConstructor
     class PersistShardingInfoTransactionExecutionCallback implements TransactionExecutionCallback {
 
-        private final Map<String, List<Integer>> shardingItems;
+        private final ShardingDiff shardingDiff;
 
         @Override
         public void execute(final CuratorTransactionFinal curatorTransactionFinal) throws Exception {
-            for (Entry<String, List<Integer>> entry : shardingItems.entrySet()) {
+            for (Entry<String, List<Integer>> entry : shardingDiff.getCreatedShardingItems().entrySet()) {
                 curatorTransactionFinal.create().forPath(jobNodePath.getFullPath(ShardingNode.getShardingNode(entry.getKey())), ShardingItems.toItemsString(entry.getValue()).getBytes()).and();
             }
+            for (Entry<String, List<Integer>> entry : shardingDiff.getUpdatedShardingItems().entrySet()) {
+                curatorTransactionFinal.setData().forPath(jobNodePath.getFullPath(ShardingNode.getShardingNode(entry.getKey())), ShardingItems.toItemsString(entry.getValue()).getBytes()).and();
+            }
+            for (String each : shardingDiff.getRemovedServers()) {
+                curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.getShardingNode(each))).and();
+            }
             curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.NECESSARY)).and();
+            curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.UNCHANGED)).and();
             curatorTransactionFinal.delete().forPath(jobNodePath.getFullPath(ShardingNode.PROCESSING)).and();
         }
     }
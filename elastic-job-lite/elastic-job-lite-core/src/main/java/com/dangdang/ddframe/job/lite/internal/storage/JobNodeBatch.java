@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.storage;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryBatch;
+
+/**
+ * 作业节点批量写操作类.
+ * 
+ * <p>
+ * 收集对作业节点的写操作, 调用{@link #commit()}时一次性提交, 使每次作业执行的注册中心写操作次数不随分片项数量增长.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public class JobNodeBatch {
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final String jobName;
+    
+    private final JobNodePath jobNodePath;
+    
+    private final RegistryBatch batch;
+    
+    private Boolean jobRootNodeExisted;
+    
+    public JobNodeBatch(final CoordinatorRegistryCenter regCenter, final String jobName) {
+        this.regCenter = regCenter;
+        this.jobName = jobName;
+        jobNodePath = new JobNodePath(jobName);
+        batch = regCenter.createBatch();
+    }
+    
+    /**
+     * 如果不存在则创建作业节点.
+     * 
+     * <p>如果作业根节点不存在表示作业已经停止, 不再继续创建节点.</p>
+     * 
+     * <p>作业根节点每个批次仅确认一次, 各节点是否存在在提交时判断, 不逐个访问注册中心.</p>
+     * 
+     * @param node 作业节点名称
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch createJobNodeIfNeeded(final String node) {
+        if (isJobRootNodeExisted()) {
+            batch.create(jobNodePath.getFullPath(node), "");
+        }
+        return this;
+    }
+    
+    private boolean isJobRootNodeExisted() {
+        if (null == jobRootNodeExisted) {
+            jobRootNodeExisted = regCenter.isExisted("/" + jobName);
+        }
+        return jobRootNodeExisted;
+    }
+    
+    /**
+     * 删除作业节点.
+     * 
+     * @param node 作业节点名称
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch removeJobNodeIfExisted(final String node) {
+        batch.remove(jobNodePath.getFullPath(node));
+        return this;
+    }
+    
+    /**
+     * 填充节点数据.
+     * 
+     * @param node 作业节点名称
+     * @param value 作业节点数据值
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch fillJobNode(final String node, final Object value) {
+        batch.persist(jobNodePath.getFullPath(node), value.toString());
+        return this;
+    }
+    
+    /**
+     * 填充临时节点数据.
+     * 
+     * @param node 作业节点名称
+     * @param value 作业节点数据值
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch fillEphemeralJobNode(final String node, final Object value) {
+        batch.persistEphemeral(jobNodePath.getFullPath(node), value.toString());
+        return this;
+    }
+    
+    /**
+     * 更新节点数据.
+     * 
+     * @param node 作业节点名称
+     * @param value 作业节点数据值
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch updateJobNode(final String node, final Object value) {
+        batch.update(jobNodePath.getFullPath(node), value.toString());
+        return this;
+    }
+    
+    /**
+     * 如果节点不存在则持久化节点, 如果节点已经存在则更新节点.
+     * 
+     * @param node 作业节点名称
+     * @param value 待替换的数据
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch replaceJobNode(final String node, final Object value) {
+        batch.persist(jobNodePath.getFullPath(node), value.toString());
+        return this;
+    }
+    
+    /**
+     * 提交所有收集的写操作.
+     */
+    public void commit() {
+        batch.commit();
+    }
+}
@@ -19,7 +19,12 @@ package com.dangdang.ddframe.job.lite.internal.storage;
 
 import com.dangdang.ddframe.job.exception.JobSystemException;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.recipes.cache.TreeCache;
@@ -38,6 +43,7 @@ import java.util.List;
  *
  * @author zhangliang
  */
+@Slf4j
 public class JobNodeStorage {
 
     private final CoordinatorRegistryCenter regCenter;
@@ -62,6 +68,40 @@ public class JobNodeStorage {
         return regCenter.isExisted(jobNodePath.getFullPath(node));
     }
 
+    /**
+     * 阻塞等待作业节点存在.
+     *
+     * @param node 作业节点名称
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 作业节点是否存在, 等待超时则返回false
+     */
+    public boolean waitUntilJobNodeExisted(final String node, final long timeoutMilliseconds) {
+        return regCenter.waitUntilExisted(jobNodePath.getFullPath(node), timeoutMilliseconds);
+    }
+
+    /**
+     * 阻塞等待作业节点被删除.
+     *
+     * @param node 作业节点名称
+     * @param timeoutMilliseconds 最长等待毫秒数
+     * @return 作业节点是否已被删除, 等待超时则返回false
+     */
+    public boolean waitUntilJobNodeRemoved(final String node, final long timeoutMilliseconds) {
+        return regCenter.waitUntilRemoved(jobNodePath.getFullPath(node), timeoutMilliseconds);
+    }
+
+    /**
+     * 优先从本地缓存判断作业节点是否存在.
+     *
+     * <p>缓存由注册中心的监听事件维护, 可能短暂滞后于注册中心.</p>
+     *
+     * @param node 作业节点名称
+     * @return 作业节点是否存在
+     */
+    public boolean isJobNodeExistedInCache(final String node) {
+        return regCenter.isExistedInCache(jobNodePath.getFullPath(node));
+    }
+
     /**
      * 获取作业节点数据.
      *
@@ -92,6 +132,16 @@ public class JobNodeStorage {
         return regCenter.getChildrenKeys(jobNodePath.getFullPath(node));
     }
 
+    /**
+     * 优先从本地缓存获取作业节点子节点名称列表.
+     *
+     * @param node 作业节点名称
+     * @return 作业节点子节点名称列表
+     */
+    public List<String> getJobNodeChildrenKeysInCache(final String node) {
+        return regCenter.getChildrenKeysInCache(jobNodePath.getFullPath(node));
+    }
+
     /**
      * 如果存在则创建作业节点.
      * <p>
@@ -150,6 +200,44 @@ public class JobNodeStorage {
         regCenter.update(jobNodePath.getFullPath(node), value.toString());
     }
 
+    /**
+     * 异步更新节点数据.
+     *
+     * <p>不阻塞调用线程, 同一注册中心客户端的后续操作可以看到本次更新.</p>
+     *
+     * @param node  作业节点名称
+     * @param value 作业节点数据值
+     */
+    public void updateJobNodeAsync(final String node, final Object value) {
+        logIfFailure(regCenter.getAsyncRegistryCenter().update(jobNodePath.getFullPath(node), value.toString()));
+    }
+
+    /**
+     * 异步替换节点数据.
+     *
+     * <p>不阻塞调用线程. 节点已存在时只需一次网络往返, 且同一注册中心客户端的后续操作可以看到本次更新.</p>
+     *
+     * @param node  作业节点名称
+     * @param value 待替换的数据
+     */
+    public void replaceJobNodeAsync(final String node, final Object value) {
+        logIfFailure(regCenter.getAsyncRegistryCenter().persist(jobNodePath.getFullPath(node), value.toString()));
+    }
+
+    private void logIfFailure(final ListenableFuture<Void> future) {
+        Futures.addCallback(future, new FutureCallback<Void>() {
+
+            @Override
+            public void onSuccess(final Void result) {
+            }
+
+            @Override
+            public void onFailure(final Throwable cause) {
+                log.error("Elastic job: async write for job '{}' failure.", jobName, cause);
+            }
+        });
+    }
+
     /**
      * 如果节点不存在，则持久化节点
      * 如果节点已经存在，则更新节点
@@ -161,6 +249,15 @@ public class JobNodeStorage {
         regCenter.persist(jobNodePath.getFullPath(node), value.toString());
     }
 
+    /**
+     * 创建作业节点批量写操作.
+     *
+     * @return 作业节点批量写操作
+     */
+    public JobNodeBatch createBatch() {
+        return new JobNodeBatch(regCenter, jobName);
+    }
+
     /**
      * 在事务中执行操作.
      *
@@ -200,6 +297,18 @@ public class JobNodeStorage {
         }
     }
 
+    /**
+     * 创建作业节点上的选举锁.
+     * 
+     * <p>返回的选举锁尚未启动, 由调用方负责启动和关闭.</p>
+     *
+     * @param latchNode 选举锁使用的作业节点名称
+     * @return 选举锁
+     */
+    public LeaderLatch createLeaderLatch(final String latchNode) {
+        return new LeaderLatch(getClient(), jobNodePath.getFullPath(latchNode));
+    }
+
     private void handleException(final Exception ex) {
         if (ex instanceof InterruptedException) {
             Thread.currentThread().interrupt();
@@ -235,4 +344,13 @@ public class JobNodeStorage {
     public long getRegistryCenterTime() {
         return regCenter.getRegistryCenterTime(jobNodePath.getFullPath("systemTime/current"));
     }
+    
+    /**
+     * 获取注册中心时钟.
+     * 
+     * @return 注册中心时钟
+     */
+    public RegistryCenterClock getRegistryCenterClock() {
+        return regCenter.getRegistryCenterClock();
+    }
 }
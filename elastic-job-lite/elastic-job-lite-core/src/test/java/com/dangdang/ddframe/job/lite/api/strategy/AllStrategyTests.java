@@ -18,6 +18,9 @@
 package com.dangdang.ddframe.job.lite.api.strategy;
 
 import com.dangdang.ddframe.job.lite.api.strategy.impl.AverageAllocationJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.CapacityWeightedJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.ConsistentHashJobShardingStrategyTest;
+import com.dangdang.ddframe.job.lite.api.strategy.impl.LongestProcessingTimeJobShardingStrategyTest;
 import com.dangdang.ddframe.job.lite.api.strategy.impl.OdevitySortByNameJobShardingStrategyTest;
 import com.dangdang.ddframe.job.lite.api.strategy.impl.RotateServerByNameJobShardingStrategyTest;
 import org.junit.runner.RunWith;
@@ -29,7 +32,10 @@ import org.junit.runners.Suite.SuiteClasses;
         JobShardingStrategyFactoryTest.class, 
         AverageAllocationJobShardingStrategyTest.class, 
         OdevitySortByNameJobShardingStrategyTest.class, 
-        RotateServerByNameJobShardingStrategyTest.class
+        RotateServerByNameJobShardingStrategyTest.class, 
+        ConsistentHashJobShardingStrategyTest.class, 
+        CapacityWeightedJobShardingStrategyTest.class, 
+        LongestProcessingTimeJobShardingStrategyTest.class
     })
 public final class AllStrategyTests {
 }
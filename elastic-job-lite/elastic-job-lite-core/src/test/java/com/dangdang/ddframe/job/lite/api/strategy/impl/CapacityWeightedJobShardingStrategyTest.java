@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class CapacityWeightedJobShardingStrategyTest {
+    
+    private CapacityWeightedJobShardingStrategy capacityWeightedJobShardingStrategy = new CapacityWeightedJobShardingStrategy();
+    
+    @Test
+    public void assertShardingWithoutServers() {
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Collections.<String>emptyList(), new JobShardingStrategyOption("test_job", 3)), is(Collections.<String, List<Integer>>emptyMap()));
+    }
+    
+    @Test
+    public void assertShardingWithoutServerCapacities() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1, 2));
+        expected.put("host1", Arrays.asList(3, 4, 5));
+        expected.put("host2", Arrays.asList(6, 7));
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), new JobShardingStrategyOption("test_job", 8)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingByAvailableProcessors() {
+        Map<String, ServerCapacity> serverCapacities = new HashMap<>(2, 1);
+        serverCapacities.put("host0", new ServerCapacity(8, 0, 0));
+        serverCapacities.put("host1", new ServerCapacity(32, 0, 0));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9));
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Arrays.asList("host0", "host1"), new JobShardingStrategyOption("test_job", 10, serverCapacities)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingBySystemLoadAverageAndActiveItemCount() {
+        Map<String, ServerCapacity> serverCapacities = new HashMap<>(3, 1);
+        serverCapacities.put("host0", new ServerCapacity(8, 4, 0));
+        serverCapacities.put("host1", new ServerCapacity(8, 0, 8));
+        serverCapacities.put("host2", new ServerCapacity(8, 0, 0));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3));
+        expected.put("host2", Arrays.asList(4, 5, 6, 7));
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), new JobShardingStrategyOption("test_job", 8, serverCapacities)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingWithOverloadedServer() {
+        Map<String, ServerCapacity> serverCapacities = new HashMap<>(2, 1);
+        serverCapacities.put("host0", new ServerCapacity(10, 100, 0));
+        serverCapacities.put("host1", new ServerCapacity(10, -1, 0));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Collections.singletonList(0));
+        expected.put("host1", Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Arrays.asList("host0", "host1"), new JobShardingStrategyOption("test_job", 11, serverCapacities)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingWithPartialServerCapacities() {
+        Map<String, ServerCapacity> serverCapacities = new HashMap<>(2, 1);
+        serverCapacities.put("host0", new ServerCapacity(4, 0, 0));
+        serverCapacities.put("host1", new ServerCapacity(12, 0, 0));
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 1));
+        expected.put("host1", Arrays.asList(2, 3, 4, 5, 6, 7));
+        expected.put("host2", Arrays.asList(8, 9, 10, 11));
+        assertThat(capacityWeightedJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), new JobShardingStrategyOption("test_job", 12, serverCapacities)), is(expected));
+    }
+}
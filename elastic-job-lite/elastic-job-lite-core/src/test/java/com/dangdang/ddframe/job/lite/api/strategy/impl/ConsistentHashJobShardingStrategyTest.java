@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class ConsistentHashJobShardingStrategyTest {
+    
+    private static final int SHARDING_TOTAL_COUNT = 1000;
+    
+    private ConsistentHashJobShardingStrategy consistentHashJobShardingStrategy = new ConsistentHashJobShardingStrategy();
+    
+    @Test
+    public void assertShardingWithoutServers() {
+        assertThat(consistentHashJobShardingStrategy.sharding(Collections.<String>emptyList(), new JobShardingStrategyOption("test_job", 3)), is(Collections.<String, List<Integer>>emptyMap()));
+    }
+    
+    @Test
+    public void assertShardingAllItemsOnce() {
+        Map<String, List<Integer>> actual = consistentHashJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), new JobShardingStrategyOption("test_job", 10));
+        assertThat(new ArrayList<>(actual.keySet()), is(Arrays.asList("host0", "host1", "host2")));
+        List<Integer> items = new ArrayList<>();
+        for (List<Integer> each : actual.values()) {
+            items.addAll(each);
+            assertTrue(each.size() <= 5);
+        }
+        Collections.sort(items);
+        assertThat(items, is(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+    }
+    
+    @Test
+    public void assertShardingIsIndependentOfServersOrder() {
+        JobShardingStrategyOption option = new JobShardingStrategyOption("test_job", 10);
+        Map<String, List<Integer>> expected = consistentHashJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), option);
+        Map<String, List<Integer>> actual = consistentHashJobShardingStrategy.sharding(Arrays.asList("host2", "host0", "host1"), option);
+        for (Entry<String, List<Integer>> entry : expected.entrySet()) {
+            assertThat(actual.get(entry.getKey()), is(entry.getValue()));
+        }
+    }
+    
+    @Test
+    public void assertMovementRatioAndSkewWhenServerJoined() {
+        for (int serverCount = 1; serverCount <= 16; serverCount++) {
+            Map<String, List<Integer>> before = consistentHashJobShardingStrategy.sharding(createServers(serverCount), new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT));
+            Map<String, List<Integer>> after = consistentHashJobShardingStrategy.sharding(createServers(serverCount + 1), new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT));
+            assertMovementRatioAndSkew(before, after, 1.0 / (serverCount + 1));
+        }
+    }
+    
+    @Test
+    public void assertMovementRatioAndSkewWhenServerLeft() {
+        for (int serverCount = 2; serverCount <= 16; serverCount++) {
+            List<String> servers = createServers(serverCount);
+            Map<String, List<Integer>> before = consistentHashJobShardingStrategy.sharding(servers, new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT));
+            List<String> remaining = new ArrayList<>(servers);
+            remaining.remove(0);
+            Map<String, List<Integer>> after = consistentHashJobShardingStrategy.sharding(remaining, new JobShardingStrategyOption("test_job", SHARDING_TOTAL_COUNT));
+            assertMovementRatioAndSkew(before, after, 1.0 / serverCount);
+        }
+    }
+    
+    private void assertMovementRatioAndSkew(final Map<String, List<Integer>> before, final Map<String, List<Integer>> after, final double idealMovementRatio) {
+        double movementRatio = (double) countMovedItems(before, after) / SHARDING_TOTAL_COUNT;
+        double skew = getSkew(after);
+        String report = String.format("servers: %d -> %d, movement ratio: %.3f, ideal: %.3f, skew: %.3f", before.size(), after.size(), movementRatio, idealMovementRatio, skew);
+        assertTrue(report, movementRatio <= idealMovementRatio * 1.5);
+        assertTrue(report, skew <= 1.25 + after.size() / (double) SHARDING_TOTAL_COUNT);
+    }
+    
+    private List<String> createServers(final int serverCount) {
+        List<String> result = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            result.add("192.168.0." + i);
+        }
+        return result;
+    }
+    
+    private int countMovedItems(final Map<String, List<Integer>> before, final Map<String, List<Integer>> after) {
+        Map<Integer, String> owners = new HashMap<>(SHARDING_TOTAL_COUNT, 1);
+        for (Entry<String, List<Integer>> entry : before.entrySet()) {
+            for (int each : entry.getValue()) {
+                owners.put(each, entry.getKey());
+            }
+        }
+        int result = 0;
+        for (Entry<String, List<Integer>> entry : after.entrySet()) {
+            for (int each : entry.getValue()) {
+                if (!entry.getKey().equals(owners.get(each))) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private double getSkew(final Map<String, List<Integer>> shardingResult) {
+        int max = 0;
+        for (List<Integer> each : shardingResult.values()) {
+            max = Math.max(max, each.size());
+        }
+        return max * shardingResult.size() / (double) SHARDING_TOTAL_COUNT;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.api.strategy.impl;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategy;
+import com.dangdang.ddframe.job.lite.api.strategy.JobShardingStrategyOption;
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class LongestProcessingTimeJobShardingStrategyTest {
+    
+    private LongestProcessingTimeJobShardingStrategy longestProcessingTimeJobShardingStrategy = new LongestProcessingTimeJobShardingStrategy();
+    
+    @Test
+    public void assertShardingWithoutServers() {
+        assertThat(longestProcessingTimeJobShardingStrategy.sharding(Collections.<String>emptyList(), new JobShardingStrategyOption("test_job", 3)), is(Collections.<String, List<Integer>>emptyMap()));
+    }
+    
+    @Test
+    public void assertShardingWithoutItemAverageDurations() {
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Arrays.asList(0, 3, 6));
+        expected.put("host1", Arrays.asList(1, 4, 7));
+        expected.put("host2", Arrays.asList(2, 5));
+        assertThat(longestProcessingTimeJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), new JobShardingStrategyOption("test_job", 8)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingWithLongRunningItem() {
+        Map<Integer, Long> itemAverageDurations = new HashMap<>(10, 1);
+        for (int i = 0; i < 10; i++) {
+            itemAverageDurations.put(i, 7 == i ? 40000L : 2000L);
+        }
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(3);
+        expected.put("host0", Collections.singletonList(7));
+        expected.put("host1", Arrays.asList(0, 2, 4, 6, 9));
+        expected.put("host2", Arrays.asList(1, 3, 5, 8));
+        assertThat(longestProcessingTimeJobShardingStrategy.sharding(Arrays.asList("host0", "host1", "host2"), createOption(10, itemAverageDurations)), is(expected));
+    }
+    
+    @Test
+    public void assertShardingWithPartialItemAverageDurations() {
+        Map<Integer, Long> itemAverageDurations = new HashMap<>(2, 1);
+        itemAverageDurations.put(0, 3000L);
+        itemAverageDurations.put(1, 1000L);
+        Map<String, List<Integer>> expected = new LinkedHashMap<>(2);
+        expected.put("host0", Arrays.asList(0));
+        expected.put("host1", Arrays.asList(1, 2));
+        assertThat(longestProcessingTimeJobShardingStrategy.sharding(Arrays.asList("host0", "host1"), createOption(3, itemAverageDurations)), is(expected));
+    }
+    
+    @Test
+    public void assertMakespanComparedWithOtherStrategies() {
+        Random random = new Random(0L);
+        List<JobShardingStrategy> otherStrategies = Arrays.asList(
+                new AverageAllocationJobShardingStrategy(), new OdevitySortByNameJobShardingStrategy(), new RotateServerByNameJobShardingStrategy(), new ConsistentHashJobShardingStrategy());
+        for (int round = 0; round < 100; round++) {
+            int shardingTotalCount = 5 + random.nextInt(60);
+            List<String> servers = createServers(2 + random.nextInt(8));
+            Map<Integer, Long> itemAverageDurations = new HashMap<>(shardingTotalCount, 1);
+            long totalDuration = 0;
+            long maxDuration = 0;
+            for (int i = 0; i < shardingTotalCount; i++) {
+                long duration = 0 == random.nextInt(10) ? 20000L + random.nextInt(40000) : 500L + random.nextInt(3000);
+                itemAverageDurations.put(i, duration);
+                totalDuration += duration;
+                maxDuration = Math.max(maxDuration, duration);
+            }
+            JobShardingStrategyOption option = createOption(shardingTotalCount, itemAverageDurations);
+            long makespan = getMakespan(longestProcessingTimeJobShardingStrategy.sharding(new ArrayList<>(servers), option), itemAverageDurations);
+            long lowerBound = Math.max(maxDuration, (totalDuration + servers.size() - 1) / servers.size());
+            String report = String.format("round: %d, servers: %d, items: %d, makespan: %d, lower bound: %d", round, servers.size(), shardingTotalCount, makespan, lowerBound);
+            assertTrue(report, makespan * 3 <= lowerBound * 4);
+            for (JobShardingStrategy each : otherStrategies) {
+                long otherMakespan = getMakespan(each.sharding(new ArrayList<>(servers), option), itemAverageDurations);
+                assertTrue(report + ", " + each.getClass().getSimpleName() + " makespan: " + otherMakespan, makespan <= otherMakespan);
+            }
+        }
+    }
+    
+    private JobShardingStrategyOption createOption(final int shardingTotalCount, final Map<Integer, Long> itemAverageDurations) {
+        return new JobShardingStrategyOption("test_job", shardingTotalCount, Collections.<String, ServerCapacity>emptyMap(), itemAverageDurations);
+    }
+    
+    private List<String> createServers(final int serverCount) {
+        List<String> result = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            result.add("192.168.0." + i);
+        }
+        return result;
+    }
+    
+    private long getMakespan(final Map<String, List<Integer>> shardingResult, final Map<Integer, Long> itemAverageDurations) {
+        long result = 0;
+        for (List<Integer> each : shardingResult.values()) {
+            long load = 0;
+            for (int item : each) {
+                load += itemAverageDurations.get(item);
+            }
+            result = Math.max(result, load);
+        }
+        return result;
+    }
+}
@@ -28,6 +28,7 @@ import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextServiceT
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionNodeTest;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionServiceTest;
+import com.dangdang.ddframe.job.lite.internal.execution.ItemOffsetServiceTest;
 import com.dangdang.ddframe.job.lite.internal.executor.JobExecutorTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverNodeTest;
@@ -38,17 +39,22 @@ import com.dangdang.ddframe.job.lite.internal.listener.JobListenerTest;
 import com.dangdang.ddframe.job.lite.internal.listener.ListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceDisableTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceEnableTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibilityTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistryTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleControllerTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobTriggerListenerTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.LiteJobFacadeTest;
 import com.dangdang.ddframe.job.lite.internal.schedule.SchedulerFacadeTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.SharedJobScheduleControllerTest;
+import com.dangdang.ddframe.job.lite.internal.schedule.SharedJobScheduleEngineTest;
 import com.dangdang.ddframe.job.lite.internal.server.JobOperationListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.server.ServerNodeTest;
 import com.dangdang.ddframe.job.lite.internal.server.ServerServiceTest;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingListenerManagerTest;
+import com.dangdang.ddframe.job.lite.internal.sharding.ShardingDiffTest;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingNodeTest;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingServiceTest;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatchTest;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePathTest;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorageTest;
 import com.dangdang.ddframe.job.lite.internal.util.SensitiveInfoUtilsTest;
@@ -60,6 +66,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
     JobNodePathTest.class,
     JobNodeStorageTest.class,
+    JobNodeBatchTest.class,
     SensitiveInfoUtilsTest.class,
     ConfigurationServiceTest.class, 
     ConfigurationNodeTest.class,
@@ -73,16 +80,21 @@ import org.junit.runners.Suite.SuiteClasses;
     JobOperationListenerManagerTest.class, 
     ShardingServiceTest.class, 
     ShardingNodeTest.class,
+    ShardingDiffTest.class,
     ShardingListenerManagerTest.class, 
     ExecutionContextServiceTest.class, 
     ExecutionServiceTest.class, 
     ExecutionNodeTest.class,
     ExecutionListenerManagerTest.class, 
+    ItemOffsetServiceTest.class, 
     FailoverServiceTest.class, 
     FailoverNodeTest.class,
     FailoverListenerManagerTest.class, 
     JobRegistryTest.class,
-    JobScheduleControllerTest.class, 
+    JobEligibilityTest.class,
+    JobScheduleControllerTest.class,
+    SharedJobScheduleEngineTest.class,
+    SharedJobScheduleControllerTest.class, 
     JobTriggerListenerTest.class, 
     ListenerManagerTest.class, 
     JobListenerTest.class,
@@ -18,7 +18,11 @@
 package com.dangdang.ddframe.job.lite.internal.config;
 
 import com.dangdang.ddframe.job.event.JobEventBus;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
+import com.dangdang.ddframe.job.executor.JobFacade;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
+import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
+import com.dangdang.ddframe.job.lite.fixture.util.JobConfigurationUtil;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationListenerManager.CronSettingAndJobEventChangedJobListener;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
@@ -32,8 +36,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class ConfigurationListenerManagerTest {
     
@@ -46,6 +54,9 @@ public final class ConfigurationListenerManagerTest {
     @Mock
     private JobEventBus jobEventBus;
     
+    @Mock
+    private JobFacade jobFacade;
+    
     private final ConfigurationListenerManager configurationListenerManager = new ConfigurationListenerManager(null, "test_job");
     
     @Before
@@ -88,4 +99,14 @@ public final class ConfigurationListenerManagerTest {
                 TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/config", null, LiteJsonConstants.getJobJson().getBytes())), "/test_job/config");
         verify(jobScheduleController).rescheduleJob("0/1 * * * * ?");
     }
+    
+    @Test
+    public void assertCronSettingChangedJobListenerWhenIsCronPathAndUpdateAndJobExecutorIsNotReusable() {
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(JobConfigurationUtil.createDataflowLiteJobConfiguration());
+        AbstractElasticJobExecutor jobExecutor = JobRegistry.getInstance().getJobExecutor("test_job", new TestDataflowJob(), jobFacade);
+        configurationListenerManager.new CronSettingAndJobEventChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_UPDATED, new ChildData("/test_job/config", null, LiteJsonConstants.getJobJson().getBytes())), "/test_job/config");
+        assertThat(JobRegistry.getInstance().getJobExecutor("test_job", new TestDataflowJob(), jobFacade), not(sameInstance(jobExecutor)));
+        JobRegistry.getInstance().removeJobExecutor("test_job");
+    }
 }
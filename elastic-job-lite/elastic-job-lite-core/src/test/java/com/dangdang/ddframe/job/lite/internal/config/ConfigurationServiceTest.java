@@ -23,6 +23,7 @@ import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.fixture.util.JobConfigurationUtil;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -31,6 +32,7 @@ import org.unitils.util.ReflectionUtils;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,12 +41,16 @@ public final class ConfigurationServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
+    @Mock
+    private RegistryCenterClock registryCenterClock;
+    
     private final ConfigurationService configService = new ConfigurationService(null, "test_job");
     
     @Before
     public void initMocks() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
         ReflectionUtils.setFieldValue(configService, "jobNodeStorage", jobNodeStorage);
+        when(jobNodeStorage.getRegistryCenterClock()).thenReturn(registryCenterClock);
     }
     
     @Test
@@ -127,4 +133,25 @@ public final class ConfigurationServiceTest {
             verify(jobNodeStorage).getRegistryCenterTime();
         }
     }
+    
+    @Test
+    public void assertIsMaxTimeDiffSecondsTolerableWithRegistryCenterClock() throws JobExecutionEnvironmentException {
+        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
+        when(registryCenterClock.isSampled()).thenReturn(true);
+        when(registryCenterClock.getOffsetMilliseconds()).thenReturn(-500L);
+        configService.checkMaxTimeDiffSecondsTolerable();
+        verify(jobNodeStorage, never()).getRegistryCenterTime();
+    }
+    
+    @Test(expected = JobExecutionEnvironmentException.class)
+    public void assertIsNotMaxTimeDiffSecondsTolerableWithRegistryCenterClock() throws JobExecutionEnvironmentException {
+        when(jobNodeStorage.getJobNodeData(ConfigurationNode.ROOT)).thenReturn(LiteJsonConstants.getJobJson());
+        when(registryCenterClock.isSampled()).thenReturn(true);
+        when(registryCenterClock.getOffsetMilliseconds()).thenReturn(-3600000L);
+        try {
+            configService.checkMaxTimeDiffSecondsTolerable();
+        } finally {
+            verify(jobNodeStorage, never()).getRegistryCenterTime();
+        }
+    }
 }
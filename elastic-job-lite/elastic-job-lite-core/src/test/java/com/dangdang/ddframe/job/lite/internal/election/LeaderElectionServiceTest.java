@@ -17,24 +17,31 @@
 
 package com.dangdang.ddframe.job.lite.internal.election;
 
-import com.dangdang.ddframe.job.lite.internal.election.LeaderElectionService.LeaderElectionExecutionCallback;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
+import org.apache.curator.framework.recipes.leader.LeaderLatch;
+import org.apache.curator.framework.recipes.leader.LeaderLatchListener;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
+import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public final class LeaderElectionServiceTest {
@@ -48,6 +55,14 @@ public final class LeaderElectionServiceTest {
     @Mock
     private ServerService serverService;
     
+    @Mock
+    private LeaderLatch leaderLatch;
+    
+    @Mock
+    private LeadershipListener leadershipListener;
+    
+    private final JobLeadership jobLeadership = new JobLeadership("test_job");
+    
     private final LeaderElectionService leaderElectionService = new LeaderElectionService(null, "test_job");
     
     @Before
@@ -56,67 +71,170 @@ public final class LeaderElectionServiceTest {
         ReflectionUtils.setFieldValue(leaderElectionService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(leaderElectionService, "localHostService", localHostService);
         ReflectionUtils.setFieldValue(leaderElectionService, "serverService", serverService);
+        ReflectionUtils.setFieldValue(leaderElectionService, "jobLeadership", jobLeadership);
         when(localHostService.getIp()).thenReturn("mockedIP");
         when(localHostService.getHostName()).thenReturn("mockedHostName");
+        when(jobNodeStorage.createLeaderLatch("leader/election/latch")).thenReturn(leaderLatch);
+        leaderElectionService.addLeadershipListener(leadershipListener);
     }
     
     @Test
-    public void assertLeaderForceElection() {
+    public void assertLeaderForceElectionWithLeader() throws Exception {
+        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(true);
         leaderElectionService.leaderForceElection();
-        verify(jobNodeStorage).executeInLeader(eq("leader/election/latch"), Matchers.<LeaderElectionExecutionCallback>any());
+        verify(leaderLatch).addListener(any(LeaderLatchListener.class), any(Executor.class));
+        verify(leaderLatch).start();
+        verify(leaderLatch, times(0)).await(5000L, TimeUnit.MILLISECONDS);
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode(anyString(), anyString());
+        assertTrue(jobLeadership.isParticipating());
+        assertFalse(jobLeadership.isForced());
     }
     
     @Test
-    public void assertLeaderElection() {
-        leaderElectionService.leaderElection();
-        verify(jobNodeStorage).executeInLeader(eq("leader/election/latch"), Matchers.<LeaderElectionExecutionCallback>any());
+    public void assertLeaderForceElectionWithoutLeader() throws Exception {
+        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+        when(leaderLatch.await(5000L, TimeUnit.MILLISECONDS)).thenReturn(true);
+        leaderElectionService.leaderForceElection();
+        verify(leaderLatch).start();
+        verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
+        verify(leadershipListener).leadershipChanged("test_job", true);
+        assertTrue(leaderElectionService.isLeader());
     }
     
     @Test
-    public void assertLeaderElectionExecutionCallbackWithLeader() {
+    public void assertLeaderForceElectionRestartsParticipation() throws Exception {
+        LeaderLatch previousLeaderLatch = createParticipation();
         when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(true);
-        leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
-        verify(jobNodeStorage, times(0)).fillEphemeralJobNode("leader/election/host", "mockedIP");
+        leaderElectionService.leaderForceElection();
+        verify(previousLeaderLatch).close();
+        verify(leaderLatch).start();
+        assertTrue(jobLeadership.isParticipatingWith(leaderLatch));
     }
     
     @Test
-    public void assertLeaderElectionExecutionCallbackWithoutLeaderAndIsAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+    public void assertLeaderElectionWhenHoldingLatch() throws Exception {
+        LeaderLatch participatingLeaderLatch = createParticipation();
+        when(participatingLeaderLatch.hasLeadership()).thenReturn(true);
+        leaderElectionService.leaderElection();
+        verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
+        assertTrue(leaderElectionService.isLeader());
+    }
+    
+    @Test
+    public void assertLeaderElectionWhenHoldingLatchAndLeaderHostWritten() throws Exception {
+        LeaderLatch participatingLeaderLatch = createParticipation();
+        when(participatingLeaderLatch.hasLeadership()).thenReturn(true);
+        when(jobNodeStorage.getJobNodeDataDirectly("leader/election/host")).thenReturn("mockedIP");
+        leaderElectionService.leaderElection();
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertLeaderElectionWhenParticipating() throws Exception {
+        createParticipation();
+        leaderElectionService.leaderElection();
+        verify(jobNodeStorage, times(0)).createLeaderLatch("leader/election/latch");
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertLeaderElectionWhenIsAvailableServer() throws Exception {
         when(serverService.isAvailableServer("mockedIP")).thenReturn(true);
-        leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        leaderElectionService.leaderElection();
+        verify(leaderLatch).start();
+        assertTrue(jobLeadership.isParticipating());
+        assertFalse(jobLeadership.isForced());
+    }
+    
+    @Test
+    public void assertLeaderElectionWhenIsNotAvailableServer() throws Exception {
+        when(serverService.isAvailableServer("mockedIP")).thenReturn(false);
+        leaderElectionService.leaderElection();
+        verify(leaderLatch, times(0)).start();
+        assertFalse(jobLeadership.isParticipating());
+    }
+    
+    @Test
+    public void assertLatchListenerIsLeaderWhenIsAvailableServer() throws Exception {
+        jobLeadership.participate(leaderLatch, null, false);
+        when(serverService.isAvailableServer("mockedIP")).thenReturn(true);
+        leaderElectionService.new LeaderElectionLatchListener(leaderLatch).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
+        verify(leadershipListener).leadershipChanged("test_job", true);
+        assertTrue(leaderElectionService.isLeader());
     }
     
     @Test
-    public void assertLeaderElectionExecutionCallbackWithoutLeaderAndIsNotAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+    public void assertLatchListenerIsLeaderWhenIsNotAvailableServer() throws Exception {
+        jobLeadership.participate(leaderLatch, null, false);
         when(serverService.isAvailableServer("mockedIP")).thenReturn(false);
-        leaderElectionService.new LeaderElectionExecutionCallback(false).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
-        verify(jobNodeStorage, times(0)).fillEphemeralJobNode("leader/election/host", "mockedIP");
+        leaderElectionService.new LeaderElectionLatchListener(leaderLatch).isLeader();
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode(anyString(), anyString());
+        verify(leaderLatch).close();
+        assertFalse(jobLeadership.isParticipating());
     }
     
     @Test
-    public void assertLeaderForceElectionExecutionCallbackWithoutLeaderAndIsNotAvailableServer() {
-        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
+    public void assertLatchListenerIsLeaderWhenForceElection() throws Exception {
+        jobLeadership.participate(leaderLatch, null, true);
         when(serverService.isAvailableServer("mockedIP")).thenReturn(false);
-        leaderElectionService.new LeaderElectionExecutionCallback(true).execute();
-        verify(jobNodeStorage).isJobNodeExisted("leader/election/host");
+        leaderElectionService.new LeaderElectionLatchListener(leaderLatch).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/election/host", "mockedIP");
     }
     
     @Test
-    public void assertIsLeader() {
+    public void assertLatchListenerIsLeaderWhenLatchClosed() throws Exception {
+        createParticipation();
+        leaderElectionService.new LeaderElectionLatchListener(leaderLatch).isLeader();
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNode(anyString(), anyString());
+        verify(serverService, times(0)).isAvailableServer("mockedIP");
+    }
+    
+    @Test
+    public void assertLatchListenerNotLeader() throws Exception {
+        jobLeadership.participate(leaderLatch, null, false);
+        jobLeadership.acquire();
+        leaderElectionService.new LeaderElectionLatchListener(leaderLatch).notLeader();
+        verify(leadershipListener).leadershipChanged("test_job", false);
+        assertTrue(jobLeadership.isParticipating());
+        assertFalse(jobLeadership.isLeader());
+    }
+    
+    @Test
+    public void assertIsLeaderFromMemory() {
+        jobLeadership.acquire();
+        assertTrue(leaderElectionService.isLeader());
+        verifyZeroInteractions(jobNodeStorage);
+    }
+    
+    @Test
+    public void assertIsNotLeaderWhenLeaderHostInCache() {
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/election/host")).thenReturn(true);
+        assertFalse(leaderElectionService.isLeader());
+        verify(jobNodeStorage, times(0)).isJobNodeExisted("leader/election/host");
+    }
+    
+    @Test
+    public void assertIsLeaderAfterElecting() throws Exception {
         when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false, true);
         when(serverService.getAvailableServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.getJobNodeData("leader/election/host")).thenReturn("mockedIP");
-        assertTrue(leaderElectionService.isLeader());
+        when(serverService.isAvailableServer("mockedIP")).thenReturn(true);
+        when(jobNodeStorage.waitUntilJobNodeExisted("leader/election/host", 100L)).thenReturn(false);
+        leaderElectionService.isLeader();
+        verify(leaderLatch).start();
     }
     
     @Test
-    public void assertIsNotLeader() {
+    public void assertIsNotLeaderWhenLeaderElectedByOthers() {
+        when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false, true);
+        when(serverService.getAvailableServers()).thenReturn(Collections.singletonList("mockedIP"));
+        when(jobNodeStorage.waitUntilJobNodeExisted("leader/election/host", 100L)).thenReturn(true);
+        assertFalse(leaderElectionService.isLeader());
+        verify(jobNodeStorage, times(0)).createLeaderLatch("leader/election/latch");
+    }
+    
+    @Test
+    public void assertIsNotLeaderWithoutAvailableServers() {
         when(jobNodeStorage.isJobNodeExisted("leader/election/host")).thenReturn(false);
         when(serverService.getAvailableServers()).thenReturn(Collections.<String>emptyList());
         assertFalse(leaderElectionService.isLeader());
@@ -129,8 +247,35 @@ public final class LeaderElectionServiceTest {
     }
     
     @Test
-    public void assertRemoveLeader() {
+    public void assertRemoveLeader() throws Exception {
+        jobLeadership.participate(leaderLatch, null, false);
+        jobLeadership.acquire();
         leaderElectionService.removeLeader();
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/election/host");
+        verify(leaderLatch).close();
+        verify(leadershipListener).leadershipChanged("test_job", false);
+        assertFalse(leaderElectionService.isLeader());
+        assertFalse(jobLeadership.isParticipating());
+    }
+    
+    @Test
+    public void assertRemoveLeadershipListener() {
+        leaderElectionService.removeLeadershipListener(leadershipListener);
+        jobLeadership.acquire();
+        verifyZeroInteractions(leadershipListener);
+    }
+    
+    @Test
+    public void assertQuitWhenCloseLeaderLatchFailure() throws Exception {
+        jobLeadership.participate(leaderLatch, null, false);
+        doThrow(new IOException()).when(leaderLatch).close();
+        jobLeadership.quit();
+        assertFalse(jobLeadership.isParticipating());
+    }
+    
+    private LeaderLatch createParticipation() throws Exception {
+        LeaderLatch result = mock(LeaderLatch.class);
+        jobLeadership.participate(result, null, false);
+        return result;
     }
 }
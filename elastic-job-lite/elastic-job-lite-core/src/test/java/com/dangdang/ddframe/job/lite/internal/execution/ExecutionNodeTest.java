@@ -57,6 +57,16 @@ public final class ExecutionNodeTest {
         assertThat(ExecutionNode.getMisfireNode(0), is("execution/0/misfire"));
     }
     
+    @Test
+    public void assertGetAverageDurationNode() {
+        assertThat(ExecutionNode.getAverageDurationNode(0), is("execution/0/averageDuration"));
+    }
+    
+    @Test
+    public void assertGetOffsetNode() {
+        assertThat(ExecutionNode.getOffsetNode(0), is("offset/0"));
+    }
+    
     @Test
     public void assertGetItemWhenNotRunningItemPath() {
         assertNull(executionNode.getItemByRunningItemPath("/test_job/execution/0/completed"));
@@ -28,6 +28,7 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerStatus;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
@@ -40,6 +41,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -57,6 +59,9 @@ public final class ExecutionServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
+    @Mock
+    private JobNodeBatch jobNodeBatch;
+    
     @Mock
     private LocalHostService localHostService;
     
@@ -77,6 +82,7 @@ public final class ExecutionServiceTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
+        when(jobNodeStorage.createBatch()).thenReturn(jobNodeBatch);
         ReflectionUtils.setFieldValue(executionService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(executionService, "configService", configService);
         ReflectionUtils.setFieldValue(executionService, "serverService", serverService);
@@ -108,12 +114,12 @@ public final class ExecutionServiceTest {
         executionService.registerJobBegin(getShardingContext());
         verify(configService).load(true);
         verify(serverService).updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/1/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/2/running", "");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/0/running", "");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/1/running", "");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/2/running", "");
+        verify(jobNodeBatch).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
     }
     
     @Test
@@ -125,15 +131,15 @@ public final class ExecutionServiceTest {
         executionService.registerJobBegin(getShardingContext());
         verify(configService).load(true);
         verify(serverService).updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/1/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/2/running", "");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode("execution/0/nextFireTime", 0L);
-        verify(jobNodeStorage).replaceJobNode("execution/1/nextFireTime", 0L);
-        verify(jobNodeStorage).replaceJobNode("execution/2/nextFireTime", 0L);
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/0/running", "");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/1/running", "");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/2/running", "");
+        verify(jobNodeBatch).replaceJobNode(eq("execution/0/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/1/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/2/lastBeginTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode("execution/0/nextFireTime", 0L);
+        verify(jobNodeBatch).replaceJobNode("execution/1/nextFireTime", 0L);
+        verify(jobNodeBatch).replaceJobNode("execution/2/nextFireTime", 0L);
     }
     
     @Test
@@ -151,15 +157,39 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.registerJobCompleted(getShardingContext());
         verify(serverService).updateServerStatus(ServerStatus.READY);
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/completed");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/completed");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/running");
-        verify(jobNodeStorage).replaceJobNode(eq("execution/0/lastCompleteTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/1/lastCompleteTime"), anyLong());
-        verify(jobNodeStorage).replaceJobNode(eq("execution/2/lastCompleteTime"), anyLong());
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/0/completed");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/1/completed");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/2/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/running");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/running");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/running");
+        verify(jobNodeBatch).replaceJobNode(eq("execution/0/lastCompleteTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/1/lastCompleteTime"), anyLong());
+        verify(jobNodeBatch).replaceJobNode(eq("execution/2/lastCompleteTime"), anyLong());
+    }
+    
+    @Test
+    public void assertRegisterJobCompletedWithItemExecutionDurations() {
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
+        when(jobNodeStorage.getJobNodeData("execution/1/averageDuration")).thenReturn("1000");
+        ShardingContexts shardingContexts = getShardingContext();
+        shardingContexts.getItemExecutionDurations().put(0, 2000L);
+        shardingContexts.getItemExecutionDurations().put(1, 5000L);
+        executionService.registerJobCompleted(shardingContexts);
+        verify(jobNodeBatch).replaceJobNode("execution/0/averageDuration", 2000L);
+        verify(jobNodeBatch).replaceJobNode("execution/1/averageDuration", 2000L);
+        verify(jobNodeBatch, times(0)).replaceJobNode(eq("execution/2/averageDuration"), anyLong());
+    }
+    
+    @Test
+    public void assertGetItemAverageDurations() {
+        when(jobNodeStorage.getJobNodeData("execution/0/averageDuration")).thenReturn("2000");
+        when(jobNodeStorage.getJobNodeData("execution/2/averageDuration")).thenReturn("40000");
+        Map<Integer, Long> expected = new LinkedHashMap<>(2, 1);
+        expected.put(0, 2000L);
+        expected.put(2, 40000L);
+        assertThat(executionService.getItemAverageDurations(3), is(expected));
     }
     
     @Test
@@ -179,6 +209,7 @@ public final class ExecutionServiceTest {
         verify(jobNodeStorage).isJobNodeExisted("execution");
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage, times(2)).isJobNodeExisted("leader/execution/cleaning");
+        verify(jobNodeStorage).waitUntilJobNodeRemoved("leader/execution/cleaning", 1000L);
     }
     
     @Test
@@ -192,9 +223,9 @@ public final class ExecutionServiceTest {
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/completed");
         verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/cleaning");
         verify(jobNodeStorage).isJobNodeExisted("leader/execution/cleaning");
@@ -213,9 +244,9 @@ public final class ExecutionServiceTest {
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/completed");
         verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).createJobNodeIfNeeded("execution/3");
@@ -237,9 +268,9 @@ public final class ExecutionServiceTest {
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/completed");
         verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).removeJobNodeIfExisted("execution/2");
@@ -261,9 +292,9 @@ public final class ExecutionServiceTest {
         verify(leaderElectionService).isLeader();
         verify(jobNodeStorage).fillEphemeralJobNode("leader/execution/cleaning", "");
         verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/completed");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/completed");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/completed");
         verify(jobNodeStorage).isJobNodeExisted("leader/execution/necessary");
         verify(configService).load(false);
         verify(jobNodeStorage).removeJobNodeIfExisted("leader/execution/necessary");
@@ -280,9 +311,9 @@ public final class ExecutionServiceTest {
     @Test
     public void assertClearRunningInfo() {
         executionService.clearRunningInfo(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/running");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/running");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/running");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/running");
     }
     
     @Test
@@ -297,29 +328,31 @@ public final class ExecutionServiceTest {
     public void assertMisfireIfNotNecessary() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/2/running")).thenReturn(false);
         assertFalse(executionService.misfireIfNecessary(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/2/running");
     }
     
     @Test
     public void assertMisfireIfNecessary() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
         assertTrue(executionService.misfireIfNecessary(Arrays.asList(0, 1, 2)));
         verify(configService, times(2)).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
         verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/0/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/1/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/2/misfire");
     }
     
     @Test
@@ -339,9 +372,9 @@ public final class ExecutionServiceTest {
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.setMisfire(Arrays.asList(0, 1, 2));
         verify(configService).load(true);
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/0/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/1/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("execution/2/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/0/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/1/misfire");
+        verify(jobNodeBatch).createJobNodeIfNeeded("execution/2/misfire");
     }
     
     @Test
@@ -358,9 +391,9 @@ public final class ExecutionServiceTest {
     @Test
     public void assertClearMisfire() {
         executionService.clearMisfire(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/misfire");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/misfire");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/misfire");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/misfire");
     }
     
     @Test
@@ -390,11 +423,13 @@ public final class ExecutionServiceTest {
     public void assertHasRunningItems() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
         assertTrue(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
         verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
     }
     
@@ -402,37 +437,39 @@ public final class ExecutionServiceTest {
     public void assertNotHaveRunningItems() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/2/running")).thenReturn(false);
         assertFalse(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
         verify(configService).load(true);
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/2/running");
     }
     
     @Test
     public void assertNotHaveRunningItemsWhenJNotMonitorExecutionForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.getJobNodeChildrenKeysInCache("execution")).thenReturn(Arrays.asList("0", "1", "2"));
         assertFalse(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
+        verify(jobNodeStorage).getJobNodeChildrenKeysInCache("execution");
     }
     
     @Test
     public void assertHasRunningItemsForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.getJobNodeChildrenKeysInCache("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(true);
         assertTrue(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
+        verify(jobNodeStorage).getJobNodeChildrenKeysInCache("execution");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
         verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
     }
     
@@ -440,16 +477,16 @@ public final class ExecutionServiceTest {
     public void assertNotHaveRunningItemsForAll() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/running")).thenReturn(false);
+        when(jobNodeStorage.getJobNodeChildrenKeysInCache("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/0/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/1/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("execution/2/running")).thenReturn(false);
         assertFalse(executionService.hasRunningItems());
         verify(configService).load(true);
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/running");
-        verify(jobNodeStorage).isJobNodeExisted("execution/2/running");
+        verify(jobNodeStorage).getJobNodeChildrenKeysInCache("execution");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/0/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/1/running");
+        verify(jobNodeStorage).isJobNodeExistedInCache("execution/2/running");
     }
     
     private ShardingContexts getShardingContext() {
@@ -459,4 +496,20 @@ public final class ExecutionServiceTest {
         map.put(2, "");
         return new ShardingContexts("fake_task_id", "test_job", 10, "", map);
     }
+    
+    @Test
+    public void assertWaitUntilRunningItemsCompleted() {
+        when(jobNodeStorage.waitUntilJobNodeRemoved(eq("execution/1/running"), anyLong())).thenReturn(true);
+        when(jobNodeStorage.waitUntilJobNodeRemoved(eq("execution/0/running"), anyLong())).thenReturn(true);
+        assertTrue(executionService.waitUntilRunningItemsCompleted(Arrays.asList(1, 0), 1000L));
+        verify(jobNodeStorage).waitUntilJobNodeRemoved(eq("execution/1/running"), anyLong());
+        verify(jobNodeStorage).waitUntilJobNodeRemoved(eq("execution/0/running"), anyLong());
+    }
+    
+    @Test
+    public void assertWaitUntilRunningItemsCompletedTimeout() {
+        when(jobNodeStorage.waitUntilJobNodeRemoved(eq("execution/1/running"), anyLong())).thenReturn(false);
+        assertFalse(executionService.waitUntilRunningItemsCompleted(Arrays.asList(1, 0), 1000L));
+        verify(jobNodeStorage, times(0)).waitUntilJobNodeRemoved(eq("execution/0/running"), anyLong());
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.execution;
+
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.unitils.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ItemOffsetServiceTest {
+    
+    @Mock
+    private JobNodeStorage jobNodeStorage;
+    
+    private final ItemOffsetService itemOffsetService = new ItemOffsetService(null, "test_job");
+    
+    @Before
+    public void setUp() throws NoSuchFieldException {
+        MockitoAnnotations.initMocks(this);
+        ReflectionUtils.setFieldValue(itemOffsetService, "jobNodeStorage", jobNodeStorage);
+    }
+    
+    @Test
+    public void assertGetOffsetFromRegistryCenterWhenNotCommitted() {
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("100");
+        assertThat(itemOffsetService.getOffset(0), is("100"));
+    }
+    
+    @Test
+    public void assertGetOffsetWhenNeverCommitted() {
+        assertThat(itemOffsetService.getOffset(0), nullValue());
+    }
+    
+    @Test
+    public void assertGetOffsetFromRegistryCenterWhenBegunButNotCommitted() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("100");
+        assertThat(itemOffsetService.getOffset(0), is("100"));
+    }
+    
+    @Test
+    public void assertCommitOffsetWhenItemNotRunning() {
+        itemOffsetService.commitOffset(0, "100");
+        verify(jobNodeStorage, times(0)).replaceJobNode(anyString(), anyString());
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertCommitOffsetAfterFlush() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.flush(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "200");
+        verify(jobNodeStorage).replaceJobNode("offset/0", "100");
+        verify(jobNodeStorage, times(0)).replaceJobNode("offset/0", "200");
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertBeginAgainFlushPreviousPendingOffset() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.commitOffset(0, "200");
+        itemOffsetService.begin(Collections.singletonList(0));
+        verify(jobNodeStorage).replaceJobNode("offset/0", "200");
+        itemOffsetService.commitOffset(0, "300");
+        verify(jobNodeStorage).replaceJobNode("offset/0", "300");
+    }
+    
+    @Test
+    public void assertCommitOffsetWriteFirstOffsetDirectly() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        verify(jobNodeStorage).replaceJobNode("offset/0", "100");
+        assertThat(itemOffsetService.getOffset(0), is("100"));
+        verify(jobNodeStorage, times(0)).getJobNodeDataDirectly("offset/0");
+    }
+    
+    @Test
+    public void assertCommitOffsetCoalesceWithinWriteInterval() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.commitOffset(0, "200");
+        itemOffsetService.commitOffset(0, "300");
+        verify(jobNodeStorage).replaceJobNode("offset/0", "100");
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync(anyString(), anyString());
+        assertThat(itemOffsetService.getOffset(0), is("300"));
+    }
+    
+    @Test
+    public void assertCommitOffsetAfterWriteInterval() throws InterruptedException {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.commitOffset(0, "200");
+        Thread.sleep(ItemOffsetService.WRITE_INTERVAL_MILLISECONDS + 10L);
+        itemOffsetService.commitOffset(0, "300");
+        verify(jobNodeStorage).replaceJobNodeAsync("offset/0", "300");
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync("offset/0", "200");
+    }
+    
+    @Test
+    public void assertFlushWritePendingOffset() {
+        itemOffsetService.begin(Arrays.asList(0, 1, 2));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.commitOffset(0, "200");
+        itemOffsetService.commitOffset(1, "300");
+        itemOffsetService.flush(Arrays.asList(0, 1, 2));
+        verify(jobNodeStorage).replaceJobNode("offset/0", "200");
+        verify(jobNodeStorage).replaceJobNode("offset/1", "300");
+        verify(jobNodeStorage, times(3)).replaceJobNode(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertGetOffsetFromRegistryCenterAfterFlush() {
+        itemOffsetService.begin(Collections.singletonList(0));
+        itemOffsetService.commitOffset(0, "100");
+        itemOffsetService.flush(Collections.singletonList(0));
+        when(jobNodeStorage.getJobNodeDataDirectly("offset/0")).thenReturn("500");
+        assertThat(itemOffsetService.getOffset(0), is("500"));
+    }
+}
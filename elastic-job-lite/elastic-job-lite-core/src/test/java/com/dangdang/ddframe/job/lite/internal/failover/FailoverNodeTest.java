@@ -37,6 +37,11 @@ public final class FailoverNodeTest {
         assertThat(FailoverNode.getExecutionFailoverNode(0), is("execution/0/failover"));
     }
     
+    @Test
+    public void assertGetServerFailoverNode() {
+        assertThat(FailoverNode.getServerFailoverNode("host0"), is("servers/host0/failover"));
+    }
+    
     @Test
     public void assertGetItemWhenNotExecutionFailoverPath() {
         assertNull(failoverNode.getItemByExecutionFailoverPath("/test_job/execution/0/completed"));
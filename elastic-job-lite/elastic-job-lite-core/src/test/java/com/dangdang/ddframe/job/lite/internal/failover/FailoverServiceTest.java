@@ -17,11 +17,13 @@
 
 package com.dangdang.ddframe.job.lite.internal.failover;
 
+import com.dangdang.ddframe.job.lite.internal.failover.FailoverService.FailoverCompleteExecutionCallback;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService.FailoverLeaderExecutionCallback;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
@@ -39,6 +41,7 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public final class FailoverServiceTest {
@@ -46,6 +49,9 @@ public final class FailoverServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
+    @Mock
+    private JobNodeBatch jobNodeBatch;
+    
     @Mock
     private LocalHostService localHostService;
     
@@ -63,6 +69,7 @@ public final class FailoverServiceTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
+        when(jobNodeStorage.createBatch()).thenReturn(jobNodeBatch);
         ReflectionUtils.setFieldValue(failoverService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(failoverService, "localHostService", localHostService);
         ReflectionUtils.setFieldValue(failoverService, "serverService", serverService);
@@ -148,33 +155,91 @@ public final class FailoverServiceTest {
         verify(jobNodeStorage).isJobNodeExisted("leader/failover/items");
         verify(jobNodeStorage, times(2)).getJobNodeChildrenKeys("leader/failover/items");
         verify(serverService).isLocalhostServerReady();
-        verify(jobNodeStorage).fillEphemeralJobNode("execution/0/failover", "mockedIP");
-        verify(jobNodeStorage).removeJobNodeIfExisted("leader/failover/items/0");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/0/failover", "mockedIP");
+        verify(jobNodeBatch).removeJobNodeIfExisted("leader/failover/items/0");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/1/failover", "mockedIP");
+        verify(jobNodeBatch).removeJobNodeIfExisted("leader/failover/items/1");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/2/failover", "mockedIP");
+        verify(jobNodeBatch).removeJobNodeIfExisted("leader/failover/items/2");
+        verify(jobNodeBatch).fillEphemeralJobNode("servers/mockedIP/failover", "0,1,2");
+        verify(jobNodeBatch).commit();
+        verify(jobScheduleController).triggerJob();
+    }
+    
+    @Test
+    public void assertFailoverLeaderExecutionCallbackWithClaimSizeSharedByAvailableServers() {
+        when(jobNodeStorage.isJobNodeExisted("leader/failover/items")).thenReturn(true);
+        when(jobNodeStorage.getJobNodeChildrenKeys("leader/failover/items")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(serverService.isLocalhostServerReady()).thenReturn(true);
+        when(serverService.getAvailableServers()).thenReturn(Arrays.asList("host0", "host1"));
+        JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
+        failoverService.new FailoverLeaderExecutionCallback().execute();
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/0/failover", "mockedIP");
+        verify(jobNodeBatch).removeJobNodeIfExisted("leader/failover/items/0");
+        verify(jobNodeBatch).fillEphemeralJobNode("execution/1/failover", "mockedIP");
+        verify(jobNodeBatch).removeJobNodeIfExisted("leader/failover/items/1");
+        verify(jobNodeBatch, times(0)).fillEphemeralJobNode("execution/2/failover", "mockedIP");
+        verify(jobNodeBatch).fillEphemeralJobNode("servers/mockedIP/failover", "0,1");
+        verify(jobNodeBatch).commit();
         verify(jobScheduleController).triggerJob();
     }
     
     @Test
-    public void assertUpdateFailoverComplete() {
+    public void assertGetClaimSize() {
+        when(serverService.getAvailableServers()).thenReturn(Arrays.asList("host0", "host1", "host2"));
+        assertThat(failoverService.getClaimSize(1), is(1));
+        assertThat(failoverService.getClaimSize(3), is(1));
+        assertThat(failoverService.getClaimSize(7), is(3));
+    }
+    
+    @Test
+    public void assertUpdateFailoverCompleteWhenNotFailoverItems() {
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/failover")).thenReturn("2");
+        failoverService.updateFailoverComplete(Arrays.asList(0, 1));
+        verify(jobNodeStorage, times(0)).executeInLeader(eq("leader/failover/latch"), Matchers.<FailoverCompleteExecutionCallback>any());
+        verify(jobNodeStorage, times(0)).createBatch();
+    }
+    
+    @Test
+    public void assertUpdateFailoverCompleteWhenFailoverItems() {
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/failover")).thenReturn("1");
         failoverService.updateFailoverComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/failover");
+        verify(jobNodeStorage).executeInLeader(eq("leader/failover/latch"), Matchers.<FailoverCompleteExecutionCallback>any());
+    }
+    
+    @Test
+    public void assertFailoverCompleteExecutionCallback() {
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/failover")).thenReturn("0,1");
+        failoverService.new FailoverCompleteExecutionCallback(Arrays.asList(0, 1)).execute();
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("servers/mockedIP/failover");
+        verify(jobNodeBatch).commit();
+    }
+    
+    @Test
+    public void assertFailoverCompleteExecutionCallbackWithRemainingItems() {
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/failover")).thenReturn("1,2,3");
+        failoverService.new FailoverCompleteExecutionCallback(Arrays.asList(0, 1)).execute();
+        verify(jobNodeBatch, times(0)).removeJobNodeIfExisted("execution/0/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/1/failover");
+        verify(jobNodeBatch).fillEphemeralJobNode("servers/mockedIP/failover", "2,3");
+        verify(jobNodeBatch).commit();
     }
     
     @Test
     public void assertGetLocalHostFailoverItems() {
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("execution/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("execution/2/failover")).thenReturn(false);
-        when(jobNodeStorage.getJobNodeDataDirectly("execution/0/failover")).thenReturn("mockedIP");
-        when(jobNodeStorage.getJobNodeDataDirectly("execution/1/failover")).thenReturn("otherIP");
-        assertThat(failoverService.getLocalHostFailoverItems(), is(Collections.singletonList(0)));
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(localHostService).getIp();
-        verify(jobNodeStorage).isJobNodeExisted("execution/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("execution/1/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("execution/0/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("execution/1/failover");
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/mockedIP/failover")).thenReturn("0,2");
+        assertThat(failoverService.getLocalHostFailoverItems(), is(Arrays.asList(0, 2)));
+        verify(jobNodeStorage).getJobNodeDataDirectly("servers/mockedIP/failover");
+        verifyNoMoreInteractions(jobNodeStorage);
+    }
+    
+    @Test
+    public void assertGetLocalHostFailoverItemsWhenServerFailoverNodeNotExisted() {
+        assertThat(failoverService.getLocalHostFailoverItems(), is(Collections.<Integer>emptyList()));
+        verify(jobNodeStorage).getJobNodeDataDirectly("servers/mockedIP/failover");
+        verifyNoMoreInteractions(jobNodeStorage);
     }
     
     @Test
@@ -192,11 +257,15 @@ public final class FailoverServiceTest {
     
     @Test
     public void assertRemoveFailoverInfo() {
-        when(jobNodeStorage.getJobNodeChildrenKeys("execution")).thenReturn(Arrays.asList("0", "1", "2"));
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/host0/failover")).thenReturn("0,2");
         failoverService.removeFailoverInfo();
-        verify(jobNodeStorage).getJobNodeChildrenKeys("execution");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/1/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("execution/2/failover");
+        verify(jobNodeStorage, times(0)).getJobNodeChildrenKeys("execution");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/0/failover");
+        verify(jobNodeBatch, times(0)).removeJobNodeIfExisted("execution/1/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("execution/2/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("servers/host0/failover");
+        verify(jobNodeBatch).removeJobNodeIfExisted("servers/host1/failover");
+        verify(jobNodeBatch).commit();
     }
 }
@@ -24,6 +24,7 @@ import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
 import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
 import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,6 +44,9 @@ public final class GuaranteeServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
+    @Mock
+    private JobNodeBatch jobNodeBatch;
+    
     @Mock
     private ConfigurationService configService;
     
@@ -51,6 +55,7 @@ public final class GuaranteeServiceTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
+        when(jobNodeStorage.createBatch()).thenReturn(jobNodeBatch);
         ReflectionUtils.setFieldValue(guaranteeService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(guaranteeService, "configService", configService);
     }
@@ -58,8 +63,8 @@ public final class GuaranteeServiceTest {
     @Test
     public void assertRegisterStart() {
         guaranteeService.registerStart(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/1");
+        verify(jobNodeBatch).createJobNodeIfNeeded("guarantee/started/0");
+        verify(jobNodeBatch).createJobNodeIfNeeded("guarantee/started/1");
     }
     
     @Test
@@ -95,8 +100,8 @@ public final class GuaranteeServiceTest {
     @Test
     public void assertRegisterComplete() {
         guaranteeService.registerComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/1");
+        verify(jobNodeBatch).createJobNodeIfNeeded("guarantee/completed/0");
+        verify(jobNodeBatch).createJobNodeIfNeeded("guarantee/completed/1");
     }
     
     @Test
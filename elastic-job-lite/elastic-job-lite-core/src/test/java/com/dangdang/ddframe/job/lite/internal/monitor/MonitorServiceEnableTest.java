@@ -37,6 +37,7 @@ public final class MonitorServiceEnableTest extends AbstractBaseStdJobTest {
     public void assertMonitorWithCommand() throws IOException {
         initJob();
         assertNotNull(SocketUtils.sendCommand(MonitorService.DUMP_COMMAND, MONITOR_PORT));
+        assertNotNull(SocketUtils.sendCommand(MonitorService.FETCH_SIZE_COMMAND, MONITOR_PORT));
         assertNull(SocketUtils.sendCommand("unknown_command", MONITOR_PORT));
     }
 }
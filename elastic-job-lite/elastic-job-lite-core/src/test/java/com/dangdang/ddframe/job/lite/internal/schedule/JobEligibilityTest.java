@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
+import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
+import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
+import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class JobEligibilityTest {
+    
+    private final JobEligibility jobEligibility = new JobEligibility();
+    
+    @Test
+    public void assertEligibleForJobRunningByDefault() {
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenPaused() {
+        jobEligibility.setPaused(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.setPaused(false);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenNeedSharding() {
+        jobEligibility.setNeedSharding(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.setNeedSharding(false);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertInitPausedWhenNotUpdated() {
+        jobEligibility.initPaused(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.initPaused(false);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertInitPausedIgnoredAfterUpdated() {
+        jobEligibility.setPaused(false);
+        jobEligibility.initPaused(true);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertInitNeedShardingWhenNotUpdated() {
+        jobEligibility.initNeedSharding(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.initNeedSharding(false);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertInitNeedShardingIgnoredAfterUpdated() {
+        jobEligibility.initNeedSharding(true);
+        jobEligibility.setNeedSharding(false);
+        jobEligibility.initNeedSharding(true);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenShutdown() {
+        jobEligibility.setShutdown(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenDisconnected() {
+        jobEligibility.setDisconnected(true);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.setDisconnected(false);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertNotEligibleForJobRunningWhenUnStreamingProcess() {
+        jobEligibility.setJobTypeConfiguration(new DataflowJobConfiguration(createCoreConfig(), TestDataflowJob.class.getCanonicalName(), false));
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobEligibility.setJobTypeConfiguration(new DataflowJobConfiguration(createCoreConfig(), TestDataflowJob.class.getCanonicalName(), true));
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertEligibleForJobRunningWhenSimpleJob() {
+        jobEligibility.setJobTypeConfiguration(new SimpleJobConfiguration(createCoreConfig(), TestSimpleJob.class.getCanonicalName()));
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    private JobCoreConfiguration createCoreConfig() {
+        return JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build();
+    }
+}
@@ -17,11 +17,20 @@
 
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
+import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
+import com.dangdang.ddframe.job.lite.fixture.util.JobConfigurationUtil;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public final class JobRegistryTest {
     
@@ -31,4 +40,77 @@ public final class JobRegistryTest {
         JobRegistry.getInstance().addJobScheduleController("test_job_AddJobScheduler", jobScheduleController);
         assertThat(JobRegistry.getInstance().getJobScheduleController("test_job_AddJobScheduler"), is(jobScheduleController));
     }
+    
+    @Test
+    public void assertGetRunningItemCount() {
+        int expected = JobRegistry.getInstance().getRunningItemCount() + 5;
+        JobRegistry.getInstance().setRunningItemCount("test_job_RunningItemCount_0", 2);
+        JobRegistry.getInstance().setRunningItemCount("test_job_RunningItemCount_1", 3);
+        assertThat(JobRegistry.getInstance().getRunningItemCount(), is(expected));
+        JobRegistry.getInstance().setRunningItemCount("test_job_RunningItemCount_0", 0);
+        JobRegistry.getInstance().setRunningItemCount("test_job_RunningItemCount_1", 0);
+        assertThat(JobRegistry.getInstance().getRunningItemCount(), is(expected - 5));
+    }
+    
+    @Test
+    public void assertGetJobExecutorWithReuse() {
+        JobFacade jobFacade = mockJobFacade();
+        AbstractElasticJobExecutor actual = JobRegistry.getInstance().getJobExecutor("test_job_GetJobExecutor", new TestSimpleJob(), jobFacade);
+        assertThat(JobRegistry.getInstance().getJobExecutor("test_job_GetJobExecutor", new TestSimpleJob(), jobFacade), sameInstance(actual));
+        JobRegistry.getInstance().removeJobExecutor("test_job_GetJobExecutor");
+    }
+    
+    @Test
+    public void assertInvalidateJobExecutorWhenConfigurationIsReusable() {
+        JobFacade jobFacade = mockJobFacade();
+        AbstractElasticJobExecutor actual = JobRegistry.getInstance().getJobExecutor("test_job_InvalidateReusable", new TestSimpleJob(), jobFacade);
+        JobRegistry.getInstance().invalidateJobExecutor("test_job_InvalidateReusable", JobConfigurationUtil.createSimpleLiteJobConfiguration());
+        assertThat(JobRegistry.getInstance().getJobExecutor("test_job_InvalidateReusable", new TestSimpleJob(), jobFacade), sameInstance(actual));
+        JobRegistry.getInstance().removeJobExecutor("test_job_InvalidateReusable");
+    }
+    
+    @Test
+    public void assertInvalidateJobExecutorWhenConfigurationIsNotReusable() {
+        JobFacade jobFacade = mockJobFacade();
+        AbstractElasticJobExecutor actual = JobRegistry.getInstance().getJobExecutor("test_job_InvalidateNotReusable", new TestSimpleJob(), jobFacade);
+        JobRegistry.getInstance().invalidateJobExecutor("test_job_InvalidateNotReusable", JobConfigurationUtil.createDataflowLiteJobConfiguration());
+        assertThat(JobRegistry.getInstance().getJobExecutor("test_job_InvalidateNotReusable", new TestSimpleJob(), jobFacade), not(sameInstance(actual)));
+        JobRegistry.getInstance().removeJobExecutor("test_job_InvalidateNotReusable");
+    }
+    
+    @Test
+    public void assertRemoveJobExecutor() {
+        JobFacade jobFacade = mockJobFacade();
+        AbstractElasticJobExecutor actual = JobRegistry.getInstance().getJobExecutor("test_job_RemoveJobExecutor", new TestSimpleJob(), jobFacade);
+        JobRegistry.getInstance().removeJobExecutor("test_job_RemoveJobExecutor");
+        assertThat(JobRegistry.getInstance().getJobExecutor("test_job_RemoveJobExecutor", new TestSimpleJob(), jobFacade), not(sameInstance(actual)));
+        JobRegistry.getInstance().removeJobExecutor("test_job_RemoveJobExecutor");
+    }
+    
+    @Test
+    public void assertGetRecommendedFetchSizesWhenJobExecutorAbsent() {
+        assertTrue(JobRegistry.getInstance().getRecommendedFetchSizes("test_job_FetchSizesAbsent").isEmpty());
+    }
+    
+    @Test
+    public void assertGetRecommendedFetchSizesWhenNotDataflowJob() {
+        JobRegistry.getInstance().getJobExecutor("test_job_FetchSizesSimple", new TestSimpleJob(), mockJobFacade());
+        assertTrue(JobRegistry.getInstance().getRecommendedFetchSizes("test_job_FetchSizesSimple").isEmpty());
+        JobRegistry.getInstance().removeJobExecutor("test_job_FetchSizesSimple");
+    }
+    
+    @Test
+    public void assertGetRecommendedFetchSizesWhenDataflowJob() {
+        JobFacade jobFacade = mock(JobFacade.class);
+        when(jobFacade.loadJobRootConfiguration(true)).thenReturn(JobConfigurationUtil.createDataflowLiteJobConfiguration());
+        JobRegistry.getInstance().getJobExecutor("test_job_FetchSizesDataflow", new TestDataflowJob(), jobFacade);
+        assertTrue(JobRegistry.getInstance().getRecommendedFetchSizes("test_job_FetchSizesDataflow").isEmpty());
+        JobRegistry.getInstance().removeJobExecutor("test_job_FetchSizesDataflow");
+    }
+    
+    private JobFacade mockJobFacade() {
+        JobFacade result = mock(JobFacade.class);
+        when(result.loadJobRootConfiguration(true)).thenReturn(JobConfigurationUtil.createSimpleLiteJobConfiguration());
+        return result;
+    }
 }
@@ -32,21 +32,28 @@ import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionContextService;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.execution.ItemOffsetService;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverService;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -71,6 +78,9 @@ public class LiteJobFacadeTest {
     @Mock
     private FailoverService failoverService;
     
+    @Mock
+    private ItemOffsetService itemOffsetService;
+    
     @Mock
     private JobEventBus eventBus;
     
@@ -82,13 +92,14 @@ public class LiteJobFacadeTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
-        liteJobFacade = new LiteJobFacade(null, "test_job", Collections.<ElasticJobListener>singletonList(new TestElasticJobListener(caller)), eventBus);
+        liteJobFacade = new LiteJobFacade(null, "test_job_LiteJobFacade", Collections.<ElasticJobListener>singletonList(new TestElasticJobListener(caller)), eventBus);
         ReflectionUtils.setFieldValue(liteJobFacade, "configService", configService);
         ReflectionUtils.setFieldValue(liteJobFacade, "serverService", serverService);
         ReflectionUtils.setFieldValue(liteJobFacade, "shardingService", shardingService);
         ReflectionUtils.setFieldValue(liteJobFacade, "executionContextService", executionContextService);
         ReflectionUtils.setFieldValue(liteJobFacade, "executionService", executionService);
         ReflectionUtils.setFieldValue(liteJobFacade, "failoverService", failoverService);
+        ReflectionUtils.setFieldValue(liteJobFacade, "itemOffsetService", itemOffsetService);
     }
     
     @Test
@@ -135,6 +146,7 @@ public class LiteJobFacadeTest {
         ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
         liteJobFacade.registerJobBegin(shardingContexts);
         verify(executionService).registerJobBegin(shardingContexts);
+        verify(itemOffsetService).begin(shardingContexts.getShardingItemParameters().keySet());
     }
     
     @Test
@@ -143,10 +155,23 @@ public class LiteJobFacadeTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(false).build(), TestSimpleJob.class.getCanonicalName())).build());
         liteJobFacade.registerJobCompleted(shardingContexts);
+        verify(itemOffsetService).flush(shardingContexts.getShardingItemParameters().keySet());
         verify(executionService).registerJobCompleted(shardingContexts);
         verify(failoverService, times(0)).updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
     }
     
+    @Test
+    public void assertGetItemOffset() {
+        when(itemOffsetService.getOffset(0)).thenReturn("100");
+        assertThat(liteJobFacade.getItemOffset(0), is("100"));
+    }
+    
+    @Test
+    public void assertCommitItemOffset() {
+        liteJobFacade.commitItemOffset(0, "100");
+        verify(itemOffsetService).commitOffset(0, "100");
+    }
+    
     @Test
     public void assertRegisterJobCompletedWhenFailoverEnabled() {
         ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
@@ -157,6 +182,44 @@ public class LiteJobFacadeTest {
         verify(failoverService).updateFailoverComplete(shardingContexts.getShardingItemParameters().keySet());
     }
     
+    @Test
+    public void assertReleaseTimeoutItemsWhenFailoverDisabled() {
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
+                new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(false).build(), TestSimpleJob.class.getCanonicalName())).build());
+        liteJobFacade.releaseTimeoutItems(Arrays.asList(0, 1));
+        verify(failoverService, times(0)).setCrashedFailoverFlag(Matchers.anyInt());
+    }
+    
+    @Test
+    public void assertReleaseTimeoutItemsWhenFailoverEnabled() {
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(true).build(), 
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
+        liteJobFacade.releaseTimeoutItems(Arrays.asList(0, 1));
+        verify(failoverService).setCrashedFailoverFlag(0);
+        verify(failoverService).setCrashedFailoverFlag(1);
+    }
+    
+    @Test
+    public void assertRegisterJobCompletedWithShardingItems() {
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.singletonMap(0, ""));
+        when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
+                new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).failover(false).build(), TestSimpleJob.class.getCanonicalName())).build());
+        final AtomicInteger runningItemCountWhenPersisted = new AtomicInteger(-1);
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                runningItemCountWhenPersisted.set(JobRegistry.getInstance().getRunningItemCount());
+                return null;
+            }
+        }).when(serverService).persistServerCapacityIfChanged();
+        liteJobFacade.registerJobBegin(shardingContexts);
+        liteJobFacade.registerJobCompleted(shardingContexts);
+        verify(executionService).registerJobCompleted(shardingContexts);
+        verify(serverService).persistServerCapacityIfChanged();
+        assertTrue(runningItemCountWhenPersisted.get() >= 1);
+    }
+    
     @Test
     public void assertGetShardingContextWhenIsFailoverEnableAndFailover() {
         ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap());
@@ -266,6 +329,16 @@ public class LiteJobFacadeTest {
         verify(configService).load(true);
     }
     
+    @Test
+    public void assertIsEligibleForJobRunningFromJobEligibility() {
+        JobEligibility jobEligibility = new JobEligibility();
+        JobRegistry.getInstance().addJobEligibility("test_job_EligibilityCached", jobEligibility);
+        LiteJobFacade cachedLiteJobFacade = new LiteJobFacade(null, "test_job_EligibilityCached", Collections.<ElasticJobListener>emptyList(), eventBus);
+        assertThat(cachedLiteJobFacade.isEligibleForJobRunning(), is(true));
+        jobEligibility.setPaused(true);
+        assertThat(cachedLiteJobFacade.isEligibleForJobRunning(), is(false));
+    }
+    
     @Test
     public void assertPostJobExecutionEvent() {
         liteJobFacade.postJobExecutionEvent(null);
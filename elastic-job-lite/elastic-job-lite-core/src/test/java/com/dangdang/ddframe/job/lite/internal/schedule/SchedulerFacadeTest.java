@@ -40,6 +40,7 @@ import java.util.Collections;
 
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -106,6 +107,9 @@ public class SchedulerFacadeTest {
         verify(monitorService).listen();
         verify(configService).load(false);
         verify(listenerManager).setCurrentShardingTotalCount(3);
+        verify(serverService).isJobPausedManually();
+        verify(shardingService).isNeedSharding();
+        assertNotNull(JobRegistry.getInstance().getJobEligibility("test_job"));
     }
     
     @Test
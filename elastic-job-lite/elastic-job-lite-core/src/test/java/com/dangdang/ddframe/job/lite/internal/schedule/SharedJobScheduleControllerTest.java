@@ -0,0 +1,135 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
+import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
+import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerListener;
+
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class SharedJobScheduleControllerTest {
+    
+    @Mock
+    private SharedJobScheduleEngine engine;
+    
+    @Mock
+    private SchedulerFacade schedulerFacade;
+    
+    @Mock
+    private JobFacade jobFacade;
+    
+    private SharedJobScheduleController sharedJobScheduleController;
+    
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        sharedJobScheduleController = new SharedJobScheduleController(engine, schedulerFacade, "test_job", new TestSimpleJob(), jobFacade);
+    }
+    
+    @Test
+    public void assertScheduleJobIfExisted() {
+        when(engine.checkExists("test_job")).thenReturn(true);
+        sharedJobScheduleController.scheduleJob("0/1 * * * * ?");
+        verify(engine, times(0)).scheduleJob(eq("test_job"), any(CronTrigger.class), anyBoolean(), any(Runnable.class), any(TriggerListener.class));
+    }
+    
+    @Test
+    public void assertScheduleJob() {
+        JobTriggerListener jobTriggerListener = new JobTriggerListener(null, null);
+        when(schedulerFacade.loadJobConfiguration()).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(
+                JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).misfire(false).build(), TestSimpleJob.class.getCanonicalName())).sharedScheduler(true).build());
+        when(schedulerFacade.newJobTriggerListener()).thenReturn(jobTriggerListener);
+        sharedJobScheduleController.scheduleJob("0/1 * * * * ?");
+        verify(engine).scheduleJob(eq("test_job"), any(CronTrigger.class), eq(false), any(Runnable.class), eq(jobTriggerListener));
+    }
+    
+    @Test
+    public void assertRescheduleJobIfNotScheduled() {
+        sharedJobScheduleController.rescheduleJob("0/1 * * * * ?");
+        verify(engine, times(0)).rescheduleJob(eq("test_job"), any(CronTrigger.class));
+    }
+    
+    @Test
+    public void assertRescheduleJobIfCronNotChanged() {
+        when(engine.getTrigger("test_job")).thenReturn(createTrigger("0/1 * * * * ?"));
+        sharedJobScheduleController.rescheduleJob("0/1 * * * * ?");
+        verify(engine, times(0)).rescheduleJob(eq("test_job"), any(CronTrigger.class));
+    }
+    
+    @Test
+    public void assertRescheduleJob() {
+        when(engine.getTrigger("test_job")).thenReturn(createTrigger("0/1 * * * * ?"));
+        sharedJobScheduleController.rescheduleJob("0/2 * * * * ?");
+        verify(engine).rescheduleJob(eq("test_job"), any(CronTrigger.class));
+    }
+    
+    @Test
+    public void assertGetNextFireTime() {
+        when(engine.getNextFireTime("test_job")).thenReturn(new Date(0L));
+        assertThat(sharedJobScheduleController.getNextFireTime(), is(new Date(0L)));
+    }
+    
+    @Test
+    public void assertPauseJob() {
+        sharedJobScheduleController.pauseJob();
+        verify(engine).pauseJob("test_job");
+    }
+    
+    @Test
+    public void assertResumeJob() {
+        sharedJobScheduleController.resumeJob();
+        verify(engine).resumeJob("test_job");
+    }
+    
+    @Test
+    public void assertTriggerJob() {
+        sharedJobScheduleController.triggerJob();
+        verify(engine).triggerJob("test_job");
+    }
+    
+    @Test
+    public void assertShutdown() {
+        sharedJobScheduleController.shutdown();
+        verify(schedulerFacade).releaseJobResource();
+        verify(engine).unscheduleJob("test_job");
+    }
+    
+    private CronTrigger createTrigger(final String cron) {
+        return TriggerBuilder.newTrigger().withIdentity("test_job").withSchedule(CronScheduleBuilder.cronSchedule(cron)).build();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.quartz.TriggerListener;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class SharedJobScheduleEngineTest {
+    
+    private static final String NEVER_FIRE_CRON = "0 0 0 1 1 ? 2099";
+    
+    private final SharedJobScheduleEngine engine = new SharedJobScheduleEngine(2, 8);
+    
+    private final TriggerListener triggerListener = mock(TriggerListener.class);
+    
+    private final AtomicReference<String> misfiredThreadName = new AtomicReference<>();
+    
+    @Before
+    public void setUp() {
+        doAnswer(new Answer<Void>() {
+            
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                misfiredThreadName.set(Thread.currentThread().getName());
+                return null;
+            }
+        }).when(triggerListener).triggerMisfired(any(Trigger.class));
+    }
+    
+    @After
+    public void tearDown() {
+        engine.unscheduleJob("test_job");
+    }
+    
+    @Test
+    public void assertScheduleAndUnscheduleJob() {
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, new CountingJob(), triggerListener);
+        assertTrue(engine.checkExists("test_job"));
+        assertNotNull(engine.getNextFireTime("test_job"));
+        assertThat(engine.getTrigger("test_job").getCronExpression(), is(NEVER_FIRE_CRON));
+        engine.unscheduleJob("test_job");
+        assertFalse(engine.checkExists("test_job"));
+        assertNull(engine.getNextFireTime("test_job"));
+        assertNull(engine.getTrigger("test_job"));
+    }
+    
+    @Test
+    public void assertRescheduleJob() {
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, new CountingJob(), triggerListener);
+        engine.rescheduleJob("test_job", createTrigger("0 0 0 1 1 ? 2098"));
+        assertThat(engine.getTrigger("test_job").getCronExpression(), is("0 0 0 1 1 ? 2098"));
+        assertThat(engine.getNextFireTime("test_job"), is(createTrigger("0 0 0 1 1 ? 2098").getFireTimeAfter(null)));
+    }
+    
+    @Test
+    public void assertGetNextFireTimeWhenCronNotCompiled() {
+        engine.scheduleJob("test_job", createTrigger("0 0 12 L * ?"), true, new CountingJob(), triggerListener);
+        assertThat(engine.getNextFireTime("test_job"), is(createTrigger("0 0 12 L * ?").getFireTimeAfter(null)));
+    }
+    
+    @Test
+    public void assertFireByCron() throws InterruptedException {
+        CountingJob job = new CountingJob();
+        engine.scheduleJob("test_job", createTrigger("* * * * * ?"), true, job, triggerListener);
+        assertTrue(job.awaitExecuted(1, 3000L));
+    }
+    
+    @Test
+    public void assertTriggerJob() throws InterruptedException {
+        CountingJob job = new CountingJob();
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, job, triggerListener);
+        engine.triggerJob("test_job");
+        assertTrue(job.awaitExecuted(1, 3000L));
+    }
+    
+    @Test
+    public void assertTriggerJobWhileRunningIsCoalescedAfterCompleted() throws InterruptedException {
+        CountingJob job = new CountingJob(new CountDownLatch(1));
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, job, triggerListener);
+        engine.triggerJob("test_job");
+        assertTrue(job.awaitStarted(3000L));
+        engine.triggerJob("test_job");
+        engine.triggerJob("test_job");
+        assertThat(job.executedCount.get(), is(0));
+        job.release.countDown();
+        assertTrue(job.awaitExecuted(2, 3000L));
+        Thread.sleep(200L);
+        assertThat(job.executedCount.get(), is(2));
+    }
+    
+    @Test
+    public void assertFireWhileRunningWithMisfireDisabled() throws InterruptedException {
+        CountingJob job = new CountingJob(new CountDownLatch(1));
+        engine.scheduleJob("test_job", createTrigger("* * * * * ?"), false, job, triggerListener);
+        assertTrue(job.awaitStarted(3000L));
+        verify(triggerListener, timeout(3000L)).triggerMisfired(any(Trigger.class));
+        Thread.sleep(2200L);
+        verify(triggerListener).triggerMisfired(any(Trigger.class));
+        engine.unscheduleJob("test_job");
+        job.release.countDown();
+        assertTrue(job.awaitExecuted(1, 3000L));
+        Thread.sleep(200L);
+        assertThat(job.executedCount.get(), is(1));
+    }
+    
+    @Test
+    public void assertFireWhenWorkerQueueFullWithMisfireDisabled() throws InterruptedException {
+        SharedJobScheduleEngine singleWorkerEngine = new SharedJobScheduleEngine(1, 1);
+        CountingJob blockingJob = new CountingJob(new CountDownLatch(1));
+        CountingJob queuedJob = new CountingJob();
+        CountingJob rejectedJob = new CountingJob();
+        try {
+            singleWorkerEngine.scheduleJob("blocking_job", createTrigger(NEVER_FIRE_CRON), false, blockingJob, triggerListener);
+            singleWorkerEngine.scheduleJob("queued_job", createTrigger(NEVER_FIRE_CRON), false, queuedJob, triggerListener);
+            singleWorkerEngine.scheduleJob("rejected_job", createTrigger(NEVER_FIRE_CRON), false, rejectedJob, triggerListener);
+            singleWorkerEngine.triggerJob("blocking_job");
+            assertTrue(blockingJob.awaitStarted(3000L));
+            singleWorkerEngine.triggerJob("queued_job");
+            singleWorkerEngine.triggerJob("rejected_job");
+            verify(triggerListener, times(0)).triggerMisfired(any(Trigger.class));
+            blockingJob.release.countDown();
+            assertTrue(queuedJob.awaitExecuted(1, 3000L));
+            Thread.sleep(200L);
+            assertThat(rejectedJob.executedCount.get(), is(0));
+            verify(triggerListener, times(0)).triggerMisfired(any(Trigger.class));
+            singleWorkerEngine.triggerJob("rejected_job");
+            assertTrue(rejectedJob.awaitExecuted(1, 3000L));
+            verify(triggerListener).triggerMisfired(any(Trigger.class));
+            assertThat(misfiredThreadName.get(), startsWith("elastic-job-shared-worker-"));
+        } finally {
+            blockingJob.release.countDown();
+            singleWorkerEngine.unscheduleJob("blocking_job");
+            singleWorkerEngine.unscheduleJob("queued_job");
+            singleWorkerEngine.unscheduleJob("rejected_job");
+        }
+    }
+    
+    @Test
+    public void assertFireWhenWorkerQueueFullWithMisfireEnabled() throws InterruptedException {
+        SharedJobScheduleEngine singleWorkerEngine = new SharedJobScheduleEngine(1, 1);
+        CountingJob blockingJob = new CountingJob(new CountDownLatch(1));
+        CountingJob queuedJob = new CountingJob();
+        CountingJob rejectedJob = new CountingJob();
+        try {
+            singleWorkerEngine.scheduleJob("blocking_job", createTrigger(NEVER_FIRE_CRON), true, blockingJob, triggerListener);
+            singleWorkerEngine.scheduleJob("queued_job", createTrigger(NEVER_FIRE_CRON), true, queuedJob, triggerListener);
+            singleWorkerEngine.scheduleJob("rejected_job", createTrigger(NEVER_FIRE_CRON), true, rejectedJob, triggerListener);
+            singleWorkerEngine.triggerJob("blocking_job");
+            assertTrue(blockingJob.awaitStarted(3000L));
+            singleWorkerEngine.triggerJob("queued_job");
+            singleWorkerEngine.triggerJob("rejected_job");
+            blockingJob.release.countDown();
+            assertTrue(queuedJob.awaitExecuted(1, 3000L));
+            assertThat(rejectedJob.executedCount.get(), is(0));
+            singleWorkerEngine.triggerJob("rejected_job");
+            assertTrue(rejectedJob.awaitExecuted(2, 3000L));
+            verify(triggerListener, times(0)).triggerMisfired(any(Trigger.class));
+        } finally {
+            blockingJob.release.countDown();
+            singleWorkerEngine.unscheduleJob("blocking_job");
+            singleWorkerEngine.unscheduleJob("queued_job");
+            singleWorkerEngine.unscheduleJob("rejected_job");
+        }
+    }
+    
+    @Test
+    public void assertPauseAndResumeJob() throws InterruptedException {
+        CountingJob job = new CountingJob();
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, job, triggerListener);
+        engine.pauseJob("test_job");
+        engine.triggerJob("test_job");
+        Thread.sleep(200L);
+        assertThat(job.executedCount.get(), is(0));
+        engine.resumeJob("test_job");
+        assertTrue(job.awaitExecuted(1, 3000L));
+        verify(triggerListener, times(0)).triggerMisfired(any(Trigger.class));
+    }
+    
+    @Test
+    public void assertFireWhilePausedWithMisfireDisabled() throws InterruptedException {
+        CountingJob job = new CountingJob();
+        engine.scheduleJob("test_job", createTrigger("* * * * * ?"), false, job, triggerListener);
+        engine.pauseJob("test_job");
+        int executedCount = job.executedCount.get();
+        Thread.sleep(2200L);
+        assertThat(job.executedCount.get(), is(executedCount));
+        verify(triggerListener, times(0)).triggerMisfired(any(Trigger.class));
+    }
+    
+    @Test
+    public void assertTriggerJobAfterUnscheduled() throws InterruptedException {
+        CountingJob job = new CountingJob();
+        engine.scheduleJob("test_job", createTrigger(NEVER_FIRE_CRON), true, job, triggerListener);
+        engine.unscheduleJob("test_job");
+        engine.triggerJob("test_job");
+        Thread.sleep(200L);
+        assertThat(job.executedCount.get(), is(0));
+    }
+    
+    private CronTrigger createTrigger(final String cron) {
+        return TriggerBuilder.newTrigger().withIdentity("test_job").withSchedule(CronScheduleBuilder.cronSchedule(cron)).build();
+    }
+    
+    private static final class CountingJob implements Runnable {
+        
+        private final CountDownLatch release;
+        
+        private final CountDownLatch started = new CountDownLatch(1);
+        
+        private final AtomicInteger executedCount = new AtomicInteger();
+        
+        CountingJob() {
+            this(new CountDownLatch(0));
+        }
+        
+        CountingJob(final CountDownLatch release) {
+            this.release = release;
+        }
+        
+        @Override
+        public void run() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                executedCount.incrementAndGet();
+                notifyAll();
+            }
+        }
+        
+        boolean awaitStarted(final long timeoutMilliseconds) throws InterruptedException {
+            return started.await(timeoutMilliseconds, TimeUnit.MILLISECONDS);
+        }
+        
+        synchronized boolean awaitExecuted(final int count, final long timeoutMilliseconds) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMilliseconds;
+            while (executedCount.get() < count && System.currentTimeMillis() < deadline) {
+                wait(Math.max(1L, deadline - System.currentTimeMillis()));
+            }
+            return executedCount.get() >= count;
+        }
+    }
+}
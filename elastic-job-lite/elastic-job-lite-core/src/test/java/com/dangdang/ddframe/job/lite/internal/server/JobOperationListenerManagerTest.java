@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.server;
 
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibility;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.server.JobOperationListenerManager.ConnectionLostListener;
@@ -37,6 +38,8 @@ import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -111,6 +114,19 @@ public final class JobOperationListenerManagerTest {
         verify(jobScheduleController, times(0)).resumeJob();
     }
     
+    @Test
+    public void assertConnectionLostListenerUpdateJobEligibility() {
+        JobEligibility jobEligibility = new JobEligibility();
+        JobRegistry.getInstance().addJobEligibility("test_job", jobEligibility);
+        JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
+        jobOperationListenerManager.new ConnectionLostListener().stateChanged(null, ConnectionState.LOST);
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        when(serverService.isJobPausedManually()).thenReturn(false);
+        when(shardingService.isNeedSharding()).thenReturn(false);
+        jobOperationListenerManager.new ConnectionLostListener().stateChanged(null, ConnectionState.RECONNECTED);
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
     @Test
     public void assertConnectionLostListenerWhenConnectionStateIsOther() {
         JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
@@ -198,6 +214,18 @@ public final class JobOperationListenerManagerTest {
         verify(jobScheduleController, times(0)).resumeJob();
     }
     
+    @Test
+    public void assertJobPausedStatusJobListenerUpdateJobEligibility() {
+        JobEligibility jobEligibility = new JobEligibility();
+        JobRegistry.getInstance().addJobEligibility("test_job", jobEligibility);
+        jobOperationListenerManager.new JobPausedStatusJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/servers/" + ip + "/paused", null, "".getBytes())), "/test_job/servers/" + ip + "/paused");
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        jobOperationListenerManager.new JobPausedStatusJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_REMOVED, new ChildData("/test_job/servers/" + ip + "/paused", null, "".getBytes())), "/test_job/servers/" + ip + "/paused");
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
     @Test
     public void assertJobPausedStatusJobListenerWhenIsJobPausedPathAndRemove() {
         JobRegistry.getInstance().addJobScheduleController("test_job", jobScheduleController);
@@ -56,6 +56,11 @@ public final class ServerNodeTest {
         assertThat(ServerNode.getPausedNode("host0"), is("servers/host0/paused"));
     }
     
+    @Test
+    public void assertCapacityNode() {
+        assertThat(ServerNode.getCapacityNode("host0"), is("servers/host0/capacity"));
+    }
+    
     @Test
     public void assertShutdownNode() {
         assertThat(ServerNode.getShutdownNode("host0"), is("servers/host0/shutdown"));
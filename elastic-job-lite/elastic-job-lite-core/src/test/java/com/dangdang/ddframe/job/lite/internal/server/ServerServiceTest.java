@@ -17,6 +17,9 @@
 
 package com.dangdang.ddframe.job.lite.internal.server;
 
+import com.dangdang.ddframe.job.lite.api.strategy.ServerCapacity;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeBatch;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.junit.Before;
@@ -25,12 +28,17 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,6 +48,9 @@ public final class ServerServiceTest {
     @Mock
     private JobNodeStorage jobNodeStorage;
     
+    @Mock
+    private JobNodeBatch jobNodeBatch;
+    
     @Mock
     private LocalHostService localHostService;
     
@@ -48,6 +59,7 @@ public final class ServerServiceTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
+        when(jobNodeStorage.createBatch()).thenReturn(jobNodeBatch);
         ReflectionUtils.setFieldValue(serverService, "jobNodeStorage", jobNodeStorage);
         ReflectionUtils.setFieldValue(serverService, "localHostService", localHostService);
         when(localHostService.getIp()).thenReturn("mockedIP");
@@ -57,29 +69,70 @@ public final class ServerServiceTest {
     @Test
     public void assertClearPreviousServerStatus() {
         serverService.clearPreviousServerStatus();
-        verify(jobNodeStorage).removeJobNodeIfExisted(ServerNode.getStatusNode("mockedIP"));
-        verify(jobNodeStorage).removeJobNodeIfExisted(ServerNode.getShutdownNode("mockedIP"));
+        verify(jobNodeBatch).removeJobNodeIfExisted(ServerNode.getStatusNode("mockedIP"));
+        verify(jobNodeBatch).removeJobNodeIfExisted(ServerNode.getShutdownNode("mockedIP"));
     }
     
     @Test
     public void assertPersistServerOnlineForDisabledServerWithLeaderElecting() {
         serverService.persistServerOnline(false);
-        verify(jobNodeStorage).fillJobNode("servers/mockedIP/hostName", "mockedHostName");
-        verify(localHostService, times(4)).getIp();
+        verify(jobNodeBatch).fillJobNode("servers/mockedIP/hostName", "mockedHostName");
+        verify(localHostService, times(5)).getIp();
         verify(localHostService).getHostName();
-        verify(jobNodeStorage).fillJobNode("servers/mockedIP/disabled", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("servers/mockedIP/status", ServerStatus.READY);
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/mockedIP/shutdown");
+        verify(jobNodeBatch).fillJobNode("servers/mockedIP/disabled", "");
+        verify(jobNodeBatch).fillEphemeralJobNode("servers/mockedIP/status", ServerStatus.READY);
+        verify(jobNodeBatch).removeJobNodeIfExisted("servers/mockedIP/shutdown");
+        verify(jobNodeBatch).replaceJobNode(eq("servers/mockedIP/capacity"), startsWith("{\"availableProcessors\":"));
     }
     
     @Test
     public void assertPersistServerOnlineForEnabledServer() {
         serverService.persistServerOnline(true);
-        verify(jobNodeStorage).fillJobNode("servers/mockedIP/hostName", "mockedHostName");
-        verify(localHostService, times(4)).getIp();
+        verify(jobNodeBatch).fillJobNode("servers/mockedIP/hostName", "mockedHostName");
+        verify(localHostService, times(5)).getIp();
         verify(localHostService).getHostName();
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/mockedIP/disabled");
-        verify(jobNodeStorage).fillEphemeralJobNode("servers/mockedIP/status", ServerStatus.READY);
+        verify(jobNodeBatch).removeJobNodeIfExisted("servers/mockedIP/disabled");
+        verify(jobNodeBatch).fillEphemeralJobNode("servers/mockedIP/status", ServerStatus.READY);
+        verify(jobNodeBatch).replaceJobNode(eq("servers/mockedIP/capacity"), startsWith("{\"availableProcessors\":"));
+    }
+    
+    @Test
+    public void assertPersistServerCapacityIfChangedWhenNeverPublished() {
+        serverService.persistServerCapacityIfChanged();
+        verify(jobNodeStorage).replaceJobNodeAsync(eq("servers/mockedIP/capacity"), startsWith("{\"availableProcessors\":" + Runtime.getRuntime().availableProcessors()));
+    }
+    
+    @Test
+    public void assertPersistServerCapacityIfChangedWhenNotSignificantlyChanged() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(serverService, "publishedServerCapacity", 
+                new ServerCapacity(Runtime.getRuntime().availableProcessors(), ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage(), JobRegistry.getInstance().getRunningItemCount()));
+        serverService.persistServerCapacityIfChanged();
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync(eq("servers/mockedIP/capacity"), anyString());
+    }
+    
+    @Test
+    public void assertPersistServerCapacityIfChangedWhenActiveItemCountChanged() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(serverService, "publishedServerCapacity", 
+                new ServerCapacity(Runtime.getRuntime().availableProcessors(), ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage(), JobRegistry.getInstance().getRunningItemCount() + 1000));
+        serverService.persistServerCapacityIfChanged();
+        verify(jobNodeStorage).replaceJobNodeAsync(eq("servers/mockedIP/capacity"), startsWith("{\"availableProcessors\":" + Runtime.getRuntime().availableProcessors()));
+    }
+    
+    @Test
+    public void assertPersistServerCapacityIfChangedAfterServerOnline() {
+        serverService.persistServerOnline(true);
+        serverService.persistServerCapacityIfChanged();
+        verify(jobNodeStorage, times(0)).replaceJobNodeAsync(eq("servers/mockedIP/capacity"), anyString());
+    }
+    
+    @Test
+    public void assertGetServerCapacities() {
+        when(jobNodeStorage.getJobNodeData("servers/host0/capacity")).thenReturn("{\"availableProcessors\":8,\"systemLoadAverage\":1.5,\"activeItemCount\":2}");
+        Map<String, ServerCapacity> actual = serverService.getServerCapacities(Arrays.asList("host0", "host1"));
+        assertThat(actual.size(), is(1));
+        assertThat(actual.get("host0").getAvailableProcessors(), is(8));
+        assertThat(actual.get("host0").getSystemLoadAverage(), is(1.5));
+        assertThat(actual.get("host0").getActiveItemCount(), is(2));
     }
     
     @Test
@@ -110,7 +163,7 @@ public final class ServerServiceTest {
     @Test
     public void assertUpdateServerStatus() {
         serverService.updateServerStatus(ServerStatus.RUNNING);
-        verify(jobNodeStorage).updateJobNode("servers/mockedIP/status", ServerStatus.RUNNING);
+        verify(jobNodeStorage).updateJobNodeAsync("servers/mockedIP/status", ServerStatus.RUNNING);
     }
     
     @Test
@@ -151,6 +204,39 @@ public final class ServerServiceTest {
         verify(jobNodeStorage).isJobNodeExisted("servers/host4/disabled");
     }
     
+    @Test
+    public void assertHasAvailableShardingServerWhenConfirmedFromCache() {
+        when(jobNodeStorage.getJobNodeChildrenKeys("servers")).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.isJobNodeExistedInCache("servers/host0/status")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("servers/host0/status")).thenReturn(true);
+        assertTrue(serverService.hasAvailableShardingServer());
+        verify(jobNodeStorage).isJobNodeExisted("servers/host0/status");
+        verify(jobNodeStorage, times(0)).isJobNodeExistedInCache("servers/host1/status");
+        verify(jobNodeStorage, times(0)).isJobNodeExisted("servers/host1/status");
+    }
+    
+    @Test
+    public void assertHasAvailableShardingServerWhenCacheIsStale() {
+        when(jobNodeStorage.getJobNodeChildrenKeys("servers")).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.isJobNodeExistedInCache("servers/host0/status")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("servers/host0/status")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExistedInCache("servers/host1/status")).thenReturn(false);
+        when(jobNodeStorage.isJobNodeExisted("servers/host1/status")).thenReturn(true);
+        assertTrue(serverService.hasAvailableShardingServer());
+        verify(jobNodeStorage, times(2)).isJobNodeExisted("servers/host0/status");
+        verify(jobNodeStorage).isJobNodeExisted("servers/host1/status");
+    }
+    
+    @Test
+    public void assertHasNoAvailableShardingServer() {
+        when(jobNodeStorage.getJobNodeChildrenKeys("servers")).thenReturn(Arrays.asList("host0", "host1"));
+        when(jobNodeStorage.isJobNodeExistedInCache("servers/host0/status")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("servers/host0/status")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("servers/host0/shutdown")).thenReturn(true);
+        assertFalse(serverService.hasAvailableShardingServer());
+        verify(jobNodeStorage).isJobNodeExisted("servers/host1/status");
+    }
+    
     @Test
     public void assertGetAvailableServers() {
         when(jobNodeStorage.getJobNodeChildrenKeys("servers")).thenReturn(Arrays.asList("host0", "host2", "host1", "host3", "host4"));
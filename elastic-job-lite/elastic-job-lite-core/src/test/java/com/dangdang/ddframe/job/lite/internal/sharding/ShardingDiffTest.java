@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.sharding;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ShardingDiffTest {
+    
+    @Test
+    public void assertIsUnchanged() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)), 
+                createShardingItems("host0", Arrays.asList(1, 0), "host1", Arrays.asList(2, 3)));
+        assertTrue(actual.isUnchanged("host0"));
+        assertFalse(actual.isUnchanged("host1"));
+        assertTrue(actual.isUnchanged("host2"));
+    }
+    
+    @Test
+    public void assertIsUnchangedWhenServerAddedOrRemoved() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)), 
+                createShardingItems("host0", Arrays.asList(0, 1), "host2", Collections.singletonList(2)));
+        assertFalse(actual.isUnchanged("host1"));
+        assertFalse(actual.isUnchanged("host2"));
+    }
+    
+    @Test
+    public void assertGetUnchangedServers() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)), 
+                createShardingItems("host0", Arrays.asList(1, 0), "host1", Arrays.asList(2, 3)));
+        assertThat(actual.getUnchangedServers(), is((Object) Collections.singletonList("host0")));
+    }
+    
+    @Test
+    public void assertGetUnchangedServersWhenPreviousShardingItemsIncomplete() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(3)), 
+                createShardingItems("host0", Arrays.asList(0, 1), "host1", Arrays.asList(2, 3)));
+        assertTrue(actual.getUnchangedServers().isEmpty());
+    }
+    
+    @Test
+    public void assertGetChangedShardingItems() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(3, 4, 5)), 
+                createShardingItems("host0", Arrays.asList(0, 1, 2), "host2", Arrays.asList(3, 4, 5)));
+        assertThat(actual.getCreatedShardingItems(), is(createShardingItems("host2", Arrays.asList(3, 4, 5))));
+        assertTrue(actual.getUpdatedShardingItems().isEmpty());
+        assertThat(actual.getRemovedServers(), is((Object) Collections.singletonList("host1")));
+        assertThat(new HashSet<>(actual.getMovedItems()), is(new HashSet<>(Arrays.asList(3, 4, 5))));
+    }
+    
+    @Test
+    public void assertGetUpdatedShardingItemsAndMovedItems() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1, 2, 3), "host1", Arrays.asList(4, 5)), 
+                createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(3, 4, 5)));
+        assertTrue(actual.getCreatedShardingItems().isEmpty());
+        assertThat(actual.getUpdatedShardingItems(), is(createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(3, 4, 5))));
+        assertTrue(actual.getRemovedServers().isEmpty());
+        assertThat(new HashSet<>(actual.getMovedItems()), is(Collections.singleton(3)));
+    }
+    
+    @Test
+    public void assertGetMovedItemsWhenUnchanged() {
+        Map<String, List<Integer>> shardingItems = createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2));
+        ShardingDiff actual = new ShardingDiff(shardingItems, createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)));
+        assertTrue(actual.getCreatedShardingItems().isEmpty());
+        assertTrue(actual.getUpdatedShardingItems().isEmpty());
+        assertTrue(actual.getRemovedServers().isEmpty());
+        assertTrue(actual.getMovedItems().isEmpty());
+    }
+    
+    @Test
+    public void assertGetItemsToWaitWhenPreviousShardingItemsComplete() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1, 2, 3), "host1", Arrays.asList(4, 5)), 
+                createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(3, 4, 5)));
+        assertThat(new HashSet<>(actual.getItemsToWait(6)), is(Collections.singleton(3)));
+    }
+    
+    @Test
+    public void assertGetItemsToWaitWhenPreviousShardingItemsMissing() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(4, 5)), 
+                createShardingItems("host0", Arrays.asList(0, 1, 2), "host1", Arrays.asList(3, 4, 5)));
+        assertThat(new HashSet<>(actual.getItemsToWait(6)), is(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5))));
+    }
+    
+    @Test
+    public void assertGetItemsToWaitWhenPreviousShardingItemsDuplicated() {
+        ShardingDiff actual = new ShardingDiff(createShardingItems("host0", Arrays.asList(0, 1), "host1", Arrays.asList(1, 2)), 
+                createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)));
+        assertThat(new HashSet<>(actual.getItemsToWait(3)), is(new HashSet<>(Arrays.asList(0, 1, 2))));
+    }
+    
+    @Test
+    public void assertGetItemsToWaitWhenNoPreviousShardingItems() {
+        ShardingDiff actual = new ShardingDiff(Collections.<String, List<Integer>>emptyMap(), createShardingItems("host0", Arrays.asList(0, 1), "host1", Collections.singletonList(2)));
+        assertThat(new HashSet<>(actual.getItemsToWait(3)), is(new HashSet<>(Arrays.asList(0, 1, 2))));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, List<Integer>> createShardingItems(final Object... serverAndItems) {
+        Map<String, List<Integer>> result = new HashMap<>(serverAndItems.length / 2, 1);
+        for (int i = 0; i < serverAndItems.length; i += 2) {
+            result.put((String) serverAndItems[i], (List<Integer>) serverAndItems[i + 1]);
+        }
+        return result;
+    }
+}
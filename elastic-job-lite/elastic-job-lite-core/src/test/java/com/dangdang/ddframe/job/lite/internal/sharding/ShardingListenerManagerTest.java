@@ -20,6 +20,8 @@ package com.dangdang.ddframe.job.lite.internal.sharding;
 import com.dangdang.ddframe.job.lite.fixture.LiteJsonConstants;
 import com.dangdang.ddframe.job.lite.internal.execution.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobEligibility;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.util.env.LocalHostService;
 import org.apache.curator.framework.recipes.cache.ChildData;
@@ -32,7 +34,9 @@ import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -62,7 +66,28 @@ public final class ShardingListenerManagerTest {
     @Test
     public void assertStart() {
         shardingListenerManager.start();
-        verify(jobNodeStorage, times(2)).addDataListener(Matchers.<AbstractJobListener>any());
+        verify(jobNodeStorage, times(3)).addDataListener(Matchers.<AbstractJobListener>any());
+    }
+    
+    @Test
+    public void assertShardingNecessaryChangedJobListenerWhenIsNotShardingNecessaryPath() {
+        JobEligibility jobEligibility = new JobEligibility();
+        JobRegistry.getInstance().addJobEligibility("test_job", jobEligibility);
+        shardingListenerManager.new ShardingNecessaryChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/sharding/processing", null, "".getBytes())), "/test_job/leader/sharding/processing");
+        assertTrue(jobEligibility.isEligibleForJobRunning());
+    }
+    
+    @Test
+    public void assertShardingNecessaryChangedJobListenerWhenShardingNecessaryAddedAndRemoved() {
+        JobEligibility jobEligibility = new JobEligibility();
+        JobRegistry.getInstance().addJobEligibility("test_job", jobEligibility);
+        shardingListenerManager.new ShardingNecessaryChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_ADDED, new ChildData("/test_job/leader/sharding/necessary", null, "".getBytes())), "/test_job/leader/sharding/necessary");
+        assertFalse(jobEligibility.isEligibleForJobRunning());
+        shardingListenerManager.new ShardingNecessaryChangedJobListener().dataChanged(null, new TreeCacheEvent(
+                TreeCacheEvent.Type.NODE_REMOVED, new ChildData("/test_job/leader/sharding/necessary", null, "".getBytes())), "/test_job/leader/sharding/necessary");
+        assertTrue(jobEligibility.isEligibleForJobRunning());
     }
     
     @Test
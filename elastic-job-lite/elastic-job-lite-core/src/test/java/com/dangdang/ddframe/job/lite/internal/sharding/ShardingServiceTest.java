@@ -33,15 +33,19 @@ import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
 import org.apache.curator.framework.api.transaction.TransactionDeleteBuilder;
+import org.apache.curator.framework.api.transaction.TransactionSetDataBuilder;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -97,68 +101,186 @@ public final class ShardingServiceTest {
     
     @Test
     public void assertIsNeedSharding() {
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
         assertTrue(shardingService.isNeedSharding());
+        verify(jobNodeStorage).isJobNodeExistedInCache("leader/sharding/necessary");
         verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
     }
     
     @Test
     public void assertShardingWhenUnnecessary() {
-        when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
-        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(false);
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(false);
         shardingService.shardingIfNecessary();
-        verify(serverService).getAvailableShardingServers();
-        verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
+        verify(serverService).hasAvailableShardingServer();
+        verify(serverService, times(0)).getAvailableShardingServers();
+        verify(jobNodeStorage).isJobNodeExistedInCache("leader/sharding/necessary");
     }
     
     @Test
     public void assertShardingWithoutAvailableServers() {
         when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
-        when(serverService.getAvailableShardingServers()).thenReturn(Collections.<String>emptyList());
         shardingService.shardingIfNecessary();
-        verify(serverService).getAvailableShardingServers();
+        verify(serverService).hasAvailableShardingServer();
+        verify(serverService, times(0)).getAvailableShardingServers();
         verify(serverService).getAllServers();
         verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
         verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
         verify(jobNodeStorage, times(0)).isJobNodeExisted("leader/sharding/necessary");
     }
     
+    @Test
+    public void assertShardingWhenAvailableServersGoneBeforeLeaderSharding() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        shardingService.shardingIfNecessary();
+        verify(serverService).getAvailableShardingServers();
+        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
+        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(jobNodeStorage, times(0)).executeInTransaction(any(TransactionExecutionCallback.class));
+    }
+    
     @Test
     public void assertShardingWhenIsNotLeaderAndIsShardingProcessing() {
-        when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true, true, false, false);
         when(leaderElectionService.isLeader()).thenReturn(false);
         when(jobNodeStorage.isJobNodeExisted("leader/sharding/processing")).thenReturn(true, false);
         shardingService.shardingIfNecessary();
-        verify(serverService).getAvailableShardingServers();
+        verify(serverService).hasAvailableShardingServer();
+        verify(serverService, times(0)).getAvailableShardingServers();
+        verify(jobNodeStorage).isJobNodeExistedInCache("leader/sharding/necessary");
         verify(jobNodeStorage, times(4)).isJobNodeExisted("leader/sharding/necessary");
         verify(jobNodeStorage, times(2)).isJobNodeExisted("leader/sharding/processing");
+        verify(jobNodeStorage, times(2)).waitUntilJobNodeRemoved("leader/sharding/necessary", 1000L);
+    }
+    
+    @Test
+    public void assertShardingWhenIsNotLeaderAndLocalHostShardingUnchanged() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(false);
+        when(jobNodeStorage.getJobNodeDataDirectly("leader/sharding/unchanged")).thenReturn(null, "ip1,mockedIP");
+        shardingService.shardingIfNecessary();
+        verify(jobNodeStorage, times(2)).getJobNodeDataDirectly("leader/sharding/unchanged");
+        verify(jobNodeStorage).waitUntilJobNodeRemoved("leader/sharding/necessary", 1000L);
+    }
+    
+    @Test
+    public void assertShardingNecessaryWhenSomeServersUnchanged() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(serverService.getAvailableShardingServers()).thenReturn(Arrays.asList("ip1", "ip2", "ip3"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2", "ip3"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip1/sharding")).thenReturn("0");
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip2/sharding")).thenReturn("1,2");
+        shardingService.shardingIfNecessary();
+        verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/unchanged", "ip1");
+        verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
     }
     
     @Test
     public void assertShardingNecessaryWhenMonitorExecutionEnabled() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
-        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
-        when(executionService.hasRunningItems()).thenReturn(true, false);
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2", "mockedIP"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip1/sharding")).thenReturn("0,1");
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip2/sharding")).thenReturn("2");
+        Collection<Integer> movedItems = new HashSet<>(Arrays.asList(0, 1, 2));
+        when(executionService.hasRunningItems(movedItems)).thenReturn(true, false);
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
+        verify(jobNodeStorage).isJobNodeExistedInCache("leader/sharding/necessary");
         verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
         verify(leaderElectionService).isLeader();
         verify(configService).load(false);
-        verify(executionService, times(2)).hasRunningItems();
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(executionService, times(2)).hasRunningItems(movedItems);
+        verify(executionService).waitUntilRunningItemsCompleted(movedItems, 1000L);
+        verify(jobNodeStorage, times(0)).removeJobNodeIfExisted("servers/ip1/sharding");
+        verify(jobNodeStorage, times(0)).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/unchanged", "");
         verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/processing", "");
         verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
     }
     
+    @Test
+    public void assertShardingNecessaryWhenMonitorExecutionEnabledAndOnlyMovedItemsRunning() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(serverService.getAvailableShardingServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip1/sharding")).thenReturn("0,1,2");
+        when(executionService.hasRunningItems(Collections.singleton(1))).thenReturn(true, false);
+        shardingService.shardingIfNecessary();
+        verify(executionService, times(2)).hasRunningItems(Collections.singleton(1));
+        verify(executionService).waitUntilRunningItemsCompleted(Collections.singleton(1), 1000L);
+        verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/processing", "");
+        verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
+    }
+    
+    @Test
+    public void assertShardingNecessaryWhenMonitorExecutionEnabledAndPreviousShardingIncomplete() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(serverService.getAvailableShardingServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip1/sharding")).thenReturn("0,2");
+        Collection<Integer> allItems = new HashSet<>(Arrays.asList(0, 1, 2));
+        when(executionService.hasRunningItems(allItems)).thenReturn(true, false);
+        shardingService.shardingIfNecessary();
+        verify(executionService, times(2)).hasRunningItems(allItems);
+        verify(executionService).waitUntilRunningItemsCompleted(allItems, 1000L);
+        verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
+    }
+    
+    @Test
+    public void assertShardingNecessaryWhenMonitorExecutionEnabledAndPreviousShardingUnreadable() {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
+        when(serverService.getAvailableShardingServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
+        when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
+        when(leaderElectionService.isLeader()).thenReturn(true);
+        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 4).build(),
+                TestSimpleJob.class.getCanonicalName())).monitorExecution(true).jobShardingStrategyClass(AverageAllocationJobShardingStrategy.class.getCanonicalName()).build());
+        when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
+        when(jobNodeStorage.getJobNodeDataDirectly("servers/ip1/sharding")).thenReturn("0,1");
+        when(jobNodeStorage.isJobNodeExistedInCache("servers/ip2/sharding")).thenReturn(true);
+        Collection<Integer> allItems = new HashSet<>(Arrays.asList(0, 1, 2, 3));
+        when(executionService.hasRunningItems(allItems)).thenReturn(true, false);
+        shardingService.shardingIfNecessary();
+        verify(executionService, times(2)).hasRunningItems(allItems);
+        verify(executionService).waitUntilRunningItemsCompleted(allItems, 1000L);
+        verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
+    }
+    
     @Test
     public void assertShardingNecessaryWhenMonitorExecutionDisabled() throws Exception {
+        when(serverService.hasAvailableShardingServer()).thenReturn(true);
         when(serverService.getAvailableShardingServers()).thenReturn(Collections.singletonList("mockedIP"));
+        when(jobNodeStorage.isJobNodeExistedInCache("leader/sharding/necessary")).thenReturn(true);
         when(jobNodeStorage.isJobNodeExisted("leader/sharding/necessary")).thenReturn(true);
         when(leaderElectionService.isLeader()).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
@@ -166,12 +288,16 @@ public final class ShardingServiceTest {
         when(serverService.getAllServers()).thenReturn(Arrays.asList("ip1", "ip2"));
         shardingService.shardingIfNecessary();
         verify(serverService).getAvailableShardingServers();
+        verify(jobNodeStorage).isJobNodeExistedInCache("leader/sharding/necessary");
         verify(jobNodeStorage).isJobNodeExisted("leader/sharding/necessary");
         verify(leaderElectionService).isLeader();
         verify(configService).load(false);
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip1/sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("servers/ip2/sharding");
+        verify(jobNodeStorage).getJobNodeDataDirectly("servers/ip1/sharding");
+        verify(jobNodeStorage).getJobNodeDataDirectly("servers/ip2/sharding");
+        verify(executionService, times(0)).hasRunningItems(Matchers.<Collection<Integer>>any());
         verify(jobNodeStorage).fillEphemeralJobNode("leader/sharding/processing", "");
+        verify(serverService).getServerCapacities(Collections.singletonList("mockedIP"));
+        verify(executionService).getItemAverageDurations(3);
         verify(jobNodeStorage).executeInTransaction(any(TransactionExecutionCallback.class));
     }
     
@@ -197,24 +323,38 @@ public final class ShardingServiceTest {
         TransactionCreateBuilder transactionCreateBuilder = mock(TransactionCreateBuilder.class);
         TransactionDeleteBuilder transactionDeleteBuilder = mock(TransactionDeleteBuilder.class);
         CuratorTransactionBridge curatorTransactionBridge = mock(CuratorTransactionBridge.class);
+        TransactionSetDataBuilder transactionSetDataBuilder = mock(TransactionSetDataBuilder.class);
         when(curatorTransactionFinal.create()).thenReturn(transactionCreateBuilder);
         when(transactionCreateBuilder.forPath("/test_job/servers/host0/sharding", "0,1,2".getBytes())).thenReturn(curatorTransactionBridge);
-        when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
+        when(curatorTransactionFinal.setData()).thenReturn(transactionSetDataBuilder);
+        when(transactionSetDataBuilder.forPath("/test_job/servers/host1/sharding", "3".getBytes())).thenReturn(curatorTransactionBridge);
         when(curatorTransactionFinal.delete()).thenReturn(transactionDeleteBuilder);
+        when(transactionDeleteBuilder.forPath("/test_job/servers/host3/sharding")).thenReturn(curatorTransactionBridge);
         when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/necessary")).thenReturn(curatorTransactionBridge);
-        when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
-        when(curatorTransactionFinal.delete()).thenReturn(transactionDeleteBuilder);
+        when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/unchanged")).thenReturn(curatorTransactionBridge);
         when(transactionDeleteBuilder.forPath("/test_job/leader/sharding/processing")).thenReturn(curatorTransactionBridge);
         when(curatorTransactionBridge.and()).thenReturn(curatorTransactionFinal);
-        Map<String, List<Integer>> shardingItems = new HashMap<>(1);
-        shardingItems.put("host0", Arrays.asList(0, 1, 2));
-        ShardingService.PersistShardingInfoTransactionExecutionCallback actual = shardingService.new PersistShardingInfoTransactionExecutionCallback(shardingItems);
+        Map<String, List<Integer>> previousShardingItems = new HashMap<>(3, 1);
+        previousShardingItems.put("host1", Arrays.asList(3, 4));
+        previousShardingItems.put("host2", Collections.singletonList(5));
+        previousShardingItems.put("host3", Collections.singletonList(6));
+        Map<String, List<Integer>> currentShardingItems = new HashMap<>(3, 1);
+        currentShardingItems.put("host0", Arrays.asList(0, 1, 2));
+        currentShardingItems.put("host1", Collections.singletonList(3));
+        currentShardingItems.put("host2", Collections.singletonList(5));
+        ShardingService.PersistShardingInfoTransactionExecutionCallback actual = shardingService.new PersistShardingInfoTransactionExecutionCallback(
+                new ShardingDiff(previousShardingItems, currentShardingItems));
         actual.execute(curatorTransactionFinal);
         verify(curatorTransactionFinal).create();
         verify(transactionCreateBuilder).forPath("/test_job/servers/host0/sharding", "0,1,2".getBytes());
-        verify(curatorTransactionFinal, times(2)).delete();
+        verify(curatorTransactionFinal).setData();
+        verify(transactionSetDataBuilder).forPath("/test_job/servers/host1/sharding", "3".getBytes());
+        verify(curatorTransactionFinal, times(4)).delete();
+        verify(transactionDeleteBuilder).forPath("/test_job/servers/host3/sharding");
+        verify(transactionDeleteBuilder, times(0)).forPath("/test_job/servers/host2/sharding");
         verify(transactionDeleteBuilder).forPath("/test_job/leader/sharding/necessary");
+        verify(transactionDeleteBuilder).forPath("/test_job/leader/sharding/unchanged");
         verify(transactionDeleteBuilder).forPath("/test_job/leader/sharding/processing");
-        verify(curatorTransactionBridge, times(3)).and();
+        verify(curatorTransactionBridge, times(6)).and();
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.storage;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryBatch;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class JobNodeBatchTest {
+    
+    @Mock
+    private CoordinatorRegistryCenter regCenter;
+    
+    @Mock
+    private RegistryBatch registryBatch;
+    
+    private JobNodeBatch jobNodeBatch;
+    
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        when(regCenter.createBatch()).thenReturn(registryBatch);
+        jobNodeBatch = new JobNodeBatch(regCenter, "test_job");
+    }
+    
+    @Test
+    public void assertCreateJobNodeIfNeeded() {
+        when(regCenter.isExisted("/test_job")).thenReturn(true);
+        jobNodeBatch.createJobNodeIfNeeded("execution/0/completed");
+        jobNodeBatch.createJobNodeIfNeeded("execution/1/completed");
+        verify(regCenter).isExisted("/test_job");
+        verify(regCenter, times(0)).isExisted("/test_job/execution/0/completed");
+        verify(registryBatch).create("/test_job/execution/0/completed", "");
+        verify(registryBatch).create("/test_job/execution/1/completed", "");
+    }
+    
+    @Test
+    public void assertCreateJobNodeIfRootJobNodeIsNotExist() {
+        when(regCenter.isExisted("/test_job")).thenReturn(false);
+        jobNodeBatch.createJobNodeIfNeeded("execution/0/completed");
+        verify(regCenter, times(0)).isExisted("/test_job/execution/0/completed");
+        verify(registryBatch, times(0)).create(anyString(), anyString());
+    }
+    
+    @Test
+    public void assertCommit() {
+        jobNodeBatch.fillJobNode("config/cron", "0/1 * * * * ?");
+        jobNodeBatch.fillEphemeralJobNode("execution/0/running", "");
+        jobNodeBatch.updateJobNode("servers/host0/status", "RUNNING");
+        jobNodeBatch.replaceJobNode("execution/0/lastBeginTime", 0L);
+        jobNodeBatch.removeJobNodeIfExisted("execution/0/completed");
+        jobNodeBatch.commit();
+        verify(registryBatch).persist("/test_job/config/cron", "0/1 * * * * ?");
+        verify(registryBatch).persistEphemeral("/test_job/execution/0/running", "");
+        verify(registryBatch).update("/test_job/servers/host0/status", "RUNNING");
+        verify(registryBatch).persist("/test_job/execution/0/lastBeginTime", "0");
+        verify(registryBatch).remove("/test_job/execution/0/completed");
+        verify(registryBatch).commit();
+    }
+}
@@ -17,7 +17,10 @@
 
 package com.dangdang.ddframe.job.lite.internal.storage;
 
+import com.dangdang.ddframe.job.reg.base.AsyncCoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
+import com.google.common.util.concurrent.Futures;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
@@ -27,6 +30,7 @@ import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
 import org.apache.curator.framework.listen.Listenable;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.curator.framework.recipes.leader.LeaderLatch;
 import org.apache.curator.framework.state.ConnectionStateListener;
 import org.junit.Before;
 import org.junit.Test;
@@ -37,6 +41,7 @@ import org.unitils.util.ReflectionUtils;
 import java.util.Arrays;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -64,6 +69,27 @@ public final class JobNodeStorageTest {
         verify(regCenter).isExisted("/test_job/config");
     }
     
+    @Test
+    public void assertWaitUntilJobNodeExisted() {
+        when(regCenter.waitUntilExisted("/test_job/leader/election/host", 100L)).thenReturn(true);
+        assertTrue(jobNodeStorage.waitUntilJobNodeExisted("leader/election/host", 100L));
+        verify(regCenter).waitUntilExisted("/test_job/leader/election/host", 100L);
+    }
+    
+    @Test
+    public void assertWaitUntilJobNodeRemoved() {
+        when(regCenter.waitUntilRemoved("/test_job/leader/execution/cleaning", 1000L)).thenReturn(false);
+        assertFalse(jobNodeStorage.waitUntilJobNodeRemoved("leader/execution/cleaning", 1000L));
+        verify(regCenter).waitUntilRemoved("/test_job/leader/execution/cleaning", 1000L);
+    }
+    
+    @Test
+    public void assertIsJobNodeExistedInCache() {
+        when(regCenter.isExistedInCache("/test_job/config")).thenReturn(true);
+        assertTrue(jobNodeStorage.isJobNodeExistedInCache("config"));
+        verify(regCenter).isExistedInCache("/test_job/config");
+    }
+    
     @Test
     public void assertGetJobNodeData() {
         when(regCenter.get("/test_job/config/cron")).thenReturn("0/1 * * * * ?");
@@ -85,6 +111,13 @@ public final class JobNodeStorageTest {
         verify(regCenter).getChildrenKeys("/test_job/servers");
     }
     
+    @Test
+    public void assertGetJobNodeChildrenKeysInCache() {
+        when(regCenter.getChildrenKeysInCache("/test_job/servers")).thenReturn(Arrays.asList("host0", "host1"));
+        assertThat(jobNodeStorage.getJobNodeChildrenKeysInCache("servers"), is(Arrays.asList("host0", "host1")));
+        verify(regCenter).getChildrenKeysInCache("/test_job/servers");
+    }
+    
     @Test
     public void assertCreateJobNodeIfNeeded() {
         when(regCenter.isExisted("/test_job")).thenReturn(true);
@@ -155,6 +188,24 @@ public final class JobNodeStorageTest {
         verify(regCenter).persist("/test_job/config/cron", "0/1 * * * * ?");
     }
     
+    @Test
+    public void assertUpdateJobNodeAsync() {
+        AsyncCoordinatorRegistryCenter asyncRegCenter = mock(AsyncCoordinatorRegistryCenter.class);
+        when(regCenter.getAsyncRegistryCenter()).thenReturn(asyncRegCenter);
+        when(asyncRegCenter.update("/test_job/servers/host0/status", "RUNNING")).thenReturn(Futures.<Void>immediateFuture(null));
+        jobNodeStorage.updateJobNodeAsync("servers/host0/status", "RUNNING");
+        verify(asyncRegCenter).update("/test_job/servers/host0/status", "RUNNING");
+    }
+    
+    @Test
+    public void assertReplaceJobNodeAsync() {
+        AsyncCoordinatorRegistryCenter asyncRegCenter = mock(AsyncCoordinatorRegistryCenter.class);
+        when(regCenter.getAsyncRegistryCenter()).thenReturn(asyncRegCenter);
+        when(asyncRegCenter.persist("/test_job/execution/0/lastCompleteTime", "0")).thenReturn(Futures.<Void>immediateFailedFuture(new RuntimeException()));
+        jobNodeStorage.replaceJobNodeAsync("execution/0/lastCompleteTime", 0L);
+        verify(asyncRegCenter).persist("/test_job/execution/0/lastCompleteTime", "0");
+    }
+    
     @Test
     public void assertExecuteInTransactionSuccess() throws Exception {
         CuratorFramework client = mock(CuratorFramework.class);
@@ -251,4 +302,19 @@ public final class JobNodeStorageTest {
         assertThat(jobNodeStorage.getRegistryCenterTime(), is(0L));
         verify(regCenter).getRegistryCenterTime("/test_job/systemTime/current");
     }
+    
+    @Test
+    public void assertGetRegistryCenterClock() {
+        RegistryCenterClock registryCenterClock = mock(RegistryCenterClock.class);
+        when(regCenter.getRegistryCenterClock()).thenReturn(registryCenterClock);
+        assertThat(jobNodeStorage.getRegistryCenterClock(), is(registryCenterClock));
+    }
+    
+    @Test
+    public void assertCreateLeaderLatch() {
+        CuratorFramework client = mock(CuratorFramework.class);
+        when(regCenter.getRawClient()).thenReturn(client);
+        assertThat(jobNodeStorage.createLeaderLatch("leader/election/latch").getState(), is(LeaderLatch.State.LATENT));
+        verify(regCenter).getRawClient();
+    }
 }
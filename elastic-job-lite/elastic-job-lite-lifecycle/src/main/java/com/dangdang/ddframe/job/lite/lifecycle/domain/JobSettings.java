@@ -54,6 +54,10 @@ public final class JobSettings implements Serializable {
     
     private boolean streamingProcess;
     
+    private int prefetchDepth;
+    
+    private int processBatchSize;
+    
     private int maxTimeDiffSeconds;
     
     private int monitorPort = -1;
@@ -62,6 +66,10 @@ public final class JobSettings implements Serializable {
     
     private boolean misfire;
     
+    private long itemTimeoutMilliseconds;
+    
+    private long executionTimeoutMilliseconds;
+    
     private String jobShardingStrategyClass;
     
     private String description;
@@ -69,4 +77,8 @@ public final class JobSettings implements Serializable {
     private Map<String, String> jobProperties = new LinkedHashMap<>(JobPropertiesEnum.values().length, 1);
     
     private String scriptCommandLine;
+    
+    private int workerPoolSize;
+    
+    private int workerMaxRequests;
 }
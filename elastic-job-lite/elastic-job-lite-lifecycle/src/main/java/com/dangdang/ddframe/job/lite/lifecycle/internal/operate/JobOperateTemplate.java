@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.lite.lifecycle.internal.operate;
 
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
@@ -70,6 +71,9 @@ public final class JobOperateTemplate {
             List<String> jobNames = regCenter.getChildrenKeys("/");
             result = new ArrayList<>(jobNames.size());
             for (String each : jobNames) {
+                if (RegistryCenterClock.SAMPLE_NODE_NAME.equals(each)) {
+                    continue;
+                }
                 boolean isSuccess = callback.doOperate(each, serverIp.get());
                 if (!isSuccess) {
                     result.add(each);
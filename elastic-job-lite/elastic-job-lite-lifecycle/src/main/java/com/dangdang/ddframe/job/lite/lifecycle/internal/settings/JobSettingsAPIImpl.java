@@ -69,6 +69,8 @@ public final class JobSettingsAPIImpl implements JobSettingsAPI {
         result.setMonitorPort(liteJobConfig.getMonitorPort());
         result.setFailover(liteJobConfig.getTypeConfig().getCoreConfig().isFailover());
         result.setMisfire(liteJobConfig.getTypeConfig().getCoreConfig().isMisfire());
+        result.setItemTimeoutMilliseconds(liteJobConfig.getTypeConfig().getCoreConfig().getItemTimeoutMilliseconds());
+        result.setExecutionTimeoutMilliseconds(liteJobConfig.getTypeConfig().getCoreConfig().getExecutionTimeoutMilliseconds());
         result.setJobShardingStrategyClass(liteJobConfig.getJobShardingStrategyClass());
         result.setDescription(liteJobConfig.getTypeConfig().getCoreConfig().getDescription());
         result.getJobProperties().put(JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER.getKey(), 
@@ -78,10 +80,14 @@ public final class JobSettingsAPIImpl implements JobSettingsAPI {
     
     private void buildDataflowJobSettings(final JobSettings result, final DataflowJobConfiguration config) {
         result.setStreamingProcess(config.isStreamingProcess());
+        result.setPrefetchDepth(config.getPrefetchDepth());
+        result.setProcessBatchSize(config.getProcessBatchSize());
     }
     
     private void buildScriptJobSettings(final JobSettings result, final ScriptJobConfiguration config) {
         result.setScriptCommandLine(config.getScriptCommandLine());
+        result.setWorkerPoolSize(config.getWorkerPoolSize());
+        result.setWorkerMaxRequests(config.getWorkerMaxRequests());
     }
     
     @Override
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.lite.lifecycle.internal.operate;
 
 import com.dangdang.ddframe.job.lite.lifecycle.api.JobOperateAPI;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.RegistryCenterClock;
 import com.google.common.base.Optional;
 import org.hamcrest.core.Is;
 import org.junit.Before;
@@ -65,11 +66,12 @@ public final class JobOperateAPIImplTest {
     
     @Test
     public void assertTriggerWithServerIp() {
-        when(regCenter.getChildrenKeys("/")).thenReturn(Arrays.asList("test_job1", "test_job2"));
+        when(regCenter.getChildrenKeys("/")).thenReturn(Arrays.asList("test_job1", "test_job2", RegistryCenterClock.SAMPLE_NODE_NAME));
         jobOperateAPI.trigger(Optional.<String>absent(), Optional.of("localhost"));
         verify(regCenter).getChildrenKeys("/");
         verify(regCenter).persist("/test_job1/servers/localhost/trigger", "");
         verify(regCenter).persist("/test_job2/servers/localhost/trigger", "");
+        verify(regCenter, times(0)).persist("/" + RegistryCenterClock.SAMPLE_NODE_NAME + "/servers/localhost/trigger", "");
     }
     
     @Test
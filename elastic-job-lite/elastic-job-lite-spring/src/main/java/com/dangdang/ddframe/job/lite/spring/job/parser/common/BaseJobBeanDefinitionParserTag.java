@@ -50,6 +50,10 @@ public final class BaseJobBeanDefinitionParserTag {
     
     public static final String MISFIRE_ATTRIBUTE = "misfire";
     
+    public static final String ITEM_TIMEOUT_MILLISECONDS_ATTRIBUTE = "item-timeout-milliseconds";
+    
+    public static final String EXECUTION_TIMEOUT_MILLISECONDS_ATTRIBUTE = "execution-timeout-milliseconds";
+    
     public static final String JOB_SHARDING_STRATEGY_CLASS_ATTRIBUTE = "job-sharding-strategy-class";
     
     public static final String DESCRIPTION_ATTRIBUTE = "description";
@@ -58,6 +62,8 @@ public final class BaseJobBeanDefinitionParserTag {
     
     public static final String OVERWRITE_ATTRIBUTE = "overwrite";
     
+    public static final String SHARED_SCHEDULER_ATTRIBUTE = "shared-scheduler";
+    
     public static final String LISTENER_TAG = "listener";
     
     public static final String DISTRIBUTED_LISTENER_TAG = "distributed-listener";
@@ -29,4 +29,8 @@ import lombok.NoArgsConstructor;
 public final class DataflowJobBeanDefinitionParserTag {
     
     public static final String STREAMING_PROCESS_ATTRIBUTE = "streaming-process";
+    
+    public static final String PREFETCH_DEPTH_ATTRIBUTE = "prefetch-depth";
+    
+    public static final String PROCESS_BATCH_SIZE_ATTRIBUTE = "process-batch-size";
 }
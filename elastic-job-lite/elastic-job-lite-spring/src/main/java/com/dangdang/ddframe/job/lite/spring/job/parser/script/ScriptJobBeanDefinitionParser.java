@@ -35,6 +35,8 @@ public final class ScriptJobBeanDefinitionParser extends AbstractJobBeanDefiniti
         BeanDefinitionBuilder result = BeanDefinitionBuilder.rootBeanDefinition(ScriptJobConfiguration.class);
         result.addConstructorArgValue(jobCoreConfigurationBeanDefinition);
         result.addConstructorArgValue(element.getAttribute(ScriptJobBeanDefinitionParserTag.SCRIPT_COMMAND_LINE_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(ScriptJobBeanDefinitionParserTag.WORKER_POOL_SIZE_ATTRIBUTE));
+        result.addConstructorArgValue(element.getAttribute(ScriptJobBeanDefinitionParserTag.WORKER_MAX_REQUESTS_ATTRIBUTE));
         return result.getBeanDefinition();
     }
 }
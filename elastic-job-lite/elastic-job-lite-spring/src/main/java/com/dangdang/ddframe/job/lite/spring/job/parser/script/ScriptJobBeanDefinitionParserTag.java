@@ -29,4 +29,8 @@ import lombok.NoArgsConstructor;
 public final class ScriptJobBeanDefinitionParserTag {
     
     public static final String SCRIPT_COMMAND_LINE_ATTRIBUTE = "script-command-line";
+    
+    public static final String WORKER_POOL_SIZE_ATTRIBUTE = "worker-pool-size";
+    
+    public static final String WORKER_MAX_REQUESTS_ATTRIBUTE = "worker-max-requests";
 }